@@ -0,0 +1,116 @@
+package dev.coms4156.project.kebabcase.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import dev.coms4156.project.kebabcase.entity.HousingUnitEntity;
+import dev.coms4156.project.kebabcase.service.BuildingFragmentCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-request work of the controllers that does not touch the database: building
+ * and housing unit JSON assembly, serialization, and token generation. Run with
+ * {@code mvn test -Pjmh}.
+ *
+ * <p>The controllers are built without repositories, since these methods only use the object
+ * mapper. Housing units splice in a building fragment rendered once, as they do when it is
+ * cached; {@code buildingFragment} measures rendering it on a miss. Run with the GC profiler, the default, to see the bytes allocated per operation.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ControllerHotPathBenchmarks {
+
+  private ObjectMapper objectMapper;
+  private BuildingController buildingController;
+  private HousingUnitController housingUnitController;
+  private UserController userController;
+  private BuildingEntity building;
+  private HousingUnitEntity unit;
+  private BuildingFragmentCache buildingFragmentCache;
+  private List<String> buildingFeatures;
+  private RawValue buildingFragment;
+  private List<String> unitFeatures;
+
+  /**
+   * Creates the controllers and a building with one housing unit.
+   */
+  @Setup
+  public void setUp() {
+    this.objectMapper = new ObjectMapper();
+    this.buildingController = new BuildingController(null, null, null, null, null, null, null,
+        null, null, null, null, this.objectMapper);
+    this.housingUnitController = new HousingUnitController(null, null, null, null, null, null,
+        null, null, null, null, null, null, this.objectMapper);
+    this.buildingFragmentCache = new BuildingFragmentCache(null, null, this.objectMapper,
+        new SimpleMeterRegistry(), true, 1, Duration.ofMinutes(10));
+    this.userController = new UserController(null, null, null, null, null, null,
+        this.objectMapper, null);
+
+    OffsetDateTime now = OffsetDateTime.now();
+    this.building = new BuildingEntity()
+        .setId(42)
+        .setAddress("116th St & Broadway")
+        .setCity("New York")
+        .setState("NY")
+        .setZipCode("10027")
+        .setCreatedDatetime(now)
+        .setModifiedDatetime(now);
+    this.unit = new HousingUnitEntity()
+        .setId(7)
+        .setBuilding(this.building)
+        .setUnitNumber("12B")
+        .setCreatedDatetime(now)
+        .setModifiedDatetime(now);
+    this.buildingFeatures = List.of("Elevator", "Ramp", "Laundry", "Doorman", "Gym");
+    this.unitFeatures = List.of("Roll-in shower", "Grab bars", "Lowered counters");
+    this.buildingFragment = this.buildingFragmentCache.render(this.building, this.buildingFeatures);
+  }
+
+  @Benchmark
+  public ObjectNode buildingJson() {
+    return this.buildingController.createBuildingJson(this.building);
+  }
+
+  @Benchmark
+  public RawValue buildingFragment() {
+    return this.buildingFragmentCache.render(this.building, this.buildingFeatures);
+  }
+
+  @Benchmark
+  public ObjectNode housingUnitJson() {
+    return this.housingUnitController.getHousingUnitInfo(
+        this.unit, this.buildingFragment, this.unitFeatures);
+  }
+
+  @Benchmark
+  public byte[] housingUnitResponse() throws JsonProcessingException {
+    return this.objectMapper.writeValueAsBytes(this.housingUnitController.getHousingUnitInfo(
+        this.unit, this.buildingFragment, this.unitFeatures));
+  }
+
+  @Benchmark
+  public String randomToken() {
+    return this.userController.generateRandomTokenString();
+  }
+}
@@ -0,0 +1,73 @@
+package dev.coms4156.project.kebabcase.service;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Measures the per-request work of the services that does not touch the database: password
+ * hashing and the feature set arithmetic of adding and removing features. Run with
+ * {@code mvn test -Pjmh}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceHotPathBenchmarks {
+
+  /**
+   * Feature sets that half overlap, so some features are inserted and some deleted.
+   */
+  @State(Scope.Benchmark)
+  public static class FeatureSets {
+
+    /**
+     * The number of features the owner has, and the number requested to be added and removed.
+     */
+    @Param({"8", "64"})
+    private int features;
+
+    private RoaringBitmap current;
+    private RoaringBitmap requestedAdds;
+    private RoaringBitmap requestedRemoves;
+
+    /**
+     * Creates the feature sets.
+     */
+    @Setup
+    public void setUp() {
+      this.current = RoaringBitmap.bitmapOf();
+      this.requestedAdds = RoaringBitmap.bitmapOf();
+      this.requestedRemoves = RoaringBitmap.bitmapOf();
+      for (int i = 0; i < this.features; i++) {
+        this.current.add(i * 2);
+        this.requestedAdds.add(i * 2 + this.features);
+        this.requestedRemoves.add(i * 3);
+      }
+    }
+  }
+
+  @Benchmark
+  public String hashPassword() {
+    return PasswordHasher.hashNow("correct horse battery staple");
+  }
+
+  @Benchmark
+  public void featureChanges(FeatureSets sets, Blackhole blackhole) {
+    blackhole.consume(FeatureMappingEngine.featuresToInsert(sets.requestedAdds, sets.current));
+    blackhole.consume(FeatureMappingEngine.featuresToDelete(
+        sets.requestedAdds, sets.requestedRemoves, sets.current));
+  }
+}
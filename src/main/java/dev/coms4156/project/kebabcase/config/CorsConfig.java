@@ -1,6 +1,7 @@
 package dev.coms4156.project.kebabcase.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -11,10 +12,10 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class CorsConfig implements WebMvcConfigurer {
 
   /**
-   * Disable CORS.
+   * Disable CORS. The ETag header is exposed so browser apps can make conditional requests.
    */
   @Override
   public void addCorsMappings(CorsRegistry registry) {
-    registry.addMapping("/**").allowedMethods("*");
+    registry.addMapping("/**").allowedMethods("*").exposedHeaders(HttpHeaders.ETAG);
   }
 }
@@ -0,0 +1,128 @@
+package dev.coms4156.project.kebabcase.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Configures the application metrics published on {@code /actuator/prometheus}.
+ *
+ * <p>Spring Boot already times every request as {@code http.server.requests}, every
+ * repository method call as {@code spring.data.repository.invocations}, and publishes the
+ * Hikari pool as {@code hikaricp.*} and the Hibernate statistics as {@code hibernate.*}. This
+ * class adds the controller method that handled each request as the {@code handler} tag, and
+ * registers the repository timers at startup so every query method is published, with a count
+ * of zero, before its first call.
+ * </p>
+ */
+@Configuration
+public class MetricsConfig {
+
+  /**
+   * The tag holding the controller method that handled a request.
+   */
+  public static final String HANDLER_TAG = "handler";
+
+  /**
+   * Tags each request with the controller method that handled it.
+   *
+   * @return the convention used to name and tag request timers
+   */
+  @Bean
+  public ServerRequestObservationConvention handlerRequestObservationConvention() {
+    return new HandlerRequestObservationConvention();
+  }
+
+  /**
+   * Registers the timers of the query methods of every repository once all beans exist.
+   *
+   * @param beanFactory the bean factory holding the repositories
+   * @param meterRegistry the registry the timers are registered with
+   * @param metricName the name of the repository timers
+   * @return the callback that registers the timers
+   */
+  @Bean
+  public SmartInitializingSingleton repositoryTimerRegistration(
+      ListableBeanFactory beanFactory,
+      MeterRegistry meterRegistry,
+      @Value("${management.metrics.data.repository.metric-name:"
+          + "spring.data.repository.invocations}") String metricName
+  ) {
+    return () -> {
+      Repositories repositories = new Repositories(beanFactory);
+      List<Class<?>> repositoryInterfaces = new ArrayList<>();
+      for (Class<?> domainType : repositories) {
+        repositories.getRepositoryInformationFor(domainType)
+            .map(RepositoryInformation::getRepositoryInterface)
+            .ifPresent(repositoryInterfaces::add);
+      }
+      registerRepositoryTimers(meterRegistry, metricName, repositoryInterfaces);
+    };
+  }
+
+  /**
+   * Registers a timer for each method declared by the given repository interfaces, with the
+   * tags Spring Boot gives a successful call. Methods inherited from the Spring Data interfaces
+   * are registered on their first call.
+   *
+   * @param meterRegistry the registry the timers are registered with
+   * @param metricName the name of the repository timers
+   * @param repositoryInterfaces the repository interfaces
+   */
+  public static void registerRepositoryTimers(MeterRegistry meterRegistry, String metricName,
+                                              List<Class<?>> repositoryInterfaces) {
+    for (Class<?> repositoryInterface : repositoryInterfaces) {
+      for (Method method : repositoryInterface.getDeclaredMethods()) {
+        if (method.isSynthetic() || method.isDefault()) {
+          continue;
+        }
+        Timer.builder(metricName)
+            .tag("repository", repositoryInterface.getSimpleName())
+            .tag("method", method.getName())
+            .tag("state", "SUCCESS")
+            .tag("exception", "None")
+            .register(meterRegistry);
+      }
+    }
+  }
+
+  /**
+   * The default request tags, plus the controller class and method that handled the request.
+   */
+  static final class HandlerRequestObservationConvention
+      extends DefaultServerRequestObservationConvention {
+
+    private static final KeyValue NO_HANDLER = KeyValue.of(HANDLER_TAG, "none");
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+      return super.getLowCardinalityKeyValues(context).and(handler(context));
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+      Object handler = context.getCarrier()
+          .getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+      if (handler instanceof HandlerMethod handlerMethod) {
+        return KeyValue.of(HANDLER_TAG, handlerMethod.getBeanType().getSimpleName() + "."
+            + handlerMethod.getMethod().getName());
+      }
+      return NO_HANDLER;
+    }
+  }
+}
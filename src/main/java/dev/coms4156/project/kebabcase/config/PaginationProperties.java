@@ -0,0 +1,47 @@
+package dev.coms4156.project.kebabcase.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Page size settings for the paginated list endpoints.
+ *
+ * <p>Configured through the {@code kebabcase.pagination.*} properties. A request that does not
+ * ask for a page size gets the default page size, and no request can get more than the maximum
+ * page size.
+ * </p>
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "kebabcase.pagination")
+public class PaginationProperties {
+
+  private int defaultPageSize = 100;
+
+  private int maxPageSize = 500;
+
+  /**
+   * Resolves the page size to use for a request.
+   *
+   * @param requestedPageSize the page size requested by the client, or null if none was given
+   * @return the requested page size capped at the maximum page size, or the default page size
+   *     if none was requested
+   * @throws ResponseStatusException if the requested page size is less than 1
+   */
+  public int resolvePageSize(Integer requestedPageSize) {
+    if (requestedPageSize == null) {
+      return Math.min(this.defaultPageSize, this.maxPageSize);
+    }
+    if (requestedPageSize < 1) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "limit must be a positive number"
+      );
+    }
+    return Math.min(requestedPageSize, this.maxPageSize);
+  }
+}
@@ -1,8 +1,10 @@
 package dev.coms4156.project.kebabcase.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.coms4156.project.kebabcase.config.PaginationProperties;
 import dev.coms4156.project.kebabcase.entity.BuildingEntity;
 import dev.coms4156.project.kebabcase.entity.BuildingFeatureBuildingMappingEntity;
 import dev.coms4156.project.kebabcase.entity.BuildingFeatureEntity;
@@ -10,20 +12,39 @@ import dev.coms4156.project.kebabcase.entity.BuildingUserMappingEntity;
 import dev.coms4156.project.kebabcase.entity.HousingUnitEntity;
 import dev.coms4156.project.kebabcase.entity.UserEntity;
 import dev.coms4156.project.kebabcase.repository.BuildingFeatureBuildingMappingRepositoryInterface;
-import dev.coms4156.project.kebabcase.repository.BuildingFeatureRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.BuildingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.BuildingSpecifications;
 import dev.coms4156.project.kebabcase.repository.BuildingUserMappingRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.UserRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.BuildingDetailCache;
+import dev.coms4156.project.kebabcase.service.FeatureBitmapIndex;
+import dev.coms4156.project.kebabcase.service.FeatureCatalog;
+import dev.coms4156.project.kebabcase.service.FeatureMappingEngine;
+import dev.coms4156.project.kebabcase.util.ConditionalRequests;
+import dev.coms4156.project.kebabcase.util.FeatureExpression;
+import dev.coms4156.project.kebabcase.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -31,7 +52,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST controller for managing building entities and their associated features.
@@ -46,6 +69,10 @@ import org.springframework.web.server.ResponseStatusException;
  *   <li><strong>POST /building</strong>: Creates a building and associates features.</li>
  *   <li><strong>PATCH /building/{id}</strong>: Updates a building, optionally adds/removes
  *       removes features.</li>
+ *   <li><strong>GET /buildings</strong>: Retrieves buildings, paginated when unfiltered, or
+ *       streams all buildings with {@code stream=true}.</li>
+ *   <li><strong>GET /buildings/search</strong>: Finds buildings matching a boolean expression
+ *       of building features.</li>
  * </ul>
  * 
  * <h2>Features:</h2>
@@ -66,34 +93,61 @@ import org.springframework.web.server.ResponseStatusException;
 public class BuildingController {
   
   private final BuildingRepositoryInterface buildingRepository;
-  private final BuildingFeatureRepositoryInterface buildingFeatureRepository;
+  private final BuildingDetailCache buildingDetailCache;
+  private final FeatureCatalog featureCatalog;
+  private final FeatureBitmapIndex featureBitmapIndex;
+  private final FeatureMappingEngine featureMappingEngine;
   private final BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository;
   private final BuildingUserMappingRepositoryInterface buildingUserMappingRepository;
   private final UserRepositoryInterface userRepository;
+  private final PaginationProperties paginationProperties;
+  private final EntityManager entityManager;
+  private final TransactionTemplate readOnlyTransaction;
   private final ObjectMapper objectMapper;
+  private static final int STREAM_CHUNK_SIZE =
+      Integer.parseInt(BuildingRepositoryInterface.STREAM_FETCH_SIZE);
 
   /**
    * Constructs a new BuildingController.
    *
    * @param buildingRepository the repository used to interact with building entities
-   * @param buildingFeatureRepository the repository used for building features
+   * @param buildingDetailCache the cache of the details of each building
+   * @param featureCatalog the in-memory catalog of building features
+   * @param featureBitmapIndex the in-memory index of the buildings having each feature
+   * @param featureMappingEngine the engine that adds and removes building features
    * @param buildingFeatureMappingRepository the repository for mapping building features
    * @param buildingUserMappingRepository the repository for mapping users to buildings
    * @param userRepository the repository used to interact with user entities
+   * @param paginationProperties the page size settings for paginated endpoints
+   * @param entityManager the entity manager, used to release streamed buildings
+   * @param transactionManager the transaction manager used to stream buildings
    */
   public BuildingController(
       BuildingRepositoryInterface buildingRepository,
-      BuildingFeatureRepositoryInterface buildingFeatureRepository,
+      BuildingDetailCache buildingDetailCache,
+      FeatureCatalog featureCatalog,
+      FeatureBitmapIndex featureBitmapIndex,
+      FeatureMappingEngine featureMappingEngine,
       BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository,
       BuildingUserMappingRepositoryInterface buildingUserMappingRepository,
       UserRepositoryInterface userRepository,
+      PaginationProperties paginationProperties,
+      EntityManager entityManager,
+      PlatformTransactionManager transactionManager,
       ObjectMapper objectMapper
   ) {
     this.buildingRepository = buildingRepository;
-    this.buildingFeatureRepository = buildingFeatureRepository;
+    this.buildingDetailCache = buildingDetailCache;
+    this.featureCatalog = featureCatalog;
+    this.featureBitmapIndex = featureBitmapIndex;
+    this.featureMappingEngine = featureMappingEngine;
     this.buildingFeatureMappingRepository = buildingFeatureMappingRepository;
     this.buildingUserMappingRepository = buildingUserMappingRepository;
     this.userRepository = userRepository;
+    this.paginationProperties = paginationProperties;
+    this.entityManager = entityManager;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
     this.objectMapper = objectMapper;
   }
 
@@ -180,58 +234,11 @@ public class BuildingController {
     building.setModifiedDatetime(OffsetDateTime.now());
 
     buildingRepository.save(building);
+    this.buildingDetailCache.invalidate(building.getId());
 
-    Set<Integer> invalidFeatures = new HashSet<>();
-
-    /* Insert new building feature to building-feature mapping if exists */
-    if (addFeatures != null) {
-      for (Integer featureId : addFeatures) {
-        BuildingFeatureBuildingMappingEntity buildingMapFeature = 
-            new BuildingFeatureBuildingMappingEntity();
-
-        Optional<BuildingFeatureEntity> featureResult = 
-            this.buildingFeatureRepository.findById(featureId);
-
-        if (featureResult.isEmpty()) {
-          invalidFeatures.add(featureId);
-        } else {
-          BuildingFeatureEntity feature = featureResult.get();
-
-          Optional<BuildingFeatureBuildingMappingEntity> existingMapping =
-              this.buildingFeatureMappingRepository
-                  .findByBuildingAndBuildingFeature(building, feature);
-
-          if (existingMapping.isEmpty()) {
-            buildingMapFeature.setBuilding(building);
-            buildingMapFeature.setBuildingFeature(feature);
-
-            buildingFeatureMappingRepository.save(buildingMapFeature);
-          }
-        }
-      }
-    }
-
-    /* Remove features */
-    if (removeFeatures != null) {
-      for (Integer featureId : removeFeatures) {
-        Optional<BuildingFeatureEntity> featureResult = 
-            this.buildingFeatureRepository.findById(featureId);
-
-        if (featureResult.isEmpty()) {
-          invalidFeatures.add(featureId);
-        } else {
-          BuildingFeatureEntity feature = featureResult.get();
-
-          Optional<BuildingFeatureBuildingMappingEntity> existingMapping =
-              this.buildingFeatureMappingRepository
-                  .findByBuildingAndBuildingFeature(building, feature);
-
-          if (existingMapping.isPresent()) {
-            buildingFeatureMappingRepository.delete(existingMapping.get());
-          }
-        }
-      }
-    }
+    /* Add and remove building features */
+    Set<Integer> invalidFeatures = this.featureMappingEngine.updateBuildingFeatures(
+        building.getId(), addFeatures, removeFeatures);
 
     if (address == null
         && city == null
@@ -300,30 +307,11 @@ public class BuildingController {
     newBuilding.setModifiedDatetime(OffsetDateTime.now());
 
     BuildingEntity savedBuilding = buildingRepository.save(newBuilding);
+    featureBitmapIndex.addBuilding(savedBuilding.getId());
 
     /* Add building features */
-    List<Integer> invalidFeatures = new ArrayList<>();
-
-    if (features != null) {
-      for (Integer featureId : features) {
-        BuildingFeatureBuildingMappingEntity buildingMapFeature = 
-            new BuildingFeatureBuildingMappingEntity();
-
-        Optional<BuildingFeatureEntity> featureResult = 
-            this.buildingFeatureRepository.findById(featureId);
-
-        if (featureResult.isEmpty()) {
-          invalidFeatures.add(featureId);
-        } else {
-          BuildingFeatureEntity feature = featureResult.get();
-
-          buildingMapFeature.setBuilding(savedBuilding);
-          buildingMapFeature.setBuildingFeature(feature);
-
-          buildingFeatureMappingRepository.save(buildingMapFeature);
-        }
-      }
-    }
+    Set<Integer> invalidFeatures =
+        this.featureMappingEngine.updateBuildingFeatures(savedBuilding.getId(), features, null);
 
     if (!invalidFeatures.isEmpty()) {
       return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
@@ -349,7 +337,7 @@ public class BuildingController {
   @GetMapping("/building-feature/{id}/buildings")
   public ResponseEntity<?> getBuildingHousingUnits(@PathVariable int id) {
 
-    Optional<BuildingFeatureEntity> feature = this.buildingFeatureRepository.findById(id);
+    Optional<BuildingFeatureEntity> feature = this.featureCatalog.findBuildingFeature(id);
     if (feature.isEmpty()) {
       String errorMessage = "Building feature with id " + id + " not found.";
       return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorMessage);
@@ -378,7 +366,7 @@ public class BuildingController {
    * @param building the building entity to convert to JSON
    * @return an {@link ObjectNode} containing the building's base information
    */
-  private ObjectNode createBuildingJson(BuildingEntity building) {
+  ObjectNode createBuildingJson(BuildingEntity building) {
     ObjectNode json = objectMapper.createObjectNode();
     json.put("id", building.getId());
     json.put("address", building.getAddress());
@@ -392,40 +380,60 @@ public class BuildingController {
 
   /**
    * Retrieves detailed information for a specific building by its ID, including its address,
-   * creation and modification dates, and associated building features.
+   * creation and modification dates, and associated building features. The details are read
+   * through the {@link BuildingDetailCache}.
+   *
+   * <p>The response carries an ETag made from the modified datetime of the building and the
+   * version of the building feature catalog, and the latest of their modified datetimes as its
+   * Last-Modified date. Feature mapping changes update the modified datetime of the building, so
+   * when the client already has the current version, 304 Not Modified is returned without
+   * building the body.
+   * </p>
    *
    * @param id the ID of the building to retrieve
+   * @param request the request, whose conditional headers are checked
    * @return a {@link ResponseEntity} containing the building details in JSON format or
    *         a 404 Not Found response if the building is not found
    */
   @GetMapping("/building/{id}")
-  public ResponseEntity<?> getBuildingById(@PathVariable int id) {
+  public ResponseEntity<?> getBuildingById(@PathVariable int id, WebRequest request) {
 
-    Optional<BuildingEntity> buildingRepositoryResult = this.buildingRepository.findById(id);
-    if (buildingRepositoryResult.isEmpty()) {
+    Optional<BuildingDetailCache.BuildingDetail> detail =
+        this.buildingDetailCache.findBuilding(id);
+    if (detail.isEmpty()) {
       String errorMessage = "Building with id " + id + " not found.";
       return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorMessage);
     }
 
-    BuildingEntity building = buildingRepositoryResult.get();
+    BuildingEntity building = detail.get().getBuilding();
+    String etag = ConditionalRequests.weakEtag(building.getId(), building.getModifiedDatetime(),
+        this.featureCatalog.getBuildingFeaturesVersion());
+    OffsetDateTime lastModified = ConditionalRequests.latest(building.getModifiedDatetime(),
+        this.featureCatalog.getBuildingFeaturesLastModified());
+    if (ConditionalRequests.checkNotModified(request, etag, lastModified)) {
+      return ConditionalRequests.notModified(etag, lastModified);
+    }
+
     ObjectNode json = createBuildingJson(building);
 
     // Add building features
     ArrayNode buildingFeaturesJson = json.putArray("features");
-    List<BuildingFeatureBuildingMappingEntity> buildingFeatures = 
-        this.buildingFeatureMappingRepository.findByBuilding(building);
-
-    for (BuildingFeatureBuildingMappingEntity featureMapping : buildingFeatures) {
-      buildingFeaturesJson.add(featureMapping.getBuildingFeature().getName());
+    for (Integer featureId : detail.get().getFeatureIds()) {
+      this.featureCatalog.findBuildingFeature(featureId)
+          .ifPresent(feature -> buildingFeaturesJson.add(feature.getName()));
     }
 
-    return ResponseEntity.ok(json);
+    return ConditionalRequests.ok(etag, lastModified).body(json);
   }
 
   /**
    * Retrieves a list of buildings associated with a specific user by their user ID, 
    * including building addresses and features.
    *
+   * <p>The buildings are fetched with the user's mappings, and the features of all of them with
+   * one more query, so the number of queries does not grow with the number of buildings.
+   * </p>
+   *
    * @param id the ID of the user whose associated buildings are to be retrieved
    * @return a {@link ResponseEntity} containing a list of buildings in JSON format, or
    *         a 404 Not Found response if the user is not found
@@ -439,25 +447,33 @@ public class BuildingController {
       return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorMessage);
     }
 
-    List<BuildingUserMappingEntity> result = this.buildingUserMappingRepository.findByUserId(id);
-    List<ObjectNode> buildings = result.stream().map(mapping -> {
-      BuildingEntity building = mapping.getBuilding();
-      
-      // Create JSON for building information and add features
-      ObjectNode json = createBuildingJson(building);
-      ArrayNode buildingFeaturesJson = json.putArray("features");
-
-      List<BuildingFeatureBuildingMappingEntity> buildingFeatures = 
-          this.buildingFeatureMappingRepository.findByBuilding(building);
+    List<BuildingEntity> buildings = this.buildingUserMappingRepository.findByUserId(id).stream()
+        .map(BuildingUserMappingEntity::getBuilding)
+        .collect(Collectors.toList());
+    if (buildings.isEmpty()) {
+      return ResponseEntity.ok(new ArrayList<ObjectNode>());
+    }
 
-      for (BuildingFeatureBuildingMappingEntity featureMapping : buildingFeatures) {
-        buildingFeaturesJson.add(featureMapping.getBuildingFeature().getName());
-      }
+    // Load the features of every building of the user at once
+    Map<Integer, List<String>> buildingFeatureNames = new HashMap<>();
+    for (BuildingFeatureBuildingMappingEntity featureMapping
+        : this.buildingFeatureMappingRepository.findByBuildingIn(buildings)) {
+      this.featureCatalog.findBuildingFeature(featureMapping.getBuildingFeature().getId())
+          .ifPresent(feature -> buildingFeatureNames
+              .computeIfAbsent(featureMapping.getBuilding().getId(), key -> new ArrayList<>())
+              .add(feature.getName()));
+    }
 
-      return json;
-    }).collect(Collectors.toList());
+    List<ObjectNode> result = new ArrayList<>(buildings.size());
+    for (BuildingEntity building : buildings) {
+      ObjectNode json = createBuildingJson(building);
+      ArrayNode buildingFeaturesJson = json.putArray("features");
+      buildingFeatureNames.getOrDefault(building.getId(), List.of())
+          .forEach(buildingFeaturesJson::add);
+      result.add(json);
+    }
 
-    return ResponseEntity.ok(buildings);
+    return ResponseEntity.ok(result);
   }
 
   /**
@@ -519,67 +535,244 @@ public class BuildingController {
   }
   
   /**
-   * Retrieves a list of all buildings from the repository,
-   * returns all buildings in the repository as a list. 
+   * Retrieves a list of buildings from the repository, in pages ordered by ID, or by modified
+   * datetime when {@code sort=modified_datetime} is given. If there are more buildings after
+   * the returned page, the cursor of the next page is returned in the {@code X-Next-Cursor}
+   * response header and can be passed back as the {@code cursor} parameter.
+   *
+   * <p>The filters can be combined: only the buildings matching every given filter are
+   * returned, read with a single query together with the page and sort order.
+   * </p>
    *
-   * @param  address an optional request parameter to select buildings containing
-   *         the specified address.
+   * @param  address an optional request parameter to select buildings with the specified
+   *         address.
    * @param city an optional request parameter to select buildings with the specified
    *         city.
+   * @param state an optional request parameter to select buildings with the specified
+   *         state.
+   * @param zipCode an optional request parameter to select buildings with the specified
+   *         zip code.
+   * @param features an optional request parameter to select buildings that have every one
+   *         of the specified building features.
+   * @param cursor the cursor of the page to retrieve (optional, defaults to the first page)
+   * @param limit the maximum number of buildings to return (optional, capped at the
+   *         configured maximum page size)
+   * @param sort the sort order, either {@code id} or {@code modified_datetime} (optional,
+   *         defaults to {@code id})
    * @return ResponseEntity containing the list of buildings as a JSON response.
-   *         Returns a 200 OK status if buildings are found, or 204 No Content if no 
-   *         buildings exist in the repository.
+   *         Returns a 200 OK status if buildings are found, 204 No Content if no
+   *         buildings exist in the repository, or 404 Not Found if no buildings match
+   *         the filters.
+   * @throws ResponseStatusException with 404 Not Found if one of the features is not a
+   *         building feature, or 400 Bad Request if the cursor or sort order is invalid.
    */
   @GetMapping("/buildings")
   public ResponseEntity<List<BuildingEntity>> getBuildings(
            @RequestParam(required = false) String address,
            @RequestParam(required = false) String city,
            @RequestParam(required = false) String state,
-           @RequestParam(required = false) String zipCode) {
+           @RequestParam(required = false) String zipCode,
+           @RequestParam(required = false) List<Integer> features,
+           @RequestParam(required = false) String cursor,
+           @RequestParam(required = false) Integer limit,
+           @RequestParam(defaultValue = KeysetCursor.SORT_ID) String sort) {
 
-    // filter by address
+    List<Specification<BuildingEntity>> filters = new ArrayList<>();
     if (address != null && !address.isEmpty()) {
-      Optional<BuildingEntity> building = buildingRepository.findByAddress(address);
-      if (building.isEmpty()) {
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Collections.emptyList());
-      }
-      return ResponseEntity.status(HttpStatus.OK).body(Collections.singletonList(building.get()));
+      filters.add(BuildingSpecifications.hasAddress(address));
     }
-
-    // filter by city
     if (city != null && !city.isEmpty()) {
-      List<BuildingEntity> buildings = buildingRepository.findByCity(city);
-      if (buildings.isEmpty()) {
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(List.of());
+      filters.add(BuildingSpecifications.hasCity(city));
+    }
+    if (state != null && !state.isEmpty()) {
+      filters.add(BuildingSpecifications.hasState(state));
+    }
+    if (zipCode != null && !zipCode.isEmpty()) {
+      filters.add(BuildingSpecifications.hasZipCode(zipCode));
+    }
+    if (features != null && !features.isEmpty()) {
+      for (Integer featureId : features) {
+        if (featureId == null || this.featureCatalog.findBuildingFeature(featureId).isEmpty()) {
+          throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+              "Building feature with id " + featureId + " not found.");
+        }
       }
-      return ResponseEntity.status(HttpStatus.OK).body(buildings);
+      filters.add(BuildingSpecifications.hasAllFeatures(features));
     }
 
-    // filter by state
-    if (state != null && !state.isEmpty()) {
-      List<BuildingEntity> buildings = buildingRepository.findByState(state);
-      if (buildings.isEmpty()) {
+    KeysetCursor after = KeysetCursor.decode(sort, cursor);
+    int pageSize = this.paginationProperties.resolvePageSize(limit);
+
+    // Load one extra building to find out whether there is a next page
+    List<BuildingEntity> buildings;
+    if (!filters.isEmpty()) {
+      buildings = findFilteredBuildings(filters, sort, after, pageSize + 1);
+    } else if (KeysetCursor.SORT_ID.equals(sort)) {
+      buildings = buildingRepository.findByIdGreaterThanOrderByIdAsc(
+          after == null ? 0 : after.getId(), Limit.of(pageSize + 1));
+    } else if (after == null) {
+      buildings = buildingRepository
+          .findByModifiedDatetimeNotNullOrderByModifiedDatetimeAscIdAsc(Limit.of(pageSize + 1));
+    } else {
+      buildings = buildingRepository.findPageAfterModifiedDatetime(
+          after.getModifiedDatetime(), after.getId(), Limit.of(pageSize + 1));
+    }
+
+    if (buildings.isEmpty()) {
+      if (!filters.isEmpty()) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(List.of());
       }
+      return ResponseEntity.status(HttpStatus.NO_CONTENT).body(null);
+    }
+
+    if (buildings.size() <= pageSize) {
       return ResponseEntity.status(HttpStatus.OK).body(buildings);
     }
 
-    // filter by zip code
-    if (zipCode != null && !zipCode.isEmpty()) {
-      List<BuildingEntity> buildings = buildingRepository.findByZipCode(zipCode);
-      if (buildings.isEmpty()) {
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(List.of());
+    buildings = buildings.subList(0, pageSize);
+    BuildingEntity last = buildings.get(pageSize - 1);
+    String nextCursor = KeysetCursor.after(sort, last.getId(), last.getModifiedDatetime()).encode();
+
+    return ResponseEntity.status(HttpStatus.OK)
+        .header(KeysetCursor.NEXT_CURSOR_HEADER, nextCursor)
+        .body(buildings);
+  }
+
+  /**
+   * Reads a page of the buildings matching every filter, with one query.
+   *
+   * @param filters the filters, at least one
+   * @param sort the sort order, either {@code id} or {@code modified_datetime}
+   * @param after the position the page starts after, or {@code null} for the first page
+   * @param limit the maximum number of buildings to return
+   * @return the matching buildings, in the sort order
+   */
+  private List<BuildingEntity> findFilteredBuildings(List<Specification<BuildingEntity>> filters,
+                                                     String sort, KeysetCursor after,
+                                                     int limit) {
+    Specification<BuildingEntity> page;
+    Sort order;
+    if (KeysetCursor.SORT_ID.equals(sort)) {
+      page = BuildingSpecifications.idAfter(after == null ? 0 : after.getId());
+      order = Sort.by("id");
+    } else {
+      page = after == null
+          ? BuildingSpecifications.hasModifiedDatetime()
+          : BuildingSpecifications.modifiedDatetimeAfter(
+              after.getModifiedDatetime(), after.getId());
+      order = Sort.by("modifiedDatetime", "id");
+    }
+    return buildingRepository.findBy(Specification.allOf(filters).and(page),
+        query -> query.sortBy(order).limit(limit).all());
+  }
+
+  /**
+   * Finds the buildings matching a boolean expression of building features, such as
+   * {@code 1 AND 2 AND NOT 3}.
+   *
+   * <p>The expression combines building feature IDs with {@code AND}, {@code OR}, {@code NOT}
+   * and parentheses, and is evaluated against the in-memory {@link FeatureBitmapIndex}, so
+   * the mapping table is not scanned. Matching buildings are returned in pages ordered by ID.
+   * If there are more matching buildings after the returned page, the cursor of the next page
+   * is returned in the {@code X-Next-Cursor} response header.
+   * </p>
+   *
+   * @param features the building feature expression
+   * @param cursor the cursor of the page to retrieve (optional, defaults to the first page)
+   * @param limit the maximum number of buildings to return (optional, capped at the
+   *         configured maximum page size)
+   * @return a {@link ResponseEntity} containing:
+   *         <ul>
+   *           <li>200 OK: A list of the matching buildings.</li>
+   *           <li>204 No Content: If no buildings match the expression.</li>
+   *           <li>400 Bad Request: If the expression, cursor or limit is invalid.</li>
+   *           <li>404 Not Found: If the expression names a building feature that does not
+   *               exist.</li>
+   *         </ul>
+   */
+  @GetMapping("/buildings/search")
+  public ResponseEntity<?> searchBuildings(
+      @RequestParam String features,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit
+  ) {
+    FeatureExpression expression = FeatureExpression.parse(features);
+    for (Integer featureId : expression.getFeatureIds()) {
+      if (this.featureCatalog.findBuildingFeature(featureId).isEmpty()) {
+        String errorMessage = "Building feature with id " + featureId + " not found.";
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorMessage);
       }
-      return ResponseEntity.status(HttpStatus.OK).body(buildings);
     }
 
-    List<BuildingEntity> buildings = buildingRepository.findAll();
+    KeysetCursor after = KeysetCursor.decode(KeysetCursor.SORT_ID, cursor);
+    int pageSize = this.paginationProperties.resolvePageSize(limit);
 
-    if (buildings.isEmpty()) {
+    // Take one extra ID to find out whether there is a next page
+    List<Integer> ids = FeatureBitmapIndex.idsAfter(
+        this.featureBitmapIndex.searchBuildings(expression),
+        after == null ? 0 : after.getId(),
+        pageSize + 1
+    );
+
+    if (ids.isEmpty()) {
       return ResponseEntity.status(HttpStatus.NO_CONTENT).body(null);
     }
 
-    return ResponseEntity.status(HttpStatus.OK).body(buildings);
+    if (ids.size() <= pageSize) {
+      return ResponseEntity.ok(buildingRepository.findByIdInOrderByIdAsc(ids));
+    }
+
+    ids = ids.subList(0, pageSize);
+    String nextCursor = KeysetCursor.after(KeysetCursor.SORT_ID, ids.get(pageSize - 1), null)
+        .encode();
+
+    return ResponseEntity.ok()
+        .header(KeysetCursor.NEXT_CURSOR_HEADER, nextCursor)
+        .body(buildingRepository.findByIdInOrderByIdAsc(ids));
+  }
+
+  /**
+   * Streams all buildings as a JSON array.
+   *
+   * <p>Selected with {@code stream=true}. Unlike the paginated listing, every building is
+   * returned in a single response. Buildings are read from the database with a bounded fetch
+   * size and written to the response as they are read, so memory use does not grow with the
+   * number of buildings. Each building has the same JSON structure as in the paginated listing.
+   * </p>
+   *
+   * @return a {@link ResponseEntity} containing a streamed JSON array of all buildings
+   */
+  @GetMapping(value = "/buildings", params = "stream=true")
+  public ResponseEntity<StreamingResponseBody> streamBuildings() {
+    StreamingResponseBody body = outputStream -> {
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+        generator.writeStartArray();
+        generator.flush();
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+          try (Stream<BuildingEntity> buildings = buildingRepository.streamAllByOrderByIdAsc()) {
+            int written = 0;
+            Iterator<BuildingEntity> iterator = buildings.iterator();
+            while (iterator.hasNext()) {
+              generator.writeObject(iterator.next());
+              written++;
+
+              // Release the written buildings so memory use stays flat
+              if (written % STREAM_CHUNK_SIZE == 0) {
+                generator.flush();
+                entityManager.clear();
+              }
+            }
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+
+        generator.writeEndArray();
+      }
+    };
+
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
   }
 
   /**
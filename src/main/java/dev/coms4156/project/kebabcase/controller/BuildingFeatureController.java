@@ -1,12 +1,15 @@
 package dev.coms4156.project.kebabcase.controller;
 
 import dev.coms4156.project.kebabcase.entity.BuildingFeatureEntity;
-import dev.coms4156.project.kebabcase.repository.BuildingFeatureRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.FeatureCatalog;
+import dev.coms4156.project.kebabcase.util.ConditionalRequests;
+import java.time.OffsetDateTime;
 import java.util.List;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * REST controller for managing building feature entities.
@@ -24,40 +27,52 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class BuildingFeatureController {
   
-  private final BuildingFeatureRepositoryInterface buildingFeatureRepository;
+  private final FeatureCatalog featureCatalog;
 
   /**
    * Constructs a new BuildingController.
    *
-   * @param buildingFeatureRepository the repository used for building features
+   * @param featureCatalog the in-memory catalog of features
    */
 
   public BuildingFeatureController(
-      BuildingFeatureRepositoryInterface buildingFeatureRepository
+      FeatureCatalog featureCatalog
   ) {
-    this.buildingFeatureRepository = buildingFeatureRepository;
+    this.featureCatalog = featureCatalog;
   }
 
   /**
    * Retrieves a list of all building features from the repository,
    * returns all building features in the repository as a list.
    *
+   * <p>The response carries an ETag made from the version of the catalog, which only changes
+   * when the building features do, and their latest modified datetime as its
+   * Last-Modified date. When the client already has the current version, 304 Not Modified is
+   * returned without a body.
+   * </p>
+   *
+   * @param request the request, whose conditional headers are checked
    * @return ResponseEntity containing the list of building features as a JSON response.
    *         Returns a 200 OK status if building features are found, or 204 No Content if no
    *         building features exist in the repository.
    */
 
   @GetMapping("/building-features")
-  public ResponseEntity<List<BuildingFeatureEntity>> getBuildingFeatures() {
+  public ResponseEntity<List<BuildingFeatureEntity>> getBuildingFeatures(WebRequest request) {
+    String etag = ConditionalRequests.weakEtag(this.featureCatalog.getBuildingFeaturesVersion());
+    OffsetDateTime lastModified = this.featureCatalog.getBuildingFeaturesLastModified();
+    if (ConditionalRequests.checkNotModified(request, etag, lastModified)) {
+      return ConditionalRequests.notModified(etag, lastModified);
+    }
 
     List<BuildingFeatureEntity> featureEntities =
-            this.buildingFeatureRepository.findAll();
+            this.featureCatalog.getBuildingFeatures();
 
     if (featureEntities.isEmpty()) {
       return ResponseEntity.status(HttpStatus.NO_CONTENT).body(null);
     }
 
-    return ResponseEntity.status(HttpStatus.OK).body(featureEntities);
+    return ConditionalRequests.ok(etag, lastModified).body(featureEntities);
   }
 
 }
@@ -0,0 +1,86 @@
+package dev.coms4156.project.kebabcase.controller;
+
+import dev.coms4156.project.kebabcase.service.BulkExporter;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * This class contains the endpoint for exporting all buildings, housing units and features.
+ */
+@RestController
+public class ExportController {
+
+  private static final String GZIP = "gzip";
+
+  private final BulkExporter bulkExporter;
+
+  /**
+   * Constructs a new ExportController.
+   *
+   * @param bulkExporter the exporter that reads and writes the buildings
+   */
+  public ExportController(BulkExporter bulkExporter) {
+    this.bulkExporter = bulkExporter;
+  }
+
+  /**
+   * Exports every building as newline-delimited JSON, in ID order.
+   *
+   * <p>Each line is one building with its {@code features} and its {@code housingUnits}, each
+   * housing unit with its own {@code features}. To resume an interrupted export, pass the ID of
+   * the last building received as {@code after}. The response is gzip-compressed when the
+   * request accepts it.
+   * </p>
+   *
+   * @param after the ID after which to start, or 0 to export every building
+   * @param acceptEncoding the {@code Accept-Encoding} header of the request
+   * @return a {@link ResponseEntity} containing:
+   *           200 OK: The streamed buildings.
+   *           400 Bad Request: If {@code after} is negative.
+   */
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> export(
+      @RequestParam(defaultValue = "0") int after,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+      String acceptEncoding) {
+    if (after < 0) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+    }
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+    if (!acceptsGzip(acceptEncoding)) {
+      return response.body(outputStream -> bulkExporter.export(after, outputStream));
+    }
+
+    // Sync flushes so each flushed batch of buildings reaches the client right away
+    return response.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(outputStream -> {
+      try (GZIPOutputStream gzip = new GZIPOutputStream(outputStream, true)) {
+        bulkExporter.export(after, gzip);
+      }
+    });
+  }
+
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.trim().split(";");
+      if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+        return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+      }
+    }
+    return false;
+  }
+}
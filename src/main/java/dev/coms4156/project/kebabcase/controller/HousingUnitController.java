@@ -1,32 +1,50 @@
 package dev.coms4156.project.kebabcase.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import dev.coms4156.project.kebabcase.config.PaginationProperties;
 import dev.coms4156.project.kebabcase.entity.BuildingEntity;
-import dev.coms4156.project.kebabcase.entity.BuildingFeatureBuildingMappingEntity;
 import dev.coms4156.project.kebabcase.entity.HousingUnitEntity;
 import dev.coms4156.project.kebabcase.entity.HousingUnitFeatureEntity;
 import dev.coms4156.project.kebabcase.entity.HousingUnitFeatureHousingUnitMappingEntity;
 import dev.coms4156.project.kebabcase.entity.HousingUnitUserMappingEntity;
 import dev.coms4156.project.kebabcase.entity.UserEntity;
-import dev.coms4156.project.kebabcase.repository.BuildingFeatureBuildingMappingRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.BuildingRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.HousingUnitFeatureHousingUnitMappingRepositoryInterface;
-import dev.coms4156.project.kebabcase.repository.HousingUnitFeatureRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.HousingUnitRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.HousingUnitUserMappingRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.UserRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.BuildingFragmentCache;
+import dev.coms4156.project.kebabcase.service.FeatureBitmapIndex;
+import dev.coms4156.project.kebabcase.service.FeatureCatalog;
+import dev.coms4156.project.kebabcase.service.FeatureMappingEngine;
+import dev.coms4156.project.kebabcase.util.ConditionalRequests;
+import dev.coms4156.project.kebabcase.util.FeatureExpression;
+import dev.coms4156.project.kebabcase.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -34,7 +52,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST controller for managing housing units and associated features within buildings.
@@ -53,6 +73,10 @@ import org.springframework.web.server.ResponseStatusException;
  *   <li><strong>POST /housing-unit</strong>: Create a new housing unit within 
  *        a building.</li>
  *   <li><strong>PATCH /housing-unit/{id}</strong>: Update an existing housing unit.</li>
+ *   <li><strong>GET /housing-units</strong>: Retrieve a page of housing units, or stream all
+ *        housing units with {@code stream=true}.</li>
+ *   <li><strong>GET /housing-units/search</strong>: Find housing units matching a boolean
+ *        expression of housing unit features.</li>
  * </ul>
  * 
  * <h2>Error Handling:</h2>
@@ -67,14 +91,21 @@ import org.springframework.web.server.ResponseStatusException;
 public class HousingUnitController {
   private final HousingUnitRepositoryInterface housingUnitRepository;
   private final BuildingRepositoryInterface buildingRepository;
-  private final BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository;
-  private final HousingUnitFeatureRepositoryInterface unitFeatureRepository;
+  private final BuildingFragmentCache buildingFragmentCache;
+  private final FeatureCatalog featureCatalog;
+  private final FeatureBitmapIndex featureBitmapIndex;
+  private final FeatureMappingEngine featureMappingEngine;
   private final HousingUnitFeatureHousingUnitMappingRepositoryInterface 
                   unitFeatureMappingRepository;
   private final HousingUnitUserMappingRepositoryInterface unitUserMappingRepository;
   private final UserRepositoryInterface userRepository;
+  private final PaginationProperties paginationProperties;
+  private final EntityManager entityManager;
+  private final TransactionTemplate readOnlyTransaction;
   private final ObjectMapper objectMapper;
   private static final DateTimeFormatter formatter = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+  private static final int STREAM_CHUNK_SIZE =
+      Integer.parseInt(HousingUnitRepositoryInterface.STREAM_FETCH_SIZE);
 
   /**
    * Constructs a new {@link HousingUnitController} to manage housing units and their 
@@ -86,28 +117,46 @@ public class HousingUnitController {
    *
    * @param housingUnitRepository the repository for housing unit entities
    * @param buildingRepository the repository for building entities
-   * @param unitFeatureRepository the repository for housing unit feature entities
+   * @param buildingFragmentCache the cache of the rendered buildings nested in each housing unit
+   * @param featureCatalog the in-memory catalog of building and housing unit features
+   * @param featureBitmapIndex the in-memory index of the housing units having each feature
+   * @param featureMappingEngine the engine that adds and removes housing unit features
    * @param unitFeatureMappingRepository the repository for mapping housing units to features
    * @param unitUserMappingRepository the repository for mapping users to housing units
+   * @param userRepository the repository for user entities
+   * @param paginationProperties the page size settings for paginated endpoints
+   * @param entityManager the entity manager, used to release streamed housing units
+   * @param transactionManager the transaction manager used to stream housing units
    * @param objectMapper the object mapper used for creating JSON objects in response bodies
    */
   public HousingUnitController(
       HousingUnitRepositoryInterface housingUnitRepository,
       BuildingRepositoryInterface buildingRepository,
-      BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository,
-      HousingUnitFeatureRepositoryInterface unitFeatureRepository,
+      BuildingFragmentCache buildingFragmentCache,
+      FeatureCatalog featureCatalog,
+      FeatureBitmapIndex featureBitmapIndex,
+      FeatureMappingEngine featureMappingEngine,
       HousingUnitFeatureHousingUnitMappingRepositoryInterface unitFeatureMappingRepository,
       HousingUnitUserMappingRepositoryInterface unitUserMappingRepository,
       UserRepositoryInterface userRepository,
+      PaginationProperties paginationProperties,
+      EntityManager entityManager,
+      PlatformTransactionManager transactionManager,
       ObjectMapper objectMapper
   ) {
     this.housingUnitRepository = housingUnitRepository;
     this.buildingRepository = buildingRepository;
-    this.buildingFeatureMappingRepository = buildingFeatureMappingRepository;
-    this.unitFeatureRepository = unitFeatureRepository;
+    this.buildingFragmentCache = buildingFragmentCache;
+    this.featureCatalog = featureCatalog;
+    this.featureBitmapIndex = featureBitmapIndex;
+    this.featureMappingEngine = featureMappingEngine;
     this.unitFeatureMappingRepository = unitFeatureMappingRepository;
     this.unitUserMappingRepository = unitUserMappingRepository;
     this.userRepository = userRepository;
+    this.paginationProperties = paginationProperties;
+    this.entityManager = entityManager;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
     this.objectMapper = objectMapper;
   }
 
@@ -212,57 +261,9 @@ public class HousingUnitController {
 
     housingUnitRepository.save(unit);
 
-    Set<Integer> invalidFeatures = new HashSet<>();
-
-    /* Add new unit feature to unit-feature mapping if exists */
-    if (addFeatures != null) {
-      for (Integer featureId : addFeatures) {
-        HousingUnitFeatureHousingUnitMappingEntity unitMapFeature = 
-            new HousingUnitFeatureHousingUnitMappingEntity();
-
-        Optional<HousingUnitFeatureEntity> featureResult = 
-            this.unitFeatureRepository.findById(featureId);
-
-        if (featureResult.isEmpty()) {
-          invalidFeatures.add(featureId);
-        } else {
-          HousingUnitFeatureEntity feature = featureResult.get();
-
-          Optional<HousingUnitFeatureHousingUnitMappingEntity> existingMapping =
-              this.unitFeatureMappingRepository
-                  .findByHousingUnitAndHousingUnitFeature(unit, feature);
-
-          if (existingMapping.isEmpty()) {
-            unitMapFeature.setHousingUnit(unit);
-            unitMapFeature.setHousingUnitFeature(feature);
-
-            unitFeatureMappingRepository.save(unitMapFeature);
-          }
-        }
-      }
-    }
-
-    /* Remove features */
-    if (removeFeatures != null) {
-      for (Integer featureId : removeFeatures) {
-        Optional<HousingUnitFeatureEntity> featureResult = 
-            this.unitFeatureRepository.findById(featureId);
-
-        if (featureResult.isEmpty()) {
-          invalidFeatures.add(featureId);
-        } else {
-          HousingUnitFeatureEntity feature = featureResult.get();
-
-          Optional<HousingUnitFeatureHousingUnitMappingEntity> existingMapping =
-              this.unitFeatureMappingRepository
-                  .findByHousingUnitAndHousingUnitFeature(unit, feature);
-
-          if (existingMapping.isPresent()) {
-            unitFeatureMappingRepository.delete(existingMapping.get());
-          }
-        }
-      }
-    }
+    /* Add and remove housing unit features */
+    Set<Integer> invalidFeatures = this.featureMappingEngine.updateHousingUnitFeatures(
+        unit.getId(), addFeatures, removeFeatures);
 
     if (unitNumber == null
         && (addFeatures != null || removeFeatures != null)
@@ -333,30 +334,11 @@ public class HousingUnitController {
     newUnit.setModifiedDatetime(OffsetDateTime.now());
 
     HousingUnitEntity savedUnit = housingUnitRepository.save(newUnit);
+    featureBitmapIndex.addHousingUnit(savedUnit.getId());
 
     /* Add Housing Unit Features */
-    List<Integer> invalidFeatures = new ArrayList<>();
-
-    if (features != null) {
-      for (Integer featureId : features) {
-        HousingUnitFeatureHousingUnitMappingEntity housingUnitMapFeature = 
-            new HousingUnitFeatureHousingUnitMappingEntity();
-
-        Optional<HousingUnitFeatureEntity> featureResult = 
-            this.unitFeatureRepository.findById(featureId);
-
-        if (featureResult.isEmpty()) {
-          invalidFeatures.add(featureId);
-        } else {
-          HousingUnitFeatureEntity feature = featureResult.get();
-
-          housingUnitMapFeature.setHousingUnit(savedUnit);
-          housingUnitMapFeature.setHousingUnitFeature(feature);
-
-          unitFeatureMappingRepository.save(housingUnitMapFeature);
-        }
-      }
-    }
+    Set<Integer> invalidFeatures =
+        this.featureMappingEngine.updateHousingUnitFeatures(savedUnit.getId(), features, null);
 
     if (!invalidFeatures.isEmpty()) {
       return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
@@ -370,42 +352,74 @@ public class HousingUnitController {
     return new ResponseEntity<>(response, HttpStatus.CREATED);
   }
 
+  /**
+   * Helper method to create the JSON structure for a list of housing unit entities.
+   *
+   * <p>The housing unit features of every unit in the list are loaded with one query, so the
+   * number of queries does not grow with the length of the list. The nested {@code building}
+   * object is taken from the {@link BuildingFragmentCache}, once per building, and spliced into
+   * each of its units already rendered. The building of each unit is expected to be fetched
+   * together with the unit.
+   * </p>
+   *
+   * @param units the housing unit entities to convert to JSON
+   * @return a list of {@link ObjectNode} containing each housing unit's information, in the
+   *     same order as the given units
+   */
+  private List<ObjectNode> getHousingUnitInfo(List<HousingUnitEntity> units) {
+    if (units.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    Map<Integer, RawValue> buildingFragments = this.buildingFragmentCache.findFragments(
+        units.stream().map(HousingUnitEntity::getBuilding).collect(Collectors.toList()));
+
+    // Load the features of every unit in the list at once
+    Map<Integer, List<String>> unitFeatureNames = new HashMap<>();
+    for (HousingUnitFeatureHousingUnitMappingEntity featureMapping
+        : unitFeatureMappingRepository.findByHousingUnitIn(units)) {
+      this.featureCatalog.findHousingUnitFeature(featureMapping.getHousingUnitFeature().getId())
+          .ifPresent(feature -> unitFeatureNames
+              .computeIfAbsent(featureMapping.getHousingUnit().getId(), key -> new ArrayList<>())
+              .add(feature.getName()));
+    }
+
+    List<ObjectNode> result = new ArrayList<>(units.size());
+    for (HousingUnitEntity unit : units) {
+      result.add(getHousingUnitInfo(
+          unit,
+          buildingFragments.get(unit.getBuilding().getId()),
+          unitFeatureNames.getOrDefault(unit.getId(), List.of())
+      ));
+    }
+    return result;
+  }
+
   /**
    * Helper method to create the base JSON structure for a housing unit entity.
    *
    * @param unit the housing unit entity to convert to JSON
+   * @param building the rendered JSON of the unit's building, from the
+   *     {@link BuildingFragmentCache}
+   * @param unitFeatures the names of the features of the unit
    * @return an {@link ObjectNode} containing the housing unit's base information
    */
-  private ObjectNode getHousingUnitInfo(HousingUnitEntity unit) {
+  ObjectNode getHousingUnitInfo(
+      HousingUnitEntity unit,
+      RawValue building,
+      List<String> unitFeatures
+  ) {
     ObjectNode json = objectMapper.createObjectNode();
     json.put("id", unit.getId());
     json.put("unit_number", unit.getUnitNumber());
     json.put("created_datetime", unit.getCreatedDatetime().format(formatter));
     json.put("modified_datetime", unit.getModifiedDatetime().format(formatter));
-
-    // Retrieve building and add building information
-    BuildingEntity building = unit.getBuilding();
-    ObjectNode buildingJson = json.putObject("building");
-    buildingJson.put("id", building.getId());
-    buildingJson.put("address", building.getAddress());
-    buildingJson.put("city", building.getCity());
-    buildingJson.put("state", building.getState());
-    buildingJson.put("zip_code", building.getZipCode());
-
-    // Add building features
-    ArrayNode buildingFeaturesJson = buildingJson.putArray("features");
-    List<BuildingFeatureBuildingMappingEntity> buildingFeatures = 
-        buildingFeatureMappingRepository.findByBuilding(building);
-    for (BuildingFeatureBuildingMappingEntity featureMapping : buildingFeatures) {
-      buildingFeaturesJson.add(featureMapping.getBuildingFeature().getName());
-    }
+    json.putRawValue("building", building);
 
     // Add housing unit features
     ArrayNode housingUnitFeaturesJson = json.putArray("housing_unit_features");
-    List<HousingUnitFeatureHousingUnitMappingEntity> unitFeatures = 
-        unitFeatureMappingRepository.findByHousingUnit(unit);
-    for (HousingUnitFeatureHousingUnitMappingEntity featureMapping : unitFeatures) {
-      housingUnitFeaturesJson.add(featureMapping.getHousingUnitFeature().getName());
+    for (String featureName : unitFeatures) {
+      housingUnitFeaturesJson.add(featureName);
     }
 
     return json;
@@ -418,13 +432,20 @@ public class HousingUnitController {
    * If the unit is not found, a 404 Not Found response is returned.
    * </p>
    *
+   * <p>The unit and its building are loaded with one query. The response carries an ETag made
+   * from their modified datetimes and the versions of both feature catalogs, and the latest of
+   * those datetimes as its Last-Modified date. Feature mapping changes update the modified
+   * datetime of their unit or building, so when the client already has the current version, 304
+   * Not Modified is returned before the features are loaded.
+   * </p>
    *
    * @param id the ID of the housing unit to retrieve
+   * @param request the request, whose conditional headers are checked
    * @return a {@link ResponseEntity} containing the housing unit's details in JSON format, or 
    *         a 404 Not Found response if the unit is not found
    */
   @GetMapping("/housing-unit/{id}")
-  public ResponseEntity<?> getHousingUnit(@PathVariable int id) {
+  public ResponseEntity<?> getHousingUnit(@PathVariable int id, WebRequest request) {
     Optional<HousingUnitEntity> housingUnitRepoResult = housingUnitRepository.findById(id);
     if (housingUnitRepoResult.isEmpty()) {
       String errorMessage = "Housing unit with id " + id + " not found";
@@ -432,8 +453,22 @@ public class HousingUnitController {
     }
 
     HousingUnitEntity unit = housingUnitRepoResult.get();
-    ObjectNode json = getHousingUnitInfo(unit);
-    return ResponseEntity.ok(json);
+    BuildingEntity building = unit.getBuilding();
+    String etag = ConditionalRequests.weakEtag(
+        unit.getId(), unit.getModifiedDatetime(),
+        building.getId(), building.getModifiedDatetime(),
+        this.featureCatalog.getBuildingFeaturesVersion(),
+        this.featureCatalog.getHousingUnitFeaturesVersion());
+    OffsetDateTime lastModified = ConditionalRequests.latest(
+        unit.getModifiedDatetime(), building.getModifiedDatetime(),
+        this.featureCatalog.getBuildingFeaturesLastModified(),
+        this.featureCatalog.getHousingUnitFeaturesLastModified());
+    if (ConditionalRequests.checkNotModified(request, etag, lastModified)) {
+      return ConditionalRequests.notModified(etag, lastModified);
+    }
+
+    ObjectNode json = getHousingUnitInfo(List.of(unit)).get(0);
+    return ConditionalRequests.ok(etag, lastModified).body(json);
   }
 
   /**
@@ -458,9 +493,9 @@ public class HousingUnitController {
     }
 
     List<HousingUnitUserMappingEntity> result = unitUserMappingRepository.findByUserId(id);
-    List<ObjectNode> housingUnits = result.stream()
-        .map(mapping -> getHousingUnitInfo(mapping.getHousingUnit()))
-        .collect(Collectors.toList());
+    List<ObjectNode> housingUnits = getHousingUnitInfo(result.stream()
+        .map(HousingUnitUserMappingEntity::getHousingUnit)
+        .collect(Collectors.toList()));
 
     return ResponseEntity.ok(housingUnits);
   }
@@ -573,29 +608,195 @@ public class HousingUnitController {
   }
 
   /**
-   * Retrieves a list of all housing units.
+   * Retrieves a page of housing units.
    *
-   * <p>This method queries the repository to fetch all available housing units and returns 
-   * their details in a JSON response. Each housing unit's information is encapsulated as an 
-   * {@link ObjectNode}. If no housing units are found, a 204 No Content response is returned.
+   * <p>Housing units are returned in pages ordered by ID, or by modified datetime when
+   * {@code sort=modified_datetime} is given. Each housing unit's information is encapsulated
+   * as an {@link ObjectNode}. If there are more housing units after the returned page, the
+   * cursor of the next page is returned in the {@code X-Next-Cursor} response header and can be
+   * passed back as the {@code cursor} parameter. If no housing units are found, a 204 No
+   * Content response is returned.
    * </p>
    *
+   * @param cursor the cursor of the page to retrieve (optional, defaults to the first page)
+   * @param limit the maximum number of housing units to return (optional, capped at the
+   *     configured maximum page size)
+   * @param sort the sort order, either {@code id} or {@code modified_datetime} (optional,
+   *     defaults to {@code id})
    * @return a {@link ResponseEntity} containing:
    *         <ul>
    *           <li>200 OK: A list of housing units as JSON objects if housing units exist.</li>
    *           <li>204 No Content: If no housing units are available in the repository.</li>
+   *           <li>400 Bad Request: If the cursor, limit or sort order is invalid.</li>
    *         </ul>
    */
   @GetMapping("/housing-units")
-  public ResponseEntity<List<ObjectNode>> getAllHousingUnits() {
-    List<HousingUnitEntity> housingUnits = housingUnitRepository.findAll();
+  public ResponseEntity<List<ObjectNode>> getAllHousingUnits(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(defaultValue = KeysetCursor.SORT_ID) String sort
+  ) {
+    KeysetCursor after = KeysetCursor.decode(sort, cursor);
+    int pageSize = this.paginationProperties.resolvePageSize(limit);
+
+    // Load one extra housing unit to find out whether there is a next page
+    Limit queryLimit = Limit.of(pageSize + 1);
+    List<HousingUnitEntity> housingUnits;
+    if (KeysetCursor.SORT_ID.equals(sort)) {
+      housingUnits = housingUnitRepository.findByIdGreaterThanOrderByIdAsc(
+          after == null ? 0 : after.getId(), queryLimit);
+    } else if (after == null) {
+      housingUnits = housingUnitRepository
+          .findByModifiedDatetimeNotNullOrderByModifiedDatetimeAscIdAsc(queryLimit);
+    } else {
+      housingUnits = housingUnitRepository.findPageAfterModifiedDatetime(
+          after.getModifiedDatetime(), after.getId(), queryLimit);
+    }
+
     if (housingUnits.isEmpty()) {
       return ResponseEntity.status(HttpStatus.NO_CONTENT).body(null);
     }
-    List<ObjectNode> response = housingUnits.stream()
-        .map(this::getHousingUnitInfo)
-        .collect(Collectors.toList());
-    return ResponseEntity.ok(response);
+
+    if (housingUnits.size() <= pageSize) {
+      return ResponseEntity.ok(getHousingUnitInfo(housingUnits));
+    }
+
+    housingUnits = housingUnits.subList(0, pageSize);
+    HousingUnitEntity last = housingUnits.get(pageSize - 1);
+    String nextCursor = KeysetCursor.after(sort, last.getId(), last.getModifiedDatetime()).encode();
+
+    return ResponseEntity.ok()
+        .header(KeysetCursor.NEXT_CURSOR_HEADER, nextCursor)
+        .body(getHousingUnitInfo(housingUnits));
+  }
+
+  /**
+   * Finds the housing units matching a boolean expression of housing unit features, such as
+   * {@code 1 AND 2 AND NOT 3}.
+   *
+   * <p>The expression combines housing unit feature IDs with {@code AND}, {@code OR},
+   * {@code NOT} and parentheses, and is evaluated against the in-memory
+   * {@link FeatureBitmapIndex}, so the mapping table is not scanned. Matching housing units are
+   * returned in pages ordered by ID, with the same JSON structure as the paginated listing. If
+   * there are more matching housing units after the returned page, the cursor of the next page
+   * is returned in the {@code X-Next-Cursor} response header.
+   * </p>
+   *
+   * @param features the housing unit feature expression
+   * @param cursor the cursor of the page to retrieve (optional, defaults to the first page)
+   * @param limit the maximum number of housing units to return (optional, capped at the
+   *     configured maximum page size)
+   * @return a {@link ResponseEntity} containing:
+   *         <ul>
+   *           <li>200 OK: A list of the matching housing units as JSON objects.</li>
+   *           <li>204 No Content: If no housing units match the expression.</li>
+   *           <li>400 Bad Request: If the expression, cursor or limit is invalid.</li>
+   *           <li>404 Not Found: If the expression names a housing unit feature that does not
+   *               exist.</li>
+   *         </ul>
+   */
+  @GetMapping("/housing-units/search")
+  public ResponseEntity<?> searchHousingUnits(
+      @RequestParam String features,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit
+  ) {
+    FeatureExpression expression = FeatureExpression.parse(features);
+    for (Integer featureId : expression.getFeatureIds()) {
+      if (this.featureCatalog.findHousingUnitFeature(featureId).isEmpty()) {
+        String errorMessage = "Housing unit feature with id " + featureId + " not found.";
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorMessage);
+      }
+    }
+
+    KeysetCursor after = KeysetCursor.decode(KeysetCursor.SORT_ID, cursor);
+    int pageSize = this.paginationProperties.resolvePageSize(limit);
+
+    // Take one extra ID to find out whether there is a next page
+    List<Integer> ids = FeatureBitmapIndex.idsAfter(
+        this.featureBitmapIndex.searchHousingUnits(expression),
+        after == null ? 0 : after.getId(),
+        pageSize + 1
+    );
+
+    if (ids.isEmpty()) {
+      return ResponseEntity.status(HttpStatus.NO_CONTENT).body(null);
+    }
+
+    if (ids.size() <= pageSize) {
+      List<HousingUnitEntity> housingUnits = housingUnitRepository.findByIdInOrderByIdAsc(ids);
+      return ResponseEntity.ok(getHousingUnitInfo(housingUnits));
+    }
+
+    ids = ids.subList(0, pageSize);
+    String nextCursor = KeysetCursor.after(KeysetCursor.SORT_ID, ids.get(pageSize - 1), null)
+        .encode();
+    List<HousingUnitEntity> housingUnits = housingUnitRepository.findByIdInOrderByIdAsc(ids);
+
+    return ResponseEntity.ok()
+        .header(KeysetCursor.NEXT_CURSOR_HEADER, nextCursor)
+        .body(getHousingUnitInfo(housingUnits));
+  }
+
+  /**
+   * Streams all housing units as a JSON array.
+   *
+   * <p>Selected with {@code stream=true}. Unlike the paginated listing, every housing unit is
+   * returned in a single response. Housing units are read from the database with a bounded
+   * fetch size and written to the response as they are read, in chunks of
+   * {@value HousingUnitRepositoryInterface#STREAM_FETCH_SIZE}, so memory use does not grow with
+   * the number of housing units. Each housing unit has the same JSON structure as in the
+   * paginated listing.
+   * </p>
+   *
+   * @return a {@link ResponseEntity} containing a streamed JSON array of all housing units
+   */
+  @GetMapping(value = "/housing-units", params = "stream=true")
+  public ResponseEntity<StreamingResponseBody> streamAllHousingUnits() {
+    StreamingResponseBody body = outputStream -> {
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+        generator.writeStartArray();
+        generator.flush();
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+          try (Stream<HousingUnitEntity> housingUnits =
+                   housingUnitRepository.streamAllByOrderByIdAsc()) {
+            List<HousingUnitEntity> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            Iterator<HousingUnitEntity> iterator = housingUnits.iterator();
+            while (iterator.hasNext()) {
+              chunk.add(iterator.next());
+              if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                writeHousingUnitChunk(generator, chunk);
+                chunk.clear();
+              }
+            }
+          }
+        });
+
+        generator.writeEndArray();
+      }
+    };
+
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+
+  /**
+   * Helper method to write a chunk of streamed housing units to the response and release
+   * them from the persistence context.
+   *
+   * @param generator the generator writing the response body
+   * @param chunk the housing units to write
+   */
+  private void writeHousingUnitChunk(JsonGenerator generator, List<HousingUnitEntity> chunk) {
+    try {
+      for (ObjectNode json : getHousingUnitInfo(chunk)) {
+        generator.writeTree(json);
+      }
+      generator.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    entityManager.clear();
   }
 
   /**
@@ -609,7 +810,7 @@ public class HousingUnitController {
   @GetMapping("/housing-unit-feature/{id}/housing-units")
   public ResponseEntity<?> getHousingUnitsByFeature(@PathVariable int id) {
 
-    Optional<HousingUnitFeatureEntity> feature = this.unitFeatureRepository.findById(id);
+    Optional<HousingUnitFeatureEntity> feature = this.featureCatalog.findHousingUnitFeature(id);
     if (feature.isEmpty()) {
       String errorMessage = "Housing unit feature with id " + id + " not found.";
       return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorMessage);
@@ -618,12 +819,9 @@ public class HousingUnitController {
     List<HousingUnitFeatureHousingUnitMappingEntity> result =
         this.unitFeatureMappingRepository.findByHousingUnitFeatureId(id);
 
-    List<ObjectNode> unitList = result.stream()
-        .<ObjectNode>map(mapping -> {
-          HousingUnitEntity unit = mapping.getHousingUnit();
-          return getHousingUnitInfo(unit);
-        })
-        .collect(Collectors.toList());
+    List<ObjectNode> unitList = getHousingUnitInfo(result.stream()
+        .map(HousingUnitFeatureHousingUnitMappingEntity::getHousingUnit)
+        .collect(Collectors.toList()));
 
     return ResponseEntity.status(HttpStatus.OK).body(unitList);
   }
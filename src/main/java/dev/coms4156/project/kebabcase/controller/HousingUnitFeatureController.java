@@ -1,12 +1,15 @@
 package dev.coms4156.project.kebabcase.controller;
 
 import dev.coms4156.project.kebabcase.entity.HousingUnitFeatureEntity;
-import dev.coms4156.project.kebabcase.repository.HousingUnitFeatureRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.FeatureCatalog;
+import dev.coms4156.project.kebabcase.util.ConditionalRequests;
+import java.time.OffsetDateTime;
 import java.util.List;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * REST controller for managing housing unit feature entities.
@@ -24,40 +27,55 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class HousingUnitFeatureController {
   
-  private final HousingUnitFeatureRepositoryInterface housingUnitFeatureRepository;
+  private final FeatureCatalog featureCatalog;
 
   /**
    * Constructs a new BuildingController.
    *
-   * @param housingUnitFeatureRepository the repository used for building features
+   * @param featureCatalog the in-memory catalog of features
    */
 
   public HousingUnitFeatureController(
-      HousingUnitFeatureRepositoryInterface housingUnitFeatureRepository
+      FeatureCatalog featureCatalog
   ) {
-    this.housingUnitFeatureRepository = housingUnitFeatureRepository;
+    this.featureCatalog = featureCatalog;
   }
 
   /**
    * Retrieves a list of all housing units from the repository,
    * returns all housing units in the repository as a list.
    *
+   * <p>The response carries an ETag made from the version of the catalog, which only changes
+   * when the housing unit features do, and their latest modified datetime as its
+   * Last-Modified date. When the client already has the current version, 304 Not Modified is
+   * returned without a body.
+   * </p>
+   *
+   * @param request the request, whose conditional headers are checked
    * @return ResponseEntity containing the list of housing units as a JSON response.
    *         Returns a 200 OK status if housing units are found, or 204 No Content if no
    *         housing units exist in the repository.
    */
 
   @GetMapping("/housing-unit-features")
-  public ResponseEntity<List<HousingUnitFeatureEntity>> getHousingUnitFeatures() {
+  public ResponseEntity<List<HousingUnitFeatureEntity>> getHousingUnitFeatures(
+      WebRequest request
+  ) {
+    String etag = ConditionalRequests.weakEtag(
+        this.featureCatalog.getHousingUnitFeaturesVersion());
+    OffsetDateTime lastModified = this.featureCatalog.getHousingUnitFeaturesLastModified();
+    if (ConditionalRequests.checkNotModified(request, etag, lastModified)) {
+      return ConditionalRequests.notModified(etag, lastModified);
+    }
 
     List<HousingUnitFeatureEntity> featureEntities =
-            this.housingUnitFeatureRepository.findAll();
+            this.featureCatalog.getHousingUnitFeatures();
 
     if (featureEntities.isEmpty()) {
       return ResponseEntity.status(HttpStatus.NO_CONTENT).body(null);
     }
 
-    return ResponseEntity.status(HttpStatus.OK).body(featureEntities);
+    return ConditionalRequests.ok(etag, lastModified).body(featureEntities);
   }
 
 }
@@ -0,0 +1,65 @@
+package dev.coms4156.project.kebabcase.controller;
+
+import dev.coms4156.project.kebabcase.service.BulkImporter;
+import java.io.InputStream;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * This class contains the endpoints for importing buildings and housing units in bulk.
+ */
+@RestController
+public class ImportController {
+
+  private static final String TEXT_CSV_VALUE = "text/csv";
+
+  private final BulkImporter bulkImporter;
+
+  /**
+   * Constructs a new ImportController.
+   *
+   * @param bulkImporter the importer that reads the rows and writes the report
+   */
+  public ImportController(BulkImporter bulkImporter) {
+    this.bulkImporter = bulkImporter;
+  }
+
+  /**
+   * Imports buildings and housing units from newline-delimited JSON.
+   *
+   * <p>Each line is an object with the {@code address}, {@code city}, {@code state} and
+   * {@code zipCode} of a building, and optionally a {@code unitNumber} and the
+   * {@code buildingFeatures} and {@code unitFeatures} to add. Existing buildings and housing
+   * units are reused. The upload is read as a stream, and the report is streamed back with one
+   * JSON object per row as the rows are imported.
+   * </p>
+   *
+   * @param body the rows to import
+   * @return a {@link ResponseEntity} streaming the import report
+   */
+  @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> importNdjson(InputStream body) {
+    StreamingResponseBody report = outputStream -> bulkImporter.importNdjson(body, outputStream);
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(report);
+  }
+
+  /**
+   * Imports buildings and housing units from CSV.
+   *
+   * <p>The first line is a header naming the same columns as the JSON import. Feature IDs within
+   * the {@code buildingFeatures} and {@code unitFeatures} columns are separated by semicolons,
+   * and rows without a housing unit leave {@code unitNumber} empty.
+   * </p>
+   *
+   * @param body the rows to import
+   * @return a {@link ResponseEntity} streaming the import report
+   */
+  @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+  public ResponseEntity<StreamingResponseBody> importCsv(InputStream body) {
+    StreamingResponseBody report = outputStream -> bulkImporter.importCsv(body, outputStream);
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(report);
+  }
+}
@@ -5,16 +5,22 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import dev.coms4156.project.kebabcase.entity.ClientEntity;
 import dev.coms4156.project.kebabcase.entity.TokenEntity;
 import dev.coms4156.project.kebabcase.entity.UserEntity;
-import dev.coms4156.project.kebabcase.repository.ClientRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.TokenRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.UserRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.AuthCache;
+import dev.coms4156.project.kebabcase.service.PasswordHasher;
+import dev.coms4156.project.kebabcase.service.RevokedTokens;
+import dev.coms4156.project.kebabcase.service.TokenSigner;
 import jakarta.servlet.http.HttpServletRequest;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -47,40 +53,64 @@ public class UserController {
   private static final String SALT_CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ1234567890";
   private static final Integer SALT_LENGTH = 20;
   private final UserRepositoryInterface userRepository;
-  private final ClientRepositoryInterface clientRepository;
   private final TokenRepositoryInterface tokenRepository;
+  private final AuthCache authCache;
+  private final PasswordHasher passwordHasher;
+  private final TokenSigner tokenSigner;
+  private final RevokedTokens revokedTokens;
   private final ObjectMapper objectMapper;
+  private final AsyncTaskExecutor taskExecutor;
 
   /**
    * Constructs a new {@link UserController}.
    *
    * @param userRepository the repository for user entities
-   * @param clientRepository the repository to get auth client information
+   * @param authCache the cache used to look up clients and the owners of tokens
+   * @param passwordHasher the hasher used for the passwords of new and logging in users
+   * @param tokenSigner the signer used to issue signed tokens, when enabled
+   * @param revokedTokens the set of revoked tokens
+   * @param taskExecutor the executor that saves users and tokens once their password is hashed,
+   *     so the hashing threads never wait on the database
    */
   public UserController(
       UserRepositoryInterface userRepository,
-      ClientRepositoryInterface clientRepository,
       TokenRepositoryInterface tokenRepository,
-      ObjectMapper objectMapper
+      AuthCache authCache,
+      PasswordHasher passwordHasher,
+      TokenSigner tokenSigner,
+      RevokedTokens revokedTokens,
+      ObjectMapper objectMapper,
+      @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+      AsyncTaskExecutor taskExecutor
   ) {
     this.userRepository = userRepository;
-    this.clientRepository = clientRepository;
     this.tokenRepository = tokenRepository;
+    this.authCache = authCache;
+    this.passwordHasher = passwordHasher;
+    this.tokenSigner = tokenSigner;
+    this.revokedTokens = revokedTokens;
     this.objectMapper = objectMapper;
+    this.taskExecutor = taskExecutor;
   }
 
   /**
    * Creates a new user with a hashed password.
    *
+   * <p>The password is hashed on the {@link PasswordHasher} threads, so the request thread is
+   * released while it runs. The database is then written on the application task executor.
+   * </p>
+   *
    * @param firstName the first name of the user.
    * @param lastName the surname of the user.
    * @param emailAddress the email of the user, which will be used for login.
    * @param password the user's selected password, which will be hashed and used for login.
    * @return a {@link ResponseEntity} containing the resulting user and the new
-   *     ID. If the email is in use by another user, an HTTP 409 conflict is returned.
+   *     ID. If the email is in use by another user, an HTTP 409 conflict is returned. If too
+   *     many passwords are being hashed, an HTTP 503 is returned with a Retry-After header. If
+   *     the user cannot be saved, an HTTP 500 is returned.
    */
   @PostMapping("/users")
-  public ResponseEntity<?> createUser(
+  public CompletableFuture<ResponseEntity<?>> createUser(
       @RequestParam String firstName,
       @RequestParam String lastName,
       @RequestParam String emailAddress,
@@ -90,25 +120,30 @@ public class UserController {
         || lastName == null || lastName.isBlank()
         || emailAddress == null || emailAddress.isBlank()
         || password == null || password.isBlank()) {
-      return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                            .body("All fields are required and cannot be blank.");
+      return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body("All fields are required and cannot be blank."));
     }
 
     Optional<UserEntity> userResult = userRepository.findByEmailAddress(emailAddress);
     if (userResult.isPresent()) {
-      return ResponseEntity.status(HttpStatus.CONFLICT)
-        .body("There is an account already associated with " + emailAddress);
+      return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT)
+        .body("There is an account already associated with " + emailAddress));
     }
 
+    CompletableFuture<String> hashedPassword;
     try {
-      String hashedPassword = this.hashPassword(password);
+      hashedPassword = this.passwordHasher.hash(password);
+    } catch (RejectedExecutionException e) {
+      return CompletableFuture.completedFuture(serviceUnavailable());
+    }
 
+    return hashedPassword.<ResponseEntity<?>>thenApplyAsync(hash -> {
       UserEntity newUser = new UserEntity();
 
       newUser.setFirstName(firstName);
       newUser.setLastName(lastName);
       newUser.setEmailAddress(emailAddress);
-      newUser.setPassword(hashedPassword);
+      newUser.setPassword(hash);
       OffsetDateTime time = OffsetDateTime.now();
       newUser.setCreatedDatetime(time);
       newUser.setModifiedDatetime(time);
@@ -118,34 +153,39 @@ public class UserController {
               + savedUser.getId().toString();
 
       return new ResponseEntity<>(response, HttpStatus.CREATED);
-
-    } catch (NoSuchAlgorithmException e) {
-      throw new RuntimeException("Error: SHA-256 algorithm not found.", e);
-    }
+    }, this.taskExecutor)
+        .exceptionally(e -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null));
   }
 
   /**
    * Authenticates a user by email and password.
    *
+   * <p>The password is hashed on the {@link PasswordHasher} threads, so the request thread is
+   * released while it runs. The database is then written on the application task executor.
+   * </p>
+   *
    * @param email the email of the user as requested.
    * @param password the plain-text password of that user.
    * @param clientName client service requesting authentication
-   * @return the user ID if authentication is successful, or null if not.
+   * @return the user ID if authentication is successful, or null if not. If too many passwords
+   *     are being hashed, an HTTP 503 is returned with a Retry-After header.
    */
   @PostMapping("/authenticate")
-  public ResponseEntity<String> authenticate(
+  public CompletableFuture<ResponseEntity<String>> authenticate(
       @RequestParam String email, @RequestParam String password, @RequestParam String clientName) {
 
     if (email == null || email.isBlank()
         || password == null || password.isBlank()
         || clientName == null || clientName.isBlank()) {
-      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+      return CompletableFuture.completedFuture(
+          ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null));
     }
 
-    Optional<ClientEntity> clientResult = this.clientRepository.findByName(clientName);
+    Optional<ClientEntity> clientResult = this.authCache.findClientByName(clientName);
 
     if (clientResult.isEmpty()) {
-      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+      return CompletableFuture.completedFuture(
+          ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
     }
 
     ClientEntity client = clientResult.get();
@@ -153,22 +193,30 @@ public class UserController {
     Optional<UserEntity> userResult = this.userRepository.findByEmailAddress(email);
 
     if (userResult.isEmpty()) {
-      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+      return CompletableFuture.completedFuture(
+          ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
     }
 
     UserEntity user = userResult.get();
 
+    CompletableFuture<String> hashedInputPassword;
     try {
-      String hashedInputPassword = this.hashPassword(password);
+      hashedInputPassword = this.passwordHasher.hash(password);
+    } catch (RejectedExecutionException e) {
+      return CompletableFuture.completedFuture(serviceUnavailable());
+    }
 
-      if (!hashedInputPassword.equals(user.getPassword())) {
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
+    return hashedInputPassword.thenApplyAsync(hash -> {
+      if (!hash.equals(user.getPassword())) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).<String>body(null);
       }
 
       String tokenStringValue = this.generateRandomTokenString();
 
       TokenEntity token = new TokenEntity();
-      token.setToken(tokenStringValue);
+      // A signed token carries its claims, and its row is only kept for revocation
+      token.setToken(this.tokenSigner.isEnabled()
+          ? TokenSigner.storedTokenId(tokenStringValue) : tokenStringValue);
       token.setUser(user);
       token.setClient(client);
 
@@ -181,10 +229,14 @@ public class UserController {
 
       this.tokenRepository.save(token);
 
+      if (this.tokenSigner.isEnabled()) {
+        tokenStringValue = this.tokenSigner.sign(new TokenSigner.Claims(
+            user.getId(), client.getId(), expirationDatetime, tokenStringValue));
+      }
+
       return ResponseEntity.status(HttpStatus.OK).body(tokenStringValue);
-    } catch (NoSuchAlgorithmException e) {
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-    }
+    }, this.taskExecutor)
+        .exceptionally(e -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null));
   }
 
   /**
@@ -201,17 +253,16 @@ public class UserController {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(text);
     }
 
-    Optional<TokenEntity> tokenResult = this.tokenRepository.findByToken(tokenString);
+    Optional<AuthCache.TokenUser> userResult = this.authCache.findUserByToken(tokenString);
 
-    if (tokenResult.isEmpty()) {
+    if (userResult.isEmpty()) {
       return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
     }
 
-    TokenEntity token = tokenResult.get();
-    UserEntity user = token.getUser();
+    AuthCache.TokenUser user = userResult.get();
 
     ObjectNode json = objectMapper.createObjectNode();
-    json.put("id", user.getId());
+    json.put("id", user.getUserId());
     json.put("firstName", user.getFirstName());
     json.put("lastName", user.getLastName());
     json.put("emailAddress", user.getEmailAddress());
@@ -220,37 +271,64 @@ public class UserController {
   }
 
   /**
-   * Hashes the password using SHA-256.
+   * Revokes the token of the caller, so it can no longer be used.
    *
-   * @param password the plain-text password to hash.
-   * @return the hashed password as a hexadecimal string.
-   * @throws NoSuchAlgorithmException if SHA-256 is not available.
+   * <p>Other instances stop accepting a revoked signed token once they refresh their
+   * {@link RevokedTokens}.
+   * </p>
+   *
+   * @param request the request, carrying the token in its {@code token} header
+   * @return a {@link ResponseEntity} containing:
+   *           200 OK: If the token was revoked.
+   *           401 Unauthorized: If the token header is missing or empty.
+   *           404 Not Found: If the token does not exist or was already revoked.
    */
-  private String hashPassword(String password) throws NoSuchAlgorithmException {
-    MessageDigest digest = MessageDigest.getInstance("SHA-256");
-    byte[] encodedHash = digest.digest(password.getBytes(StandardCharsets.UTF_8));
-    return bytesToHex(encodedHash);
+  @PostMapping("/revoke")
+  public ResponseEntity<?> revokeToken(HttpServletRequest request) {
+    String tokenString = request.getHeader("token");
+
+    if (tokenString == null || tokenString.isEmpty()) {
+      String text = "Token header is missing or empty.";
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(text);
+    }
+
+    String tokenId = tokenString;
+    if (TokenSigner.isSigned(tokenString)) {
+      Optional<TokenSigner.Claims> claims = this.tokenSigner.verify(tokenString);
+      if (claims.isEmpty()) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+      }
+      tokenId = TokenSigner.storedTokenId(claims.get().getTokenId());
+    }
+
+    if (this.tokenRepository.revoke(tokenId, OffsetDateTime.now()) == 0) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+    }
+
+    this.revokedTokens.add(tokenId);
+    this.authCache.invalidateToken(tokenString);
+
+    return ResponseEntity.status(HttpStatus.OK).body("Token was revoked.");
   }
 
   /**
-   * Converts a byte array to a hexadecimal string.
+   * Builds the response for a request that cannot be served while the password hashing
+   * threads are saturated.
    *
-   * @param hash the byte array to convert.
-   * @return the hexadecimal string representation of the byte array.
+   * @return an HTTP 503 response asking the client to retry after a second
    */
-  private String bytesToHex(byte[] hash) {
-    StringBuilder hexString = new StringBuilder();
-    for (byte b : hash) {
-      String hex = Integer.toHexString(0xff & b);
-      if (hex.length() == 1) {
-        hexString.append('0');
-      }
-      hexString.append(hex);
-    }
-    return hexString.toString();
+  private static <T> ResponseEntity<T> serviceUnavailable() {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(null);
   }
 
-  private String generateRandomTokenString() {
+  /**
+   * Generates a random token of upper-case letters and digits.
+   *
+   * @return the new token
+   */
+  String generateRandomTokenString() {
     StringBuilder salt = new StringBuilder();
     Random random = new Random();
 
@@ -1,18 +1,24 @@
 package dev.coms4156.project.kebabcase.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import java.time.OffsetDateTime;
 import java.util.Set;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entity detailing all the information held by a building.
@@ -23,14 +29,40 @@ import lombok.experimental.Accessors;
 @Setter
 @NoArgsConstructor()
 @Entity(name = "Building")
-@Table(name = "buildings")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "buildings")
+@Table(
+    name = "buildings",
+    indexes = {
+        @Index(name = "idx_buildings_address", columnList = "address"),
+        @Index(name = "idx_buildings_city", columnList = "city"),
+        @Index(name = "idx_buildings_state", columnList = "state"),
+        @Index(name = "idx_buildings_zip_code", columnList = "zip_code, address"),
+        @Index(name = "idx_buildings_modified_datetime", columnList = "modified_datetime, id"),
+        @Index(name = "idx_buildings_state_city", columnList = "state, city"),
+        @Index(name = "idx_buildings_city_modified_datetime",
+            columnList = "city, modified_datetime"),
+        @Index(name = "idx_buildings_state_modified_datetime",
+            columnList = "state, modified_datetime")
+    }
+)
 public class BuildingEntity {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "buildings_id")
+  @TableGenerator(
+      name = "buildings_id",
+      table = IdGenerators.TABLE,
+      pkColumnName = IdGenerators.NAME_COLUMN,
+      valueColumnName = IdGenerators.VALUE_COLUMN,
+      pkColumnValue = "buildings",
+      allocationSize = IdGenerators.ALLOCATION_SIZE
+  )
   @Column(name = "id", nullable = false)
   private Integer id;
 
   @OneToMany(mappedBy = "building")
+  @BatchSize(size = 100)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "buildingHousingUnits")
   private Set<HousingUnitEntity> housingUnits;
 
   @Column(name = "address")
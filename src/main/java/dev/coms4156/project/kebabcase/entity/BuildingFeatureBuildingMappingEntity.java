@@ -6,9 +6,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.time.OffsetDateTime;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -25,7 +27,14 @@ import lombok.experimental.Accessors;
 @Setter
 @NoArgsConstructor()
 @Entity(name = "BuildingFeatureBuildingMapping")
-@Table(name = "building_feature_building_mappings")
+@Table(
+    name = "building_feature_building_mappings",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"building_id", "building_feature_id"}),
+    indexes = @Index(
+        name = "idx_building_feature_building_mappings_feature_id",
+        columnList = "building_feature_id, building_id"
+    )
+)
 public class BuildingFeatureBuildingMappingEntity {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,5 +1,6 @@
 package dev.coms4156.project.kebabcase.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -11,6 +12,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entity detailing all the information held by a building feature.
@@ -21,6 +24,8 @@ import lombok.experimental.Accessors;
 @Setter
 @NoArgsConstructor()
 @Entity(name = "BuildingFeature")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "buildingFeatures")
 @Table(name = "building_features")
 public class BuildingFeatureEntity {
   @Id
@@ -6,9 +6,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import java.time.OffsetDateTime;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -23,10 +25,24 @@ import lombok.experimental.Accessors;
 @Setter
 @NoArgsConstructor()
 @Entity(name = "BuildingUserMapping")
-@Table(name = "building_user_mappings")
+@Table(
+    name = "building_user_mappings",
+    indexes = @Index(
+        name = "idx_building_user_mappings_user_id",
+        columnList = "user_id, building_id"
+    )
+)
 public class BuildingUserMappingEntity {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "building_user_mappings_id")
+  @TableGenerator(
+      name = "building_user_mappings_id",
+      table = IdGenerators.TABLE,
+      pkColumnName = IdGenerators.NAME_COLUMN,
+      valueColumnName = IdGenerators.VALUE_COLUMN,
+      pkColumnValue = "building_user_mappings",
+      allocationSize = IdGenerators.ALLOCATION_SIZE
+  )
   @Column(name = "id", nullable = false)
   private Integer id;
 
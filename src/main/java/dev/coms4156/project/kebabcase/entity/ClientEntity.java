@@ -1,16 +1,20 @@
 package dev.coms4156.project.kebabcase.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.time.OffsetDateTime;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entity detailing all the information held by a client.
@@ -21,7 +25,12 @@ import lombok.experimental.Accessors;
 @Setter
 @NoArgsConstructor()
 @Entity(name = "Client")
-@Table(name = "clients")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "clients")
+@Table(
+    name = "clients",
+    indexes = @Index(name = "idx_clients_name", columnList = "name")
+)
 public class ClientEntity {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
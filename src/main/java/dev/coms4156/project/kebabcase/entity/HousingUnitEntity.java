@@ -1,20 +1,25 @@
 package dev.coms4156.project.kebabcase.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import java.time.OffsetDateTime;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entity detailing all the information held by a housing unit.
@@ -25,10 +30,26 @@ import lombok.experimental.Accessors;
 @Setter
 @NoArgsConstructor()
 @Entity(name = "HousingUnit")
-@Table(name = "housing_units")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "housingUnits")
+@Table(
+    name = "housing_units",
+    indexes = {
+        @Index(name = "idx_housing_units_building_id", columnList = "building_id, unit_number"),
+        @Index(name = "idx_housing_units_modified_datetime", columnList = "modified_datetime, id")
+    }
+)
 public class HousingUnitEntity {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "housing_units_id")
+  @TableGenerator(
+      name = "housing_units_id",
+      table = IdGenerators.TABLE,
+      pkColumnName = IdGenerators.NAME_COLUMN,
+      valueColumnName = IdGenerators.VALUE_COLUMN,
+      pkColumnValue = "housing_units",
+      allocationSize = IdGenerators.ALLOCATION_SIZE
+  )
   @Column(name = "id", nullable = false)
   private Integer id;
 
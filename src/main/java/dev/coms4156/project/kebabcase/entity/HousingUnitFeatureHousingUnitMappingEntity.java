@@ -6,9 +6,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.time.OffsetDateTime;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -25,7 +27,16 @@ import lombok.experimental.Accessors;
 @Setter
 @NoArgsConstructor()
 @Entity(name = "HousingUnitFeatureHousingUnitMapping")
-@Table(name = "housing_unit_feature_housing_unit_mappings")
+@Table(
+    name = "housing_unit_feature_housing_unit_mappings",
+    uniqueConstraints = @UniqueConstraint(
+        columnNames = {"housing_unit_id", "housing_unit_feature_id"}
+    ),
+    indexes = @Index(
+        name = "idx_housing_unit_feature_housing_unit_mappings_feature_id",
+        columnList = "housing_unit_feature_id, housing_unit_id"
+    )
+)
 public class HousingUnitFeatureHousingUnitMappingEntity {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
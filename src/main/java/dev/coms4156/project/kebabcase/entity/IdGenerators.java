@@ -0,0 +1,29 @@
+package dev.coms4156.project.kebabcase.entity;
+
+/**
+ * Settings shared by the table-backed ID generators of the high-volume entities.
+ *
+ * <p>{@code IDENTITY} columns make Hibernate insert each row on its own to read back the
+ * generated ID, which disables JDBC batching. These entities instead reserve blocks of IDs
+ * from one row per table in {@value #TABLE}, using Hibernate's pooled optimizer, so a batch of
+ * inserts needs one ID round trip per {@value #ALLOCATION_SIZE} rows. The allocation size
+ * matches {@code hibernate.jdbc.batch_size}.
+ * </p>
+ */
+public final class IdGenerators {
+
+  /** The table holding the next ID of each entity table. */
+  public static final String TABLE = "id_generators";
+
+  /** The column naming the entity table a row belongs to. */
+  public static final String NAME_COLUMN = "table_name";
+
+  /** The column holding the upper end of the next block of IDs. */
+  public static final String VALUE_COLUMN = "next_id";
+
+  /** The number of IDs reserved at a time. */
+  public static final int ALLOCATION_SIZE = 50;
+
+  private IdGenerators() {
+  }
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -24,7 +25,17 @@ import lombok.experimental.Accessors;
 @Setter
 @NoArgsConstructor()
 @Entity(name = "Token")
-@Table(name = "tokens")
+@Table(
+    name = "tokens",
+    indexes = {
+        @Index(name = "idx_tokens_token", columnList = "token"),
+        @Index(name = "idx_tokens_expiration_datetime", columnList = "expiration_datetime"),
+        @Index(
+            name = "idx_tokens_revoked_datetime",
+            columnList = "revoked_datetime, expiration_datetime, token"
+        )
+    }
+)
 public class TokenEntity {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -45,6 +56,9 @@ public class TokenEntity {
   @Column(name = "expiration_datetime")
   private OffsetDateTime expirationDatetime;
 
+  @Column(name = "revoked_datetime")
+  private OffsetDateTime revokedDatetime;
+
   @Column(name = "created_datetime")
   private OffsetDateTime createdDatetime;
 
@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.time.OffsetDateTime;
 import lombok.Getter;
@@ -21,7 +22,10 @@ import lombok.experimental.Accessors;
 @Setter
 @NoArgsConstructor()
 @Entity(name = "User")
-@Table(name = "users")
+@Table(
+    name = "users",
+    indexes = @Index(name = "idx_users_email_address", columnList = "email_address")
+)
 public class UserEntity {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -3,9 +3,16 @@ package dev.coms4156.project.kebabcase.repository;
 import dev.coms4156.project.kebabcase.entity.BuildingEntity;
 import dev.coms4156.project.kebabcase.entity.BuildingFeatureBuildingMappingEntity;
 import dev.coms4156.project.kebabcase.entity.BuildingFeatureEntity;
+import jakarta.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -51,11 +58,71 @@ public interface BuildingFeatureBuildingMappingRepositoryInterface
   List<BuildingFeatureBuildingMappingEntity> findByBuildingFeatureId(int buildingFeatureId);
 
   /**
-   * Finds all mappings associated with a given building.
+   * Finds all mappings associated with a given building. Only the feature IDs are
+   * read; feature names come from the feature catalog.
    *
    * @param building the building entity to find feature mappings for
    * @return a list of {@link BuildingFeatureBuildingMappingEntity} containing
    *     all mappings for the specified building, or an empty list if none found
    */
   List<BuildingFeatureBuildingMappingEntity> findByBuilding(BuildingEntity building);
+
+  /**
+   * Finds all mappings associated with any of the given buildings in a single query.
+   * Only the feature IDs are read; feature names come from the feature catalog.
+   *
+   * @param buildings the building entities to find feature mappings for
+   * @return a list of {@link BuildingFeatureBuildingMappingEntity} containing
+   *     all mappings for the specified buildings, or an empty list if none found
+   */
+  List<BuildingFeatureBuildingMappingEntity> findByBuildingIn(Collection<BuildingEntity> buildings);
+
+  /**
+   * Finds every building feature mapping as a pair of IDs, without loading the entities.
+   *
+   * @return a list of {@code [buildingFeatureId, buildingId]} pairs
+   */
+  @Query("SELECT m.buildingFeature.id, m.building.id FROM BuildingFeatureBuildingMapping m")
+  List<Object[]> findAllFeatureIdAndBuildingId();
+
+  /**
+   * Finds the IDs of the features a building has, without loading the mappings.
+   *
+   * @param buildingId the ID of the building
+   * @return the IDs of the building's features
+   */
+  @Query("SELECT m.buildingFeature.id FROM BuildingFeatureBuildingMapping m "
+      + "WHERE m.building.id = :buildingId")
+  List<Integer> findBuildingFeatureIdsByBuildingId(int buildingId);
+
+  /**
+   * Maps a building to several building features in a single statement. Features the
+   * building already has, and IDs that are not building features, are skipped. Only the mapping
+   * table is declared as written, so the second-level cache is not cleared.
+   *
+   * @param buildingId the ID of the building
+   * @param buildingFeatureIds the IDs of the building features to add
+   * @param now the creation and modification time of the new mappings
+   * @return the number of mappings inserted
+   */
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES,
+      value = "building_feature_building_mappings"))
+  @Query(value = "INSERT IGNORE INTO building_feature_building_mappings "
+      + "(building_id, building_feature_id, created_datetime, modified_datetime) "
+      + "SELECT :buildingId, f.id, :now, :now FROM building_features f "
+      + "WHERE f.id IN (:buildingFeatureIds)", nativeQuery = true)
+  int insertMappings(int buildingId, Collection<Integer> buildingFeatureIds, OffsetDateTime now);
+
+  /**
+   * Removes several building features from a building in a single statement.
+   *
+   * @param buildingId the ID of the building
+   * @param buildingFeatureIds the IDs of the building features to remove
+   * @return the number of mappings deleted
+   */
+  @Modifying
+  @Query("DELETE FROM BuildingFeatureBuildingMapping m "
+      + "WHERE m.building.id = :buildingId AND m.buildingFeature.id IN :buildingFeatureIds")
+  int deleteMappings(int buildingId, Collection<Integer> buildingFeatureIds);
 }
@@ -1,9 +1,18 @@
 package dev.coms4156.project.kebabcase.repository;
 
 import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import jakarta.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -13,13 +22,23 @@ import org.springframework.stereotype.Repository;
  * {@link BuildingEntity}. It also includes a custom query method for finding a 
  * building by its address, city, state, and zip code.
  * </p>
+ * <p>
+ * Buildings can also be searched with any combination of the filters in
+ * {@link BuildingSpecifications}, through {@link JpaSpecificationExecutor}.
+ * </p>
  *
  *
  * @see BuildingEntity
  */
 
 @Repository("BuildingRepository")
-public interface BuildingRepositoryInterface extends JpaRepository<BuildingEntity, Integer> {
+public interface BuildingRepositoryInterface extends JpaRepository<BuildingEntity, Integer>,
+    JpaSpecificationExecutor<BuildingEntity> {
+
+  /**
+   * Number of rows fetched from the database at a time when streaming buildings.
+   */
+  String STREAM_FETCH_SIZE = "500";
 
   /**
    * Finds a building by its address, city, state, and zip code.
@@ -69,4 +88,85 @@ public interface BuildingRepositoryInterface extends JpaRepository<BuildingEntit
    * @return a list of buildings containing the zip code if found, or empty list if not found
    */
   List<BuildingEntity> findByZipCode(String zipCode);
+
+  /**
+   * Retrieves a page of buildings ordered by ID, starting after the given ID.
+   *
+   * @param id the ID after which the page starts, or 0 for the first page
+   * @param limit the maximum number of buildings to return
+   * @return a list of buildings with an ID greater than the given ID
+   */
+  List<BuildingEntity> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+
+  /**
+   * Retrieves the first page of buildings ordered by modified datetime, then by ID.
+   * Buildings without a modified datetime are not included.
+   *
+   * @param limit the maximum number of buildings to return
+   * @return a list of buildings with the oldest modified datetimes
+   */
+  List<BuildingEntity> findByModifiedDatetimeNotNullOrderByModifiedDatetimeAscIdAsc(Limit limit);
+
+  /**
+   * Retrieves a page of buildings ordered by modified datetime, then by ID, starting after
+   * the given position.
+   *
+   * @param modifiedDatetime the modified datetime of the last building of the previous page
+   * @param id the ID of the last building of the previous page
+   * @param limit the maximum number of buildings to return
+   * @return a list of buildings positioned after the given position
+   */
+  @Query("SELECT b FROM Building b "
+      + "WHERE b.modifiedDatetime > :modifiedDatetime "
+      + "OR (b.modifiedDatetime = :modifiedDatetime AND b.id > :id) "
+      + "ORDER BY b.modifiedDatetime ASC, b.id ASC")
+  List<BuildingEntity> findPageAfterModifiedDatetime(
+      OffsetDateTime modifiedDatetime, int id, Limit limit);
+
+  /**
+   * Streams all buildings ordered by ID. Rows are fetched from the database
+   * {@value #STREAM_FETCH_SIZE} at a time and loaded as read-only entities.
+   *
+   * <p>The driver honours the fetch size when cursor fetching is enabled, as in the
+   * {@code perf} profile. Otherwise it reads every row when the query runs.
+   * </p>
+   *
+   * <p>The stream must be consumed and closed within a transaction.
+   * </p>
+   *
+   * @return a {@link Stream} of all buildings
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<BuildingEntity> streamAllByOrderByIdAsc();
+
+  /**
+   * Finds the IDs of all buildings.
+   *
+   * @return a list of the IDs of all buildings
+   */
+  @Query("SELECT b.id FROM Building b")
+  List<Integer> findAllIds();
+
+  /**
+   * Finds the buildings with the given IDs, ordered by ID.
+   *
+   * @param ids the IDs of the buildings to find
+   * @return a list of the buildings found, ordered by ID
+   */
+  List<BuildingEntity> findByIdInOrderByIdAsc(Collection<Integer> ids);
+
+  /**
+   * Finds the buildings in any of the given zip codes whose address is any of the given
+   * addresses, so many buildings can be matched by address in a single query. The result may
+   * include buildings that match a zip code of one building and the address of another.
+   *
+   * @param zipCodes the zip codes of the buildings to find
+   * @param addresses the addresses of the buildings to find
+   * @return a list of the buildings found
+   */
+  List<BuildingEntity> findByZipCodeInAndAddressIn(Collection<String> zipCodes,
+                                                    Collection<String> addresses);
 }
@@ -0,0 +1,132 @@
+package dev.coms4156.project.kebabcase.repository;
+
+import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import dev.coms4156.project.kebabcase.entity.BuildingFeatureBuildingMappingEntity;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters on buildings that can be combined into a single query with
+ * {@link BuildingRepositoryInterface#findBy(Specification, java.util.function.Function)}.
+ *
+ * <p>Every value is bound as a query parameter, so the SQL of a query only depends on which
+ * filters it combines and on the number of features, and a statement prepared for one of these
+ * shapes is reused for any values. The composite indexes on {@code buildings} cover the
+ * combinations of {@code state}, {@code city} and the sort orders, and the feature filters use
+ * the unique key of {@code building_feature_building_mappings}.
+ * </p>
+ */
+public final class BuildingSpecifications {
+
+  private BuildingSpecifications() {
+  }
+
+  /**
+   * Matches the buildings with the given address.
+   *
+   * @param address the address
+   * @return the filter
+   */
+  public static Specification<BuildingEntity> hasAddress(String address) {
+    return (root, query, builder) -> builder.equal(root.get("address"), address);
+  }
+
+  /**
+   * Matches the buildings in the given city.
+   *
+   * @param city the city
+   * @return the filter
+   */
+  public static Specification<BuildingEntity> hasCity(String city) {
+    return (root, query, builder) -> builder.equal(root.get("city"), city);
+  }
+
+  /**
+   * Matches the buildings in the given state.
+   *
+   * @param state the state
+   * @return the filter
+   */
+  public static Specification<BuildingEntity> hasState(String state) {
+    return (root, query, builder) -> builder.equal(root.get("state"), state);
+  }
+
+  /**
+   * Matches the buildings with the given zip code.
+   *
+   * @param zipCode the zip code
+   * @return the filter
+   */
+  public static Specification<BuildingEntity> hasZipCode(String zipCode) {
+    return (root, query, builder) -> builder.equal(root.get("zipCode"), zipCode);
+  }
+
+  /**
+   * Matches the buildings that have every one of the given building features. Each feature is
+   * checked with its own {@code EXISTS} subquery on the mapping table.
+   *
+   * @param buildingFeatureIds the IDs of the building features
+   * @return the filter
+   */
+  public static Specification<BuildingEntity> hasAllFeatures(
+      Collection<Integer> buildingFeatureIds) {
+    List<Integer> featureIds = List.copyOf(new LinkedHashSet<>(buildingFeatureIds));
+    return (root, query, builder) -> {
+      List<Predicate> predicates = new ArrayList<>(featureIds.size());
+      for (Integer featureId : featureIds) {
+        Subquery<Integer> mapping = query.subquery(Integer.class);
+        Root<BuildingFeatureBuildingMappingEntity> m =
+            mapping.from(BuildingFeatureBuildingMappingEntity.class);
+        mapping.select(m.get("building").<Integer>get("id")).where(
+            builder.equal(m.get("building"), root),
+            builder.equal(m.get("buildingFeature").get("id"), featureId));
+        predicates.add(builder.exists(mapping));
+      }
+      return builder.and(predicates.toArray(new Predicate[0]));
+    };
+  }
+
+  /**
+   * Matches the buildings after the given position when ordered by ID.
+   *
+   * @param id the ID of the last building of the previous page, or 0 for the first page
+   * @return the filter
+   */
+  public static Specification<BuildingEntity> idAfter(int id) {
+    return (root, query, builder) -> builder.greaterThan(root.<Integer>get("id"), id);
+  }
+
+  /**
+   * Matches the buildings that have a modified datetime, the first page when ordered by
+   * modified datetime, then by ID.
+   *
+   * @return the filter
+   */
+  public static Specification<BuildingEntity> hasModifiedDatetime() {
+    return (root, query, builder) -> builder.isNotNull(root.get("modifiedDatetime"));
+  }
+
+  /**
+   * Matches the buildings after the given position when ordered by modified datetime, then
+   * by ID.
+   *
+   * @param modifiedDatetime the modified datetime of the last building of the previous page
+   * @param id the ID of the last building of the previous page
+   * @return the filter
+   */
+  public static Specification<BuildingEntity> modifiedDatetimeAfter(
+      OffsetDateTime modifiedDatetime, int id) {
+    return (root, query, builder) -> builder.or(
+        builder.greaterThan(root.<OffsetDateTime>get("modifiedDatetime"), modifiedDatetime),
+        builder.and(
+            builder.equal(root.get("modifiedDatetime"), modifiedDatetime),
+            builder.greaterThan(root.<Integer>get("id"), id)));
+  }
+}
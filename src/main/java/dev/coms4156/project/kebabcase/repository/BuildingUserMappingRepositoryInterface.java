@@ -3,6 +3,7 @@ package dev.coms4156.project.kebabcase.repository;
 import dev.coms4156.project.kebabcase.entity.BuildingUserMappingEntity;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -21,12 +22,14 @@ public interface BuildingUserMappingRepositoryInterface
     extends JpaRepository<BuildingUserMappingEntity, Integer> {
         
   /**
-   * Finds all mappings between a user and buildings by the user's ID.
+   * Finds all mappings between a user and buildings by the user's ID. Each building is fetched
+   * in the same query.
    *
    * @param userId the ID of the user for whom to find associated buildings
    * @return a list of {@link BuildingUserMappingEntity} containing all building mappings
    *         associated with the specified user, or an empty list if none are found
    */
+  @EntityGraph(attributePaths = "building")
   List<BuildingUserMappingEntity> findByUserId(int userId);
 
   /**
@@ -3,9 +3,17 @@ package dev.coms4156.project.kebabcase.repository;
 import dev.coms4156.project.kebabcase.entity.HousingUnitEntity;
 import dev.coms4156.project.kebabcase.entity.HousingUnitFeatureEntity;
 import dev.coms4156.project.kebabcase.entity.HousingUnitFeatureHousingUnitMappingEntity;
+import jakarta.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -39,7 +47,8 @@ public interface HousingUnitFeatureHousingUnitMappingRepositoryInterface
                                                 HousingUnitFeatureEntity housingUnitFeature);
 
   /**
-   * Finds all mappings associated with a given housing unit.
+   * Finds all mappings associated with a given housing unit. Only the feature IDs are
+   * read; feature names come from the feature catalog.
    *
    * @param housingUnit the housing unit entity to find feature mappings for
    * @return a list of {@link HousingUnitFeatureHousingUnitMappingEntity} containing
@@ -47,14 +56,79 @@ public interface HousingUnitFeatureHousingUnitMappingRepositoryInterface
    */
   List<HousingUnitFeatureHousingUnitMappingEntity> findByHousingUnit(HousingUnitEntity housingUnit);
 
+  /**
+   * Finds all mappings associated with any of the given housing units in a single query.
+   * Only the feature IDs are read; feature names come from the feature catalog.
+   *
+   * @param housingUnits the housing unit entities to find feature mappings for
+   * @return a list of {@link HousingUnitFeatureHousingUnitMappingEntity} containing
+   *     all mappings for the specified housing units, or an empty list if none found
+   */
+  List<HousingUnitFeatureHousingUnitMappingEntity> 
+      findByHousingUnitIn(Collection<HousingUnitEntity> housingUnits);
+
   /**
    * Finds the entries in the unit-unit feature mapping that correspond to
-   *     the desired unit feature.
+   *     the desired unit feature. Each housing unit and its building are fetched
+   *     in the same query.
    *
    * @param housingUnitFeatureId the ID corresponding with the desired unit feature
    * @return a list of {@link HousingUnitFeatureHousingUnitMappingEntity} containing
    *     all entries with the desired unit feature, or empty if none found
    */
+  @EntityGraph(attributePaths = {"housingUnit", "housingUnit.building"})
   List<HousingUnitFeatureHousingUnitMappingEntity> 
       findByHousingUnitFeatureId(int housingUnitFeatureId);
+
+  /**
+   * Finds every housing unit feature mapping as a pair of IDs, without loading the entities.
+   *
+   * @return a list of {@code [housingUnitFeatureId, housingUnitId]} pairs
+   */
+  @Query("SELECT m.housingUnitFeature.id, m.housingUnit.id "
+      + "FROM HousingUnitFeatureHousingUnitMapping m")
+  List<Object[]> findAllFeatureIdAndHousingUnitId();
+
+  /**
+   * Finds the IDs of the features a housing unit has, without loading the mappings.
+   *
+   * @param housingUnitId the ID of the housing unit
+   * @return the IDs of the housing unit's features
+   */
+  @Query("SELECT m.housingUnitFeature.id FROM HousingUnitFeatureHousingUnitMapping m "
+      + "WHERE m.housingUnit.id = :housingUnitId")
+  List<Integer> findHousingUnitFeatureIdsByHousingUnitId(int housingUnitId);
+
+  /**
+   * Maps a housing unit to several housing unit features in a single statement. Features the
+   * housing unit already has, and IDs that are not housing unit features, are skipped. Only the
+   * mapping table is declared as written, so the second-level cache is not cleared.
+   *
+   * @param housingUnitId the ID of the housing unit
+   * @param housingUnitFeatureIds the IDs of the housing unit features to add
+   * @param now the creation and modification time of the new mappings
+   * @return the number of mappings inserted
+   */
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES,
+      value = "housing_unit_feature_housing_unit_mappings"))
+  @Query(value = "INSERT IGNORE INTO housing_unit_feature_housing_unit_mappings "
+      + "(housing_unit_id, housing_unit_feature_id, created_datetime, modified_datetime) "
+      + "SELECT :housingUnitId, f.id, :now, :now FROM housing_unit_features f "
+      + "WHERE f.id IN (:housingUnitFeatureIds)", nativeQuery = true)
+  int insertMappings(int housingUnitId, Collection<Integer> housingUnitFeatureIds,
+                     OffsetDateTime now);
+
+  /**
+   * Removes several housing unit features from a housing unit in a single statement.
+   *
+   * @param housingUnitId the ID of the housing unit
+   * @param housingUnitFeatureIds the IDs of the housing unit features to remove
+   * @return the number of mappings deleted
+   */
+  @Modifying
+  @Query("DELETE FROM HousingUnitFeatureHousingUnitMapping m "
+      + "WHERE m.housingUnit.id = :housingUnitId "
+      + "AND m.housingUnitFeature.id IN :housingUnitFeatureIds")
+  int deleteMappings(int housingUnitId, Collection<Integer> housingUnitFeatureIds);
 }
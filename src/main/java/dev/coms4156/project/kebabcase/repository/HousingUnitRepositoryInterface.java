@@ -2,9 +2,18 @@ package dev.coms4156.project.kebabcase.repository;
 
 import dev.coms4156.project.kebabcase.entity.BuildingEntity;
 import dev.coms4156.project.kebabcase.entity.HousingUnitEntity;
+import jakarta.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -23,6 +32,32 @@ import org.springframework.stereotype.Repository;
 @Repository("HousingUnitRepository")
 public interface HousingUnitRepositoryInterface extends JpaRepository<HousingUnitEntity, Integer> {
 
+  /**
+   * Number of rows fetched from the database at a time when streaming housing units.
+   */
+  String STREAM_FETCH_SIZE = "500";
+
+  /**
+   * Retrieves all housing units. The building of each housing unit is fetched in the
+   * same query.
+   *
+   * @return a list of all {@link HousingUnitEntity} records
+   */
+  @Override
+  @EntityGraph(attributePaths = "building")
+  List<HousingUnitEntity> findAll();
+
+  /**
+   * Finds a housing unit by its ID. The building of the housing unit is fetched in the same
+   * query.
+   *
+   * @param id the ID of the housing unit
+   * @return an {@link Optional} containing the housing unit, or empty if it does not exist
+   */
+  @Override
+  @EntityGraph(attributePaths = "building")
+  Optional<HousingUnitEntity> findById(Integer id);
+
   /**
    * Retrieves a list of housing units associated with a specific building.
    *
@@ -42,4 +77,95 @@ public interface HousingUnitRepositoryInterface extends JpaRepository<HousingUni
    */
   Optional<HousingUnitEntity> 
       findByBuildingAndUnitNumber(BuildingEntity building, String unitNumber);
+
+  /**
+   * Retrieves a page of housing units ordered by ID, starting after the given ID.
+   * The building of each housing unit is fetched in the same query.
+   *
+   * @param id the ID after which the page starts, or 0 for the first page
+   * @param limit the maximum number of housing units to return
+   * @return a list of {@link HousingUnitEntity} with an ID greater than the given ID
+   */
+  @EntityGraph(attributePaths = "building")
+  List<HousingUnitEntity> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+
+  /**
+   * Retrieves the first page of housing units ordered by modified datetime, then by ID.
+   * Housing units without a modified datetime are not included. The building of each
+   * housing unit is fetched in the same query.
+   *
+   * @param limit the maximum number of housing units to return
+   * @return a list of {@link HousingUnitEntity} with the oldest modified datetimes
+   */
+  @EntityGraph(attributePaths = "building")
+  List<HousingUnitEntity> 
+      findByModifiedDatetimeNotNullOrderByModifiedDatetimeAscIdAsc(Limit limit);
+
+  /**
+   * Retrieves a page of housing units ordered by modified datetime, then by ID, starting
+   * after the given position. The building of each housing unit is fetched in the same query.
+   *
+   * @param modifiedDatetime the modified datetime of the last housing unit of the previous page
+   * @param id the ID of the last housing unit of the previous page
+   * @param limit the maximum number of housing units to return
+   * @return a list of {@link HousingUnitEntity} positioned after the given position
+   */
+  @EntityGraph(attributePaths = "building")
+  @Query("SELECT u FROM HousingUnit u "
+      + "WHERE u.modifiedDatetime > :modifiedDatetime "
+      + "OR (u.modifiedDatetime = :modifiedDatetime AND u.id > :id) "
+      + "ORDER BY u.modifiedDatetime ASC, u.id ASC")
+  List<HousingUnitEntity> findPageAfterModifiedDatetime(
+      OffsetDateTime modifiedDatetime, int id, Limit limit);
+
+  /**
+   * Streams all housing units ordered by ID. Rows are fetched from the database
+   * {@value #STREAM_FETCH_SIZE} at a time and loaded as read-only entities. The building of
+   * each housing unit is fetched in the same query.
+   *
+   * <p>The driver honours the fetch size when cursor fetching is enabled, as in the
+   * {@code perf} profile. Otherwise it reads every row when the query runs.
+   * </p>
+   *
+   * <p>The stream must be consumed and closed within a transaction.
+   * </p>
+   *
+   * @return a {@link Stream} of all {@link HousingUnitEntity} records
+   */
+  @EntityGraph(attributePaths = "building")
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<HousingUnitEntity> streamAllByOrderByIdAsc();
+
+  /**
+   * Finds the IDs of all housing units.
+   *
+   * @return a list of the IDs of all housing units
+   */
+  @Query("SELECT h.id FROM HousingUnit h")
+  List<Integer> findAllIds();
+
+  /**
+   * Finds the housing units with the given IDs, ordered by ID. The building of each housing
+   * unit is fetched in the same query.
+   *
+   * @param ids the IDs of the housing units to find
+   * @return a list of the housing units found, ordered by ID
+   */
+  @EntityGraph(attributePaths = "building")
+  List<HousingUnitEntity> findByIdInOrderByIdAsc(Collection<Integer> ids);
+
+  /**
+   * Finds the housing units in any of the given buildings whose unit number is any of the given
+   * unit numbers, so many housing units can be matched in a single query. The result may include
+   * housing units that match the building of one unit and the unit number of another.
+   *
+   * @param buildingIds the IDs of the buildings of the housing units to find
+   * @param unitNumbers the unit numbers of the housing units to find
+   * @return a list of the housing units found
+   */
+  List<HousingUnitEntity> findByBuildingIdInAndUnitNumberIn(Collection<Integer> buildingIds,
+                                                            Collection<String> unitNumbers);
 }
@@ -3,6 +3,7 @@ package dev.coms4156.project.kebabcase.repository;
 import dev.coms4156.project.kebabcase.entity.HousingUnitUserMappingEntity;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -21,12 +22,14 @@ public interface HousingUnitUserMappingRepositoryInterface
     extends JpaRepository<HousingUnitUserMappingEntity, Integer> {
 
   /**
-   * Finds all mappings between a user and housing units by the user's ID.
+   * Finds all mappings between a user and housing units by the user's ID. Each housing
+   * unit and its building are fetched in the same query.
    *
    * @param userId the ID of the user for whom to find associated housing units
    * @return a list of {@link HousingUnitUserMappingEntity} containing all housing unit mappings
    *         associated with the specified user, or an empty list if none are found
    */
+  @EntityGraph(attributePaths = {"housingUnit", "housingUnit.building"})
   List<HousingUnitUserMappingEntity> findByUserId(int userId);
 
   /**
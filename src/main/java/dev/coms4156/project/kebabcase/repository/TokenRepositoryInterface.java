@@ -1,9 +1,17 @@
 package dev.coms4156.project.kebabcase.repository;
 
 import dev.coms4156.project.kebabcase.entity.TokenEntity;
+import jakarta.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository interface for managing token entities.
@@ -23,4 +31,53 @@ public interface TokenRepositoryInterface extends JpaRepository<TokenEntity, Int
    * @return a {@link TokenEntity} of the user who owns the token
    */
   Optional<TokenEntity> findByToken(String token);
+
+  /**
+   * Finds a token that has not been revoked together with the user who owns it, in one query.
+   *
+   * @param token the token used by user
+   * @return a {@link TokenEntity} with its user loaded
+   */
+  @Query("SELECT t FROM Token t JOIN FETCH t.user "
+      + "WHERE t.token = :token AND t.revokedDatetime IS NULL")
+  Optional<TokenEntity> findWithUserByToken(String token);
+
+  /**
+   * Finds the revoked tokens that have not expired yet.
+   *
+   * @param now the current datetime
+   * @return the revoked tokens
+   */
+  @Query("SELECT t.token FROM Token t "
+      + "WHERE t.revokedDatetime IS NOT NULL AND t.expirationDatetime > :now")
+  List<String> findRevokedTokens(OffsetDateTime now);
+
+  /**
+   * Revokes a token.
+   *
+   * @param token the token to revoke
+   * @param now the current datetime
+   * @return the number of tokens revoked, 0 if the token does not exist or is already revoked
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE Token t SET t.revokedDatetime = :now, t.modifiedDatetime = :now "
+      + "WHERE t.token = :token AND t.revokedDatetime IS NULL")
+  int revoke(String token, OffsetDateTime now);
+
+  /**
+   * Deletes up to a given number of tokens that expired before the given datetime, oldest
+   * first. Only the tokens table is declared as written, so the second-level cache is not
+   * cleared.
+   *
+   * @param now the datetime before which tokens are expired
+   * @param limit the maximum number of tokens to delete
+   * @return the number of tokens deleted
+   */
+  @Transactional
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tokens"))
+  @Query(value = "DELETE FROM tokens WHERE expiration_datetime < :now "
+      + "ORDER BY expiration_datetime, id LIMIT :limit", nativeQuery = true)
+  int deleteExpired(OffsetDateTime now, int limit);
 }
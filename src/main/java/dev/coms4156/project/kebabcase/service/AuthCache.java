@@ -0,0 +1,267 @@
+package dev.coms4156.project.kebabcase.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import dev.coms4156.project.kebabcase.entity.ClientEntity;
+import dev.coms4156.project.kebabcase.entity.TokenEntity;
+import dev.coms4156.project.kebabcase.entity.UserEntity;
+import dev.coms4156.project.kebabcase.repository.ClientRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.TokenRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.UserRepositoryInterface;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process cache of the lookups needed to identify a caller: token to user, and client name
+ * to client.
+ *
+ * <p>Signed tokens are verified in memory by the {@link TokenSigner} and checked against the
+ * {@link RevokedTokens}, so only the details of their user are cached, by user ID. Opaque tokens
+ * are looked up in the {@code tokens} table and cached by token.
+ * </p>
+ *
+ * <p>Both caches are bounded and their entries expire after the configured time to live, so
+ * changes made outside of this service are picked up eventually. A token is never cached past
+ * its own expiration datetime, and expired tokens are treated as unknown. Lookups that find
+ * nothing are not cached, so a newly created token or client can be used right away. Changes
+ * made by this service should call the matching {@code invalidate} method.
+ * </p>
+ *
+ * <p>Hits, misses and evictions are published as the {@code cache.*} metrics, tagged with
+ * {@code cache=authTokens}, {@code cache=authUsers} or {@code cache=authClients}.
+ * </p>
+ */
+@Component
+public class AuthCache {
+
+  private final TokenRepositoryInterface tokenRepository;
+  private final ClientRepositoryInterface clientRepository;
+  private final UserRepositoryInterface userRepository;
+  private final TokenSigner tokenSigner;
+  private final RevokedTokens revokedTokens;
+  private final Cache<String, TokenUser> tokens;
+  private final Cache<Integer, TokenUser> users;
+  private final Cache<String, ClientEntity> clients;
+
+  /**
+   * Constructs a new AuthCache.
+   *
+   * @param tokenRepository the repository used to look up tokens
+   * @param clientRepository the repository used to look up clients
+   * @param userRepository the repository used to look up the users of signed tokens
+   * @param tokenSigner the signer used to verify signed tokens
+   * @param revokedTokens the set of revoked tokens
+   * @param meterRegistry the registry the cache metrics are published to
+   * @param maxSize the maximum number of entries in each cache
+   * @param ttl how long an entry is used before it is looked up again
+   */
+  public AuthCache(
+      TokenRepositoryInterface tokenRepository,
+      ClientRepositoryInterface clientRepository,
+      UserRepositoryInterface userRepository,
+      TokenSigner tokenSigner,
+      RevokedTokens revokedTokens,
+      MeterRegistry meterRegistry,
+      @Value("${kebabcase.auth-cache.max-size:10000}") long maxSize,
+      @Value("${kebabcase.auth-cache.ttl:5m}") Duration ttl
+  ) {
+    this.tokenRepository = tokenRepository;
+    this.clientRepository = clientRepository;
+    this.userRepository = userRepository;
+    this.tokenSigner = tokenSigner;
+    this.revokedTokens = revokedTokens;
+    this.tokens = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfter(new TokenExpiry(ttl))
+        .recordStats()
+        .build();
+    this.users = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+    this.clients = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, this.tokens, "authTokens");
+    CaffeineCacheMetrics.monitor(meterRegistry, this.users, "authUsers");
+    CaffeineCacheMetrics.monitor(meterRegistry, this.clients, "authClients");
+  }
+
+  /**
+   * Finds the user who owns a token.
+   *
+   * @param token the token sent by the caller
+   * @return an {@link Optional} containing the user, or empty if the token does not exist, has
+   *     expired or has been revoked
+   */
+  public Optional<TokenUser> findUserByToken(String token) {
+    if (TokenSigner.isSigned(token)) {
+      return findUserBySignedToken(token);
+    }
+    if (this.revokedTokens.isRevoked(token)) {
+      this.tokens.invalidate(token);
+      return Optional.empty();
+    }
+
+    TokenUser user = this.tokens.get(token, key -> this.tokenRepository.findWithUserByToken(key)
+        .filter(found -> !isExpired(found.getExpirationDatetime()))
+        .map(TokenUser::new)
+        .orElse(null));
+    if (user != null && isExpired(user.getExpirationDatetime())) {
+      this.tokens.invalidate(token);
+      return Optional.empty();
+    }
+    return Optional.ofNullable(user);
+  }
+
+  private Optional<TokenUser> findUserBySignedToken(String token) {
+    Optional<TokenSigner.Claims> claims = this.tokenSigner.verify(token);
+    if (claims.isEmpty() || this.revokedTokens.isRevoked(
+        TokenSigner.storedTokenId(claims.get().getTokenId()))) {
+      return Optional.empty();
+    }
+    TokenUser user = this.users.get(claims.get().getUserId(),
+        userId -> this.userRepository.findById(userId).map(TokenUser::new).orElse(null));
+    return Optional.ofNullable(user)
+        .map(found -> found.withExpirationDatetime(claims.get().getExpirationDatetime()));
+  }
+
+  /**
+   * Finds a client by name.
+   *
+   * @param name the name of the client
+   * @return an {@link Optional} containing the client, or empty if it does not exist
+   */
+  public Optional<ClientEntity> findClientByName(String name) {
+    return Optional.ofNullable(this.clients.get(name,
+        key -> this.clientRepository.findByName(key).orElse(null)));
+  }
+
+  /**
+   * Removes a token, for example after it is revoked.
+   *
+   * @param token the token to remove
+   */
+  public void invalidateToken(String token) {
+    this.tokens.invalidate(token);
+  }
+
+  /**
+   * Removes every token of a user, for example after the user is changed or deleted.
+   *
+   * @param userId the ID of the user
+   */
+  public void invalidateUser(int userId) {
+    this.users.invalidate(userId);
+    this.tokens.asMap().values().removeIf(user -> user.getUserId() == userId);
+  }
+
+  /**
+   * Removes a client, for example after it is renamed or deleted.
+   *
+   * @param name the name of the client
+   */
+  public void invalidateClient(String name) {
+    this.clients.invalidate(name);
+  }
+
+  /**
+   * Removes every entry of both caches.
+   */
+  public void invalidateAll() {
+    this.tokens.invalidateAll();
+    this.users.invalidateAll();
+    this.clients.invalidateAll();
+  }
+
+  private static boolean isExpired(OffsetDateTime expirationDatetime) {
+    return expirationDatetime != null && !expirationDatetime.isAfter(OffsetDateTime.now());
+  }
+
+  /**
+   * The user who owns a token, copied out of the entities so it can outlive their session.
+   */
+  @Getter
+  public static final class TokenUser {
+    private final int userId;
+    private final String firstName;
+    private final String lastName;
+    private final String emailAddress;
+    private final OffsetDateTime expirationDatetime;
+
+    /**
+     * Copies the user of a token. The user must be loaded.
+     *
+     * @param token the token with its user
+     */
+    public TokenUser(TokenEntity token) {
+      this(token.getUser(), token.getExpirationDatetime());
+    }
+
+    private TokenUser(UserEntity user) {
+      this(user, null);
+    }
+
+    private TokenUser(UserEntity user, OffsetDateTime expirationDatetime) {
+      this(user.getId(), user.getFirstName(), user.getLastName(), user.getEmailAddress(),
+          expirationDatetime);
+    }
+
+    private TokenUser(int userId, String firstName, String lastName, String emailAddress,
+                      OffsetDateTime expirationDatetime) {
+      this.userId = userId;
+      this.firstName = firstName;
+      this.lastName = lastName;
+      this.emailAddress = emailAddress;
+      this.expirationDatetime = expirationDatetime;
+    }
+
+    private TokenUser withExpirationDatetime(OffsetDateTime expirationDatetime) {
+      return new TokenUser(this.userId, this.firstName, this.lastName, this.emailAddress,
+          expirationDatetime);
+    }
+  }
+
+  /**
+   * Expires a token after the time to live, or at its expiration datetime if that is sooner.
+   */
+  private static final class TokenExpiry implements Expiry<String, TokenUser> {
+    private final long ttlNanos;
+
+    private TokenExpiry(Duration ttl) {
+      this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(String token, TokenUser user, long currentTime) {
+      OffsetDateTime now = OffsetDateTime.now();
+      OffsetDateTime expiration = user.getExpirationDatetime();
+      if (expiration == null || expiration.isAfter(now.plusNanos(this.ttlNanos))) {
+        return this.ttlNanos;
+      }
+      return Math.max(0, Duration.between(now, expiration).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(String token, TokenUser user, long currentTime,
+                                  long currentDuration) {
+      return expireAfterCreate(token, user, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String token, TokenUser user, long currentTime,
+                                long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package dev.coms4156.project.kebabcase.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import dev.coms4156.project.kebabcase.repository.BuildingFeatureBuildingMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.BuildingRepositoryInterface;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-through cache of the details of a building shown by {@code GET /building/{id}}: its
+ * address fields and the IDs of its features.
+ *
+ * <p>On a miss the building and its feature IDs are read with one query each. The feature names
+ * are not cached, they are looked up in the {@link FeatureCatalog} when the response is built,
+ * so renamed and deleted features never need an invalidation here. The cache is bounded by
+ * {@code kebabcase.building-cache.max-size}, evicting the least used buildings first, and
+ * entries expire after {@code kebabcase.building-cache.ttl} so changes made outside of this
+ * service are picked up eventually. Buildings that do not exist are not cached.
+ * </p>
+ *
+ * <p>Every change to a building or to its feature mappings must call {@link #invalidate(int)}
+ * once it is committed. The cache can be turned off with
+ * {@code kebabcase.building-cache.enabled=false}, in which case every lookup reads the
+ * database.
+ * </p>
+ *
+ * <p>Hits, misses and evictions are published as the {@code cache.*} metrics, tagged with
+ * {@code cache=buildingDetails}.
+ * </p>
+ */
+@Component
+public class BuildingDetailCache {
+
+  private final BuildingRepositoryInterface buildingRepository;
+  private final BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository;
+  private final boolean enabled;
+  private final Cache<Integer, BuildingDetail> buildings;
+
+  /**
+   * Constructs a new BuildingDetailCache.
+   *
+   * @param buildingRepository the repository used to look up buildings
+   * @param buildingFeatureMappingRepository the repository used to look up building features
+   * @param meterRegistry the registry the cache metrics are published to
+   * @param enabled whether lookups are cached
+   * @param maxSize the maximum number of buildings in the cache
+   * @param ttl how long a building is used before it is looked up again
+   */
+  public BuildingDetailCache(
+      BuildingRepositoryInterface buildingRepository,
+      BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository,
+      MeterRegistry meterRegistry,
+      @Value("${kebabcase.building-cache.enabled:true}") boolean enabled,
+      @Value("${kebabcase.building-cache.max-size:10000}") long maxSize,
+      @Value("${kebabcase.building-cache.ttl:10m}") Duration ttl
+  ) {
+    this.buildingRepository = buildingRepository;
+    this.buildingFeatureMappingRepository = buildingFeatureMappingRepository;
+    this.enabled = enabled;
+    this.buildings = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, this.buildings, "buildingDetails");
+  }
+
+  /**
+   * Finds the details of a building.
+   *
+   * @param id the ID of the building
+   * @return an {@link Optional} containing the details of the building, or empty if it does not
+   *     exist
+   */
+  public Optional<BuildingDetail> findBuilding(int id) {
+    if (!this.enabled) {
+      return Optional.ofNullable(load(id));
+    }
+    return Optional.ofNullable(this.buildings.get(id, this::load));
+  }
+
+  private BuildingDetail load(int id) {
+    return this.buildingRepository.findById(id)
+        .map(building -> new BuildingDetail(building,
+            this.buildingFeatureMappingRepository.findBuildingFeatureIdsByBuildingId(id)))
+        .orElse(null);
+  }
+
+  /**
+   * Removes a building, after it or its features are changed.
+   *
+   * @param buildingId the ID of the building
+   */
+  public void invalidate(int buildingId) {
+    this.buildings.invalidate(buildingId);
+  }
+
+  /**
+   * Removes every building.
+   */
+  public void invalidateAll() {
+    this.buildings.invalidateAll();
+  }
+
+  /**
+   * The details of a building, copied out of the entities so they can outlive their session.
+   */
+  @Getter
+  public static final class BuildingDetail {
+    private final BuildingEntity building;
+    private final List<Integer> featureIds;
+
+    /**
+     * Copies the address fields of a building, without its housing units.
+     *
+     * @param building the building
+     * @param featureIds the IDs of the features of the building
+     */
+    public BuildingDetail(BuildingEntity building, List<Integer> featureIds) {
+      this.building = new BuildingEntity()
+          .setId(building.getId())
+          .setAddress(building.getAddress())
+          .setCity(building.getCity())
+          .setState(building.getState())
+          .setZipCode(building.getZipCode())
+          .setCreatedDatetime(building.getCreatedDatetime())
+          .setModifiedDatetime(building.getModifiedDatetime());
+      this.featureIds = List.copyOf(featureIds);
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package dev.coms4156.project.kebabcase.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import dev.coms4156.project.kebabcase.entity.BuildingFeatureBuildingMappingEntity;
+import dev.coms4156.project.kebabcase.repository.BuildingFeatureBuildingMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.util.ConditionalRequests;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of the pre-rendered {@code building} object nested in every housing unit response: the
+ * address fields of the building and the names of its features.
+ *
+ * <p>Housing units of the same building share the same fragment, so it is rendered to JSON once
+ * and spliced into each unit as a {@link RawValue}. Within one list of units each building is
+ * looked up once, and the features of all the buildings that are not cached are read with one
+ * query.
+ * </p>
+ *
+ * <p>Fragments are keyed by the version of the building: its ID, its modified datetime and the
+ * version of the building feature catalog, the same parts as the ETag of
+ * {@code GET /building/{id}}. Changes to the building, to its features and to the feature names
+ * all change the key, so fragments never need to be invalidated; old versions are evicted when
+ * the cache reaches {@code kebabcase.building-fragment-cache.max-size} or expire after
+ * {@code kebabcase.building-fragment-cache.ttl}. Buildings without a modified datetime cannot
+ * be versioned and are rendered on every lookup. The cache can be turned off with
+ * {@code kebabcase.building-fragment-cache.enabled=false}.
+ * </p>
+ *
+ * <p>Hits, misses and evictions are published as the {@code cache.*} metrics, tagged with
+ * {@code cache=buildingFragments}.
+ * </p>
+ */
+@Component
+public class BuildingFragmentCache {
+
+  private final BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository;
+  private final FeatureCatalog featureCatalog;
+  private final ObjectMapper objectMapper;
+  private final boolean enabled;
+  private final Cache<String, RawValue> fragments;
+
+  /**
+   * Constructs a new BuildingFragmentCache.
+   *
+   * @param buildingFeatureMappingRepository the repository used to look up building features
+   * @param featureCatalog the catalog used to name building features
+   * @param objectMapper the object mapper used to render the fragments
+   * @param meterRegistry the registry the cache metrics are published to
+   * @param enabled whether fragments are cached across lookups
+   * @param maxSize the maximum number of fragments in the cache
+   * @param ttl how long a fragment is used before it is rendered again
+   */
+  public BuildingFragmentCache(
+      BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository,
+      FeatureCatalog featureCatalog,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${kebabcase.building-fragment-cache.enabled:true}") boolean enabled,
+      @Value("${kebabcase.building-fragment-cache.max-size:10000}") long maxSize,
+      @Value("${kebabcase.building-fragment-cache.ttl:10m}") Duration ttl
+  ) {
+    this.buildingFeatureMappingRepository = buildingFeatureMappingRepository;
+    this.featureCatalog = featureCatalog;
+    this.objectMapper = objectMapper;
+    this.enabled = enabled;
+    this.fragments = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, this.fragments, "buildingFragments");
+  }
+
+  /**
+   * Finds the fragments of the given buildings, rendering the ones that are not cached.
+   *
+   * @param buildings the buildings, which may repeat
+   * @return the fragment of each building, by building ID
+   */
+  public Map<Integer, RawValue> findFragments(Collection<BuildingEntity> buildings) {
+    String featuresVersion = this.featureCatalog.getBuildingFeaturesVersion();
+    Map<Integer, RawValue> result = new HashMap<>();
+    Map<Integer, BuildingEntity> missed = new LinkedHashMap<>();
+    for (BuildingEntity building : buildings) {
+      Integer id = building.getId();
+      if (result.containsKey(id) || missed.containsKey(id)) {
+        continue;
+      }
+      RawValue fragment = isCacheable(building)
+          ? this.fragments.getIfPresent(key(building, featuresVersion))
+          : null;
+      if (fragment == null) {
+        missed.put(id, building);
+      } else {
+        result.put(id, fragment);
+      }
+    }
+    if (missed.isEmpty()) {
+      return result;
+    }
+
+    // Load the features of every building that was not cached at once
+    Map<Integer, List<String>> featureNames = new HashMap<>();
+    for (BuildingFeatureBuildingMappingEntity featureMapping
+        : this.buildingFeatureMappingRepository.findByBuildingIn(missed.values())) {
+      this.featureCatalog.findBuildingFeature(featureMapping.getBuildingFeature().getId())
+          .ifPresent(feature -> featureNames
+              .computeIfAbsent(featureMapping.getBuilding().getId(), key -> new ArrayList<>())
+              .add(feature.getName()));
+    }
+
+    for (BuildingEntity building : missed.values()) {
+      RawValue fragment = render(building,
+          featureNames.getOrDefault(building.getId(), List.of()));
+      result.put(building.getId(), fragment);
+      if (isCacheable(building)) {
+        this.fragments.put(key(building, featuresVersion), fragment);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Renders the fragment of a building.
+   *
+   * @param building the building
+   * @param featureNames the names of the features of the building
+   * @return the fragment, as raw JSON
+   */
+  public RawValue render(BuildingEntity building, List<String> featureNames) {
+    ObjectNode json = this.objectMapper.createObjectNode();
+    json.put("id", building.getId());
+    json.put("address", building.getAddress());
+    json.put("city", building.getCity());
+    json.put("state", building.getState());
+    json.put("zip_code", building.getZipCode());
+    ArrayNode features = json.putArray("features");
+    for (String featureName : featureNames) {
+      features.add(featureName);
+    }
+    try {
+      return new RawValue(this.objectMapper.writeValueAsString(json));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private boolean isCacheable(BuildingEntity building) {
+    return this.enabled && building.getModifiedDatetime() != null;
+  }
+
+  private static String key(BuildingEntity building, String featuresVersion) {
+    return ConditionalRequests.weakEtag(
+        building.getId(), building.getModifiedDatetime(), featuresVersion);
+  }
+}
@@ -0,0 +1,175 @@
+package dev.coms4156.project.kebabcase.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports buildings with their housing units and features as newline-delimited JSON.
+ *
+ * <p>Buildings are read in pages of {@value #PAGE_SIZE}, by primary key. The feature mappings,
+ * housing units and housing unit feature mappings of a page are then read with one
+ * {@code IN} query each on their indexed building or housing unit column, and the page is
+ * written before the next one is read. Every query returns its first row without sorting more
+ * than one page, and memory use does not grow with the number of buildings.
+ * </p>
+ *
+ * <p>Buildings are exported in ID order, one JSON object per line. An interrupted export can be
+ * resumed by exporting again after the ID of the last building received.
+ * </p>
+ */
+@Component
+public class BulkExporter {
+
+  /**
+   * Number of buildings read from the database at a time.
+   */
+  public static final int PAGE_SIZE = 500;
+
+  private static final String BUILDINGS_SQL = "SELECT b.id AS building_id, b.address, b.city, "
+      + "b.state, b.zip_code, b.created_datetime, b.modified_datetime "
+      + "FROM buildings b WHERE b.id > ? ORDER BY b.id LIMIT ?";
+
+  private static final String BUILDING_FEATURES_SQL = "SELECT m.building_id, "
+      + "f.id AS feature_id, f.name AS feature_name "
+      + "FROM building_feature_building_mappings m "
+      + "JOIN building_features f ON f.id = m.building_feature_id "
+      + "WHERE m.building_id IN (%s) ORDER BY m.building_id, m.building_feature_id";
+
+  private static final String HOUSING_UNITS_SQL = "SELECT u.id AS housing_unit_id, "
+      + "u.building_id, u.unit_number, u.created_datetime, u.modified_datetime "
+      + "FROM housing_units u WHERE u.building_id IN (%s) ORDER BY u.building_id, u.id";
+
+  private static final String HOUSING_UNIT_FEATURES_SQL = "SELECT m.housing_unit_id, "
+      + "f.id AS feature_id, f.name AS feature_name "
+      + "FROM housing_unit_feature_housing_unit_mappings m "
+      + "JOIN housing_units u ON u.id = m.housing_unit_id "
+      + "JOIN housing_unit_features f ON f.id = m.housing_unit_feature_id "
+      + "WHERE u.building_id IN (%s) ORDER BY m.housing_unit_id, m.housing_unit_feature_id";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Constructs a new BulkExporter.
+   *
+   * @param jdbcTemplate the JDBC template used to run the export queries
+   * @param objectMapper the object mapper used to write the buildings
+   */
+  public BulkExporter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Writes every building with an ID greater than the given one.
+   *
+   * @param afterBuildingId the ID after which to start, or 0 to export every building
+   * @param output where the buildings are written
+   * @throws IOException if the output cannot be written
+   */
+  public void export(int afterBuildingId, OutputStream output) throws IOException {
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+      int after = afterBuildingId;
+      while (true) {
+        Map<Integer, ObjectNode> page = readPage(after);
+        for (ObjectNode building : page.values()) {
+          generator.writeTree(building);
+          generator.writeRaw('\n');
+        }
+        generator.flush();
+
+        if (page.size() < PAGE_SIZE) {
+          return;
+        }
+        after = Collections.max(page.keySet());
+      }
+    }
+  }
+
+  /**
+   * Reads one page of buildings with their features and housing units.
+   *
+   * @param afterBuildingId the ID after which the page starts
+   * @return the buildings of the page by ID, in ID order
+   */
+  private Map<Integer, ObjectNode> readPage(int afterBuildingId) {
+    Map<Integer, ObjectNode> buildings = new LinkedHashMap<>();
+    this.jdbcTemplate.query(BUILDINGS_SQL, statement -> {
+      statement.setInt(1, afterBuildingId);
+      statement.setInt(2, PAGE_SIZE);
+    }, row -> {
+      ObjectNode building = objectMapper.createObjectNode();
+      building.put("id", row.getInt("building_id"));
+      building.put("address", row.getString("address"));
+      building.put("city", row.getString("city"));
+      building.put("state", row.getString("state"));
+      building.put("zipCode", row.getString("zip_code"));
+      putDatetimes(building, row);
+      building.putArray("features");
+      building.putArray("housingUnits");
+      buildings.put(row.getInt("building_id"), building);
+    });
+    if (buildings.isEmpty()) {
+      return buildings;
+    }
+
+    List<Integer> buildingIds = new ArrayList<>(buildings.keySet());
+    PreparedStatementSetter byBuilding = statement -> {
+      for (int i = 0; i < buildingIds.size(); i++) {
+        statement.setInt(i + 1, buildingIds.get(i));
+      }
+    };
+    String placeholders = String.join(", ", Collections.nCopies(buildingIds.size(), "?"));
+
+    this.jdbcTemplate.query(String.format(BUILDING_FEATURES_SQL, placeholders), byBuilding,
+        row -> {
+          addFeature((ArrayNode) buildings.get(row.getInt("building_id")).get("features"), row);
+        });
+
+    Map<Integer, ArrayNode> housingUnitFeatures = new HashMap<>();
+    this.jdbcTemplate.query(String.format(HOUSING_UNITS_SQL, placeholders), byBuilding, row -> {
+      ArrayNode housingUnits =
+          (ArrayNode) buildings.get(row.getInt("building_id")).get("housingUnits");
+      ObjectNode housingUnit = housingUnits.addObject();
+      housingUnit.put("id", row.getInt("housing_unit_id"));
+      housingUnit.put("unitNumber", row.getString("unit_number"));
+      putDatetimes(housingUnit, row);
+      housingUnitFeatures.put(row.getInt("housing_unit_id"), housingUnit.putArray("features"));
+    });
+
+    if (!housingUnitFeatures.isEmpty()) {
+      this.jdbcTemplate.query(String.format(HOUSING_UNIT_FEATURES_SQL, placeholders), byBuilding,
+          row -> {
+            addFeature(housingUnitFeatures.get(row.getInt("housing_unit_id")), row);
+          });
+    }
+    return buildings;
+  }
+
+  private static void addFeature(ArrayNode features, ResultSet row) throws SQLException {
+    ObjectNode feature = features.addObject();
+    feature.put("id", row.getInt("feature_id"));
+    feature.put("name", row.getString("feature_name"));
+  }
+
+  private static void putDatetimes(ObjectNode node, ResultSet row) throws SQLException {
+    node.putPOJO("createdDatetime", row.getObject("created_datetime", OffsetDateTime.class));
+    node.putPOJO("modifiedDatetime", row.getObject("modified_datetime", OffsetDateTime.class));
+  }
+}
@@ -0,0 +1,428 @@
+package dev.coms4156.project.kebabcase.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import dev.coms4156.project.kebabcase.entity.HousingUnitEntity;
+import dev.coms4156.project.kebabcase.repository.BuildingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitRepositoryInterface;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports buildings and housing units in bulk from CSV or newline-delimited JSON.
+ *
+ * <p>Each row describes a building by its address, and optionally one of its housing units by
+ * unit number, along with features to add to them. Buildings and housing units that already
+ * exist are reused instead of duplicated. Rows are read from the input as a stream and
+ * imported {@value #CHUNK_SIZE} at a time: each chunk is matched against the existing buildings
+ * and housing units with one query each, written with batched inserts in its own transaction,
+ * and reported before the next chunk is read, so memory use does not grow with the input.
+ * </p>
+ *
+ * <p>The report has one JSON object per row and line, with the row number, a status of
+ * {@code created}, {@code exists} or {@code error}, the IDs of the row's building and housing
+ * unit, and any feature IDs that were not found. A malformed row ends the import; the rows
+ * before it are kept.
+ * </p>
+ */
+@Component
+public class BulkImporter {
+
+  /**
+   * Number of rows imported together in one transaction.
+   */
+  public static final int CHUNK_SIZE = 500;
+
+  private static final CsvSchema CSV_SCHEMA =
+      CsvSchema.emptySchema().withHeader().withArrayElementSeparator(";");
+
+  private final BuildingRepositoryInterface buildingRepository;
+  private final HousingUnitRepositoryInterface housingUnitRepository;
+  private final FeatureMappingEngine featureMappingEngine;
+  private final FeatureBitmapIndex featureBitmapIndex;
+  private final EntityManager entityManager;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final CsvMapper csvMapper = new CsvMapper();
+
+  /**
+   * Constructs a new BulkImporter.
+   *
+   * @param buildingRepository the repository used to interact with building entities
+   * @param housingUnitRepository the repository used to interact with housing unit entities
+   * @param featureMappingEngine the engine that adds building and housing unit features
+   * @param featureBitmapIndex the index updated with the new buildings and housing units
+   * @param entityManager the entity manager, used to flush and release each chunk
+   * @param transactionManager the transaction manager used to write each chunk
+   * @param objectMapper the object mapper used to read JSON rows and write the report
+   */
+  public BulkImporter(
+      BuildingRepositoryInterface buildingRepository,
+      HousingUnitRepositoryInterface housingUnitRepository,
+      FeatureMappingEngine featureMappingEngine,
+      FeatureBitmapIndex featureBitmapIndex,
+      EntityManager entityManager,
+      PlatformTransactionManager transactionManager,
+      ObjectMapper objectMapper
+  ) {
+    this.buildingRepository = buildingRepository;
+    this.housingUnitRepository = housingUnitRepository;
+    this.featureMappingEngine = featureMappingEngine;
+    this.featureBitmapIndex = featureBitmapIndex;
+    this.entityManager = entityManager;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Imports rows of newline-delimited JSON objects.
+   *
+   * @param input the rows to import
+   * @param report where the report is written
+   * @throws IOException if the input cannot be read or the report cannot be written
+   */
+  public void importNdjson(InputStream input, OutputStream report) throws IOException {
+    try (MappingIterator<Row> rows = objectMapper.readerFor(Row.class).readValues(input)) {
+      importRows(rows, report);
+    }
+  }
+
+  /**
+   * Imports CSV rows. The first line is a header naming the columns, and feature IDs within a
+   * column are separated by semicolons.
+   *
+   * @param input the rows to import
+   * @param report where the report is written
+   * @throws IOException if the input cannot be read or the report cannot be written
+   */
+  public void importCsv(InputStream input, OutputStream report) throws IOException {
+    try (MappingIterator<Row> rows =
+             csvMapper.readerFor(Row.class).with(CSV_SCHEMA).readValues(input)) {
+      importRows(rows, report);
+    }
+  }
+
+  private void importRows(MappingIterator<Row> rows, OutputStream report) throws IOException {
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(report)) {
+      List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+      int firstRowNumber = 1;
+      String parseError = null;
+
+      while (parseError == null) {
+        try {
+          if (!rows.hasNextValue()) {
+            break;
+          }
+          chunk.add(rows.nextValue());
+        } catch (JsonProcessingException e) {
+          parseError = "Malformed row: " + e.getOriginalMessage();
+        }
+
+        if (chunk.size() == CHUNK_SIZE) {
+          writeResults(generator, importChunk(chunk, firstRowNumber));
+          firstRowNumber += chunk.size();
+          chunk.clear();
+        }
+      }
+
+      if (!chunk.isEmpty()) {
+        writeResults(generator, importChunk(chunk, firstRowNumber));
+        firstRowNumber += chunk.size();
+      }
+      if (parseError != null) {
+        writeResults(generator, List.of(error(firstRowNumber, parseError)));
+      }
+    }
+  }
+
+  private void writeResults(JsonGenerator generator, List<ObjectNode> results)
+      throws IOException {
+    for (ObjectNode result : results) {
+      generator.writeTree(result);
+      generator.writeRaw('\n');
+    }
+    generator.flush();
+  }
+
+  private List<ObjectNode> importChunk(List<Row> rows, int firstRowNumber) {
+    List<BuildingEntity> newBuildings = new ArrayList<>();
+    List<HousingUnitEntity> newUnits = new ArrayList<>();
+    List<ObjectNode> results;
+
+    try {
+      results = this.transactionTemplate.execute(
+          status -> writeChunk(rows, firstRowNumber, newBuildings, newUnits));
+    } catch (DataAccessException | TransactionException | PersistenceException e) {
+      // The flush goes through the shared EntityManager, whose exceptions are not translated
+      String message = "Could not import rows " + firstRowNumber + " to "
+          + (firstRowNumber + rows.size() - 1) + ": "
+          + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+      results = new ArrayList<>(rows.size());
+      for (int i = 0; i < rows.size(); i++) {
+        results.add(error(firstRowNumber + i, message));
+      }
+      newBuildings.clear();
+      newUnits.clear();
+    } finally {
+      // Release the chunk so memory use stays flat
+      this.entityManager.clear();
+    }
+
+    for (BuildingEntity building : newBuildings) {
+      this.featureBitmapIndex.addBuilding(building.getId());
+    }
+    for (HousingUnitEntity unit : newUnits) {
+      this.featureBitmapIndex.addHousingUnit(unit.getId());
+    }
+    return results;
+  }
+
+  private List<ObjectNode> writeChunk(List<Row> rows, int firstRowNumber,
+                                      List<BuildingEntity> newBuildings,
+                                      List<HousingUnitEntity> newUnits) {
+    ObjectNode[] results = new ObjectNode[rows.size()];
+    List<Integer> valid = new ArrayList<>(rows.size());
+    for (int i = 0; i < rows.size(); i++) {
+      String missing = rows.get(i).missingField();
+      if (missing == null) {
+        valid.add(i);
+      } else {
+        results[i] = error(firstRowNumber + i, "Missing required field: " + missing);
+      }
+    }
+
+    /* Match every building of the chunk with one query, and create the rest */
+    Set<String> zipCodes = new HashSet<>();
+    Set<String> addresses = new HashSet<>();
+    for (int i : valid) {
+      zipCodes.add(rows.get(i).getZipCode().trim());
+      addresses.add(rows.get(i).getAddress().trim());
+    }
+    Map<String, BuildingEntity> buildings = new HashMap<>();
+    if (!valid.isEmpty()) {
+      for (BuildingEntity building
+          : this.buildingRepository.findByZipCodeInAndAddressIn(zipCodes, addresses)) {
+        buildings.putIfAbsent(buildingKey(building.getAddress(), building.getCity(),
+            building.getState(), building.getZipCode()), building);
+      }
+    }
+
+    Set<Integer> existingBuildingIds = new HashSet<>();
+    buildings.values().forEach(building -> existingBuildingIds.add(building.getId()));
+    BuildingEntity[] rowBuildings = new BuildingEntity[rows.size()];
+    boolean[] createdBuilding = new boolean[rows.size()];
+    for (int i : valid) {
+      Row row = rows.get(i);
+      rowBuildings[i] = buildings.computeIfAbsent(row.buildingKey(), key -> {
+        BuildingEntity building = new BuildingEntity();
+        building.setAddress(row.getAddress());
+        building.setCity(row.getCity());
+        building.setState(row.getState());
+        building.setZipCode(row.getZipCode());
+        building.setCreatedDatetime(OffsetDateTime.now());
+        building.setModifiedDatetime(OffsetDateTime.now());
+        newBuildings.add(building);
+        createdBuilding[i] = true;
+        return building;
+      });
+    }
+    this.buildingRepository.saveAll(newBuildings);
+
+    /* Match the housing units of existing buildings with one query, and create the rest */
+    Set<String> unitNumbers = new HashSet<>();
+    for (int i : valid) {
+      if (rows.get(i).getUnitNumber() != null) {
+        unitNumbers.add(rows.get(i).getUnitNumber().trim());
+      }
+    }
+    Map<String, HousingUnitEntity> units = new HashMap<>();
+    if (!unitNumbers.isEmpty() && !existingBuildingIds.isEmpty()) {
+      for (HousingUnitEntity unit : this.housingUnitRepository
+          .findByBuildingIdInAndUnitNumberIn(existingBuildingIds, unitNumbers)) {
+        units.putIfAbsent(unitKey(unit.getBuilding().getId(), unit.getUnitNumber()), unit);
+      }
+    }
+
+    HousingUnitEntity[] rowUnits = new HousingUnitEntity[rows.size()];
+    boolean[] createdUnit = new boolean[rows.size()];
+    for (int i : valid) {
+      Row row = rows.get(i);
+      if (row.getUnitNumber() == null) {
+        continue;
+      }
+      BuildingEntity building = rowBuildings[i];
+      rowUnits[i] = units.computeIfAbsent(unitKey(building.getId(), row.getUnitNumber()), key -> {
+        HousingUnitEntity unit = new HousingUnitEntity();
+        unit.setBuilding(building);
+        unit.setUnitNumber(row.getUnitNumber());
+        unit.setCreatedDatetime(OffsetDateTime.now());
+        unit.setModifiedDatetime(OffsetDateTime.now());
+        newUnits.add(unit);
+        createdUnit[i] = true;
+        return unit;
+      });
+    }
+    this.housingUnitRepository.saveAll(newUnits);
+
+    // The feature mappings are written over JDBC and reference the new rows
+    this.entityManager.flush();
+
+    /* Add the features of the whole chunk in one batch per mapping table */
+    Map<Integer, Set<Integer>> buildingFeatures = new LinkedHashMap<>();
+    Map<Integer, Set<Integer>> unitFeatures = new LinkedHashMap<>();
+    for (int i : valid) {
+      addAll(buildingFeatures, rowBuildings[i].getId(), rows.get(i).getBuildingFeatures());
+      if (rowUnits[i] != null) {
+        addAll(unitFeatures, rowUnits[i].getId(), rows.get(i).getUnitFeatures());
+      }
+    }
+    Map<Integer, Set<Integer>> invalidBuildingFeatures =
+        this.featureMappingEngine.addBuildingFeatures(buildingFeatures);
+    Map<Integer, Set<Integer>> invalidUnitFeatures =
+        this.featureMappingEngine.addHousingUnitFeatures(unitFeatures);
+
+    for (int i : valid) {
+      boolean isUnitRow = rowUnits[i] != null;
+      boolean created = isUnitRow ? createdUnit[i] : createdBuilding[i];
+      ObjectNode result = this.objectMapper.createObjectNode();
+      result.put("row", firstRowNumber + i);
+      result.put("status", created ? "created" : "exists");
+      result.put("buildingId", rowBuildings[i].getId());
+      if (isUnitRow) {
+        result.put("housingUnitId", rowUnits[i].getId());
+      }
+      Row row = rows.get(i);
+      putInvalid(result, "invalidBuildingFeatures", row.getBuildingFeatures(),
+          invalidBuildingFeatures.get(rowBuildings[i].getId()));
+      if (isUnitRow) {
+        putInvalid(result, "invalidUnitFeatures", row.getUnitFeatures(),
+            invalidUnitFeatures.get(rowUnits[i].getId()));
+      }
+      results[i] = result;
+    }
+    return List.of(results);
+  }
+
+  private static void addAll(Map<Integer, Set<Integer>> features, int ownerId,
+                             Collection<Integer> featureIds) {
+    if (featureIds != null && !featureIds.isEmpty()) {
+      features.computeIfAbsent(ownerId, key -> new LinkedHashSet<>()).addAll(featureIds);
+    }
+  }
+
+  private static void putInvalid(ObjectNode result, String field, Collection<Integer> requested,
+                                 Set<Integer> invalid) {
+    if (requested == null || invalid == null) {
+      return;
+    }
+    Set<Integer> rowInvalid = new LinkedHashSet<>(requested);
+    rowInvalid.retainAll(invalid);
+    if (!rowInvalid.isEmpty()) {
+      rowInvalid.forEach(result.putArray(field)::add);
+    }
+  }
+
+  private ObjectNode error(int rowNumber, String message) {
+    ObjectNode result = this.objectMapper.createObjectNode();
+    result.put("row", rowNumber);
+    result.put("status", "error");
+    result.put("message", message);
+    return result;
+  }
+
+  private static String buildingKey(String address, String city, String state, String zipCode) {
+    return String.join("\u0000", normalize(address), normalize(city), normalize(state),
+        normalize(zipCode));
+  }
+
+  private static String unitKey(int buildingId, String unitNumber) {
+    return buildingId + "\u0000" + normalize(unitNumber);
+  }
+
+  /**
+   * Normalizes a key part the way the case-insensitive collation of the columns compares it,
+   * so the import matches the same rows as the lookups of the single-row endpoints.
+   *
+   * @param value the value of a column
+   * @return the value, trimmed and in lower case
+   */
+  private static String normalize(String value) {
+    return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * One row of an import: a building, optionally one of its housing units, and features to add
+   * to them.
+   */
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  public static class Row {
+    private String address;
+    private String city;
+    private String state;
+    private String zipCode;
+    private String unitNumber;
+    private List<Integer> buildingFeatures;
+    private List<Integer> unitFeatures;
+
+    /**
+     * Sets the unit number. An empty unit number, such as an empty CSV column, means the row
+     * has no housing unit.
+     *
+     * @param unitNumber the unit number of the housing unit
+     */
+    public void setUnitNumber(String unitNumber) {
+      this.unitNumber = unitNumber == null || unitNumber.isBlank() ? null : unitNumber;
+    }
+
+    private String missingField() {
+      if (this.address == null || this.address.isBlank()) {
+        return "address";
+      }
+      if (this.city == null || this.city.isBlank()) {
+        return "city";
+      }
+      if (this.state == null || this.state.isBlank()) {
+        return "state";
+      }
+      if (this.zipCode == null || this.zipCode.isBlank()) {
+        return "zipCode";
+      }
+      return null;
+    }
+
+    private String buildingKey() {
+      return BulkImporter.buildingKey(this.address, this.city, this.state, this.zipCode);
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package dev.coms4156.project.kebabcase.service;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resizes the connection pool to the time requests spend waiting for a connection.
+ *
+ * <p>On a small instance every connection costs memory on both the application and MySQL, so
+ * the pool starts small. Every {@code kebabcase.pool-sizer.interval}, the average time taken
+ * to get a connection since the last check is read from the {@code hikaricp.connections.acquire}
+ * timer. When it is above {@code kebabcase.pool-sizer.target-wait}, or threads are still
+ * waiting, the maximum size of the pool grows by one connection. When it is well below the
+ * target and some connections are idle, the pool shrinks by one. The size always stays between
+ * {@code kebabcase.pool-sizer.min-size} and {@code kebabcase.pool-sizer.max-size}.
+ * </p>
+ *
+ * <p>The sizer only runs when {@code kebabcase.pool-sizer.enabled} is true, as it is in the
+ * {@code perf} profile. The current maximum size is published as the
+ * {@code kebabcase.pool.max-size} gauge, and each change as the {@code kebabcase.pool.resizes}
+ * counter, tagged {@code direction=grow} or {@code direction=shrink}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "kebabcase.pool-sizer.enabled", havingValue = "true")
+public class ConnectionPoolSizer {
+
+  private static final String ACQUIRE_TIMER = "hikaricp.connections.acquire";
+
+  private final HikariDataSource dataSource;
+  private final MeterRegistry meterRegistry;
+  private final int minSize;
+  private final int maxSize;
+  private final double targetWaitNanos;
+  private final Counter grown;
+  private final Counter shrunk;
+  private long lastCount;
+  private double lastTotalNanos;
+
+  /**
+   * Constructs a new ConnectionPoolSizer.
+   *
+   * @param dataSource the connection pool to resize
+   * @param meterRegistry the registry holding the pool metrics
+   * @param minSize the smallest maximum size of the pool
+   * @param maxSize the largest maximum size of the pool
+   * @param targetWait the average time to get a connection above which the pool grows
+   */
+  public ConnectionPoolSizer(
+      HikariDataSource dataSource,
+      MeterRegistry meterRegistry,
+      @Value("${kebabcase.pool-sizer.min-size:2}") int minSize,
+      @Value("${kebabcase.pool-sizer.max-size:10}") int maxSize,
+      @Value("${kebabcase.pool-sizer.target-wait:5ms}") Duration targetWait
+  ) {
+    this.dataSource = dataSource;
+    this.meterRegistry = meterRegistry;
+    this.minSize = minSize;
+    this.maxSize = maxSize;
+    this.targetWaitNanos = targetWait.toNanos();
+    this.grown = Counter.builder("kebabcase.pool.resizes")
+        .description("Changes made to the maximum size of the connection pool")
+        .tag("direction", "grow")
+        .register(meterRegistry);
+    this.shrunk = Counter.builder("kebabcase.pool.resizes")
+        .description("Changes made to the maximum size of the connection pool")
+        .tag("direction", "shrink")
+        .register(meterRegistry);
+    Gauge.builder("kebabcase.pool.max-size", dataSource, HikariDataSource::getMaximumPoolSize)
+        .description("The maximum size of the connection pool")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Resizes the pool, every {@code kebabcase.pool-sizer.interval}.
+   *
+   * @return the maximum size of the pool after the check
+   */
+  @Scheduled(
+      initialDelayString = "${kebabcase.pool-sizer.interval:10s}",
+      fixedDelayString = "${kebabcase.pool-sizer.interval:10s}"
+  )
+  public int resize() {
+    HikariConfigMXBean config = this.dataSource.getHikariConfigMXBean();
+    HikariPoolMXBean pool = this.dataSource.getHikariPoolMXBean();
+    Timer acquire = this.meterRegistry.find(ACQUIRE_TIMER)
+        .tag("pool", this.dataSource.getPoolName())
+        .timer();
+    int current = config.getMaximumPoolSize();
+    if (pool == null || acquire == null) {
+      // The pool has not started yet
+      return current;
+    }
+
+    long count = acquire.count();
+    double totalNanos = acquire.totalTime(TimeUnit.NANOSECONDS);
+    double averageWaitNanos = count > this.lastCount
+        ? (totalNanos - this.lastTotalNanos) / (count - this.lastCount)
+        : 0;
+    this.lastCount = count;
+    this.lastTotalNanos = totalNanos;
+
+    int next = nextSize(current, averageWaitNanos, pool.getThreadsAwaitingConnection(),
+        pool.getIdleConnections());
+    if (next > current) {
+      this.grown.increment();
+    } else if (next < current) {
+      this.shrunk.increment();
+    }
+    if (next != current) {
+      config.setMaximumPoolSize(next);
+    }
+    return next;
+  }
+
+  /**
+   * Chooses the maximum size of the pool for the next interval.
+   *
+   * @param current the current maximum size
+   * @param averageWaitNanos the average time taken to get a connection during the last interval
+   * @param waiting the number of threads waiting for a connection
+   * @param idle the number of idle connections
+   * @return the new maximum size
+   */
+  private int nextSize(int current, double averageWaitNanos, int waiting, int idle) {
+    int next = current;
+    if (averageWaitNanos > this.targetWaitNanos || waiting > 0) {
+      next = current + 1;
+    } else if (averageWaitNanos < this.targetWaitNanos / 4 && idle > 0) {
+      next = current - 1;
+    }
+    return Math.max(this.minSize, Math.min(this.maxSize, next));
+  }
+}
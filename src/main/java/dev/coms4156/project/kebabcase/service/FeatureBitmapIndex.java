@@ -0,0 +1,323 @@
+package dev.coms4156.project.kebabcase.service;
+
+import dev.coms4156.project.kebabcase.repository.BuildingFeatureBuildingMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.BuildingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitFeatureHousingUnitMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitRepositoryInterface;
+import dev.coms4156.project.kebabcase.util.FeatureExpression;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory index from each feature to the buildings or housing units that have it.
+ *
+ * <p>Every building feature and housing unit feature has a compressed bitmap of the IDs that
+ * have the feature, so feature expressions are answered with bitmap intersections instead of
+ * table scans. The index is loaded from the feature mapping tables on first use and is then
+ * kept up to date by the controllers as they write buildings, housing units and mappings.
+ * </p>
+ *
+ * <p>Writes made by other instances, or directly in the database, are not seen by the
+ * controllers, so the index is rebuilt once it is older than
+ * {@code kebabcase.feature-index.max-age}.
+ * </p>
+ */
+@Component
+public class FeatureBitmapIndex {
+
+  private final Bitmaps buildings;
+  private final Bitmaps housingUnits;
+
+  /**
+   * Constructs a new FeatureBitmapIndex. The bitmaps are loaded on first use.
+   *
+   * @param buildingRepository the repository used to interact with building entities
+   * @param buildingFeatureMappingRepository the repository for mapping building features
+   * @param housingUnitRepository the repository used to interact with housing unit entities
+   * @param unitFeatureMappingRepository the repository for mapping housing unit features
+   * @param maxAge how long the bitmaps are used before they are rebuilt
+   */
+  public FeatureBitmapIndex(
+      BuildingRepositoryInterface buildingRepository,
+      BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository,
+      HousingUnitRepositoryInterface housingUnitRepository,
+      HousingUnitFeatureHousingUnitMappingRepositoryInterface unitFeatureMappingRepository,
+      @Value("${kebabcase.feature-index.max-age:5m}") Duration maxAge
+  ) {
+    this.buildings = new Bitmaps(
+        buildingRepository::findAllIds,
+        buildingFeatureMappingRepository::findAllFeatureIdAndBuildingId,
+        maxAge
+    );
+    this.housingUnits = new Bitmaps(
+        housingUnitRepository::findAllIds,
+        unitFeatureMappingRepository::findAllFeatureIdAndHousingUnitId,
+        maxAge
+    );
+  }
+
+  /**
+   * Finds the buildings matching a building feature expression.
+   *
+   * @param expression the expression over building feature IDs
+   * @return the IDs of the matching buildings
+   */
+  public RoaringBitmap searchBuildings(FeatureExpression expression) {
+    return this.buildings.search(expression);
+  }
+
+  /**
+   * Finds the housing units matching a housing unit feature expression.
+   *
+   * @param expression the expression over housing unit feature IDs
+   * @return the IDs of the matching housing units
+   */
+  public RoaringBitmap searchHousingUnits(FeatureExpression expression) {
+    return this.housingUnits.search(expression);
+  }
+
+  /**
+   * Records a newly created building.
+   *
+   * @param buildingId the ID of the building
+   */
+  public void addBuilding(int buildingId) {
+    this.buildings.addId(buildingId);
+  }
+
+  /**
+   * Records a newly created housing unit.
+   *
+   * @param housingUnitId the ID of the housing unit
+   */
+  public void addHousingUnit(int housingUnitId) {
+    this.housingUnits.addId(housingUnitId);
+  }
+
+  /**
+   * Records that a building has a feature.
+   *
+   * @param buildingId the ID of the building
+   * @param featureId the ID of the building feature
+   */
+  public void addBuildingFeature(int buildingId, int featureId) {
+    this.buildings.addFeature(buildingId, featureId);
+  }
+
+  /**
+   * Records that a building no longer has a feature.
+   *
+   * @param buildingId the ID of the building
+   * @param featureId the ID of the building feature
+   */
+  public void removeBuildingFeature(int buildingId, int featureId) {
+    this.buildings.removeFeature(buildingId, featureId);
+  }
+
+  /**
+   * Records that a housing unit has a feature.
+   *
+   * @param housingUnitId the ID of the housing unit
+   * @param featureId the ID of the housing unit feature
+   */
+  public void addHousingUnitFeature(int housingUnitId, int featureId) {
+    this.housingUnits.addFeature(housingUnitId, featureId);
+  }
+
+  /**
+   * Records that a housing unit no longer has a feature.
+   *
+   * @param housingUnitId the ID of the housing unit
+   * @param featureId the ID of the housing unit feature
+   */
+  public void removeHousingUnitFeature(int housingUnitId, int featureId) {
+    this.housingUnits.removeFeature(housingUnitId, featureId);
+  }
+
+  /**
+   * Returns the first IDs of a bitmap that are greater than the given ID, in ascending order.
+   *
+   * @param ids the bitmap of IDs
+   * @param afterId the ID after which to start, or 0 to start at the first ID
+   * @param count the maximum number of IDs to return
+   * @return up to {@code count} IDs greater than {@code afterId}
+   */
+  public static List<Integer> idsAfter(RoaringBitmap ids, int afterId, int count) {
+    List<Integer> result = new ArrayList<>(Math.min(count, ids.getCardinality()));
+    PeekableIntIterator iterator = ids.getIntIterator();
+    iterator.advanceIfNeeded(afterId + 1);
+    while (iterator.hasNext() && result.size() < count) {
+      result.add(iterator.next());
+    }
+    return result;
+  }
+
+  /**
+   * Bitmaps of one kind of entity: one bitmap per feature, and one of every ID.
+   *
+   * <p>Bitmaps are not thread safe, so searches hold the read lock and updates hold the write
+   * lock. Updates made before the bitmaps are first loaded are skipped, because the load reads
+   * them from the database.
+   * </p>
+   *
+   * <p>Once the bitmaps are older than the maximum age, the next search rebuilds them from the
+   * database, while other searches keep using the current bitmaps. Updates made during the
+   * rebuild are applied to both, since the rebuild may have read the tables before they were
+   * committed, and the rebuilt bitmaps are then swapped in under the write lock.
+   * </p>
+   */
+  private static final class Bitmaps {
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final Supplier<List<Integer>> idLoader;
+    private final Supplier<List<Object[]>> featureLoader;
+    private final long maxAgeNanos;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Snapshot current;
+    private long loadedAt;
+    private List<Consumer<Snapshot>> pending;
+
+    private Bitmaps(Supplier<List<Integer>> idLoader, Supplier<List<Object[]>> featureLoader,
+                    Duration maxAge) {
+      this.idLoader = idLoader;
+      this.featureLoader = featureLoader;
+      this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    private RoaringBitmap search(FeatureExpression expression) {
+      loadIfNeeded();
+      this.lock.readLock().lock();
+      try {
+        Snapshot snapshot = this.current;
+        return expression.evaluate(
+            featureId -> snapshot.byFeature.getOrDefault(featureId, EMPTY), snapshot.all
+        );
+      } finally {
+        this.lock.readLock().unlock();
+      }
+    }
+
+    private void addId(int id) {
+      update(snapshot -> snapshot.all.add(id));
+    }
+
+    private void addFeature(int id, int featureId) {
+      update(snapshot -> {
+        snapshot.all.add(id);
+        snapshot.byFeature.computeIfAbsent(featureId, key -> new RoaringBitmap()).add(id);
+      });
+    }
+
+    private void removeFeature(int id, int featureId) {
+      update(snapshot -> {
+        RoaringBitmap bitmap = snapshot.byFeature.get(featureId);
+        if (bitmap != null) {
+          bitmap.remove(id);
+        }
+      });
+    }
+
+    private void update(Consumer<Snapshot> change) {
+      this.lock.writeLock().lock();
+      try {
+        if (this.current != null) {
+          change.accept(this.current);
+        }
+        if (this.pending != null) {
+          this.pending.add(change);
+        }
+      } finally {
+        this.lock.writeLock().unlock();
+      }
+    }
+
+    private void loadIfNeeded() {
+      this.lock.readLock().lock();
+      try {
+        if (this.current != null && (!isStale() || this.pending != null)) {
+          return;
+        }
+      } finally {
+        this.lock.readLock().unlock();
+      }
+
+      this.lock.writeLock().lock();
+      try {
+        if (this.current == null) {
+          // Nothing to search yet, so every search waits for the first load
+          this.current = load();
+          this.loadedAt = System.nanoTime();
+          return;
+        }
+        if (!isStale() || this.pending != null) {
+          return;
+        }
+        this.pending = new ArrayList<>();
+      } finally {
+        this.lock.writeLock().unlock();
+      }
+
+      Snapshot rebuilt = null;
+      try {
+        rebuilt = load();
+      } finally {
+        this.lock.writeLock().lock();
+        try {
+          if (rebuilt != null) {
+            Snapshot loaded = rebuilt;
+            this.pending.forEach(change -> change.accept(loaded));
+            this.current = loaded;
+            this.loadedAt = System.nanoTime();
+          }
+          this.pending = null;
+        } finally {
+          this.lock.writeLock().unlock();
+        }
+      }
+    }
+
+    private boolean isStale() {
+      return System.nanoTime() - this.loadedAt >= this.maxAgeNanos;
+    }
+
+    private Snapshot load() {
+      RoaringBitmap loadedAll = new RoaringBitmap();
+      for (Integer id : this.idLoader.get()) {
+        loadedAll.add(id);
+      }
+      Map<Integer, RoaringBitmap> loadedByFeature = new HashMap<>();
+      for (Object[] row : this.featureLoader.get()) {
+        int featureId = ((Number) row[0]).intValue();
+        int id = ((Number) row[1]).intValue();
+        loadedByFeature.computeIfAbsent(featureId, key -> new RoaringBitmap()).add(id);
+      }
+      loadedAll.runOptimize();
+      loadedByFeature.values().forEach(RoaringBitmap::runOptimize);
+      return new Snapshot(loadedAll, loadedByFeature);
+    }
+  }
+
+  /**
+   * The bitmap of every ID and the bitmap of each feature, as loaded at one point in time.
+   */
+  private static final class Snapshot {
+    private final RoaringBitmap all;
+    private final Map<Integer, RoaringBitmap> byFeature;
+
+    private Snapshot(RoaringBitmap all, Map<Integer, RoaringBitmap> byFeature) {
+      this.all = all;
+      this.byFeature = byFeature;
+    }
+  }
+}
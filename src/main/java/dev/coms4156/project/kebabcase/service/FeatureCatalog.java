@@ -0,0 +1,266 @@
+package dev.coms4156.project.kebabcase.service;
+
+import dev.coms4156.project.kebabcase.entity.BuildingFeatureEntity;
+import dev.coms4156.project.kebabcase.entity.HousingUnitFeatureEntity;
+import dev.coms4156.project.kebabcase.repository.BuildingFeatureRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitFeatureRepositoryInterface;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory catalog of the building features and housing unit features.
+ *
+ * <p>Both feature tables are small reference tables that are read on almost every request, so
+ * the catalog keeps an immutable snapshot of them keyed by ID. Readers never lock: they read the
+ * current snapshot, and a refresh builds a new snapshot and swaps it in atomically.
+ * </p>
+ *
+ * <p>The features are not written by this service, so the catalog refreshes itself when its
+ * snapshot gets older than the configured maximum age, and when a lookup misses an ID that may
+ * have been added since the last refresh. Refreshes on a miss are rate limited so unknown IDs
+ * cannot make every request hit the database.
+ * </p>
+ *
+ * <p>Each table also has a version, a digest of the IDs, names and datetimes of its features,
+ * used to validate conditional requests for the catalog. The version only changes when the
+ * contents of the table change, not on every refresh, so clients can keep using the catalog they
+ * have across refreshes and restarts.
+ * </p>
+ */
+@Component
+public class FeatureCatalog {
+
+  private final BuildingFeatureRepositoryInterface buildingFeatureRepository;
+  private final HousingUnitFeatureRepositoryInterface housingUnitFeatureRepository;
+  private final long maxAgeNanos;
+  private final long missRefreshIntervalNanos;
+  private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+  /**
+   * Constructs a new FeatureCatalog. The snapshot is loaded on first use.
+   *
+   * @param buildingFeatureRepository the repository used for building features
+   * @param housingUnitFeatureRepository the repository used for housing unit features
+   * @param maxAge how long a snapshot is used before it is reloaded
+   * @param missRefreshInterval the minimum time between two refreshes caused by unknown IDs
+   */
+  public FeatureCatalog(
+      BuildingFeatureRepositoryInterface buildingFeatureRepository,
+      HousingUnitFeatureRepositoryInterface housingUnitFeatureRepository,
+      @Value("${kebabcase.feature-catalog.max-age:5m}") Duration maxAge,
+      @Value("${kebabcase.feature-catalog.miss-refresh-interval:10s}") Duration missRefreshInterval
+  ) {
+    this.buildingFeatureRepository = buildingFeatureRepository;
+    this.housingUnitFeatureRepository = housingUnitFeatureRepository;
+    this.maxAgeNanos = maxAge.toNanos();
+    this.missRefreshIntervalNanos = missRefreshInterval.toNanos();
+  }
+
+  /**
+   * Returns all building features ordered by ID.
+   *
+   * @return an unmodifiable list of all building features
+   */
+  public List<BuildingFeatureEntity> getBuildingFeatures() {
+    return current().buildingFeatureList;
+  }
+
+  /**
+   * Returns all housing unit features ordered by ID.
+   *
+   * @return an unmodifiable list of all housing unit features
+   */
+  public List<HousingUnitFeatureEntity> getHousingUnitFeatures() {
+    return current().housingUnitFeatureList;
+  }
+
+  /**
+   * Returns the version of the building features, which changes whenever any of them changes.
+   *
+   * @return the version of the building features
+   */
+  public String getBuildingFeaturesVersion() {
+    return current().buildingFeaturesVersion;
+  }
+
+  /**
+   * Returns the version of the housing unit features, which changes whenever any of them
+   * changes.
+   *
+   * @return the version of the housing unit features
+   */
+  public String getHousingUnitFeaturesVersion() {
+    return current().housingUnitFeaturesVersion;
+  }
+
+  /**
+   * Returns the latest modified datetime of the building features.
+   *
+   * @return the latest modified datetime, or {@code null} if there are no building features
+   */
+  public OffsetDateTime getBuildingFeaturesLastModified() {
+    return current().buildingFeaturesLastModified;
+  }
+
+  /**
+   * Returns the latest modified datetime of the housing unit features.
+   *
+   * @return the latest modified datetime, or {@code null} if there are no housing unit features
+   */
+  public OffsetDateTime getHousingUnitFeaturesLastModified() {
+    return current().housingUnitFeaturesLastModified;
+  }
+
+  /**
+   * Finds a building feature by its ID.
+   *
+   * @param id the ID of the building feature
+   * @return an {@link Optional} containing the building feature, or empty if it does not exist
+   */
+  public Optional<BuildingFeatureEntity> findBuildingFeature(Integer id) {
+    Snapshot current = current();
+    BuildingFeatureEntity feature = current.buildingFeatures.get(id);
+    if (feature == null && id != null && refreshAfterMiss(current)) {
+      feature = current().buildingFeatures.get(id);
+    }
+    return Optional.ofNullable(feature);
+  }
+
+  /**
+   * Finds a housing unit feature by its ID.
+   *
+   * @param id the ID of the housing unit feature
+   * @return an {@link Optional} containing the housing unit feature, or empty if it does not exist
+   */
+  public Optional<HousingUnitFeatureEntity> findHousingUnitFeature(Integer id) {
+    Snapshot current = current();
+    HousingUnitFeatureEntity feature = current.housingUnitFeatures.get(id);
+    if (feature == null && id != null && refreshAfterMiss(current)) {
+      feature = current().housingUnitFeatures.get(id);
+    }
+    return Optional.ofNullable(feature);
+  }
+
+  /**
+   * Reloads both feature tables and swaps in the new snapshot.
+   */
+  public synchronized void refresh() {
+    Map<Integer, BuildingFeatureEntity> buildingFeatures = byId(
+        this.buildingFeatureRepository.findAll(), BuildingFeatureEntity::getId
+    );
+    Map<Integer, HousingUnitFeatureEntity> housingUnitFeatures = byId(
+        this.housingUnitFeatureRepository.findAll(), HousingUnitFeatureEntity::getId
+    );
+    this.snapshot.set(new Snapshot(buildingFeatures, housingUnitFeatures, System.nanoTime()));
+  }
+
+  private Snapshot current() {
+    Snapshot current = this.snapshot.get();
+    if (current == null || System.nanoTime() - current.loadedAt >= this.maxAgeNanos) {
+      refreshUnlessReplaced(current);
+      current = this.snapshot.get();
+    }
+    return current;
+  }
+
+  private boolean refreshAfterMiss(Snapshot missed) {
+    if (System.nanoTime() - missed.loadedAt < this.missRefreshIntervalNanos) {
+      return false;
+    }
+    refreshUnlessReplaced(missed);
+    return true;
+  }
+
+  private synchronized void refreshUnlessReplaced(Snapshot stale) {
+    // Another thread may have refreshed while this one was waiting for the lock
+    if (Objects.equals(this.snapshot.get(), stale)) {
+      refresh();
+    }
+  }
+
+  private static <T> Map<Integer, T> byId(List<T> features, Function<T, Integer> getId) {
+    Map<Integer, T> result = new LinkedHashMap<>();
+    features.stream()
+        .sorted(Comparator.comparing(getId))
+        .forEach(feature -> result.put(getId.apply(feature), feature));
+    return result;
+  }
+
+  private static <T> String version(Collection<T> features, Function<T, Object[]> fields) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (T feature : features) {
+        for (Object field : fields.apply(feature)) {
+          digest.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+          digest.update((byte) 0);
+        }
+      }
+      // 64 bits are plenty to tell two versions of a small table apart
+      return HexFormat.of().formatHex(digest.digest(), 0, 8);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static <T> OffsetDateTime lastModified(Collection<T> features,
+                                                 Function<T, OffsetDateTime> getModified) {
+    return features.stream()
+        .map(getModified)
+        .filter(Objects::nonNull)
+        .max(Comparator.naturalOrder())
+        .orElse(null);
+  }
+
+  /**
+   * Immutable view of both feature tables at one point in time.
+   */
+  private static final class Snapshot {
+    private final Map<Integer, BuildingFeatureEntity> buildingFeatures;
+    private final Map<Integer, HousingUnitFeatureEntity> housingUnitFeatures;
+    private final List<BuildingFeatureEntity> buildingFeatureList;
+    private final List<HousingUnitFeatureEntity> housingUnitFeatureList;
+    private final String buildingFeaturesVersion;
+    private final String housingUnitFeaturesVersion;
+    private final OffsetDateTime buildingFeaturesLastModified;
+    private final OffsetDateTime housingUnitFeaturesLastModified;
+    private final long loadedAt;
+
+    private Snapshot(
+        Map<Integer, BuildingFeatureEntity> buildingFeatures,
+        Map<Integer, HousingUnitFeatureEntity> housingUnitFeatures,
+        long loadedAt
+    ) {
+      this.buildingFeatures = Collections.unmodifiableMap(buildingFeatures);
+      this.housingUnitFeatures = Collections.unmodifiableMap(housingUnitFeatures);
+      this.buildingFeatureList = List.copyOf(buildingFeatures.values());
+      this.housingUnitFeatureList = List.copyOf(housingUnitFeatures.values());
+      this.buildingFeaturesVersion = version(this.buildingFeatureList, feature -> new Object[] {
+          feature.getId(), feature.getName(), feature.getCreatedDatetime(),
+          feature.getModifiedDatetime()});
+      this.housingUnitFeaturesVersion = version(this.housingUnitFeatureList, feature ->
+          new Object[] {feature.getId(), feature.getName(), feature.getCreatedDatetime(),
+              feature.getModifiedDatetime()});
+      this.buildingFeaturesLastModified = lastModified(this.buildingFeatureList,
+          BuildingFeatureEntity::getModifiedDatetime);
+      this.housingUnitFeaturesLastModified = lastModified(this.housingUnitFeatureList,
+          HousingUnitFeatureEntity::getModifiedDatetime);
+      this.loadedAt = loadedAt;
+    }
+  }
+}
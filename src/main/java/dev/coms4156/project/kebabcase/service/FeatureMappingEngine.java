@@ -0,0 +1,369 @@
+package dev.coms4156.project.kebabcase.service;
+
+import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import dev.coms4156.project.kebabcase.entity.HousingUnitEntity;
+import dev.coms4156.project.kebabcase.repository.BuildingFeatureBuildingMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitFeatureHousingUnitMappingRepositoryInterface;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Adds and removes the features of a building or housing unit as a set.
+ *
+ * <p>Instead of looking up and saving one mapping per feature, an update validates every
+ * feature ID against the {@link FeatureCatalog}, reads the current feature IDs with one query,
+ * and computes which mappings to insert and delete. The inserts are written with one
+ * {@code INSERT IGNORE} and the deletes with one {@code DELETE ... IN}, in a single
+ * transaction, so the number of statements does not grow with the number of features.
+ * </p>
+ *
+ * <p>Features of many buildings or housing units can also be added at once, for imports. The
+ * new mappings are then written with one JDBC batch of {@code INSERT IGNORE} statements.
+ * </p>
+ *
+ * <p>Every change also sets the modified datetime of the buildings or housing units whose
+ * features changed, in the same transaction, so their ETags and Last-Modified dates can be
+ * computed without loading their features. These updates bypass Hibernate, so the changed
+ * buildings and housing units are evicted from the second-level cache once the transaction
+ * commits.
+ * </p>
+ *
+ * <p>The {@link FeatureBitmapIndex} is updated, and changed buildings are removed from the
+ * {@link BuildingDetailCache}, once the transaction that wrote the mappings commits, which may
+ * be a transaction of the caller.
+ * </p>
+ */
+@Component
+public class FeatureMappingEngine {
+
+  private static final String INSERT_BUILDING_MAPPING = "INSERT IGNORE INTO "
+      + "building_feature_building_mappings "
+      + "(building_id, building_feature_id, created_datetime, modified_datetime) "
+      + "VALUES (?, ?, ?, ?)";
+  private static final String INSERT_HOUSING_UNIT_MAPPING = "INSERT IGNORE INTO "
+      + "housing_unit_feature_housing_unit_mappings "
+      + "(housing_unit_id, housing_unit_feature_id, created_datetime, modified_datetime) "
+      + "VALUES (?, ?, ?, ?)";
+  private static final String TOUCH_BUILDING =
+      "UPDATE buildings SET modified_datetime = ? WHERE id = ?";
+  private static final String TOUCH_HOUSING_UNIT =
+      "UPDATE housing_units SET modified_datetime = ? WHERE id = ?";
+  private static final int BATCH_SIZE = 500;
+
+  private final FeatureCatalog featureCatalog;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final MappingTable buildings;
+  private final MappingTable housingUnits;
+
+  /**
+   * Constructs a new FeatureMappingEngine.
+   *
+   * @param featureCatalog the catalog used to validate feature IDs
+   * @param featureBitmapIndex the index updated after each change
+   * @param buildingDetailCache the cache of buildings invalidated after each change
+   * @param buildingFeatureMappingRepository the repository for mapping building features
+   * @param unitFeatureMappingRepository the repository for mapping housing unit features
+   * @param jdbcTemplate the JDBC template used to batch the mappings of many owners
+   * @param entityManagerFactory the factory whose second-level cache is evicted after each
+   *     change
+   * @param transactionManager the transaction manager used to apply each change atomically
+   */
+  public FeatureMappingEngine(
+      FeatureCatalog featureCatalog,
+      FeatureBitmapIndex featureBitmapIndex,
+      BuildingDetailCache buildingDetailCache,
+      BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository,
+      HousingUnitFeatureHousingUnitMappingRepositoryInterface unitFeatureMappingRepository,
+      JdbcTemplate jdbcTemplate,
+      EntityManagerFactory entityManagerFactory,
+      PlatformTransactionManager transactionManager
+  ) {
+    this.featureCatalog = featureCatalog;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.buildings = new MappingTable(
+        featureId -> this.featureCatalog.findBuildingFeature(featureId).isPresent(),
+        buildingFeatureMappingRepository::findBuildingFeatureIdsByBuildingId,
+        (buildingId, featureIds) -> buildingFeatureMappingRepository.insertMappings(
+            buildingId, featureIds, OffsetDateTime.now()),
+        buildingFeatureMappingRepository::deleteMappings,
+        INSERT_BUILDING_MAPPING,
+        TOUCH_BUILDING,
+        buildingId -> entityManagerFactory.getCache().evict(BuildingEntity.class, buildingId),
+        (buildingId, featureId) -> {
+          featureBitmapIndex.addBuildingFeature(buildingId, featureId);
+          buildingDetailCache.invalidate(buildingId);
+        },
+        (buildingId, featureId) -> {
+          featureBitmapIndex.removeBuildingFeature(buildingId, featureId);
+          buildingDetailCache.invalidate(buildingId);
+        }
+    );
+    this.housingUnits = new MappingTable(
+        featureId -> this.featureCatalog.findHousingUnitFeature(featureId).isPresent(),
+        unitFeatureMappingRepository::findHousingUnitFeatureIdsByHousingUnitId,
+        (housingUnitId, featureIds) -> unitFeatureMappingRepository.insertMappings(
+            housingUnitId, featureIds, OffsetDateTime.now()),
+        unitFeatureMappingRepository::deleteMappings,
+        INSERT_HOUSING_UNIT_MAPPING,
+        TOUCH_HOUSING_UNIT,
+        housingUnitId -> entityManagerFactory.getCache()
+            .evict(HousingUnitEntity.class, housingUnitId),
+        featureBitmapIndex::addHousingUnitFeature,
+        featureBitmapIndex::removeHousingUnitFeature
+    );
+  }
+
+  /**
+   * Adds and removes features of a building. Features the building already has are not added
+   * again, and features it does not have are not removed.
+   *
+   * @param buildingId the ID of the building
+   * @param addFeatures the IDs of the building features to add, or {@code null}
+   * @param removeFeatures the IDs of the building features to remove, or {@code null}
+   * @return the requested IDs that are not building features, in the order they were given
+   */
+  public Set<Integer> updateBuildingFeatures(
+      int buildingId, Collection<Integer> addFeatures, Collection<Integer> removeFeatures) {
+    return update(this.buildings, buildingId, addFeatures, removeFeatures);
+  }
+
+  /**
+   * Adds and removes features of a housing unit. Features the housing unit already has are not
+   * added again, and features it does not have are not removed.
+   *
+   * @param housingUnitId the ID of the housing unit
+   * @param addFeatures the IDs of the housing unit features to add, or {@code null}
+   * @param removeFeatures the IDs of the housing unit features to remove, or {@code null}
+   * @return the requested IDs that are not housing unit features, in the order they were given
+   */
+  public Set<Integer> updateHousingUnitFeatures(
+      int housingUnitId, Collection<Integer> addFeatures, Collection<Integer> removeFeatures) {
+    return update(this.housingUnits, housingUnitId, addFeatures, removeFeatures);
+  }
+
+  /**
+   * Adds features to many buildings at once. Features a building already has are skipped.
+   *
+   * @param featuresByBuildingId the IDs of the building features to add, by building ID
+   * @return the requested IDs that are not building features, by building ID, for the buildings
+   *     that requested any
+   */
+  public Map<Integer, Set<Integer>> addBuildingFeatures(
+      Map<Integer, ? extends Collection<Integer>> featuresByBuildingId) {
+    return addAll(this.buildings, featuresByBuildingId);
+  }
+
+  /**
+   * Adds features to many housing units at once. Features a housing unit already has are
+   * skipped.
+   *
+   * @param featuresByHousingUnitId the IDs of the housing unit features to add, by housing
+   *     unit ID
+   * @return the requested IDs that are not housing unit features, by housing unit ID, for the
+   *     housing units that requested any
+   */
+  public Map<Integer, Set<Integer>> addHousingUnitFeatures(
+      Map<Integer, ? extends Collection<Integer>> featuresByHousingUnitId) {
+    return addAll(this.housingUnits, featuresByHousingUnitId);
+  }
+
+  private Set<Integer> update(MappingTable table, int ownerId,
+                              Collection<Integer> addFeatures,
+                              Collection<Integer> removeFeatures) {
+    Set<Integer> invalidFeatures = new LinkedHashSet<>();
+    RoaringBitmap requestedAdds = validFeatureIds(table, addFeatures, invalidFeatures);
+    RoaringBitmap requestedRemoves = validFeatureIds(table, removeFeatures, invalidFeatures);
+    if (requestedAdds.isEmpty() && requestedRemoves.isEmpty()) {
+      return invalidFeatures;
+    }
+
+    this.transactionTemplate.executeWithoutResult(status -> {
+      RoaringBitmap current = new RoaringBitmap();
+      table.currentFeatureIds.apply(ownerId).forEach(current::add);
+
+      RoaringBitmap inserted = featuresToInsert(requestedAdds, current);
+      RoaringBitmap deleted = featuresToDelete(requestedAdds, requestedRemoves, current);
+
+      if (!inserted.isEmpty()) {
+        table.insert.accept(ownerId, toList(inserted));
+      }
+      if (!deleted.isEmpty()) {
+        table.delete.accept(ownerId, toList(deleted));
+      }
+      boolean changed = !inserted.isEmpty() || !deleted.isEmpty();
+      if (changed) {
+        this.jdbcTemplate.update(table.touchSql, Timestamp.from(Instant.now()), ownerId);
+      }
+
+      afterCommit(() -> {
+        inserted.forEach((int featureId) -> table.indexAdd.accept(ownerId, featureId));
+        deleted.forEach((int featureId) -> table.indexRemove.accept(ownerId, featureId));
+        if (changed) {
+          table.evict.accept(ownerId);
+        }
+      });
+    });
+    return invalidFeatures;
+  }
+
+  private Map<Integer, Set<Integer>> addAll(MappingTable table,
+                                            Map<Integer, ? extends Collection<Integer>> features) {
+    Map<Integer, Set<Integer>> invalidFeatures = new LinkedHashMap<>();
+    List<int[]> pairs = new ArrayList<>();
+    features.forEach((ownerId, featureIds) -> {
+      Set<Integer> invalid = new LinkedHashSet<>();
+      validFeatureIds(table, featureIds, invalid)
+          .forEach((int featureId) -> pairs.add(new int[] {ownerId, featureId}));
+      if (!invalid.isEmpty()) {
+        invalidFeatures.put(ownerId, invalid);
+      }
+    });
+    if (pairs.isEmpty()) {
+      return invalidFeatures;
+    }
+
+    Timestamp now = Timestamp.from(OffsetDateTime.now().toInstant());
+    this.transactionTemplate.executeWithoutResult(status -> {
+      this.jdbcTemplate.batchUpdate(table.batchInsertSql, pairs, BATCH_SIZE, (statement, pair) -> {
+        statement.setInt(1, pair[0]);
+        statement.setInt(2, pair[1]);
+        statement.setTimestamp(3, now);
+        statement.setTimestamp(4, now);
+      });
+      List<Integer> owners = pairs.stream().map(pair -> pair[0]).distinct().toList();
+      this.jdbcTemplate.batchUpdate(table.touchSql, owners, BATCH_SIZE, (statement, ownerId) -> {
+        statement.setTimestamp(1, now);
+        statement.setInt(2, ownerId);
+      });
+
+      afterCommit(() -> {
+        pairs.forEach(pair -> table.indexAdd.accept(pair[0], pair[1]));
+        owners.forEach(table.evict);
+      });
+    });
+    return invalidFeatures;
+  }
+
+  /**
+   * Runs an action once the current transaction commits, or right away outside of one.
+   */
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  /**
+   * Returns the requested features the owner does not have yet.
+   *
+   * @param requestedAdds the features requested to be added
+   * @param current the features the owner has
+   * @return the features to insert
+   */
+  static RoaringBitmap featuresToInsert(RoaringBitmap requestedAdds, RoaringBitmap current) {
+    return RoaringBitmap.andNot(requestedAdds, current);
+  }
+
+  /**
+   * Returns the features requested to be removed that the owner has. A feature requested to be
+   * both added and removed is kept.
+   *
+   * @param requestedAdds the features requested to be added
+   * @param requestedRemoves the features requested to be removed
+   * @param current the features the owner has
+   * @return the features to delete
+   */
+  static RoaringBitmap featuresToDelete(RoaringBitmap requestedAdds,
+                                        RoaringBitmap requestedRemoves, RoaringBitmap current) {
+    RoaringBitmap deleted = RoaringBitmap.and(requestedRemoves, current);
+    deleted.andNot(requestedAdds);
+    return deleted;
+  }
+
+  private static RoaringBitmap validFeatureIds(MappingTable table, Collection<Integer> featureIds,
+                                               Set<Integer> invalidFeatures) {
+    RoaringBitmap valid = new RoaringBitmap();
+    if (featureIds != null) {
+      for (Integer featureId : featureIds) {
+        if (table.isFeature.test(featureId)) {
+          valid.add(featureId);
+        } else {
+          invalidFeatures.add(featureId);
+        }
+      }
+    }
+    return valid;
+  }
+
+  private static List<Integer> toList(RoaringBitmap featureIds) {
+    List<Integer> list = new ArrayList<>(featureIds.getCardinality());
+    for (Integer featureId : featureIds) {
+      list.add(featureId);
+    }
+    return list;
+  }
+
+  /**
+   * The queries and index updates for one feature mapping table.
+   */
+  private static final class MappingTable {
+    private final Predicate<Integer> isFeature;
+    private final IntFunction<List<Integer>> currentFeatureIds;
+    private final BiConsumer<Integer, List<Integer>> insert;
+    private final BiConsumer<Integer, List<Integer>> delete;
+    private final String batchInsertSql;
+    private final String touchSql;
+    private final Consumer<Integer> evict;
+    private final BiConsumer<Integer, Integer> indexAdd;
+    private final BiConsumer<Integer, Integer> indexRemove;
+
+    private MappingTable(Predicate<Integer> isFeature,
+                         IntFunction<List<Integer>> currentFeatureIds,
+                         BiConsumer<Integer, List<Integer>> insert,
+                         BiConsumer<Integer, List<Integer>> delete,
+                         String batchInsertSql,
+                         String touchSql,
+                         Consumer<Integer> evict,
+                         BiConsumer<Integer, Integer> indexAdd,
+                         BiConsumer<Integer, Integer> indexRemove) {
+      this.isFeature = isFeature;
+      this.currentFeatureIds = currentFeatureIds;
+      this.insert = insert;
+      this.delete = delete;
+      this.batchInsertSql = batchInsertSql;
+      this.touchSql = touchSql;
+      this.evict = evict;
+      this.indexAdd = indexAdd;
+      this.indexRemove = indexRemove;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package dev.coms4156.project.kebabcase.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hashes passwords on a dedicated pool of worker threads.
+ *
+ * <p>Hashing is CPU-bound, so it runs on a fixed pool with one thread per core by default,
+ * instead of on the request threads that also serve cheap reads. Work waiting for a thread is
+ * held in a bounded queue. When the queue is full the pool is saturated, and
+ * {@link #hash(String)} rejects the password right away so the caller can shed the load
+ * instead of piling up requests.
+ * </p>
+ *
+ * <p>The pool is published as the {@code executor.*} metrics, tagged with
+ * {@code name=passwordHashing}.
+ * </p>
+ */
+@Component
+public class PasswordHasher {
+
+  private final ExecutorService executor;
+
+  /**
+   * Constructs a new PasswordHasher.
+   *
+   * @param threads the number of hashing threads, or 0 for one per available core
+   * @param queueCapacity the number of passwords that can wait for a hashing thread
+   * @param meterRegistry the registry the pool metrics are published to
+   */
+  public PasswordHasher(
+      @Value("${kebabcase.password-hashing.threads:0}") int threads,
+      @Value("${kebabcase.password-hashing.queue-capacity:64}") int queueCapacity,
+      MeterRegistry meterRegistry
+  ) {
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadCount = new AtomicInteger();
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(
+        poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable,
+              "password-hashing-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy()
+    );
+    this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "passwordHashing");
+  }
+
+  /**
+   * Hashes a password using SHA-256 on a hashing thread.
+   *
+   * @param password the plain-text password to hash
+   * @return a future completed with the hashed password as a hexadecimal string
+   * @throws RejectedExecutionException if every hashing thread is busy and the queue is full
+   */
+  public CompletableFuture<String> hash(String password) {
+    return CompletableFuture.supplyAsync(() -> hashNow(password), this.executor);
+  }
+
+  /**
+   * Stops the hashing threads once the passwords already queued have been hashed.
+   */
+  @PreDestroy
+  public void shutdown() {
+    this.executor.shutdown();
+  }
+
+  /**
+   * Hashes a password using SHA-256 on the calling thread.
+   *
+   * @param password the plain-text password to hash
+   * @return the hashed password as a hexadecimal string
+   */
+  static String hashNow(String password) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] encodedHash = digest.digest(password.getBytes(StandardCharsets.UTF_8));
+      return bytesToHex(encodedHash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  /**
+   * Converts a byte array to a hexadecimal string.
+   *
+   * @param hash the byte array to convert.
+   * @return the hexadecimal string representation of the byte array.
+   */
+  private static String bytesToHex(byte[] hash) {
+    StringBuilder hexString = new StringBuilder();
+    for (byte b : hash) {
+      String hex = Integer.toHexString(0xff & b);
+      if (hex.length() == 1) {
+        hexString.append('0');
+      }
+      hexString.append(hex);
+    }
+    return hexString.toString();
+  }
+}
@@ -0,0 +1,81 @@
+package dev.coms4156.project.kebabcase.service;
+
+import dev.coms4156.project.kebabcase.repository.TokenRepositoryInterface;
+import java.time.OffsetDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory set of the revoked tokens that have not expired yet.
+ *
+ * <p>Signed tokens are verified without reading the {@code tokens} table, so revocations are
+ * read from it in the background instead: the set is reloaded every
+ * {@code kebabcase.tokens.revocation-refresh-interval}, and swapped in atomically so readers
+ * never lock. Only unexpired revoked tokens are loaded, which keeps the set small. Tokens
+ * revoked by this instance are added right away.
+ * </p>
+ */
+@Component
+public class RevokedTokens {
+
+  private final TokenRepositoryInterface tokenRepository;
+  private final AtomicReference<Set<String>> revoked = new AtomicReference<>();
+
+  /**
+   * Constructs a new RevokedTokens. The set is loaded on first use.
+   *
+   * @param tokenRepository the repository used to read revoked tokens
+   */
+  public RevokedTokens(TokenRepositoryInterface tokenRepository) {
+    this.tokenRepository = tokenRepository;
+  }
+
+  /**
+   * Returns whether a token has been revoked.
+   *
+   * @param tokenId the ID of the token, as stored in the {@code tokens} table
+   * @return true if the token is revoked
+   */
+  public boolean isRevoked(String tokenId) {
+    Set<String> current = this.revoked.get();
+    if (current == null) {
+      current = load();
+    }
+    return current.contains(tokenId);
+  }
+
+  /**
+   * Adds a token revoked by this instance, without waiting for the next refresh.
+   *
+   * <p>Holds the same lock as the reload, so a reload whose query ran before the revocation
+   * was committed cannot swap in its set afterwards and drop the token.
+   * </p>
+   *
+   * @param tokenId the ID of the token
+   */
+  public synchronized void add(String tokenId) {
+    Set<String> current = this.revoked.get();
+    if (current == null) {
+      current = load();
+    }
+    current.add(tokenId);
+  }
+
+  /**
+   * Reloads the revoked tokens that have not expired yet.
+   */
+  @Scheduled(fixedDelayString = "${kebabcase.tokens.revocation-refresh-interval:30s}")
+  public void refresh() {
+    load();
+  }
+
+  private synchronized Set<String> load() {
+    Set<String> loaded = ConcurrentHashMap.newKeySet();
+    loaded.addAll(this.tokenRepository.findRevokedTokens(OffsetDateTime.now()));
+    this.revoked.set(loaded);
+    return loaded;
+  }
+}
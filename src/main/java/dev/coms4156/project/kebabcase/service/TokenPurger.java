@@ -0,0 +1,97 @@
+package dev.coms4156.project.kebabcase.service;
+
+import dev.coms4156.project.kebabcase.repository.TokenRepositoryInterface;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes expired tokens in the background.
+ *
+ * <p>Every login adds a token, so expired tokens are purged on a schedule to keep the
+ * {@code tokens} table and its indexes small. Rows are deleted oldest first, in batches of
+ * {@code kebabcase.tokens.purge-batch-size}, each in its own short transaction found through
+ * the index on {@code expiration_datetime}. The purger pauses between batches so it never
+ * holds locks for long or competes with logins for the database.
+ * </p>
+ *
+ * <p>The number of tokens deleted is published as the {@code kebabcase.tokens.purged} counter,
+ * and the duration of each purge as the {@code kebabcase.tokens.purge} timer.
+ * </p>
+ */
+@Component
+public class TokenPurger {
+
+  private final TokenRepositoryInterface tokenRepository;
+  private final int batchSize;
+  private final long pauseMillis;
+  private final Counter purged;
+  private final Timer purgeTimer;
+
+  /**
+   * Constructs a new TokenPurger.
+   *
+   * @param tokenRepository the repository used to delete tokens
+   * @param meterRegistry the registry the purge metrics are published to
+   * @param batchSize the maximum number of tokens deleted per statement
+   * @param pause how long to wait between two batches
+   */
+  public TokenPurger(
+      TokenRepositoryInterface tokenRepository,
+      MeterRegistry meterRegistry,
+      @Value("${kebabcase.tokens.purge-batch-size:500}") int batchSize,
+      @Value("${kebabcase.tokens.purge-pause:100ms}") Duration pause
+  ) {
+    this.tokenRepository = tokenRepository;
+    this.batchSize = batchSize;
+    this.pauseMillis = pause.toMillis();
+    this.purged = Counter.builder("kebabcase.tokens.purged")
+        .description("Expired tokens deleted")
+        .register(meterRegistry);
+    this.purgeTimer = Timer.builder("kebabcase.tokens.purge")
+        .description("Time taken to delete the expired tokens")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Deletes the tokens that have expired, every {@code kebabcase.tokens.purge-interval}.
+   */
+  @Scheduled(
+      initialDelayString = "${kebabcase.tokens.purge-interval:1h}",
+      fixedDelayString = "${kebabcase.tokens.purge-interval:1h}"
+  )
+  public void purge() {
+    this.purgeTimer.record(() -> purgeExpiredBefore(OffsetDateTime.now()));
+  }
+
+  /**
+   * Deletes the tokens that expired before the given datetime, one batch at a time.
+   *
+   * @param now the datetime before which tokens are expired
+   * @return the number of tokens deleted
+   */
+  public int purgeExpiredBefore(OffsetDateTime now) {
+    int total = 0;
+    while (true) {
+      int deleted = this.tokenRepository.deleteExpired(now, this.batchSize);
+      total += deleted;
+      this.purged.increment(deleted);
+      if (deleted < this.batchSize) {
+        return total;
+      }
+
+      try {
+        Thread.sleep(this.pauseMillis);
+      } catch (InterruptedException e) {
+        // Shutting down: the rest is purged next time
+        Thread.currentThread().interrupt();
+        return total;
+      }
+    }
+  }
+}
@@ -0,0 +1,202 @@
+package dev.coms4156.project.kebabcase.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Issues and verifies self-verifying tokens signed with HMAC-SHA256.
+ *
+ * <p>A signed token carries the user ID, the client ID, the expiration and a token ID, so a
+ * caller can be identified without reading the {@code tokens} table. Its format is
+ * {@code v1.<payload>.<signature>}, both parts base64url encoded. The {@code tokens} table is
+ * then only needed to revoke the token, so it stores a SHA-256 hash of the token ID rather than
+ * the ID itself: the payload is readable by anyone holding the token, and a stored ID would
+ * otherwise also be accepted as an opaque token, without its signature.
+ * </p>
+ *
+ * <p>Signed tokens are issued only when {@code kebabcase.tokens.signing-key} is set to a base64
+ * key of at least 32 bytes. Otherwise tokens stay opaque strings looked up in the database.
+ * </p>
+ */
+@Component
+public class TokenSigner {
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final String HASH_ALGORITHM = "SHA-256";
+  private static final String PREFIX = "v1.";
+  private static final String SEPARATOR = ":";
+  private static final int MIN_KEY_LENGTH = 32;
+
+  private final SecretKeySpec key;
+
+  /**
+   * Constructs a new TokenSigner.
+   *
+   * @param signingKey the base64 signing key, or empty to issue opaque tokens
+   * @throws IllegalArgumentException if the key is shorter than 32 bytes
+   */
+  public TokenSigner(@Value("${kebabcase.tokens.signing-key:}") String signingKey) {
+    if (signingKey == null || signingKey.isBlank()) {
+      this.key = null;
+      return;
+    }
+    byte[] keyBytes = Base64.getDecoder().decode(signingKey.trim());
+    if (keyBytes.length < MIN_KEY_LENGTH) {
+      throw new IllegalArgumentException(
+          "kebabcase.tokens.signing-key must be at least " + MIN_KEY_LENGTH + " bytes");
+    }
+    this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+  }
+
+  /**
+   * Returns whether signed tokens are issued.
+   *
+   * @return true if a signing key is configured
+   */
+  public boolean isEnabled() {
+    return this.key != null;
+  }
+
+  /**
+   * Returns whether a token has the signed format. The signature is not checked.
+   *
+   * @param token the token sent by the caller
+   * @return true if the token is a signed token
+   */
+  public static boolean isSigned(String token) {
+    return token != null && token.startsWith(PREFIX);
+  }
+
+  /**
+   * Returns the value stored in the {@code tokens} table for a signed token, and used to revoke
+   * it. The value has the signed format, so it is never looked up as an opaque token.
+   *
+   * @param tokenId the ID carried by the signed token
+   * @return the hash of the token ID
+   */
+  public static String storedTokenId(String tokenId) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+      return PREFIX + encode(digest.digest(tokenId.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Cannot hash tokens with " + HASH_ALGORITHM, e);
+    }
+  }
+
+  /**
+   * Signs the claims of a new token.
+   *
+   * @param claims the claims to carry
+   * @return the signed token
+   * @throws IllegalStateException if no signing key is configured
+   */
+  public String sign(Claims claims) {
+    if (!isEnabled()) {
+      throw new IllegalStateException("No token signing key is configured");
+    }
+    String payload = String.join(SEPARATOR,
+        String.valueOf(claims.getUserId()),
+        String.valueOf(claims.getClientId()),
+        String.valueOf(claims.getExpirationDatetime().toEpochSecond()),
+        claims.getTokenId());
+    String encodedPayload = encode(payload.getBytes(StandardCharsets.UTF_8));
+    return PREFIX + encodedPayload + "." + encode(mac(encodedPayload));
+  }
+
+  /**
+   * Verifies a signed token.
+   *
+   * @param token the token sent by the caller
+   * @return an {@link Optional} containing the claims of the token, or empty if the token is
+   *     not a signed token, its signature does not match, or it has expired
+   */
+  public Optional<Claims> verify(String token) {
+    if (!isEnabled() || !isSigned(token)) {
+      return Optional.empty();
+    }
+    String[] parts = token.substring(PREFIX.length()).split("\\.", -1);
+    if (parts.length != 2) {
+      return Optional.empty();
+    }
+
+    try {
+      byte[] signature = Base64.getUrlDecoder().decode(parts[1]);
+      if (!MessageDigest.isEqual(signature, mac(parts[0]))) {
+        return Optional.empty();
+      }
+      String payload = new String(Base64.getUrlDecoder().decode(parts[0]),
+          StandardCharsets.UTF_8);
+      String[] fields = payload.split(SEPARATOR, -1);
+      if (fields.length != 4) {
+        return Optional.empty();
+      }
+      Claims claims = new Claims(
+          Integer.parseInt(fields[0]),
+          Integer.parseInt(fields[1]),
+          OffsetDateTime.ofInstant(Instant.ofEpochSecond(Long.parseLong(fields[2])),
+              ZoneOffset.UTC),
+          fields[3]
+      );
+      if (!claims.getExpirationDatetime().isAfter(OffsetDateTime.now())) {
+        return Optional.empty();
+      }
+      return Optional.of(claims);
+    } catch (IllegalArgumentException e) {
+      // Not base64, or not numbers where numbers are expected
+      return Optional.empty();
+    }
+  }
+
+  private byte[] mac(String encodedPayload) {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(this.key);
+      return mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+      throw new IllegalStateException("Cannot sign tokens with " + ALGORITHM, e);
+    }
+  }
+
+  private static String encode(byte[] bytes) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+
+  /**
+   * The claims carried by a signed token.
+   */
+  @Getter
+  public static final class Claims {
+    private final int userId;
+    private final int clientId;
+    private final OffsetDateTime expirationDatetime;
+    private final String tokenId;
+
+    /**
+     * Constructs the claims of a token.
+     *
+     * @param userId the ID of the user who owns the token
+     * @param clientId the ID of the client the token was issued to
+     * @param expirationDatetime when the token expires
+     * @param tokenId the ID of the token, stored hashed in the {@code tokens} table for
+     *     revocation
+     */
+    public Claims(int userId, int clientId, OffsetDateTime expirationDatetime, String tokenId) {
+      this.userId = userId;
+      this.clientId = clientId;
+      this.expirationDatetime = expirationDatetime;
+      this.tokenId = tokenId;
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package dev.coms4156.project.kebabcase.util;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.StringJoiner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Helpers for answering conditional GET requests with {@code 304 Not Modified}.
+ *
+ * <p>A resource is validated by a weak ETag built from everything its body depends on, such as
+ * IDs, modified datetimes and catalog versions, and by a Last-Modified date, the latest of its
+ * modified datetimes. Both are computed before the body is built, so a request whose
+ * {@code If-None-Match} or {@code If-Modified-Since} header still matches is answered without
+ * building it. When both headers are sent, {@code If-None-Match} decides.
+ * </p>
+ */
+public final class ConditionalRequests {
+
+  private ConditionalRequests() {
+  }
+
+  /**
+   * Builds a weak ETag from the parts a version of a resource depends on. Datetimes are
+   * included to the microsecond.
+   *
+   * @param parts the parts of the version, in a fixed order
+   * @return the weak ETag, such as {@code W/"42-5f1a0b2c3d4e5"}
+   */
+  public static String weakEtag(Object... parts) {
+    StringJoiner etag = new StringJoiner("-", "W/\"", "\"");
+    for (Object part : parts) {
+      if (part instanceof OffsetDateTime datetime) {
+        etag.add(Long.toHexString(ChronoUnit.MICROS.between(Instant.EPOCH, datetime.toInstant())));
+      } else {
+        etag.add(String.valueOf(part));
+      }
+    }
+    return etag.toString();
+  }
+
+  /**
+   * Returns the latest of the given datetimes.
+   *
+   * @param datetimes the datetimes, any of which may be {@code null}
+   * @return the latest datetime, or {@code null} if none is given
+   */
+  public static OffsetDateTime latest(OffsetDateTime... datetimes) {
+    OffsetDateTime latest = null;
+    for (OffsetDateTime datetime : datetimes) {
+      if (datetime != null && (latest == null || datetime.isAfter(latest))) {
+        latest = datetime;
+      }
+    }
+    return latest;
+  }
+
+  /**
+   * Checks the conditional headers of a request against the current version of a resource.
+   *
+   * @param request the request
+   * @param etag the ETag of the current version
+   * @param lastModified the Last-Modified date of the current version, or {@code null}
+   * @return true if the client already has the current version
+   */
+  public static boolean checkNotModified(WebRequest request, String etag,
+                                         OffsetDateTime lastModified) {
+    if (lastModified == null) {
+      return request.checkNotModified(etag);
+    }
+    return request.checkNotModified(etag, lastModified.toInstant().toEpochMilli());
+  }
+
+  /**
+   * Returns a {@code 304 Not Modified} response for the current version of a resource.
+   *
+   * @param etag the ETag of the current version
+   * @param lastModified the Last-Modified date of the current version, or {@code null}
+   * @param <T> the type of the body
+   * @return the response, without a body
+   */
+  public static <T> ResponseEntity<T> notModified(String etag, OffsetDateTime lastModified) {
+    return withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag, lastModified)
+        .build();
+  }
+
+  /**
+   * Returns a {@code 200 OK} response builder carrying the validators of a resource.
+   *
+   * @param etag the ETag of the current version
+   * @param lastModified the Last-Modified date of the current version, or {@code null}
+   * @return the response builder
+   */
+  public static ResponseEntity.BodyBuilder ok(String etag, OffsetDateTime lastModified) {
+    return withValidators(ResponseEntity.ok(), etag, lastModified);
+  }
+
+  private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder,
+                                                           String etag,
+                                                           OffsetDateTime lastModified) {
+    builder.eTag(etag);
+    if (lastModified != null) {
+      builder.lastModified(lastModified.toInstant());
+    }
+    return builder;
+  }
+}
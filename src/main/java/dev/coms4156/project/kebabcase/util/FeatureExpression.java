@@ -0,0 +1,282 @@
+package dev.coms4156.project.kebabcase.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Boolean expression over feature IDs, such as {@code 1 AND (2 OR 3) AND NOT 4}.
+ *
+ * <p>Expressions are made of feature IDs, the operators {@code AND}, {@code OR} and
+ * {@code NOT} (case insensitive, or written as {@code &}, {@code |} and {@code !}) and
+ * parentheses. {@code NOT} binds tighter than {@code AND}, which binds tighter than
+ * {@code OR}. An expression is evaluated against one bitmap of matching IDs per feature.
+ * </p>
+ */
+public final class FeatureExpression {
+
+  private static final int MAX_TOKENS = 256;
+
+  private static final Pattern TOKEN = Pattern.compile(
+      "\\s*(?:(\\d+)|([A-Za-z]+)|(&&?|\\|\\|?|!|\\(|\\)))"
+  );
+
+  private final Node root;
+  private final Set<Integer> featureIds;
+
+  private FeatureExpression(Node root, Set<Integer> featureIds) {
+    this.root = root;
+    this.featureIds = Collections.unmodifiableSet(featureIds);
+  }
+
+  /**
+   * Parses a feature expression.
+   *
+   * @param expression the expression to parse
+   * @return the parsed expression
+   * @throws ResponseStatusException if the expression is empty or malformed
+   */
+  public static FeatureExpression parse(String expression) {
+    if (expression == null || expression.isBlank()) {
+      throw invalid("Feature expression must not be empty");
+    }
+    Parser parser = new Parser(tokenize(expression));
+    Node root = parser.parseOr();
+    if (parser.position != parser.tokens.size()) {
+      String token = parser.tokens.get(parser.position);
+      throw invalid("Unexpected '" + token + "' in feature expression");
+    }
+    return new FeatureExpression(root, parser.featureIds);
+  }
+
+  /**
+   * Returns the IDs of all features named in this expression.
+   *
+   * @return the feature IDs, in the order they first appear
+   */
+  public Set<Integer> getFeatureIds() {
+    return this.featureIds;
+  }
+
+  /**
+   * Evaluates this expression. The given bitmaps are never modified.
+   *
+   * @param featureBitmaps returns the IDs matching a feature, or an empty bitmap
+   * @param universe all IDs that can match, used to evaluate {@code NOT}
+   * @return the IDs matching this expression
+   */
+  public RoaringBitmap evaluate(IntFunction<RoaringBitmap> featureBitmaps, RoaringBitmap universe) {
+    RoaringBitmap result = this.root.evaluate(featureBitmaps, universe);
+    // A lone feature evaluates to the caller's own bitmap, which must not leak out
+    return this.root instanceof Feature ? result.clone() : result;
+  }
+
+  private static List<String> tokenize(String expression) {
+    List<String> tokens = new ArrayList<>();
+    Matcher matcher = TOKEN.matcher(expression);
+    int end = 0;
+    while (end < expression.length() && matcher.find(end) && matcher.start() == end) {
+      String token = matcher.group(1) != null ? matcher.group(1)
+          : matcher.group(2) != null ? matcher.group(2).toUpperCase(Locale.ROOT)
+          : matcher.group(3);
+      tokens.add(token);
+      end = matcher.end();
+      if (tokens.size() > MAX_TOKENS) {
+        throw invalid("Feature expression is too long");
+      }
+    }
+    if (!expression.substring(end).isBlank()) {
+      throw invalid("Unexpected character at position " + end + " in feature expression");
+    }
+    return tokens;
+  }
+
+  private static ResponseStatusException invalid(String message) {
+    return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+  }
+
+  /**
+   * Node of a parsed expression.
+   */
+  private interface Node {
+    RoaringBitmap evaluate(IntFunction<RoaringBitmap> featureBitmaps, RoaringBitmap universe);
+  }
+
+  /**
+   * Matches the IDs that have a feature.
+   */
+  private static final class Feature implements Node {
+    private final int featureId;
+
+    private Feature(int featureId) {
+      this.featureId = featureId;
+    }
+
+    @Override
+    public RoaringBitmap evaluate(IntFunction<RoaringBitmap> featureBitmaps,
+                                  RoaringBitmap universe) {
+      return featureBitmaps.apply(this.featureId);
+    }
+  }
+
+  /**
+   * Matches the IDs that do not match the operand.
+   */
+  private static final class Not implements Node {
+    private final Node operand;
+
+    private Not(Node operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public RoaringBitmap evaluate(IntFunction<RoaringBitmap> featureBitmaps,
+                                  RoaringBitmap universe) {
+      return RoaringBitmap.andNot(universe, this.operand.evaluate(featureBitmaps, universe));
+    }
+  }
+
+  /**
+   * Matches the IDs that match every operand. Negated operands are subtracted from the
+   * intersection of the others instead of being complemented first.
+   */
+  private static final class And implements Node {
+    private final List<Node> operands;
+
+    private And(List<Node> operands) {
+      this.operands = operands;
+    }
+
+    @Override
+    public RoaringBitmap evaluate(IntFunction<RoaringBitmap> featureBitmaps,
+                                  RoaringBitmap universe) {
+      List<RoaringBitmap> included = new ArrayList<>();
+      List<RoaringBitmap> excluded = new ArrayList<>();
+      for (Node operand : this.operands) {
+        if (operand instanceof Not) {
+          excluded.add(((Not) operand).operand.evaluate(featureBitmaps, universe));
+        } else {
+          included.add(operand.evaluate(featureBitmaps, universe));
+        }
+      }
+
+      if (included.isEmpty()) {
+        included.add(universe);
+      }
+      // Start from the smallest bitmap so every intersection stays small
+      included.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+      RoaringBitmap result = included.get(0).clone();
+      for (int i = 1; i < included.size(); i++) {
+        result.and(included.get(i));
+      }
+      for (RoaringBitmap bitmap : excluded) {
+        result.andNot(bitmap);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Matches the IDs that match any operand.
+   */
+  private static final class Or implements Node {
+    private final List<Node> operands;
+
+    private Or(List<Node> operands) {
+      this.operands = operands;
+    }
+
+    @Override
+    public RoaringBitmap evaluate(IntFunction<RoaringBitmap> featureBitmaps,
+                                  RoaringBitmap universe) {
+      RoaringBitmap[] bitmaps = new RoaringBitmap[this.operands.size()];
+      for (int i = 0; i < bitmaps.length; i++) {
+        bitmaps[i] = this.operands.get(i).evaluate(featureBitmaps, universe);
+      }
+      return RoaringBitmap.or(bitmaps);
+    }
+  }
+
+  /**
+   * Recursive descent parser over the tokens of an expression.
+   */
+  private static final class Parser {
+    private final List<String> tokens;
+    private final Set<Integer> featureIds = new LinkedHashSet<>();
+    private int position;
+
+    private Parser(List<String> tokens) {
+      this.tokens = tokens;
+    }
+
+    private Node parseOr() {
+      List<Node> operands = new ArrayList<>();
+      operands.add(parseAnd());
+      while (accept("OR", "|", "||")) {
+        operands.add(parseAnd());
+      }
+      return operands.size() == 1 ? operands.get(0) : new Or(operands);
+    }
+
+    private Node parseAnd() {
+      List<Node> operands = new ArrayList<>();
+      operands.add(parseNot());
+      while (accept("AND", "&", "&&")) {
+        operands.add(parseNot());
+      }
+      return operands.size() == 1 ? operands.get(0) : new And(operands);
+    }
+
+    private Node parseNot() {
+      if (accept("NOT", "!")) {
+        return new Not(parseNot());
+      }
+      if (accept("(")) {
+        Node node = parseOr();
+        if (!accept(")")) {
+          throw invalid("Missing ')' in feature expression");
+        }
+        return node;
+      }
+      if (this.position == this.tokens.size()) {
+        throw invalid("Feature expression ends unexpectedly");
+      }
+
+      String token = this.tokens.get(this.position);
+      if (token.isEmpty() || !Character.isDigit(token.charAt(0))) {
+        throw invalid("Expected a feature ID but found '" + token + "'");
+      }
+      this.position++;
+      try {
+        int featureId = Integer.parseInt(token);
+        this.featureIds.add(featureId);
+        return new Feature(featureId);
+      } catch (NumberFormatException e) {
+        throw new ResponseStatusException(
+            HttpStatus.BAD_REQUEST, "Feature ID " + token + " is out of range", e);
+      }
+    }
+
+    private boolean accept(String... expected) {
+      if (this.position < this.tokens.size()) {
+        for (String token : expected) {
+          if (token.equals(this.tokens.get(this.position))) {
+            this.position++;
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+  }
+}
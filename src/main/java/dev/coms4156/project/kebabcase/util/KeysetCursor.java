@@ -0,0 +1,110 @@
+package dev.coms4156.project.kebabcase.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Opaque position in a keyset-paginated list.
+ *
+ * <p>A cursor remembers the sort key of the last row of a page, so the next page can be
+ * loaded with an index-backed {@code WHERE key > ? ORDER BY key LIMIT ?} query instead of an
+ * offset. Lists can be ordered by {@code id}, or by {@code modified_datetime} with {@code id}
+ * as a tie breaker. Cursors are handed to clients base64url encoded and are only valid for
+ * the sort order they were created for.
+ * </p>
+ */
+@Getter
+public final class KeysetCursor {
+
+  /** Response header carrying the cursor of the next page. */
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  /** Sort order by ascending ID. */
+  public static final String SORT_ID = "id";
+
+  /** Sort order by ascending modified datetime, then ascending ID. */
+  public static final String SORT_MODIFIED_DATETIME = "modified_datetime";
+
+  private static final String SEPARATOR = "|";
+
+  private final String sort;
+  private final int id;
+  private final OffsetDateTime modifiedDatetime;
+
+  private KeysetCursor(String sort, int id, OffsetDateTime modifiedDatetime) {
+    this.sort = sort;
+    this.id = id;
+    this.modifiedDatetime = modifiedDatetime;
+  }
+
+  /**
+   * Creates a cursor pointing after the given row.
+   *
+   * @param sort the sort order of the list
+   * @param id the ID of the last row of the page
+   * @param modifiedDatetime the modified datetime of the last row of the page
+   * @return a cursor pointing after the given row
+   */
+  public static KeysetCursor after(String sort, int id, OffsetDateTime modifiedDatetime) {
+    return new KeysetCursor(sort, id, modifiedDatetime);
+  }
+
+  /**
+   * Decodes a cursor received from a client.
+   *
+   * @param sort the sort order requested by the client
+   * @param cursor the encoded cursor, or null to start at the first page
+   * @return the decoded cursor, or null if the first page was requested
+   * @throws ResponseStatusException if the sort order is unknown, or the cursor is malformed
+   *     or was created for a different sort order
+   */
+  public static KeysetCursor decode(String sort, String cursor) {
+    if (!SORT_ID.equals(sort) && !SORT_MODIFIED_DATETIME.equals(sort)) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "sort must be one of: " + SORT_ID + ", " + SORT_MODIFIED_DATETIME
+      );
+    }
+    if (cursor == null || cursor.isEmpty()) {
+      return null;
+    }
+
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = decoded.split("\\" + SEPARATOR, -1);
+
+      if (SORT_ID.equals(sort) && parts.length == 2 && SORT_ID.equals(parts[0])) {
+        return new KeysetCursor(sort, Integer.parseInt(parts[1]), null);
+      }
+      if (SORT_MODIFIED_DATETIME.equals(sort) && parts.length == 3
+          && SORT_MODIFIED_DATETIME.equals(parts[0])) {
+        return new KeysetCursor(sort, Integer.parseInt(parts[2]), OffsetDateTime.parse(parts[1]));
+      }
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "Invalid cursor for sort order " + sort, e
+      );
+    }
+
+    throw new ResponseStatusException(
+        HttpStatus.BAD_REQUEST, "Invalid cursor for sort order " + sort
+    );
+  }
+
+  /**
+   * Encodes this cursor so it can be handed to a client.
+   *
+   * @return the base64url encoded cursor
+   */
+  public String encode() {
+    String raw = SORT_ID.equals(this.sort)
+        ? SORT_ID + SEPARATOR + this.id
+        : SORT_MODIFIED_DATETIME + SEPARATOR + this.modifiedDatetime + SEPARATOR + this.id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
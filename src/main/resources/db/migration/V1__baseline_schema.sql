@@ -0,0 +1,143 @@
+-- The schema as created by Hibernate before migrations were introduced. Databases that
+-- already have these tables are baselined at this version instead of running it, and the
+-- later migrations bring them up to date.
+
+CREATE TABLE users (
+  id INTEGER NOT NULL AUTO_INCREMENT,
+  first_name VARCHAR(255),
+  last_name VARCHAR(255),
+  email_address VARCHAR(255),
+  password VARCHAR(255),
+  created_datetime DATETIME(6),
+  modified_datetime DATETIME(6),
+  PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE clients (
+  id INTEGER NOT NULL AUTO_INCREMENT,
+  name VARCHAR(255),
+  created_datetime DATETIME(6),
+  modified_datetime DATETIME(6),
+  PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE permissions (
+  id INTEGER NOT NULL AUTO_INCREMENT,
+  name VARCHAR(255),
+  created_datetime DATETIME(6),
+  modified_datetime DATETIME(6),
+  PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE permission_client_mappings (
+  id INTEGER NOT NULL AUTO_INCREMENT,
+  permission_id INTEGER,
+  client_id INTEGER,
+  created_datetime DATETIME(6),
+  modified_datetime DATETIME(6),
+  PRIMARY KEY (id),
+  CONSTRAINT fk_permission_client_mappings_permission_id
+    FOREIGN KEY (permission_id) REFERENCES permissions (id),
+  CONSTRAINT fk_permission_client_mappings_client_id
+    FOREIGN KEY (client_id) REFERENCES clients (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE tokens (
+  id INTEGER NOT NULL AUTO_INCREMENT,
+  token VARCHAR(255),
+  client_id INTEGER,
+  user_id INTEGER,
+  expiration_datetime DATETIME(6),
+  created_datetime DATETIME(6),
+  modified_datetime DATETIME(6),
+  PRIMARY KEY (id),
+  CONSTRAINT fk_tokens_client_id FOREIGN KEY (client_id) REFERENCES clients (id),
+  CONSTRAINT fk_tokens_user_id FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE buildings (
+  id INTEGER NOT NULL AUTO_INCREMENT,
+  address VARCHAR(255),
+  city VARCHAR(255),
+  state VARCHAR(255),
+  zip_code VARCHAR(255),
+  created_datetime DATETIME(6),
+  modified_datetime DATETIME(6),
+  PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE housing_units (
+  id INTEGER NOT NULL AUTO_INCREMENT,
+  building_id INTEGER,
+  unit_number VARCHAR(255),
+  created_datetime DATETIME(6),
+  modified_datetime DATETIME(6),
+  PRIMARY KEY (id),
+  CONSTRAINT fk_housing_units_building_id FOREIGN KEY (building_id) REFERENCES buildings (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE building_features (
+  id INTEGER NOT NULL AUTO_INCREMENT,
+  name VARCHAR(255),
+  created_datetime DATETIME(6),
+  modified_datetime DATETIME(6),
+  PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE housing_unit_features (
+  id INTEGER NOT NULL AUTO_INCREMENT,
+  name VARCHAR(255),
+  created_datetime DATETIME(6),
+  modified_datetime DATETIME(6),
+  PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE building_feature_building_mappings (
+  id INTEGER NOT NULL AUTO_INCREMENT,
+  building_id INTEGER,
+  building_feature_id INTEGER,
+  created_datetime DATETIME(6),
+  modified_datetime DATETIME(6),
+  PRIMARY KEY (id),
+  CONSTRAINT fk_building_feature_building_mappings_building_id
+    FOREIGN KEY (building_id) REFERENCES buildings (id),
+  CONSTRAINT fk_building_feature_building_mappings_building_feature_id
+    FOREIGN KEY (building_feature_id) REFERENCES building_features (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE housing_unit_feature_housing_unit_mappings (
+  id INTEGER NOT NULL AUTO_INCREMENT,
+  housing_unit_id INTEGER,
+  housing_unit_feature_id INTEGER,
+  created_datetime DATETIME(6),
+  modified_datetime DATETIME(6),
+  PRIMARY KEY (id),
+  CONSTRAINT fk_housing_unit_feature_housing_unit_mappings_housing_unit_id
+    FOREIGN KEY (housing_unit_id) REFERENCES housing_units (id),
+  CONSTRAINT fk_housing_unit_feature_housing_unit_mappings_feature_id
+    FOREIGN KEY (housing_unit_feature_id) REFERENCES housing_unit_features (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE building_user_mappings (
+  id INTEGER NOT NULL AUTO_INCREMENT,
+  building_id INTEGER,
+  user_id INTEGER,
+  created_datetime DATETIME(6),
+  modified_datetime DATETIME(6),
+  PRIMARY KEY (id),
+  CONSTRAINT fk_building_user_mappings_building_id
+    FOREIGN KEY (building_id) REFERENCES buildings (id),
+  CONSTRAINT fk_building_user_mappings_user_id FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE housing_unit_user_mappings (
+  id INTEGER NOT NULL AUTO_INCREMENT,
+  housing_unit_id INTEGER,
+  user_id INTEGER,
+  created_datetime DATETIME(6),
+  modified_datetime DATETIME(6),
+  PRIMARY KEY (id),
+  CONSTRAINT fk_housing_unit_user_mappings_housing_unit_id
+    FOREIGN KEY (housing_unit_id) REFERENCES housing_units (id),
+  CONSTRAINT fk_housing_unit_user_mappings_user_id FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,21 @@
+-- Each feature can be mapped to a building or housing unit only once, which lets
+-- FeatureMappingEngine insert and delete mappings as sets. Duplicate mappings left by earlier
+-- versions are removed first, keeping the oldest row of each pair.
+
+DELETE m1 FROM building_feature_building_mappings m1
+JOIN building_feature_building_mappings m2
+  ON m1.building_id = m2.building_id
+  AND m1.building_feature_id = m2.building_feature_id
+  AND m1.id > m2.id;
+
+ALTER TABLE building_feature_building_mappings
+  ADD UNIQUE KEY (building_id, building_feature_id);
+
+DELETE m1 FROM housing_unit_feature_housing_unit_mappings m1
+JOIN housing_unit_feature_housing_unit_mappings m2
+  ON m1.housing_unit_id = m2.housing_unit_id
+  AND m1.housing_unit_feature_id = m2.housing_unit_feature_id
+  AND m1.id > m2.id;
+
+ALTER TABLE housing_unit_feature_housing_unit_mappings
+  ADD UNIQUE KEY (housing_unit_id, housing_unit_feature_id);
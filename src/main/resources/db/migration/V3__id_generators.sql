@@ -0,0 +1,20 @@
+-- Buildings, housing units and their user mappings take their IDs from this table, in blocks
+-- of 50, instead of from their auto-increment columns. Each generator starts after the rows
+-- already in its table. The auto-increment attribute is left on the ID columns, where it is
+-- unused.
+
+CREATE TABLE id_generators (
+  table_name VARCHAR(255) NOT NULL,
+  next_id BIGINT,
+  PRIMARY KEY (table_name)
+) ENGINE = InnoDB;
+
+INSERT INTO id_generators (table_name, next_id)
+SELECT 'buildings', COALESCE(MAX(id), 0) + 50 FROM buildings;
+INSERT INTO id_generators (table_name, next_id)
+SELECT 'housing_units', COALESCE(MAX(id), 0) + 50 FROM housing_units;
+INSERT INTO id_generators (table_name, next_id)
+SELECT 'building_user_mappings', COALESCE(MAX(id), 0) + 50 FROM building_user_mappings;
+INSERT INTO id_generators (table_name, next_id)
+SELECT 'housing_unit_user_mappings', COALESCE(MAX(id), 0) + 50
+FROM housing_unit_user_mappings;
@@ -0,0 +1,4 @@
+-- Records when a token was revoked. Signed tokens are checked against the tokens revoked
+-- before they expire.
+
+ALTER TABLE tokens ADD COLUMN revoked_datetime DATETIME(6) NULL;
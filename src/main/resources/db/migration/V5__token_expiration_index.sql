@@ -0,0 +1,3 @@
+-- TokenPurger deletes expired tokens oldest first, in batches.
+
+CREATE INDEX idx_tokens_expiration_datetime ON tokens (expiration_datetime);
@@ -0,0 +1,49 @@
+-- Indexes for the lookups made by the repositories. Foreign key columns already have the
+-- index MySQL creates for the constraint; the composite indexes below replace those where the
+-- lookup filters on more than one column.
+
+-- TokenRepositoryInterface: findByToken, findWithUserByToken and revoke
+CREATE INDEX idx_tokens_token ON tokens (token);
+-- TokenRepositoryInterface.findRevokedTokens, covering
+CREATE INDEX idx_tokens_revoked_datetime
+  ON tokens (revoked_datetime, expiration_datetime, token);
+
+-- UserRepositoryInterface.findByEmailAddress
+CREATE INDEX idx_users_email_address ON users (email_address);
+
+-- ClientRepositoryInterface.findByName
+CREATE INDEX idx_clients_name ON clients (name);
+
+-- BuildingRepositoryInterface: findByAddress, findByCity, findByState, findByZipCode and
+-- findByZipCodeInAndAddressIn
+CREATE INDEX idx_buildings_address ON buildings (address);
+CREATE INDEX idx_buildings_city ON buildings (city);
+CREATE INDEX idx_buildings_state ON buildings (state);
+CREATE INDEX idx_buildings_zip_code ON buildings (zip_code, address);
+-- BuildingRepositoryInterface: the pages ordered by modified datetime
+CREATE INDEX idx_buildings_modified_datetime ON buildings (modified_datetime, id);
+
+-- HousingUnitRepositoryInterface: findByBuilding, findByBuildingAndUnitNumber and
+-- findByBuildingIdInAndUnitNumberIn
+CREATE INDEX idx_housing_units_building_id
+  ON housing_units (building_id, unit_number);
+-- HousingUnitRepositoryInterface: the pages ordered by modified datetime
+CREATE INDEX idx_housing_units_modified_datetime ON housing_units (modified_datetime, id);
+
+-- BuildingFeatureBuildingMappingRepositoryInterface.findByBuildingFeatureId, covering; the
+-- lookups by building use the unique key
+CREATE INDEX idx_building_feature_building_mappings_feature_id
+  ON building_feature_building_mappings (building_feature_id, building_id);
+
+-- HousingUnitFeatureHousingUnitMappingRepositoryInterface.findByHousingUnitFeatureId,
+-- covering; the lookups by housing unit use the unique key
+CREATE INDEX idx_housing_unit_feature_housing_unit_mappings_feature_id
+  ON housing_unit_feature_housing_unit_mappings (housing_unit_feature_id, housing_unit_id);
+
+-- BuildingUserMappingRepositoryInterface: findByUserId and findByUserIdAndBuildingId
+CREATE INDEX idx_building_user_mappings_user_id
+  ON building_user_mappings (user_id, building_id);
+
+-- HousingUnitUserMappingRepositoryInterface.findByUserId
+CREATE INDEX idx_housing_unit_user_mappings_user_id
+  ON housing_unit_user_mappings (user_id, housing_unit_id);
@@ -0,0 +1,9 @@
+-- Composite indexes for the combined filters of GET /buildings, built with
+-- BuildingSpecifications. InnoDB appends the primary key to every secondary index, so an index
+-- on the filtered columns also returns the matching buildings ordered by ID.
+
+-- state and city together, ordered by ID; state alone still uses idx_buildings_state
+CREATE INDEX idx_buildings_state_city ON buildings (state, city);
+-- city or state, ordered by modified datetime, then by ID
+CREATE INDEX idx_buildings_city_modified_datetime ON buildings (city, modified_datetime);
+CREATE INDEX idx_buildings_state_modified_datetime ON buildings (state, modified_datetime);
@@ -0,0 +1,201 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import dev.coms4156.project.kebabcase.entity.ClientEntity;
+import dev.coms4156.project.kebabcase.entity.TokenEntity;
+import dev.coms4156.project.kebabcase.entity.UserEntity;
+import dev.coms4156.project.kebabcase.repository.ClientRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.TokenRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.UserRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.AuthCache;
+import dev.coms4156.project.kebabcase.service.RevokedTokens;
+import dev.coms4156.project.kebabcase.service.TokenSigner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class AuthCacheUnitTests {
+
+  @Mock
+  private TokenRepositoryInterface tokenRepository;
+
+  @Mock
+  private ClientRepositoryInterface clientRepository;
+
+  @Mock
+  private UserRepositoryInterface userRepository;
+
+  @Mock
+  private RevokedTokens revokedTokens;
+
+  private final TokenSigner tokenSigner =
+      new TokenSigner(Base64.getEncoder().encodeToString(new byte[32]));
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private AuthCache authCache;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    meterRegistry = new SimpleMeterRegistry();
+    authCache = new AuthCache(tokenRepository, clientRepository, userRepository, tokenSigner,
+        revokedTokens, meterRegistry, 100, Duration.ofMinutes(5));
+  }
+
+  private static UserEntity user(int userId) {
+    UserEntity user = new UserEntity();
+    user.setId(userId);
+    user.setFirstName("John");
+    user.setLastName("Doe");
+    user.setEmailAddress("john.doe@example.com");
+    return user;
+  }
+
+  private static TokenEntity token(String value, int userId, OffsetDateTime expiration) {
+    UserEntity user = user(userId);
+
+    TokenEntity token = new TokenEntity();
+    token.setToken(value);
+    token.setUser(user);
+    token.setExpirationDatetime(expiration);
+    return token;
+  }
+
+  private double hits(String cache) {
+    return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", "hit")
+        .functionCounter().count();
+  }
+
+  @Test
+  void testTokenLookupIsCached() {
+    // Arrange
+    when(tokenRepository.findWithUserByToken("abc"))
+        .thenReturn(Optional.of(token("abc", 1, OffsetDateTime.now().plusDays(1))));
+
+    // Act
+    Optional<AuthCache.TokenUser> first = authCache.findUserByToken("abc");
+    Optional<AuthCache.TokenUser> second = authCache.findUserByToken("abc");
+
+    // Assert
+    assertEquals(1, first.get().getUserId());
+    assertEquals("John", second.get().getFirstName());
+    verify(tokenRepository, times(1)).findWithUserByToken("abc");
+    assertEquals(1, hits("authTokens"));
+  }
+
+  @Test
+  void testExpiredTokenIsUnknown() {
+    // Arrange
+    when(tokenRepository.findWithUserByToken("old"))
+        .thenReturn(Optional.of(token("old", 1, OffsetDateTime.now().minusSeconds(1))));
+
+    // Act & Assert
+    assertTrue(authCache.findUserByToken("old").isEmpty());
+    assertTrue(authCache.findUserByToken("old").isEmpty());
+    verify(tokenRepository, times(2)).findWithUserByToken("old");
+  }
+
+  @Test
+  void testUnknownTokenIsNotCached() {
+    // Arrange
+    when(tokenRepository.findWithUserByToken("new"))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(token("new", 2, null)));
+
+    // Act & Assert
+    assertTrue(authCache.findUserByToken("new").isEmpty());
+    assertEquals(2, authCache.findUserByToken("new").get().getUserId());
+  }
+
+  @Test
+  void testInvalidationRemovesEntries() {
+    // Arrange
+    when(tokenRepository.findWithUserByToken("a"))
+        .thenReturn(Optional.of(token("a", 1, null)));
+    when(tokenRepository.findWithUserByToken("b"))
+        .thenReturn(Optional.of(token("b", 1, null)));
+    authCache.findUserByToken("a");
+    authCache.findUserByToken("b");
+
+    // Act
+    authCache.invalidateUser(1);
+    authCache.findUserByToken("a");
+    authCache.invalidateToken("a");
+    authCache.findUserByToken("a");
+
+    // Assert
+    verify(tokenRepository, times(3)).findWithUserByToken("a");
+  }
+
+  @Test
+  void testClientLookupIsCached() {
+    // Arrange
+    ClientEntity client = new ClientEntity();
+    client.setId(1);
+    client.setName("HomeSweetHome");
+    when(clientRepository.findByName("HomeSweetHome")).thenReturn(Optional.of(client));
+
+    // Act
+    authCache.findClientByName("HomeSweetHome");
+    Optional<ClientEntity> cached = authCache.findClientByName("HomeSweetHome");
+    authCache.invalidateClient("HomeSweetHome");
+    authCache.findClientByName("HomeSweetHome");
+
+    // Assert
+    assertSame(client, cached.get());
+    verify(clientRepository, times(2)).findByName("HomeSweetHome");
+    assertEquals(1, hits("authClients"));
+  }
+
+  @Test
+  void testRevokedOpaqueTokenIsUnknown() {
+    // Arrange
+    when(tokenRepository.findWithUserByToken("abc"))
+        .thenReturn(Optional.of(token("abc", 1, null)));
+    authCache.findUserByToken("abc");
+    when(revokedTokens.isRevoked("abc")).thenReturn(true);
+
+    // Act & Assert
+    assertTrue(authCache.findUserByToken("abc").isEmpty());
+  }
+
+  @Test
+  void testSignedTokenNeedsNoTokenLookup() {
+    // Arrange
+    OffsetDateTime expiration = OffsetDateTime.now().plusDays(1);
+    String token = tokenSigner.sign(new TokenSigner.Claims(4, 1, expiration, "ID1"));
+    when(userRepository.findById(4)).thenReturn(Optional.of(user(4)));
+
+    // Act
+    Optional<AuthCache.TokenUser> first = authCache.findUserByToken(token);
+    Optional<AuthCache.TokenUser> second = authCache.findUserByToken(token);
+
+    // Assert
+    assertEquals(4, first.get().getUserId());
+    assertEquals(expiration.toEpochSecond(),
+        second.get().getExpirationDatetime().toEpochSecond());
+    verify(userRepository, times(1)).findById(4);
+    verifyNoInteractions(tokenRepository);
+  }
+
+  @Test
+  void testRevokedSignedTokenIsUnknown() {
+    // Arrange
+    String token = tokenSigner.sign(
+        new TokenSigner.Claims(4, 1, OffsetDateTime.now().plusDays(1), "ID1"));
+    when(revokedTokens.isRevoked(TokenSigner.storedTokenId("ID1"))).thenReturn(true);
+
+    // Act & Assert
+    assertTrue(authCache.findUserByToken(token).isEmpty());
+    verifyNoInteractions(userRepository);
+  }
+}
@@ -17,6 +17,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.*;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
@@ -28,6 +29,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @SpringJUnitConfig
+@Import(QueryCounter.Config.class)
 class BuildingControllerIntegrationTests {
 
   @Container
@@ -372,4 +374,66 @@ class BuildingControllerIntegrationTests {
     // Assert
     assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
   }
+
+  @Test
+  void testGetUserBuildings_QueryCountDoesNotGrowWithBuildings() {
+    // Arrange
+    UserEntity user = new UserEntity();
+    user.setFirstName("John");
+    user.setLastName("Doe");
+    user.setEmailAddress("john.doe@example.com");
+    user = userRepository.save(user);
+    linkNewBuildings(user, 1);
+
+    String url = "http://localhost:" + port + "/user/" + user.getId() + "/buildings";
+
+    // Act
+    int queriesForOne = QueryCounter.countQueries(() -> restTemplate.getForEntity(url, String.class));
+    linkNewBuildings(user, 20);
+    ResponseEntity<BuildingEntity[]> response = QueryCounter.assertMaxQueries(queriesForOne,
+        () -> restTemplate.getForEntity(url, BuildingEntity[].class));
+
+    // Assert
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).hasSize(21);
+    assertThat(queriesForOne).isLessThanOrEqualTo(3);
+  }
+
+  @Test
+  void testGetBuildingById_QueryCount() {
+    // Arrange
+    BuildingEntity building = new BuildingEntity();
+    building.setAddress("123 Main St");
+    building.setCity("Testville");
+    building.setState("TS");
+    building.setZipCode("12345");
+    building = buildingRepository.save(building);
+
+    String url = "http://localhost:" + port + "/building/" + building.getId();
+
+    // Act
+    ResponseEntity<String> response =
+        QueryCounter.assertMaxQueries(2, () -> restTemplate.getForEntity(url, String.class));
+
+    // Assert
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+  }
+
+  private void linkNewBuildings(UserEntity user, int count) {
+    for (int i = 0; i < count; i++) {
+      BuildingEntity building = new BuildingEntity();
+      building.setAddress(i + " Linked St " + System.nanoTime());
+      building.setCity("Testville");
+      building.setState("TS");
+      building.setZipCode("12345");
+      building = buildingRepository.save(building);
+
+      BuildingUserMappingEntity mapping = new BuildingUserMappingEntity();
+      mapping.setUser(user);
+      mapping.setBuilding(building);
+      mapping.setCreatedDatetime(OffsetDateTime.now());
+      mapping.setModifiedDatetime(OffsetDateTime.now());
+      buildingUserMappingRepository.save(mapping);
+    }
+  }
 }
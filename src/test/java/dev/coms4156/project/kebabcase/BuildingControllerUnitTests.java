@@ -9,6 +9,7 @@ import static org.mockito.Mockito.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.coms4156.project.kebabcase.config.PaginationProperties;
 import dev.coms4156.project.kebabcase.controller.BuildingController;
 import dev.coms4156.project.kebabcase.entity.BuildingEntity;
 import dev.coms4156.project.kebabcase.entity.BuildingFeatureEntity;
@@ -16,23 +17,50 @@ import dev.coms4156.project.kebabcase.entity.BuildingUserMappingEntity;
 import dev.coms4156.project.kebabcase.entity.HousingUnitEntity;
 import dev.coms4156.project.kebabcase.entity.UserEntity;
 import dev.coms4156.project.kebabcase.entity.BuildingFeatureBuildingMappingEntity;
-import dev.coms4156.project.kebabcase.repository.BuildingFeatureRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.BuildingRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.BuildingUserMappingRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.UserRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.BuildingFeatureBuildingMappingRepositoryInterface;
-
+import dev.coms4156.project.kebabcase.service.BuildingDetailCache;
+import dev.coms4156.project.kebabcase.service.FeatureBitmapIndex;
+import dev.coms4156.project.kebabcase.service.FeatureCatalog;
+import dev.coms4156.project.kebabcase.service.FeatureMappingEngine;
+import dev.coms4156.project.kebabcase.util.ConditionalRequests;
+import dev.coms4156.project.kebabcase.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import java.io.ByteArrayOutputStream;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Set;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.server.ResponseStatusException;
 
 class BuildingControllerUnitTests {
 
@@ -40,7 +68,16 @@ class BuildingControllerUnitTests {
   private BuildingRepositoryInterface buildingRepository;
 
   @Mock
-  private BuildingFeatureRepositoryInterface buildingFeatureRepository;
+  private BuildingDetailCache buildingDetailCache;
+
+  @Mock
+  private FeatureCatalog featureCatalog;
+
+  @Mock
+  private FeatureBitmapIndex featureBitmapIndex;
+
+  @Mock
+  private FeatureMappingEngine featureMappingEngine;
 
   @Mock
   private BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository;
@@ -54,6 +91,15 @@ class BuildingControllerUnitTests {
   @Mock
   private ObjectMapper objectMapper;
 
+  @Spy
+  private PaginationProperties paginationProperties = new PaginationProperties();
+
+  @Mock
+  private EntityManager entityManager;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
   @InjectMocks
   private BuildingController buildingController;
 
@@ -77,35 +123,104 @@ class BuildingControllerUnitTests {
     building.setCreatedDatetime(nowDateTime);
     building.setModifiedDatetime(nowDateTime);
 
-    // Mock repository response
-    when(buildingRepository.findById(1)).thenReturn(Optional.of(building));
+    BuildingFeatureEntity feature = new BuildingFeatureEntity();
+    feature.setId(3);
+    feature.setName("Doorman");
+
+    // Mock cache response
+    when(buildingDetailCache.findBuilding(1)).thenReturn(
+        Optional.of(new BuildingDetailCache.BuildingDetail(building, List.of(3, 4))));
+    when(featureCatalog.findBuildingFeature(3)).thenReturn(Optional.of(feature));
+    when(featureCatalog.findBuildingFeature(4)).thenReturn(Optional.empty());
 
     // Create the expected JSON response using ObjectMapper
     ObjectNode jsonNode = mock(ObjectNode.class);
+    ArrayNode featureArray = mock(ArrayNode.class);
     when(objectMapper.createObjectNode()).thenReturn(jsonNode);
     when(jsonNode.put(anyString(), anyString())).thenReturn(jsonNode);
+    when(jsonNode.putArray("features")).thenReturn(featureArray);
 
     // Act
-    ResponseEntity<?> result = buildingController.getBuildingById(1);
+    ResponseEntity<?> result = buildingController.getBuildingById(1, getRequest("/building/1"));
 
     // Assert
-    assertNotNull(result); // Check that the result is not null
-    // Verify that repository is called once
-    verify(buildingRepository, times(1)).findById(1);
+    assertEquals(HttpStatus.OK, result.getStatusCode());
+    verify(buildingDetailCache, times(1)).findBuilding(1);
+    verify(jsonNode, times(1)).put("address", "123 Test Street");
+    verify(featureArray, times(1)).add("Doorman");
+    verifyNoInteractions(buildingRepository, buildingFeatureMappingRepository);
+    assertNotNull(result.getHeaders().getETag());
+    assertEquals(nowDateTime.toInstant().toEpochMilli() / 1000 * 1000,
+        result.getHeaders().getLastModified());
+  }
+
+  @Test
+  void testGetBuildingByIdNotModified() {
+    // Arrange
+    OffsetDateTime modified = OffsetDateTime.parse("2024-10-01T12:00:00.123456Z");
+    BuildingEntity building = new BuildingEntity()
+        .setId(1)
+        .setAddress("123 Test Street")
+        .setModifiedDatetime(modified);
+    when(buildingDetailCache.findBuilding(1)).thenReturn(
+        Optional.of(new BuildingDetailCache.BuildingDetail(building, List.of(3))));
+    when(featureCatalog.getBuildingFeaturesVersion()).thenReturn("0123456789abcdef");
+    String etag = ConditionalRequests.weakEtag(1, modified, "0123456789abcdef");
+    MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/building/1");
+    servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+    // Act
+    ResponseEntity<?> result = buildingController.getBuildingById(
+        1, new ServletWebRequest(servletRequest, new MockHttpServletResponse()));
+
+    // Assert
+    assertEquals(HttpStatus.NOT_MODIFIED, result.getStatusCode());
+    assertNull(result.getBody());
+    assertEquals(etag, result.getHeaders().getETag());
+    verify(objectMapper, never()).createObjectNode();
+    verify(featureCatalog, never()).findBuildingFeature(anyInt());
+  }
+
+  @Test
+  void testGetBuildingByIdChangedSinceEtag() {
+    // Arrange
+    OffsetDateTime modified = OffsetDateTime.parse("2024-10-01T12:00:00.123456Z");
+    BuildingEntity building = new BuildingEntity()
+        .setId(1)
+        .setAddress("123 Test Street")
+        .setCreatedDatetime(modified)
+        .setModifiedDatetime(modified.plusNanos(1000));
+    when(buildingDetailCache.findBuilding(1)).thenReturn(
+        Optional.of(new BuildingDetailCache.BuildingDetail(building, List.of())));
+    when(featureCatalog.getBuildingFeaturesVersion()).thenReturn("0123456789abcdef");
+    MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/building/1");
+    servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH,
+        ConditionalRequests.weakEtag(1, modified, "0123456789abcdef"));
+    ObjectNode jsonNode = mock(ObjectNode.class);
+    when(objectMapper.createObjectNode()).thenReturn(jsonNode);
+    when(jsonNode.putArray("features")).thenReturn(mock(ArrayNode.class));
+
+    // Act
+    ResponseEntity<?> result = buildingController.getBuildingById(
+        1, new ServletWebRequest(servletRequest, new MockHttpServletResponse()));
+
+    // Assert
+    assertEquals(HttpStatus.OK, result.getStatusCode());
+    assertEquals(jsonNode, result.getBody());
   }
 
   @Test
   void testGetBuildingByIdNotFound() {
     // Arrange
-    when(buildingRepository.findById(999)).thenReturn(Optional.empty());
+    when(buildingDetailCache.findBuilding(999)).thenReturn(Optional.empty());
 
     // Act
-    ResponseEntity<?> response = buildingController.getBuildingById(999);
+    ResponseEntity<?> response = buildingController.getBuildingById(999, getRequest("/building/999"));
 
     // Assert
     assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     assertEquals("Building with id 999 not found.", response.getBody());
-    verify(buildingRepository, times(1)).findById(999);
+    verify(buildingDetailCache, times(1)).findBuilding(999);
   }
 
   @Test
@@ -142,16 +257,12 @@ class BuildingControllerUnitTests {
     building.setId(1);
     building.setAddress("123 Test Street");
 
-    BuildingFeatureEntity feature1 = new BuildingFeatureEntity();
-    BuildingFeatureEntity feature2 = new BuildingFeatureEntity();
-
     when(buildingRepository.findByAddressAndCityAndStateAndZipCode(
         "123 Test Street", "Test City", "TS", "12345"))
         .thenReturn(Optional.empty()); // No duplicate address
 
     when(buildingRepository.save(any(BuildingEntity.class))).thenReturn(building);
-    when(buildingFeatureRepository.findById(1)).thenReturn(Optional.of(feature1));
-    when(buildingFeatureRepository.findById(2)).thenReturn(Optional.of(feature2));
+    when(featureMappingEngine.updateBuildingFeatures(1, List.of(1, 2), null)).thenReturn(Set.of());
 
     // Act
     ResponseEntity<?> response = buildingController.createBuilding(
@@ -161,7 +272,7 @@ class BuildingControllerUnitTests {
     assertEquals(HttpStatus.CREATED, response.getStatusCode());
     assertTrue(response.getBody().toString().contains("Building was added succesfully!"));
     verify(buildingRepository, times(1)).save(any(BuildingEntity.class));
-    verify(buildingFeatureMappingRepository, times(2)).save(any(BuildingFeatureBuildingMappingEntity.class));
+    verify(featureMappingEngine, times(1)).updateBuildingFeatures(1, List.of(1, 2), null);
   }
 
   @Test
@@ -171,16 +282,13 @@ class BuildingControllerUnitTests {
     building.setId(1);
     building.setAddress("123 Test Street");
 
-    BuildingFeatureEntity validFeature = new BuildingFeatureEntity();
-    validFeature.setId(1);
-
     when(buildingRepository.findByAddressAndCityAndStateAndZipCode(
         "123 Test Street", "Test City", "TS", "12345"))
         .thenReturn(Optional.empty()); // No duplicate address
 
     when(buildingRepository.save(any(BuildingEntity.class))).thenReturn(building);
-    when(buildingFeatureRepository.findById(1)).thenReturn(Optional.of(validFeature)); // Valid feature
-    when(buildingFeatureRepository.findById(-1)).thenReturn(Optional.empty()); // Invalid feature
+    when(featureMappingEngine.updateBuildingFeatures(1, List.of(1, -1), null))
+        .thenReturn(Set.of(-1)); // Invalid feature
 
     // Act
     ResponseEntity<?> response = buildingController.createBuilding(
@@ -190,7 +298,7 @@ class BuildingControllerUnitTests {
     assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
     assertTrue(response.getBody().toString().contains("Building created, but the following feature IDs were not found: [-1]"));
     verify(buildingRepository, times(1)).save(any(BuildingEntity.class));
-    verify(buildingFeatureMappingRepository, times(1)).save(any(BuildingFeatureBuildingMappingEntity.class));
+    verify(featureMappingEngine, times(1)).updateBuildingFeatures(1, List.of(1, -1), null);
   }
 
   @Test
@@ -236,6 +344,7 @@ class BuildingControllerUnitTests {
         .contains("Building info has been successfully updated!"));
     verify(buildingRepository, times(1))
         .save(any(BuildingEntity.class));
+    verify(buildingDetailCache, times(1)).invalidate(1);
   }
 
   @Test
@@ -295,8 +404,8 @@ class BuildingControllerUnitTests {
     when(buildingRepository.findById(1)).thenReturn(Optional.of(building));
     List<Integer> addFeatures = List.of(1, -1);  // Assume feature ID -1 is invalid
 
-    when(buildingFeatureRepository.findById(1)).thenReturn(Optional.of(new BuildingFeatureEntity()));
-    when(buildingFeatureRepository.findById(-1)).thenReturn(Optional.empty()); // Feature -1 not found
+    when(featureMappingEngine.updateBuildingFeatures(1, addFeatures, null))
+        .thenReturn(Set.of(-1)); // Feature -1 not found
 
     // Act
     ResponseEntity<?> response = buildingController.updateBuilding(
@@ -316,8 +425,8 @@ class BuildingControllerUnitTests {
 
     List<Integer> addFeatures = List.of(-1, -2); // Assume all IDs are invalid
 
-    when(buildingFeatureRepository.findById(-1)).thenReturn(Optional.empty());
-    when(buildingFeatureRepository.findById(-2)).thenReturn(Optional.empty());
+    when(featureMappingEngine.updateBuildingFeatures(1, addFeatures, null))
+        .thenReturn(Set.of(-1, -2));
 
     // Act
     ResponseEntity<?> response = buildingController.updateBuilding(
@@ -442,6 +551,7 @@ class BuildingControllerUnitTests {
 
     // Mock BuildingFeature and Mapping
     BuildingFeatureEntity feature = new BuildingFeatureEntity();
+    feature.setId(1);
     feature.setName("Near Hospital");
     BuildingFeatureBuildingMappingEntity featureMapping = new BuildingFeatureBuildingMappingEntity();
     featureMapping.setBuilding(building);
@@ -449,7 +559,9 @@ class BuildingControllerUnitTests {
 
     // Setup repository responses
     when(buildingUserMappingRepository.findByUserId(userId)).thenReturn(List.of(buildingUserMapping));
-    when(buildingFeatureMappingRepository.findByBuilding(building)).thenReturn(List.of(featureMapping));
+    when(buildingFeatureMappingRepository.findByBuildingIn(List.of(building)))
+        .thenReturn(List.of(featureMapping));
+    when(featureCatalog.findBuildingFeature(1)).thenReturn(Optional.of(feature));
 
     // Mock ObjectNode creation for building JSON
     ObjectNode buildingJson = mock(ObjectNode.class);
@@ -472,7 +584,8 @@ class BuildingControllerUnitTests {
     // Verify interactions and feature addition
     verify(userRepository, times(1)).findById(userId);
     verify(buildingUserMappingRepository, times(1)).findByUserId(userId);
-    verify(buildingFeatureMappingRepository, times(1)).findByBuilding(building);
+    verify(buildingFeatureMappingRepository, times(1)).findByBuildingIn(List.of(building));
+    verify(buildingFeatureMappingRepository, never()).findByBuilding(any());
     verify(buildingJson, times(1)).put("address", "456 Oak Ave");
     verify(buildingJson, times(1)).put("city", "Brooklyn");
     verify(buildingJson, times(1)).put("state", "NY");
@@ -602,152 +715,269 @@ class BuildingControllerUnitTests {
     verify(buildingUserMappingRepository, times(1)).save(any(BuildingUserMappingEntity.class));
   }
 
- @Test
- void testGetBuildingsSuccessWithAddress(){
-     // Arrange
-     BuildingEntity building = new BuildingEntity();
-     building.setId(1);
-     String address = "33 some st";
-     building.setAddress(address);
-     when(buildingRepository.findByAddress(address)).thenReturn(Optional.of(building));
+  @SuppressWarnings("unchecked")
+  private FluentQuery.FetchableFluentQuery<BuildingEntity> stubFilteredBuildings(
+      BuildingEntity... buildings) {
+    FluentQuery.FetchableFluentQuery<BuildingEntity> query =
+        mock(FluentQuery.FetchableFluentQuery.class);
+    when(query.sortBy(any())).thenReturn(query);
+    when(query.limit(anyInt())).thenReturn(query);
+    when(query.all()).thenReturn(List.of(buildings));
+    when(buildingRepository.findBy(any(Specification.class), any())).thenAnswer(invocation ->
+        invocation.<Function<FluentQuery.FetchableFluentQuery<BuildingEntity>, ?>>getArgument(1)
+            .apply(query));
+    return query;
+  }
 
-     // Act
-     ResponseEntity<List<BuildingEntity>> response = buildingController.getBuildings(address, null, null, null);
+  private static BuildingEntity building(int id) {
+    BuildingEntity building = new BuildingEntity();
+    building.setId(id);
+    return building;
+  }
 
-     // Assert
-     assertEquals(HttpStatus.OK, response.getStatusCode());
-     assertNotNull(response.getBody());
-     assertFalse(response.getBody().isEmpty());
-     assertEquals(1, response.getBody().size());
-     verify(buildingRepository, times(1)).findByAddress(address);
- }
+  /**
+   * Applies the filter passed to the repository to mocked criteria and checks that it only
+   * compares the given attribute with the given value.
+   */
+  @SuppressWarnings("unchecked")
+  private void verifyFilteredOnlyBy(String attribute, String value) {
+    ArgumentCaptor<Specification<BuildingEntity>> specification =
+        ArgumentCaptor.forClass(Specification.class);
+    verify(buildingRepository, times(1)).findBy(specification.capture(), any());
+
+    Root<BuildingEntity> root = mock(Root.class);
+    Path<Object> path = mock(Path.class);
+    when(root.get(anyString())).thenReturn(mock(Path.class));
+    when(root.get(attribute)).thenReturn(path);
+    CriteriaBuilder builder = mock(CriteriaBuilder.class);
+    specification.getValue().toPredicate(root, mock(CriteriaQuery.class), builder);
+
+    verify(builder, times(1)).equal(path, value);
+    verify(builder, times(1)).equal(any(), any(Object.class));
+  }
 
   @Test
-  void testGetBuildingsSuccessWithCity(){
+  void testGetBuildingsSuccessWithAddress() {
     // Arrange
-    BuildingEntity building1 = new BuildingEntity();
-    BuildingEntity building2 = new BuildingEntity();
-    building1.setId(1);
-    building2.setId(2);
+    BuildingEntity building = building(1);
+    String address = "33 some st";
+    building.setAddress(address);
+    stubFilteredBuildings(building);
+
+    // Act
+    ResponseEntity<List<BuildingEntity>> response =
+        buildingController.getBuildings(address, null, null, null, null, null, null, "id");
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals(1, response.getBody().size());
+    verify(buildingRepository, times(1)).findBy(any(Specification.class), any());
+    verify(buildingRepository, never()).findByAddress(anyString());
+  }
+
+  @Test
+  void testGetBuildingsSuccessWithCity() {
+    // Arrange
+    BuildingEntity building1 = building(1);
+    BuildingEntity building2 = building(2);
     String city = "someCity";
     building1.setCity(city);
     building2.setCity(city);
-    when(buildingRepository.findByCity(city)).thenReturn(List.of(building1, building2));
+    stubFilteredBuildings(building1, building2);
 
     // Act
-    ResponseEntity<List<BuildingEntity>> response = buildingController.getBuildings(null, city, null, null);
+    ResponseEntity<List<BuildingEntity>> response =
+        buildingController.getBuildings(null, city, null, null, null, null, null, "id");
 
     // Assert
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertNotNull(response.getBody());
-    assertFalse(response.getBody().isEmpty());
     assertEquals(2, response.getBody().size());
-    verify(buildingRepository, times(1)).findByCity(city);
+    verifyFilteredOnlyBy("city", city);
+    verify(buildingRepository, never()).findByCity(anyString());
   }
 
   @Test
-  void testGetBuildingsSuccessWithState(){
+  void testGetBuildingsSuccessWithState() {
     // Arrange
-    BuildingEntity building1 = new BuildingEntity();
-    BuildingEntity building2 = new BuildingEntity();
-    building1.setId(1);
-    building2.setId(2);
+    BuildingEntity building1 = building(1);
+    BuildingEntity building2 = building(2);
     String state = "NY";
     building1.setState(state);
     building2.setState(state);
-    when(buildingRepository.findByState(state)).thenReturn(List.of(building1, building2));
+    stubFilteredBuildings(building1, building2);
 
     // Act
-    ResponseEntity<List<BuildingEntity>> response = buildingController.getBuildings(null, null, state, null);
+    ResponseEntity<List<BuildingEntity>> response =
+        buildingController.getBuildings(null, null, state, null, null, null, null, "id");
 
     // Assert
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertNotNull(response.getBody());
-    assertFalse(response.getBody().isEmpty());
     assertEquals(2, response.getBody().size());
-    verify(buildingRepository, times(1)).findByState(state);
-
+    verifyFilteredOnlyBy("state", state);
+    verify(buildingRepository, never()).findByState(anyString());
   }
 
   @Test
-  void testGetBuildingsSuccessWithZipCode(){
+  void testGetBuildingsSuccessWithZipCode() {
     // Arrange
-    BuildingEntity building1 = new BuildingEntity();
-    BuildingEntity building2 = new BuildingEntity();
-    building1.setId(1);
-    building2.setId(2);
+    BuildingEntity building1 = building(1);
+    BuildingEntity building2 = building(2);
     String zipCode = "10027";
-    building1.setState(zipCode);
-    building2.setState(zipCode);
-    when(buildingRepository.findByZipCode(zipCode)).thenReturn(List.of(building1, building2));
+    building1.setZipCode(zipCode);
+    building2.setZipCode(zipCode);
+    stubFilteredBuildings(building1, building2);
 
     // Act
-    ResponseEntity<List<BuildingEntity>> response = buildingController.getBuildings(null, null, null, zipCode);
+    ResponseEntity<List<BuildingEntity>> response =
+        buildingController.getBuildings(null, null, null, zipCode, null, null, null, "id");
 
     // Assert
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertNotNull(response.getBody());
-    assertFalse(response.getBody().isEmpty());
     assertEquals(2, response.getBody().size());
-    verify(buildingRepository, times(1)).findByZipCode(zipCode);
+    verifyFilteredOnlyBy("zipCode", zipCode);
+    verify(buildingRepository, never()).findByZipCode(anyString());
+  }
+
+  @Test
+  void testGetBuildingsCombinesFiltersIntoOneQuery() {
+    // Arrange
+    when(featureCatalog.findBuildingFeature(3)).thenReturn(Optional.of(new BuildingFeatureEntity()));
+    FluentQuery.FetchableFluentQuery<BuildingEntity> query =
+        stubFilteredBuildings(building(1), building(2));
+
+    // Act
+    ResponseEntity<List<BuildingEntity>> response = buildingController.getBuildings(
+        null, "New York", "NY", "10027", List.of(3), null, null, "id");
 
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(2, response.getBody().size());
+    assertNull(response.getHeaders().getFirst(KeysetCursor.NEXT_CURSOR_HEADER));
+    verify(buildingRepository, times(1)).findBy(any(Specification.class), any());
+    verify(buildingRepository, never()).findByCity(anyString());
+    verify(buildingRepository, never()).findByState(anyString());
+    verify(buildingRepository, never()).findByZipCode(anyString());
+    verify(query).sortBy(Sort.by("id"));
+    verify(query).limit(101);
   }
 
   @Test
-  void testGetBuildingsAddressNotFound(){
+  void testGetBuildingsFilteredReturnsNextCursorSortedByModifiedDatetime() {
+    // Arrange
+    OffsetDateTime modified = OffsetDateTime.parse("2024-11-01T10:15:30Z");
+    BuildingEntity first = building(4);
+    first.setModifiedDatetime(modified);
+    BuildingEntity second = building(2);
+    second.setModifiedDatetime(modified.plusMinutes(1));
+    FluentQuery.FetchableFluentQuery<BuildingEntity> query = stubFilteredBuildings(first, second);
+
+    // Act
+    ResponseEntity<List<BuildingEntity>> response = buildingController.getBuildings(
+        null, "New York", null, null, null, null, 1, KeysetCursor.SORT_MODIFIED_DATETIME);
 
-    String address = "999 Lincoln St";
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(List.of(4),
+        response.getBody().stream().map(BuildingEntity::getId).collect(Collectors.toList()));
+    assertEquals(
+        KeysetCursor.after(KeysetCursor.SORT_MODIFIED_DATETIME, 4, modified).encode(),
+        response.getHeaders().getFirst(KeysetCursor.NEXT_CURSOR_HEADER));
+    verify(query).sortBy(Sort.by("modifiedDatetime", "id"));
+    verify(query).limit(2);
+  }
+
+  @Test
+  void testGetBuildingsUnknownFeature() {
     // Arrange
-    when(buildingRepository.findByAddress(address)).thenReturn(Optional.empty());
+    when(featureCatalog.findBuildingFeature(3)).thenReturn(Optional.of(new BuildingFeatureEntity()));
+    when(featureCatalog.findBuildingFeature(99)).thenReturn(Optional.empty());
 
     // Act
-    ResponseEntity<?> response = buildingController.getBuildings(address, null, null, null);
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> buildingController.getBuildings(
+            null, null, "NY", null, List.of(3, 99), null, null, "id"));
+
+    // Assert
+    assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    verify(buildingRepository, never()).findBy(any(Specification.class), any());
+  }
+
+  @Test
+  void testGetBuildingsAddressNotFound() {
+    // Arrange
+    stubFilteredBuildings();
+
+    // Act
+    ResponseEntity<?> response = buildingController.getBuildings(
+        "999 Lincoln St", null, null, null, null, null, null, "id");
 
     // Assert
     assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-    verify(buildingRepository, times(1)).findByAddress(address);
+    verify(buildingRepository, times(1)).findBy(any(Specification.class), any());
   }
 
   @Test
-  void testGetBuildingsCityNotFound(){
-    String city = "Boston";
+  void testGetBuildingsCityNotFound() {
     // Arrange
-    when(buildingRepository.findByCity(city)).thenReturn(List.of()); //empty list
+    String city = "Boston";
+    stubFilteredBuildings();
 
     // Act
-    ResponseEntity<?> response = buildingController.getBuildings(null, city, null, null);
+    ResponseEntity<?> response =
+        buildingController.getBuildings(null, city, null, null, null, null, null, "id");
 
     // Assert
     assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-    verify(buildingRepository, times(1)).findByCity(city);
+    verifyFilteredOnlyBy("city", city);
   }
 
   @Test
   void testGetBuildingsStateNotFound() {
+    // Arrange
     String state = "NY";
-    //Arrange
-    when(buildingRepository.findByState(state)).thenReturn(List.of()); //empty list
+    stubFilteredBuildings();
 
-    //Act
-    ResponseEntity<?> response = buildingController.getBuildings(null, null, state, null);
+    // Act
+    ResponseEntity<?> response =
+        buildingController.getBuildings(null, null, state, null, null, null, null, "id");
 
-    //Assert
+    // Assert
     assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-    verify(buildingRepository, times(1)).findByState(state);
+    verifyFilteredOnlyBy("state", state);
   }
 
   @Test
   void testGetBuildingsZipCodeNotFound() {
+    // Arrange
     String zipCode = "01392";
-    //Arrange
-    when(buildingRepository.findByZipCode(zipCode)).thenReturn(List.of()); //empty list
+    stubFilteredBuildings();
+
+    // Act
+    ResponseEntity<?> response =
+        buildingController.getBuildings(null, null, null, zipCode, null, null, null, "id");
+
+    // Assert
+    assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    verifyFilteredOnlyBy("zipCode", zipCode);
+  }
+
+  @Test
+  void testGetBuildingsCityAndStateNotFound() {
+    // Arrange
+    stubFilteredBuildings();
 
-    //Act
-    ResponseEntity<?> response = buildingController.getBuildings(null, null, null, zipCode);
+    // Act
+    ResponseEntity<?> response = buildingController.getBuildings(
+        null, "Boston", "NY", null, null, null, null, "id");
 
-    //Assert
+    // Assert
     assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-    verify(buildingRepository, times(1)).findByZipCode(zipCode);
+    verify(buildingRepository, never()).findByCity(anyString());
+    verify(buildingRepository, never()).findByState(anyString());
   }
 
   @Test
@@ -769,30 +999,145 @@ class BuildingControllerUnitTests {
 
     List<BuildingEntity> buildings = List.of(building1, building2);
 
-    when(buildingRepository.findAll()).thenReturn(buildings);
+    when(buildingRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(101))).thenReturn(buildings);
 
     // Act
-    ResponseEntity<List<BuildingEntity>> response = buildingController.getBuildings(null, null, null, null);
+    ResponseEntity<List<BuildingEntity>> response = buildingController.getBuildings(null, null, null, null, null, null, null, "id");
 
     // Assert
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertNotNull(response.getBody());
     assertEquals(2, response.getBody().size());
-    verify(buildingRepository, times(1)).findAll();
+    assertNull(response.getHeaders().getFirst(KeysetCursor.NEXT_CURSOR_HEADER));
+    verify(buildingRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0, Limit.of(101));
+    verify(buildingRepository, never()).findAll();
+  }
+
+  @Test
+  void testGetBuildingsReturnsNextCursorWhenMorePagesExist() {
+    // Arrange
+    List<BuildingEntity> firstPage = new ArrayList<>();
+    for (int id = 1; id <= 3; id++) {
+      BuildingEntity building = new BuildingEntity();
+      building.setId(id);
+      firstPage.add(building);
+    }
+    BuildingEntity lastBuilding = new BuildingEntity();
+    lastBuilding.setId(4);
+
+    when(buildingRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(3))).thenReturn(firstPage);
+    when(buildingRepository.findByIdGreaterThanOrderByIdAsc(2, Limit.of(3)))
+        .thenReturn(List.of(firstPage.get(2), lastBuilding));
+
+    // Act
+    ResponseEntity<List<BuildingEntity>> firstResponse =
+        buildingController.getBuildings(null, null, null, null, null, null, 2, "id");
+    String nextCursor = firstResponse.getHeaders().getFirst(KeysetCursor.NEXT_CURSOR_HEADER);
+    ResponseEntity<List<BuildingEntity>> secondResponse =
+        buildingController.getBuildings(null, null, null, null, null, nextCursor, 2, "id");
+
+    // Assert
+    assertEquals(HttpStatus.OK, firstResponse.getStatusCode());
+    assertEquals(List.of(1, 2),
+        firstResponse.getBody().stream().map(BuildingEntity::getId).collect(Collectors.toList()));
+    assertNotNull(nextCursor);
+    assertEquals(List.of(3, 4),
+        secondResponse.getBody().stream().map(BuildingEntity::getId).collect(Collectors.toList()));
+    assertNull(secondResponse.getHeaders().getFirst(KeysetCursor.NEXT_CURSOR_HEADER));
+  }
+
+  @Test
+  void testGetBuildingsSortedByModifiedDatetime() {
+    // Arrange
+    OffsetDateTime modified = OffsetDateTime.parse("2024-11-01T10:15:30Z");
+    BuildingEntity building = new BuildingEntity();
+    building.setId(7);
+    building.setModifiedDatetime(modified);
+
+    when(buildingRepository.findPageAfterModifiedDatetime(modified, 5, Limit.of(101)))
+        .thenReturn(List.of(building));
+    String cursor = KeysetCursor.after(KeysetCursor.SORT_MODIFIED_DATETIME, 5, modified).encode();
+
+    // Act
+    ResponseEntity<List<BuildingEntity>> response = buildingController.getBuildings(
+        null, null, null, null, null, cursor, null, KeysetCursor.SORT_MODIFIED_DATETIME);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(1, response.getBody().size());
+    verify(buildingRepository, times(1)).findPageAfterModifiedDatetime(modified, 5, Limit.of(101));
+  }
+
+  @Test
+  void testGetBuildingsCapsPageSize() {
+    // Arrange
+    when(buildingRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(501))).thenReturn(List.of());
+
+    // Act
+    ResponseEntity<List<BuildingEntity>> response =
+        buildingController.getBuildings(null, null, null, null, null, null, 100000, "id");
+
+    // Assert
+    assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+    verify(buildingRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0, Limit.of(501));
+  }
+
+  @Test
+  void testGetBuildingsInvalidCursor() {
+    // Act & Assert
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> buildingController.getBuildings(null, null, null, null, null, "not-a-cursor", null, "id"));
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+
+    String modifiedCursor = KeysetCursor.after(
+        KeysetCursor.SORT_MODIFIED_DATETIME, 1, OffsetDateTime.now()).encode();
+    exception = assertThrows(ResponseStatusException.class,
+        () -> buildingController.getBuildings(null, null, null, null, null, modifiedCursor, null, "id"));
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+  }
+
+  @Test
+  void testStreamBuildings() throws Exception {
+    // Arrange
+    List<BuildingEntity> buildings = new ArrayList<>();
+    for (int id = 1; id <= 2; id++) {
+      BuildingEntity building = new BuildingEntity();
+      building.setId(id);
+      building.setAddress(id + " Test Street");
+      building.setCity("Test City");
+      building.setState("TS");
+      building.setZipCode("12345");
+      buildings.add(building);
+    }
+
+    when(objectMapper.getFactory()).thenReturn(new ObjectMapper().getFactory());
+    when(buildingRepository.streamAllByOrderByIdAsc()).thenReturn(buildings.stream());
+
+    // Act
+    ResponseEntity<StreamingResponseBody> response = buildingController.streamBuildings();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    response.getBody().writeTo(outputStream);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    ArrayNode body = (ArrayNode) new ObjectMapper().readTree(outputStream.toByteArray());
+    assertEquals(2, body.size());
+    assertEquals("2 Test Street", body.get(1).get("address").asText());
+    verify(buildingRepository, never()).findAll();
   }
 
   @Test
   void testGetBuildingsNoContent() {
     // Arrange
-    when(buildingRepository.findAll()).thenReturn(List.of());
+    when(buildingRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(101))).thenReturn(List.of());
 
     // Act
-    ResponseEntity<List<BuildingEntity>> response = buildingController.getBuildings(null, null, null, null);
+    ResponseEntity<List<BuildingEntity>> response = buildingController.getBuildings(null, null, null, null, null, null, null, "id");
 
     // Assert
     assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
     assertNull(response.getBody());
-    verify(buildingRepository, times(1)).findAll();
+    verify(buildingRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0, Limit.of(101));
   }
 
   @Test
@@ -957,4 +1302,97 @@ class BuildingControllerUnitTests {
     assertTrue(response.getBody().toString().contains("This building is not linked to the user."));
     verify(buildingUserMappingRepository, times(0)).delete(any());
   }
+
+  @Test
+  void testSearchBuildingsByFeatureExpression() {
+    // Arrange
+    BuildingFeatureEntity elevator = new BuildingFeatureEntity();
+    elevator.setId(1);
+    BuildingFeatureEntity ramps = new BuildingFeatureEntity();
+    ramps.setId(2);
+    BuildingFeatureEntity stairsOnly = new BuildingFeatureEntity();
+    stairsOnly.setId(3);
+    when(featureCatalog.findBuildingFeature(1)).thenReturn(Optional.of(elevator));
+    when(featureCatalog.findBuildingFeature(2)).thenReturn(Optional.of(ramps));
+    when(featureCatalog.findBuildingFeature(3)).thenReturn(Optional.of(stairsOnly));
+    when(featureBitmapIndex.searchBuildings(any())).thenReturn(RoaringBitmap.bitmapOf(4, 9, 12));
+
+    List<BuildingEntity> buildings = new ArrayList<>();
+    for (int id : new int[] {4, 9}) {
+      BuildingEntity building = new BuildingEntity();
+      building.setId(id);
+      buildings.add(building);
+    }
+    when(buildingRepository.findByIdInOrderByIdAsc(List.of(4, 9))).thenReturn(buildings);
+
+    // Act
+    ResponseEntity<?> response =
+        buildingController.searchBuildings("1 AND 2 AND NOT 3", null, 2);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(buildings, response.getBody());
+    String nextCursor = response.getHeaders().getFirst(KeysetCursor.NEXT_CURSOR_HEADER);
+    assertEquals(9, KeysetCursor.decode(KeysetCursor.SORT_ID, nextCursor).getId());
+    verify(buildingFeatureMappingRepository, never()).findByBuildingFeatureId(anyInt());
+  }
+
+  @Test
+  void testSearchBuildingsNoMatches() {
+    // Arrange
+    when(featureCatalog.findBuildingFeature(1)).thenReturn(Optional.of(new BuildingFeatureEntity()));
+    when(featureBitmapIndex.searchBuildings(any())).thenReturn(new RoaringBitmap());
+
+    // Act
+    ResponseEntity<?> response = buildingController.searchBuildings("1", null, null);
+
+    // Assert
+    assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+    verify(buildingRepository, never()).findByIdInOrderByIdAsc(any());
+  }
+
+  @Test
+  void testSearchBuildingsUnknownFeature() {
+    // Arrange
+    when(featureCatalog.findBuildingFeature(1)).thenReturn(Optional.of(new BuildingFeatureEntity()));
+    when(featureCatalog.findBuildingFeature(99)).thenReturn(Optional.empty());
+
+    // Act
+    ResponseEntity<?> response = buildingController.searchBuildings("1 OR 99", null, null);
+
+    // Assert
+    assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    assertEquals("Building feature with id 99 not found.", response.getBody());
+    verify(featureBitmapIndex, never()).searchBuildings(any());
+  }
+
+  @Test
+  void testSearchBuildingsInvalidExpression() {
+    // Act & Assert
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> buildingController.searchBuildings("1 AND (2 OR", null, null));
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+  }
+
+  @Test
+  void testCreateBuildingUpdatesFeatureBitmapIndex() {
+    // Arrange
+    BuildingEntity savedBuilding = new BuildingEntity();
+    savedBuilding.setId(42);
+    when(buildingRepository.findByAddressAndCityAndStateAndZipCode(
+        anyString(), anyString(), anyString(), anyString())).thenReturn(Optional.empty());
+    when(buildingRepository.save(any(BuildingEntity.class))).thenReturn(savedBuilding);
+
+    // Act
+    buildingController.createBuilding("1 Main St", "New York", "NY", "10027", List.of(1));
+
+    // Assert
+    verify(featureBitmapIndex, times(1)).addBuilding(42);
+    verify(featureMappingEngine, times(1)).updateBuildingFeatures(42, List.of(1), null);
+  }
+
+  private static ServletWebRequest getRequest(String path) {
+    return new ServletWebRequest(new MockHttpServletRequest("GET", path),
+        new MockHttpServletResponse());
+  }
 }
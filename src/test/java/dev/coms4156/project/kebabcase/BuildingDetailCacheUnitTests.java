@@ -0,0 +1,120 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import dev.coms4156.project.kebabcase.repository.BuildingFeatureBuildingMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.BuildingRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.BuildingDetailCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class BuildingDetailCacheUnitTests {
+
+  @Mock
+  private BuildingRepositoryInterface buildingRepository;
+
+  @Mock
+  private BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private BuildingEntity building;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    meterRegistry = new SimpleMeterRegistry();
+    building = new BuildingEntity()
+        .setId(7)
+        .setAddress("123 Test Street")
+        .setCity("Test City")
+        .setState("TS")
+        .setZipCode("12345")
+        .setCreatedDatetime(OffsetDateTime.now())
+        .setModifiedDatetime(OffsetDateTime.now());
+    when(buildingRepository.findById(7)).thenReturn(Optional.of(building));
+    when(buildingFeatureMappingRepository.findBuildingFeatureIdsByBuildingId(7))
+        .thenReturn(List.of(1, 2));
+  }
+
+  private BuildingDetailCache cache(boolean enabled) {
+    return new BuildingDetailCache(buildingRepository, buildingFeatureMappingRepository,
+        meterRegistry, enabled, 100, Duration.ofMinutes(10));
+  }
+
+  @Test
+  void testFindBuildingIsReadOnce() {
+    // Arrange
+    BuildingDetailCache buildingDetailCache = cache(true);
+
+    // Act
+    BuildingDetailCache.BuildingDetail first = buildingDetailCache.findBuilding(7).orElseThrow();
+    BuildingDetailCache.BuildingDetail second = buildingDetailCache.findBuilding(7).orElseThrow();
+
+    // Assert
+    assertSame(first, second);
+    assertEquals("123 Test Street", first.getBuilding().getAddress());
+    assertNotSame(building, first.getBuilding());
+    assertEquals(List.of(1, 2), first.getFeatureIds());
+    verify(buildingRepository, times(1)).findById(7);
+    verify(buildingFeatureMappingRepository, times(1)).findBuildingFeatureIdsByBuildingId(7);
+    assertEquals(1, meterRegistry.get("cache.gets")
+        .tags("cache", "buildingDetails", "result", "hit").functionCounter().count());
+  }
+
+  @Test
+  void testInvalidateReadsBuildingAgain() {
+    // Arrange
+    BuildingDetailCache buildingDetailCache = cache(true);
+    buildingDetailCache.findBuilding(7);
+    when(buildingFeatureMappingRepository.findBuildingFeatureIdsByBuildingId(7))
+        .thenReturn(List.of(1, 2, 3));
+
+    // Act
+    buildingDetailCache.invalidate(7);
+    List<Integer> featureIds = buildingDetailCache.findBuilding(7).orElseThrow().getFeatureIds();
+
+    // Assert
+    assertEquals(List.of(1, 2, 3), featureIds);
+    verify(buildingRepository, times(2)).findById(7);
+  }
+
+  @Test
+  void testMissingBuildingIsNotCached() {
+    // Arrange
+    BuildingDetailCache buildingDetailCache = cache(true);
+    when(buildingRepository.findById(8)).thenReturn(Optional.empty(), Optional.of(building));
+
+    // Act
+    Optional<BuildingDetailCache.BuildingDetail> missing = buildingDetailCache.findBuilding(8);
+    Optional<BuildingDetailCache.BuildingDetail> created = buildingDetailCache.findBuilding(8);
+
+    // Assert
+    assertTrue(missing.isEmpty());
+    assertTrue(created.isPresent());
+    verify(buildingFeatureMappingRepository, times(1)).findBuildingFeatureIdsByBuildingId(8);
+  }
+
+  @Test
+  void testDisabledCacheReadsEveryTime() {
+    // Arrange
+    BuildingDetailCache buildingDetailCache = cache(false);
+
+    // Act
+    buildingDetailCache.findBuilding(7);
+    buildingDetailCache.findBuilding(7);
+
+    // Assert
+    verify(buildingRepository, times(2)).findById(7);
+    verify(buildingFeatureMappingRepository, times(2)).findBuildingFeatureIdsByBuildingId(7);
+  }
+}
@@ -5,7 +5,8 @@ import static org.mockito.Mockito.*;
 
 import dev.coms4156.project.kebabcase.controller.BuildingFeatureController;
 import dev.coms4156.project.kebabcase.entity.BuildingFeatureEntity;
-import dev.coms4156.project.kebabcase.repository.BuildingFeatureRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.FeatureCatalog;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,13 +14,17 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 class BuildingFeatureControllerUnitTests {
 
   @Mock
-  private BuildingFeatureRepositoryInterface buildingFeatureRepository;
+  private FeatureCatalog featureCatalog;
 
   @InjectMocks
   private BuildingFeatureController buildingFeatureController;
@@ -44,27 +49,63 @@ class BuildingFeatureControllerUnitTests {
     features.add(feature);
     features.add(feature2);
 
-    when(buildingFeatureRepository.findAll()).thenReturn(features);
+    when(featureCatalog.getBuildingFeatures()).thenReturn(features);
 
     ResponseEntity<List<BuildingFeatureEntity>> response =
-        buildingFeatureController.getBuildingFeatures();
+        buildingFeatureController.getBuildingFeatures(request());
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertNotNull(response.getBody());
     assertEquals(2, response.getBody().size());
-    verify(buildingFeatureRepository, times(1)).findAll();
+    verify(featureCatalog, times(1)).getBuildingFeatures();
   }
 
   @Test
   void testGetBuildingFeaturesFailure() {
 
-    when(buildingFeatureRepository.findAll()).thenReturn(List.of());
+    when(featureCatalog.getBuildingFeatures()).thenReturn(List.of());
 
     ResponseEntity<List<BuildingFeatureEntity>> response =
-            buildingFeatureController.getBuildingFeatures();
+            buildingFeatureController.getBuildingFeatures(request());
 
     assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
     assertNull(response.getBody());
-    verify(buildingFeatureRepository, times(1)).findAll();
+    verify(featureCatalog, times(1)).getBuildingFeatures();
   }
 
+  @Test
+  void testGetBuildingFeaturesNotModified() {
+    when(featureCatalog.getBuildingFeaturesVersion()).thenReturn("0123456789abcdef");
+    MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/building-features");
+    servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"0123456789abcdef\"");
+
+    ResponseEntity<List<BuildingFeatureEntity>> response = buildingFeatureController.getBuildingFeatures(
+        new ServletWebRequest(servletRequest, new MockHttpServletResponse()));
+
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertNull(response.getBody());
+    assertEquals("W/\"0123456789abcdef\"", response.getHeaders().getETag());
+    verify(featureCatalog, never()).getBuildingFeatures();
+  }
+
+  @Test
+  void testGetBuildingFeaturesReturnsValidators() {
+    BuildingFeatureEntity feature = new BuildingFeatureEntity();
+    feature.setId(1);
+    feature.setName("Elevator");
+    OffsetDateTime modified = OffsetDateTime.parse("2024-10-01T12:00:00Z");
+    when(featureCatalog.getBuildingFeatures()).thenReturn(List.of(feature));
+    when(featureCatalog.getBuildingFeaturesVersion()).thenReturn("0123456789abcdef");
+    when(featureCatalog.getBuildingFeaturesLastModified()).thenReturn(modified);
+
+    ResponseEntity<List<BuildingFeatureEntity>> response = buildingFeatureController.getBuildingFeatures(request());
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("W/\"0123456789abcdef\"", response.getHeaders().getETag());
+    assertEquals(modified.toInstant().toEpochMilli(), response.getHeaders().getLastModified());
+  }
+
+  private static ServletWebRequest request() {
+    return new ServletWebRequest(new MockHttpServletRequest("GET", "/building-features"),
+        new MockHttpServletResponse());
+  }
 }
@@ -0,0 +1,137 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import dev.coms4156.project.kebabcase.entity.BuildingFeatureBuildingMappingEntity;
+import dev.coms4156.project.kebabcase.entity.BuildingFeatureEntity;
+import dev.coms4156.project.kebabcase.repository.BuildingFeatureBuildingMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.BuildingFragmentCache;
+import dev.coms4156.project.kebabcase.service.FeatureCatalog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class BuildingFragmentCacheUnitTests {
+
+  @Mock
+  private BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository;
+
+  @Mock
+  private FeatureCatalog featureCatalog;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private BuildingEntity building;
+
+  private BuildingEntity otherBuilding;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    building = new BuildingEntity()
+        .setId(7)
+        .setAddress("123 Test Street")
+        .setCity("Test City")
+        .setState("TS")
+        .setZipCode("12345")
+        .setModifiedDatetime(OffsetDateTime.parse("2024-10-01T12:00:00Z"));
+    otherBuilding = new BuildingEntity()
+        .setId(8)
+        .setAddress("125 Test Street")
+        .setModifiedDatetime(OffsetDateTime.parse("2024-10-01T12:00:00Z"));
+    BuildingFeatureEntity elevator = new BuildingFeatureEntity().setId(1).setName("Elevator");
+    BuildingFeatureBuildingMappingEntity mapping = new BuildingFeatureBuildingMappingEntity();
+    mapping.setBuilding(building);
+    mapping.setBuildingFeature(elevator);
+    when(buildingFeatureMappingRepository.findByBuildingIn(anyCollection()))
+        .thenReturn(List.of(mapping));
+    when(featureCatalog.findBuildingFeature(1)).thenReturn(Optional.of(elevator));
+    when(featureCatalog.getBuildingFeaturesVersion()).thenReturn("0123456789abcdef");
+  }
+
+  private BuildingFragmentCache cache(boolean enabled) {
+    return new BuildingFragmentCache(buildingFeatureMappingRepository, featureCatalog,
+        objectMapper, new SimpleMeterRegistry(), enabled, 100, Duration.ofMinutes(10));
+  }
+
+  private JsonNode parse(RawValue fragment) throws Exception {
+    return objectMapper.readTree(fragment.rawValue().toString());
+  }
+
+  @Test
+  void testEachBuildingIsRenderedOnceWithOneQuery() throws Exception {
+    // Act
+    Map<Integer, RawValue> fragments = cache(true).findFragments(
+        List.of(building, otherBuilding, building, building));
+
+    // Assert
+    assertEquals(2, fragments.size());
+    JsonNode json = parse(fragments.get(7));
+    assertEquals(7, json.get("id").asInt());
+    assertEquals("Test City", json.get("city").asText());
+    assertEquals("Elevator", json.get("features").get(0).asText());
+    assertTrue(parse(fragments.get(8)).get("features").isEmpty());
+    verify(buildingFeatureMappingRepository, times(1)).findByBuildingIn(anyCollection());
+  }
+
+  @Test
+  void testFragmentsAreReusedUntilTheBuildingChanges() {
+    // Arrange
+    BuildingFragmentCache buildingFragmentCache = cache(true);
+    RawValue first = buildingFragmentCache.findFragments(List.of(building)).get(7);
+
+    // Act
+    RawValue second = buildingFragmentCache.findFragments(List.of(building)).get(7);
+    building.setModifiedDatetime(building.getModifiedDatetime().plusNanos(1000));
+    RawValue changed = buildingFragmentCache.findFragments(List.of(building)).get(7);
+
+    // Assert
+    assertSame(first, second);
+    assertNotSame(first, changed);
+    verify(buildingFeatureMappingRepository, times(2)).findByBuildingIn(anyCollection());
+  }
+
+  @Test
+  void testNewFeatureCatalogVersionRendersAgain() {
+    // Arrange
+    BuildingFragmentCache buildingFragmentCache = cache(true);
+    buildingFragmentCache.findFragments(List.of(building));
+
+    // Act
+    when(featureCatalog.getBuildingFeaturesVersion()).thenReturn("fedcba9876543210");
+    buildingFragmentCache.findFragments(List.of(building));
+
+    // Assert
+    verify(buildingFeatureMappingRepository, times(2)).findByBuildingIn(anyCollection());
+  }
+
+  @Test
+  void testUnversionedBuildingsAndDisabledCacheAreNotCached() {
+    // Arrange
+    BuildingFragmentCache disabled = cache(false);
+    BuildingFragmentCache enabled = cache(true);
+    building.setModifiedDatetime(null);
+
+    // Act
+    disabled.findFragments(List.of(otherBuilding));
+    disabled.findFragments(List.of(otherBuilding));
+    enabled.findFragments(List.of(building));
+    enabled.findFragments(List.of(building));
+
+    // Assert
+    verify(buildingFeatureMappingRepository, times(4)).findByBuildingIn(anyCollection());
+  }
+}
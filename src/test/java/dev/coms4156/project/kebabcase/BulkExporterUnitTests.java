@@ -0,0 +1,244 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.kebabcase.service.BulkExporter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+class BulkExporterUnitTests {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private ResultSet resultSet;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  private final List<Map<String, Object>> buildingRows = new ArrayList<>();
+
+  private final List<Map<String, Object>> buildingFeatureRows = new ArrayList<>();
+
+  private final List<Map<String, Object>> housingUnitRows = new ArrayList<>();
+
+  private final List<Map<String, Object>> housingUnitFeatureRows = new ArrayList<>();
+
+  private final List<String> queries = new ArrayList<>();
+
+  private final List<List<Integer>> parameters = new ArrayList<>();
+
+  private Map<String, Object> current;
+
+  private BulkExporter bulkExporter;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    MockitoAnnotations.openMocks(this);
+
+    // The result set reads from the current row
+    when(resultSet.getInt(anyString())).thenAnswer(
+        invocation -> (Integer) current.get(invocation.getArgument(0)));
+    when(resultSet.getString(anyString())).thenAnswer(
+        invocation -> (String) current.get(invocation.getArgument(0)));
+    when(resultSet.getObject(anyString(), eq(OffsetDateTime.class))).thenReturn(null);
+
+    // Each query hands the rows of its table that match its parameters to the callback
+    doAnswer(invocation -> {
+      String sql = invocation.getArgument(0);
+      List<Integer> values = bind(invocation.getArgument(1));
+      queries.add(sql);
+      parameters.add(values);
+      RowCallbackHandler handler = invocation.getArgument(2);
+      for (Map<String, Object> row : rowsFor(sql, values)) {
+        current = row;
+        handler.processRow(resultSet);
+      }
+      return null;
+    }).when(jdbcTemplate).query(anyString(), any(PreparedStatementSetter.class),
+        any(RowCallbackHandler.class));
+
+    bulkExporter = new BulkExporter(jdbcTemplate, objectMapper);
+  }
+
+  private static List<Integer> bind(PreparedStatementSetter setter) throws SQLException {
+    List<Integer> values = new ArrayList<>();
+    PreparedStatement statement = mock(PreparedStatement.class);
+    doAnswer(invocation -> {
+      int index = invocation.getArgument(0);
+      while (values.size() < index) {
+        values.add(null);
+      }
+      values.set(index - 1, invocation.getArgument(1));
+      return null;
+    }).when(statement).setInt(anyInt(), anyInt());
+    setter.setValues(statement);
+    return values;
+  }
+
+  private List<Map<String, Object>> rowsFor(String sql, List<Integer> values) {
+    List<Map<String, Object>> rows = new ArrayList<>();
+    if (sql.contains("FROM buildings")) {
+      for (Map<String, Object> row : buildingRows) {
+        if ((Integer) row.get("building_id") > values.get(0) && rows.size() < values.get(1)) {
+          rows.add(row);
+        }
+      }
+      return rows;
+    }
+    List<Map<String, Object>> table = sql.contains("FROM building_feature_building_mappings")
+        ? buildingFeatureRows
+        : sql.contains("FROM housing_units") ? housingUnitRows : housingUnitFeatureRows;
+    for (Map<String, Object> row : table) {
+      if (values.contains((Integer) row.get("building_id"))) {
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+
+  private void addBuilding(int buildingId, String address) {
+    Map<String, Object> row = new HashMap<>();
+    row.put("building_id", buildingId);
+    row.put("address", address);
+    buildingRows.add(row);
+  }
+
+  private void addBuildingFeature(int buildingId, int featureId, String name) {
+    Map<String, Object> row = new HashMap<>();
+    row.put("building_id", buildingId);
+    row.put("feature_id", featureId);
+    row.put("feature_name", name);
+    buildingFeatureRows.add(row);
+  }
+
+  private void addHousingUnit(int buildingId, int unitId, String unitNumber) {
+    Map<String, Object> row = new HashMap<>();
+    row.put("building_id", buildingId);
+    row.put("housing_unit_id", unitId);
+    row.put("unit_number", unitNumber);
+    housingUnitRows.add(row);
+  }
+
+  private void addHousingUnitFeature(int buildingId, int unitId, int featureId, String name) {
+    Map<String, Object> row = new HashMap<>();
+    row.put("building_id", buildingId);
+    row.put("housing_unit_id", unitId);
+    row.put("feature_id", featureId);
+    row.put("feature_name", name);
+    housingUnitFeatureRows.add(row);
+  }
+
+  private List<JsonNode> export(int after) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    bulkExporter.export(after, output);
+    List<JsonNode> buildings = new ArrayList<>();
+    for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+      if (!line.isEmpty()) {
+        buildings.add(objectMapper.readTree(line));
+      }
+    }
+    return buildings;
+  }
+
+  @Test
+  void testRowsAreGroupedByBuilding() throws IOException {
+    // Arrange
+    addBuilding(1, "1 Main St");
+    addBuilding(2, "2 Main St");
+    addBuildingFeature(1, 5, "Elevator");
+    addHousingUnit(1, 10, "1A");
+    addHousingUnit(1, 11, "1B");
+    addHousingUnitFeature(1, 10, 7, "Balcony");
+    addHousingUnitFeature(1, 10, 8, "Dishwasher");
+
+    // Act
+    List<JsonNode> buildings = export(0);
+
+    // Assert
+    assertEquals(2, buildings.size());
+    JsonNode first = buildings.get(0);
+    assertEquals(1, first.get("id").asInt());
+    assertEquals("1 Main St", first.get("address").asText());
+    assertEquals("Elevator", first.get("features").get(0).get("name").asText());
+    assertEquals(2, first.get("housingUnits").size());
+    JsonNode unit = first.get("housingUnits").get(0);
+    assertEquals(10, unit.get("id").asInt());
+    assertEquals("1A", unit.get("unitNumber").asText());
+    assertEquals(2, unit.get("features").size());
+    assertEquals(0, first.get("housingUnits").get(1).get("features").size());
+    assertEquals(2, buildings.get(1).get("id").asInt());
+    assertEquals(0, buildings.get(1).get("features").size());
+    assertEquals(0, buildings.get(1).get("housingUnits").size());
+  }
+
+  @Test
+  void testExportResumesAfterTheGivenBuilding() throws IOException {
+    // Arrange
+    addBuilding(42, "42 Main St");
+    addBuilding(43, "43 Main St");
+
+    // Act
+    List<JsonNode> buildings = export(42);
+
+    // Assert
+    assertEquals(1, buildings.size());
+    assertEquals(43, buildings.get(0).get("id").asInt());
+    assertTrue(queries.get(0).contains("WHERE b.id > ? ORDER BY b.id LIMIT ?"));
+    assertEquals(List.of(42, BulkExporter.PAGE_SIZE), parameters.get(0));
+    assertEquals(List.of(43), parameters.get(1));
+  }
+
+  @Test
+  void testBuildingsAreReadOnePageAtATime() throws IOException {
+    // Arrange
+    for (int id = 1; id <= BulkExporter.PAGE_SIZE + 1; id++) {
+      addBuilding(id, id + " Main St");
+    }
+
+    // Act
+    List<JsonNode> buildings = export(0);
+
+    // Assert: the second page starts after the last building of the first
+    assertEquals(BulkExporter.PAGE_SIZE + 1, buildings.size());
+    List<List<Integer>> pages = new ArrayList<>();
+    for (int i = 0; i < queries.size(); i++) {
+      if (queries.get(i).contains("FROM buildings")) {
+        pages.add(parameters.get(i));
+      }
+    }
+    assertEquals(List.of(List.of(0, BulkExporter.PAGE_SIZE),
+        List.of(BulkExporter.PAGE_SIZE, BulkExporter.PAGE_SIZE)), pages);
+  }
+
+  @Test
+  void testEmptyExportReadsOnlyTheBuildings() throws IOException {
+    // Act
+    List<JsonNode> buildings = export(0);
+
+    // Assert
+    assertTrue(buildings.isEmpty());
+    assertEquals(1, queries.size());
+  }
+}
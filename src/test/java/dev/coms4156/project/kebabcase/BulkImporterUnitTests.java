@@ -0,0 +1,317 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import dev.coms4156.project.kebabcase.entity.HousingUnitEntity;
+import dev.coms4156.project.kebabcase.repository.BuildingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.BulkImporter;
+import dev.coms4156.project.kebabcase.service.FeatureBitmapIndex;
+import dev.coms4156.project.kebabcase.service.FeatureMappingEngine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class BulkImporterUnitTests {
+
+  @Mock
+  private BuildingRepositoryInterface buildingRepository;
+
+  @Mock
+  private HousingUnitRepositoryInterface housingUnitRepository;
+
+  @Mock
+  private FeatureMappingEngine featureMappingEngine;
+
+  @Mock
+  private FeatureBitmapIndex featureBitmapIndex;
+
+  @Mock
+  private EntityManager entityManager;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final AtomicInteger nextId = new AtomicInteger(100);
+
+  private BulkImporter bulkImporter;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+
+    // Saving assigns IDs the way the pooled generator would
+    when(buildingRepository.saveAll(any())).thenAnswer(invocation -> {
+      Iterable<BuildingEntity> buildings = invocation.getArgument(0);
+      buildings.forEach(building -> building.setId(nextId.getAndIncrement()));
+      return buildings;
+    });
+    when(housingUnitRepository.saveAll(any())).thenAnswer(invocation -> {
+      Iterable<HousingUnitEntity> units = invocation.getArgument(0);
+      units.forEach(unit -> unit.setId(nextId.getAndIncrement()));
+      return units;
+    });
+    when(featureMappingEngine.addBuildingFeatures(any())).thenReturn(Map.of());
+    when(featureMappingEngine.addHousingUnitFeatures(any())).thenReturn(Map.of());
+
+    bulkImporter = new BulkImporter(buildingRepository, housingUnitRepository,
+        featureMappingEngine, featureBitmapIndex, entityManager, transactionManager,
+        objectMapper);
+  }
+
+  private List<JsonNode> importNdjson(String input) throws IOException {
+    ByteArrayOutputStream report = new ByteArrayOutputStream();
+    bulkImporter.importNdjson(
+        new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), report);
+    return readReport(report);
+  }
+
+  private List<JsonNode> importCsv(String input) throws IOException {
+    ByteArrayOutputStream report = new ByteArrayOutputStream();
+    bulkImporter.importCsv(
+        new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), report);
+    return readReport(report);
+  }
+
+  private List<JsonNode> readReport(ByteArrayOutputStream report) throws IOException {
+    List<JsonNode> results = new ArrayList<>();
+    for (String line : report.toString(StandardCharsets.UTF_8).split("\n")) {
+      results.add(objectMapper.readTree(line));
+    }
+    return results;
+  }
+
+  private static BuildingEntity building(int id, String address) {
+    BuildingEntity building = new BuildingEntity();
+    building.setId(id);
+    building.setAddress(address);
+    building.setCity("New York");
+    building.setState("NY");
+    building.setZipCode("10027");
+    return building;
+  }
+
+  @Test
+  void testNdjsonCreatesAndReusesBuildingsAndUnits() throws IOException {
+    // Arrange: 1 Main St and its unit 1A exist
+    BuildingEntity existing = building(7, "1 Main St");
+    HousingUnitEntity existingUnit = new HousingUnitEntity();
+    existingUnit.setId(8);
+    existingUnit.setBuilding(existing);
+    existingUnit.setUnitNumber("1A");
+    when(buildingRepository.findByZipCodeInAndAddressIn(any(), any()))
+        .thenReturn(List.of(existing));
+    when(housingUnitRepository.findByBuildingIdInAndUnitNumberIn(any(), any()))
+        .thenReturn(List.of(existingUnit));
+
+    String input = """
+        {"address":"1 Main St","city":"New York","state":"NY","zipCode":"10027","unitNumber":"1A"}
+        {"address":"1 Main St","city":"New York","state":"NY","zipCode":"10027","unitNumber":"2B"}
+        {"address":"2 Main St","city":"New York","state":"NY","zipCode":"10027"}
+        {"address":"2 Main St","city":"New York","state":"NY","zipCode":"10027","unitNumber":"1"}
+        {"address":"3 Main St","city":"New York","state":"NY"}
+        """;
+
+    // Act
+    List<JsonNode> report = importNdjson(input);
+
+    // Assert
+    assertEquals(5, report.size());
+    assertEquals("exists", report.get(0).get("status").asText());
+    assertEquals(8, report.get(0).get("housingUnitId").asInt());
+    assertEquals("created", report.get(1).get("status").asText());
+    assertEquals(7, report.get(1).get("buildingId").asInt());
+    assertEquals("created", report.get(2).get("status").asText());
+    assertFalse(report.get(2).has("housingUnitId"));
+    assertEquals("created", report.get(3).get("status").asText());
+    assertEquals(report.get(2).get("buildingId"), report.get(3).get("buildingId"));
+    assertEquals("error", report.get(4).get("status").asText());
+    assertEquals("Missing required field: zipCode", report.get(4).get("message").asText());
+    for (int i = 0; i < report.size(); i++) {
+      assertEquals(i + 1, report.get(i).get("row").asInt());
+    }
+
+    // One new building, two new housing units, all indexed
+    verify(featureBitmapIndex, times(1)).addBuilding(anyInt());
+    verify(featureBitmapIndex, times(2)).addHousingUnit(anyInt());
+    verify(transactionManager, times(1)).commit(any());
+    verify(entityManager, times(1)).clear();
+  }
+
+  @Test
+  void testNdjsonMatchesExistingRowsIgnoringCaseAndWhitespace() throws IOException {
+    // Arrange: 1 Main St and its unit 1A exist, stored with different case than the import
+    BuildingEntity existing = building(7, "1 Main St");
+    HousingUnitEntity existingUnit = new HousingUnitEntity();
+    existingUnit.setId(8);
+    existingUnit.setBuilding(existing);
+    existingUnit.setUnitNumber("1A");
+    when(buildingRepository.findByZipCodeInAndAddressIn(any(), any()))
+        .thenReturn(List.of(existing));
+    when(housingUnitRepository.findByBuildingIdInAndUnitNumberIn(any(), any()))
+        .thenReturn(List.of(existingUnit));
+
+    String input = """
+        {"address":"1 MAIN ST ","city":"new york","state":"ny","zipCode":" 10027","unitNumber":"1a"}
+        {"address":"1 main st","city":"New York","state":"NY","zipCode":"10027"}
+        """;
+
+    // Act
+    List<JsonNode> report = importNdjson(input);
+
+    // Assert
+    assertEquals(2, report.size());
+    assertEquals("exists", report.get(0).get("status").asText());
+    assertEquals(8, report.get(0).get("housingUnitId").asInt());
+    assertEquals("exists", report.get(1).get("status").asText());
+    assertEquals(7, report.get(1).get("buildingId").asInt());
+
+    // Nothing new to index
+    verify(featureBitmapIndex, never()).addBuilding(anyInt());
+    verify(featureBitmapIndex, never()).addHousingUnit(anyInt());
+  }
+
+  @Test
+  void testCsvAddsFeaturesAndReportsInvalidOnes() throws IOException {
+    // Arrange
+    when(featureMappingEngine.addBuildingFeatures(any()))
+        .thenAnswer(invocation -> {
+          Map<Integer, Set<Integer>> features = invocation.getArgument(0);
+          return Map.of(features.keySet().iterator().next(), Set.of(99));
+        });
+    String input = """
+        address,city,state,zipCode,unitNumber,buildingFeatures,unitFeatures
+        1 Main St,New York,NY,10027,,1;2;99,
+        1 Main St,New York,NY,10027,1A,,
+        """;
+
+    // Act
+    List<JsonNode> report = importCsv(input);
+
+    // Assert
+    assertEquals(2, report.size());
+    assertEquals("created", report.get(0).get("status").asText());
+    assertFalse(report.get(0).has("housingUnitId"));
+    assertEquals(99, report.get(0).get("invalidBuildingFeatures").get(0).asInt());
+    assertEquals("created", report.get(1).get("status").asText());
+    assertFalse(report.get(1).has("invalidBuildingFeatures"));
+    assertFalse(report.get(1).has("invalidUnitFeatures"));
+    verify(featureMappingEngine).addHousingUnitFeatures(Map.of());
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Map<Integer, Set<Integer>>> captor = ArgumentCaptor.forClass(Map.class);
+    verify(featureMappingEngine).addBuildingFeatures(captor.capture());
+    assertEquals(List.of(Set.of(1, 2, 99)), List.copyOf(captor.getValue().values()));
+  }
+
+  @Test
+  void testRowsAreImportedInChunks() throws IOException {
+    // Arrange
+    StringBuilder input = new StringBuilder();
+    for (int i = 0; i < 1200; i++) {
+      input.append("{\"address\":\"").append(i).append(" Main St\",")
+          .append("\"city\":\"New York\",\"state\":\"NY\",\"zipCode\":\"10027\"}\n");
+    }
+
+    // Act
+    List<JsonNode> report = importNdjson(input.toString());
+
+    // Assert
+    assertEquals(1200, report.size());
+    verify(buildingRepository, times(3)).findByZipCodeInAndAddressIn(any(), any());
+    verify(transactionManager, times(3)).commit(any());
+    verify(entityManager, times(3)).clear();
+    verify(featureBitmapIndex, times(1200)).addBuilding(anyInt());
+  }
+
+  @Test
+  void testMalformedRowStopsTheImport() throws IOException {
+    // Arrange
+    String input = """
+        {"address":"1 Main St","city":"New York","state":"NY","zipCode":"10027"}
+        {"address":
+        {"address":"2 Main St","city":"New York","state":"NY","zipCode":"10027"}
+        """;
+
+    // Act
+    List<JsonNode> report = importNdjson(input);
+
+    // Assert
+    assertEquals(2, report.size());
+    assertEquals("created", report.get(0).get("status").asText());
+    assertEquals(2, report.get(1).get("row").asInt());
+    assertEquals("error", report.get(1).get("status").asText());
+    assertTrue(report.get(1).get("message").asText().startsWith("Malformed row"));
+  }
+
+  @Test
+  void testFailedChunkIsReportedAsErrors() throws IOException {
+    // Arrange
+    doThrow(new DataIntegrityViolationException("duplicate"))
+        .when(buildingRepository).saveAll(any());
+    String input = """
+        {"address":"1 Main St","city":"New York","state":"NY","zipCode":"10027"}
+        {"address":"2 Main St","city":"New York","state":"NY","zipCode":"10027"}
+        """;
+
+    // Act
+    List<JsonNode> report = importNdjson(input);
+
+    // Assert
+    assertEquals(2, report.size());
+    assertEquals("error", report.get(0).get("status").asText());
+    assertEquals("error", report.get(1).get("status").asText());
+    verify(transactionManager, times(1)).rollback(any());
+    verifyNoInteractions(featureBitmapIndex);
+  }
+
+  @Test
+  void testFailedFlushIsReportedAsErrorsAndImportContinues() throws IOException {
+    // Arrange: the first chunk fails when its inserts are flushed, the second one succeeds
+    doThrow(new PersistenceException("could not execute batch",
+        new SQLException("Data too long for column 'address'")))
+        .doNothing()
+        .when(entityManager).flush();
+    StringBuilder input = new StringBuilder();
+    for (int i = 0; i < BulkImporter.CHUNK_SIZE + 1; i++) {
+      input.append("{\"address\":\"").append(i).append(" Main St\",")
+          .append("\"city\":\"New York\",\"state\":\"NY\",\"zipCode\":\"10027\"}\n");
+    }
+
+    // Act
+    List<JsonNode> report = importNdjson(input.toString());
+
+    // Assert
+    assertEquals(BulkImporter.CHUNK_SIZE + 1, report.size());
+    assertEquals("error", report.get(0).get("status").asText());
+    assertTrue(report.get(0).get("message").asText().contains("Data too long"));
+    assertEquals("error", report.get(BulkImporter.CHUNK_SIZE - 1).get("status").asText());
+    assertEquals("created", report.get(BulkImporter.CHUNK_SIZE).get("status").asText());
+    verify(transactionManager, times(1)).rollback(any());
+    verify(featureBitmapIndex, times(1)).addBuilding(anyInt());
+  }
+}
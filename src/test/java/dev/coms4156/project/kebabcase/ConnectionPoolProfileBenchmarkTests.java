@@ -0,0 +1,215 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import dev.coms4156.project.kebabcase.entity.HousingUnitEntity;
+import dev.coms4156.project.kebabcase.repository.BuildingFeatureBuildingMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.BuildingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitRepositoryInterface;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Compares the latency of the repository query mix with the default connection pool and driver
+ * settings against the {@code perf} profile. Run with
+ * {@code mvn test -Pbenchmark -Dtest=ConnectionPoolProfileBenchmarkTests}.
+ *
+ * <p>Each configuration runs in its own application context against the same MySQL container.
+ * Client threads call the repositories directly, back to back, picking a query at random, so
+ * the time measured is the time to get a connection plus the round trips of the query. The
+ * p50, p99 and maximum latency of each query are printed. The thread count is set with the
+ * {@code pool.threads} system property, default {@value #DEFAULT_THREADS}, and the duration of
+ * each run with {@code pool.duration}, default {@value #DEFAULT_DURATION}.
+ * </p>
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Testcontainers
+class ConnectionPoolProfileBenchmarkTests {
+
+  private static final String DEFAULT_THREADS = "16";
+  private static final String DEFAULT_DURATION = "20s";
+  private static final Duration WARMUP = Duration.ofSeconds(5);
+
+  private static final int BUILDINGS = 500;
+  private static final int UNITS_PER_BUILDING = 10;
+  private static final int INSERT_BATCH = 20;
+
+  // Latencies are recorded in microseconds, up to one minute
+  private static final long MAX_LATENCY_MICROS = Duration.ofMinutes(1).toNanos() / 1000;
+
+  @Container
+  @ServiceConnection
+  private static final MySQLContainer<?> mysqlContainer = new MySQLContainer<>("mysql:8.0")
+      .withDatabaseName("testdb")
+      .withUsername("testuser")
+      .withPassword("testpass");
+
+  @Nested
+  class DefaultSettings extends PoolConfiguration {
+  }
+
+  @Nested
+  @ActiveProfiles("perf")
+  class PerfProfile extends PoolConfiguration {
+  }
+
+  /**
+   * Runs the query mix against the application context of one configuration.
+   */
+  abstract static class PoolConfiguration {
+
+    @Autowired
+    private BuildingRepositoryInterface buildingRepository;
+
+    @Autowired
+    private HousingUnitRepositoryInterface housingUnitRepository;
+
+    @Autowired
+    private BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository;
+
+    private final AtomicInteger sequence = new AtomicInteger();
+    private List<Integer> buildingIds;
+
+    @Test
+    void benchmarkRepositoryQueries() throws Exception {
+      // Arrange
+      int threads = Integer.parseInt(System.getProperty("pool.threads", DEFAULT_THREADS));
+      Duration duration = Duration.parse(
+          "PT" + System.getProperty("pool.duration", DEFAULT_DURATION).toUpperCase());
+      seed();
+      Map<String, Consumer<ThreadLocalRandom>> queries = queries();
+
+      // Act
+      run(queries, threads, WARMUP);
+      Map<String, Histogram> latencies = run(queries, threads, duration);
+
+      // Assert
+      System.out.printf("%n%s, %d threads%n", getClass().getSimpleName(), threads);
+      System.out.printf("%-32s %9s %9s %9s %9s%n", "Query", "calls", "p50 ms", "p99 ms",
+          "max ms");
+      latencies.forEach((name, histogram) -> System.out.printf(
+          "%-32s %9d %9.2f %9.2f %9.2f%n",
+          name,
+          histogram.getTotalCount(),
+          histogram.getValueAtPercentile(50) / 1000.0,
+          histogram.getValueAtPercentile(99) / 1000.0,
+          histogram.getMaxValue() / 1000.0));
+      assertThat(latencies.values()).allSatisfy(
+          histogram -> assertThat(histogram.getTotalCount()).isPositive());
+    }
+
+    private void seed() {
+      // Both configurations share the database, so only the first one seeds it
+      if (buildingRepository.count() == 0) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<BuildingEntity> buildings = new ArrayList<>();
+        for (int i = 0; i < BUILDINGS; i++) {
+          buildings.add(new BuildingEntity()
+              .setAddress(i + " Pool Street")
+              .setCity("City" + i % 20)
+              .setState("NY")
+              .setZipCode(String.format("%05d", i % 100))
+              .setCreatedDatetime(now)
+              .setModifiedDatetime(now));
+        }
+        buildings = buildingRepository.saveAll(buildings);
+        List<HousingUnitEntity> units = new ArrayList<>();
+        for (BuildingEntity building : buildings) {
+          for (int i = 0; i < UNITS_PER_BUILDING; i++) {
+            units.add(new HousingUnitEntity()
+                .setBuilding(building)
+                .setUnitNumber("U" + i)
+                .setCreatedDatetime(now)
+                .setModifiedDatetime(now));
+          }
+        }
+        housingUnitRepository.saveAll(units);
+      }
+      this.buildingIds = buildingRepository.findAll().stream()
+          .map(BuildingEntity::getId).toList();
+    }
+
+    private Map<String, Consumer<ThreadLocalRandom>> queries() {
+      Map<String, Consumer<ThreadLocalRandom>> queries = new LinkedHashMap<>();
+      queries.put("findById", r -> buildingRepository.findById(pick(r)));
+      queries.put("findByCity", r -> buildingRepository.findByCity("City" + r.nextInt(20)));
+      queries.put("findByZipCode",
+          r -> buildingRepository.findByZipCode(String.format("%05d", r.nextInt(100))));
+      queries.put("findByBuilding", r -> housingUnitRepository.findByBuilding(
+          buildingRepository.getReferenceById(pick(r))));
+      queries.put("findBuildingFeatureIdsByBuildingId",
+          r -> buildingFeatureMappingRepository.findBuildingFeatureIdsByBuildingId(pick(r)));
+      queries.put("saveAll housing units", r -> {
+        BuildingEntity building = buildingRepository.getReferenceById(pick(r));
+        OffsetDateTime now = OffsetDateTime.now();
+        List<HousingUnitEntity> units = new ArrayList<>();
+        for (int i = 0; i < INSERT_BATCH; i++) {
+          units.add(new HousingUnitEntity()
+              .setBuilding(building)
+              .setUnitNumber("B" + sequence.incrementAndGet())
+              .setCreatedDatetime(now)
+              .setModifiedDatetime(now));
+        }
+        housingUnitRepository.saveAll(units);
+      });
+      return queries;
+    }
+
+    private Map<String, Histogram> run(Map<String, Consumer<ThreadLocalRandom>> queries,
+                                       int threads, Duration duration) throws Exception {
+      Map<String, Histogram> latencies = new LinkedHashMap<>();
+      queries.keySet().forEach(
+          name -> latencies.put(name, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3)));
+      List<String> names = new ArrayList<>(queries.keySet());
+      ExecutorService clients = Executors.newFixedThreadPool(threads);
+      long deadline = System.nanoTime() + duration.toNanos();
+      List<Future<?>> runs = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        runs.add(clients.submit(() -> {
+          ThreadLocalRandom random = ThreadLocalRandom.current();
+          while (System.nanoTime() < deadline) {
+            String name = names.get(random.nextInt(names.size()));
+            long start = System.nanoTime();
+            queries.get(name).accept(random);
+            long micros = (System.nanoTime() - start) / 1000;
+            latencies.get(name).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+          }
+          return null;
+        }));
+      }
+      for (Future<?> run : runs) {
+        run.get();
+      }
+      clients.shutdown();
+      return latencies;
+    }
+
+    private int pick(ThreadLocalRandom random) {
+      return this.buildingIds.get(random.nextInt(this.buildingIds.size()));
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import dev.coms4156.project.kebabcase.service.ConnectionPoolSizer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class ConnectionPoolSizerUnitTests {
+
+  @Mock
+  private HikariDataSource dataSource;
+
+  @Mock
+  private HikariConfigMXBean config;
+
+  @Mock
+  private HikariPoolMXBean pool;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private Timer acquire;
+
+  private ConnectionPoolSizer poolSizer;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(dataSource.getPoolName()).thenReturn("HikariPool-1");
+    when(dataSource.getHikariConfigMXBean()).thenReturn(config);
+    when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+    when(config.getMaximumPoolSize()).thenReturn(4);
+    meterRegistry = new SimpleMeterRegistry();
+    acquire = meterRegistry.timer("hikaricp.connections.acquire", "pool", "HikariPool-1");
+    poolSizer = new ConnectionPoolSizer(dataSource, meterRegistry, 2, 5, Duration.ofMillis(5));
+  }
+
+  @Test
+  void testResizeGrowsPoolWhenWaitsExceedTarget() {
+    // Arrange
+    acquire.record(Duration.ofMillis(20));
+    acquire.record(Duration.ofMillis(10));
+
+    // Act
+    int size = poolSizer.resize();
+
+    // Assert
+    assertEquals(5, size);
+    verify(config, times(1)).setMaximumPoolSize(5);
+    assertEquals(1, meterRegistry.get("kebabcase.pool.resizes")
+        .tag("direction", "grow").counter().count());
+  }
+
+  @Test
+  void testResizeGrowsPoolWhenThreadsAreWaiting() {
+    // Arrange
+    when(pool.getThreadsAwaitingConnection()).thenReturn(3);
+
+    // Act
+    int size = poolSizer.resize();
+
+    // Assert
+    assertEquals(5, size);
+    verify(config, times(1)).setMaximumPoolSize(5);
+  }
+
+  @Test
+  void testResizeNeverGrowsPastMaxSize() {
+    // Arrange
+    when(config.getMaximumPoolSize()).thenReturn(5);
+    when(pool.getThreadsAwaitingConnection()).thenReturn(3);
+
+    // Act
+    int size = poolSizer.resize();
+
+    // Assert
+    assertEquals(5, size);
+    verify(config, never()).setMaximumPoolSize(anyInt());
+  }
+
+  @Test
+  void testResizeShrinksIdlePoolDownToMinSize() {
+    // Arrange
+    acquire.record(Duration.ofMillis(20));
+    poolSizer.resize();
+    acquire.record(Duration.ofNanos(100));
+    when(pool.getIdleConnections()).thenReturn(2);
+    when(config.getMaximumPoolSize()).thenReturn(3, 2);
+
+    // Act
+    int first = poolSizer.resize();
+    int second = poolSizer.resize();
+
+    // Assert
+    assertEquals(2, first);
+    assertEquals(2, second);
+    verify(config, times(1)).setMaximumPoolSize(2);
+    assertEquals(1, meterRegistry.get("kebabcase.pool.resizes")
+        .tag("direction", "shrink").counter().count());
+  }
+
+  @Test
+  void testResizeWaitsForPoolToStart() {
+    // Arrange
+    when(dataSource.getHikariPoolMXBean()).thenReturn(null);
+
+    // Act
+    int size = poolSizer.resize();
+
+    // Assert
+    assertEquals(4, size);
+    verify(config, never()).setMaximumPoolSize(anyInt());
+  }
+}
@@ -0,0 +1,383 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import dev.coms4156.project.kebabcase.entity.ClientEntity;
+import dev.coms4156.project.kebabcase.entity.HousingUnitEntity;
+import dev.coms4156.project.kebabcase.repository.BuildingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.ClientRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitRepositoryInterface;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Measures the latency percentiles and throughput of each endpoint of the building, housing
+ * unit and user controllers under a mix of reads and writes. Run with
+ * {@code mvn test -Pbenchmark -Dtest=EndpointLoadBenchmarkTests}.
+ *
+ * <p>The application runs against a MySQL container seeded with buildings, housing units and
+ * users. For each concurrency level, that many clients send requests back to back for the
+ * configured duration, each picking an endpoint at random by weight. A level whose throughput
+ * stops growing with concurrency has reached saturation.
+ * </p>
+ *
+ * <p>The load is configured with system properties:
+ * </p>
+ * <ul>
+ *   <li>{@code load.concurrency}: the comma-separated concurrency levels, default
+ *       {@value #DEFAULT_CONCURRENCY}</li>
+ *   <li>{@code load.duration}: how long each level runs, default {@value #DEFAULT_DURATION}</li>
+ *   <li>{@code load.warmup}: how long the untimed warmup runs, default
+ *       {@value #DEFAULT_WARMUP}</li>
+ *   <li>{@code load.write-ratio}: the share of requests that are writes, default
+ *       {@value #DEFAULT_WRITE_RATIO}</li>
+ * </ul>
+ *
+ * <p>A summary is printed for each level, and the full HdrHistogram percentile distribution of
+ * each endpoint is written to {@code target/load-test/<concurrency>/<endpoint>.hgrm}, in
+ * milliseconds.
+ * </p>
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+class EndpointLoadBenchmarkTests {
+
+  private static final String DEFAULT_CONCURRENCY = "1,8,32,64";
+  private static final String DEFAULT_DURATION = "20s";
+  private static final String DEFAULT_WARMUP = "10s";
+  private static final String DEFAULT_WRITE_RATIO = "0.1";
+
+  private static final int BUILDINGS = 500;
+  private static final int UNITS_PER_BUILDING = 10;
+  private static final int USERS = 20;
+  private static final String PASSWORD = "secret";
+  private static final String CLIENT_NAME = "LoadClient";
+
+  // Latencies are recorded in microseconds, up to one minute
+  private static final long MAX_LATENCY_MICROS = Duration.ofMinutes(1).toNanos() / 1000;
+  private static final Path REPORT_DIR = Path.of("target", "load-test");
+
+  @Container
+  @ServiceConnection
+  private static final MySQLContainer<?> mysqlContainer = new MySQLContainer<>("mysql:8.0")
+      .withDatabaseName("testdb")
+      .withUsername("testuser")
+      .withPassword("testpass");
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private ClientRepositoryInterface clientRepository;
+
+  @Autowired
+  private BuildingRepositoryInterface buildingRepository;
+
+  @Autowired
+  private HousingUnitRepositoryInterface housingUnitRepository;
+
+  private final HttpClient httpClient = HttpClient.newBuilder()
+      .connectTimeout(Duration.ofSeconds(10))
+      .build();
+  private final AtomicInteger sequence = new AtomicInteger();
+  private List<Integer> buildingIds;
+  private List<Integer> unitIds;
+  private List<Integer> userIds;
+  private List<String> tokens;
+
+  @Test
+  void benchmarkEndpoints() throws Exception {
+    // Arrange
+    int[] concurrencyLevels = Arrays.stream(
+        System.getProperty("load.concurrency", DEFAULT_CONCURRENCY).split(","))
+        .map(String::trim)
+        .mapToInt(Integer::parseInt)
+        .toArray();
+    Duration duration = parseDuration(System.getProperty("load.duration", DEFAULT_DURATION));
+    Duration warmup = parseDuration(System.getProperty("load.warmup", DEFAULT_WARMUP));
+    double writeRatio = Double.parseDouble(
+        System.getProperty("load.write-ratio", DEFAULT_WRITE_RATIO));
+    seed();
+    List<Endpoint> endpoints = endpoints(writeRatio);
+
+    // Act
+    run(endpoints, concurrencyLevels[concurrencyLevels.length - 1], warmup);
+    List<Level> levels = new ArrayList<>();
+    for (int concurrency : concurrencyLevels) {
+      levels.add(run(endpoints, concurrency, duration));
+    }
+
+    // Assert
+    for (Level level : levels) {
+      level.report(System.out);
+      level.writeHistograms();
+      assertThat(level.total()).isPositive();
+    }
+  }
+
+  private void seed() throws IOException, InterruptedException {
+    ClientEntity client = new ClientEntity();
+    client.setName(CLIENT_NAME);
+    client.setCreatedDatetime(OffsetDateTime.now());
+    client.setModifiedDatetime(OffsetDateTime.now());
+    clientRepository.save(client);
+
+    OffsetDateTime now = OffsetDateTime.now();
+    List<BuildingEntity> buildings = new ArrayList<>();
+    for (int i = 0; i < BUILDINGS; i++) {
+      buildings.add(new BuildingEntity()
+          .setAddress(i + " Load Street")
+          .setCity("City" + i % 20)
+          .setState("NY")
+          .setZipCode(String.format("%05d", i % 100))
+          .setCreatedDatetime(now)
+          .setModifiedDatetime(now));
+    }
+    buildings = buildingRepository.saveAll(buildings);
+    List<HousingUnitEntity> units = new ArrayList<>();
+    for (BuildingEntity building : buildings) {
+      for (int i = 0; i < UNITS_PER_BUILDING; i++) {
+        units.add(new HousingUnitEntity()
+            .setBuilding(building)
+            .setUnitNumber("U" + i)
+            .setCreatedDatetime(now)
+            .setModifiedDatetime(now));
+      }
+    }
+    this.buildingIds = buildings.stream().map(BuildingEntity::getId).toList();
+    this.unitIds = housingUnitRepository.saveAll(units).stream()
+        .map(HousingUnitEntity::getId).toList();
+
+    // Users go through the API so their passwords are hashed
+    this.userIds = new ArrayList<>();
+    this.tokens = new ArrayList<>();
+    for (int i = 0; i < USERS; i++) {
+      String email = "load" + i + "@example.com";
+      HttpResponse<String> created = send("POST", "/users?firstName=Load&lastName=User"
+          + "&emailAddress=" + email + "&password=" + PASSWORD);
+      assertThat(created.statusCode()).isEqualTo(201);
+      HttpResponse<String> login = send("POST", "/authenticate?email=" + email
+          + "&password=" + PASSWORD + "&clientName=" + CLIENT_NAME);
+      assertThat(login.statusCode()).isEqualTo(200);
+      this.userIds.add(Integer.parseInt(created.body().replaceAll("\\D+", "")));
+      this.tokens.add(login.body());
+    }
+  }
+
+  private List<Endpoint> endpoints(double writeRatio) {
+    double read = 1 - writeRatio;
+    List<Endpoint> endpoints = new ArrayList<>();
+    // Reads
+    endpoints.add(new Endpoint("GET /building/{id}", 0.25 * read,
+        r -> get("/building/" + pick(r, buildingIds))));
+    endpoints.add(new Endpoint("GET /buildings?city", 0.10 * read,
+        r -> get("/buildings?city=City" + r.nextInt(20))));
+    endpoints.add(new Endpoint("GET /building/{id}/housing-units", 0.10 * read,
+        r -> get("/building/" + pick(r, buildingIds) + "/housing-units")));
+    endpoints.add(new Endpoint("GET /housing-unit/{id}", 0.25 * read,
+        r -> get("/housing-unit/" + pick(r, unitIds))));
+    endpoints.add(new Endpoint("GET /housing-units", 0.10 * read,
+        r -> get("/housing-units?limit=50")));
+    endpoints.add(new Endpoint("GET /user/{id}/buildings", 0.05 * read,
+        r -> get("/user/" + pick(r, userIds) + "/buildings")));
+    endpoints.add(new Endpoint("GET /user/{id}/housing-units", 0.05 * read,
+        r -> get("/user/" + pick(r, userIds) + "/housing-units")));
+    endpoints.add(new Endpoint("GET /me", 0.10 * read,
+        r -> HttpRequest.newBuilder(uri("/me")).header("token", pick(r, tokens)).GET()));
+    // Writes
+    endpoints.add(new Endpoint("PATCH /building/{id}", 0.30 * writeRatio,
+        r -> method("PATCH", "/building/" + pick(r, buildingIds)
+            + "?city=City" + r.nextInt(20))));
+    endpoints.add(new Endpoint("PATCH /housing-unit/{id}", 0.30 * writeRatio,
+        r -> method("PATCH", "/housing-unit/" + pick(r, unitIds)
+            + "?unitNumber=P" + sequence.incrementAndGet())));
+    endpoints.add(new Endpoint("POST /building", 0.15 * writeRatio,
+        r -> method("POST", "/building?address=" + sequence.incrementAndGet()
+            + "%20New%20Street&city=City1&state=NY&zipCode=10027")));
+    endpoints.add(new Endpoint("POST /housing-unit", 0.15 * writeRatio,
+        r -> method("POST", "/housing-unit?buildingId=" + pick(r, buildingIds)
+            + "&unitNumber=N" + sequence.incrementAndGet())));
+    endpoints.add(new Endpoint("POST /authenticate", 0.10 * writeRatio,
+        r -> method("POST", "/authenticate?email=load" + r.nextInt(USERS)
+            + "@example.com&password=" + PASSWORD + "&clientName=" + CLIENT_NAME)));
+    return endpoints;
+  }
+
+  private Level run(List<Endpoint> endpoints, int concurrency, Duration duration)
+      throws Exception {
+    Level level = new Level(concurrency, endpoints);
+    ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+    long deadline = System.nanoTime() + duration.toNanos();
+    long start = System.nanoTime();
+    List<Future<?>> runs = new ArrayList<>();
+    for (int i = 0; i < concurrency; i++) {
+      runs.add(clients.submit(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+          level.call(pickEndpoint(random, endpoints), random);
+        }
+        return null;
+      }));
+    }
+    for (Future<?> run : runs) {
+      run.get();
+    }
+    level.elapsedNanos = System.nanoTime() - start;
+    clients.shutdown();
+    return level;
+  }
+
+  private static Endpoint pickEndpoint(ThreadLocalRandom random, List<Endpoint> endpoints) {
+    double total = endpoints.stream().mapToDouble(endpoint -> endpoint.weight).sum();
+    double point = random.nextDouble(total);
+    for (Endpoint endpoint : endpoints) {
+      point -= endpoint.weight;
+      if (point < 0) {
+        return endpoint;
+      }
+    }
+    return endpoints.get(endpoints.size() - 1);
+  }
+
+  private static <T> T pick(ThreadLocalRandom random, List<T> values) {
+    return values.get(random.nextInt(values.size()));
+  }
+
+  private HttpResponse<String> send(String method, String path)
+      throws IOException, InterruptedException {
+    return httpClient.send(method(method, path).build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private HttpRequest.Builder get(String path) {
+    return HttpRequest.newBuilder(uri(path)).GET();
+  }
+
+  private HttpRequest.Builder method(String method, String path) {
+    return HttpRequest.newBuilder(uri(path)).method(method, HttpRequest.BodyPublishers.noBody());
+  }
+
+  private URI uri(String path) {
+    return URI.create("http://localhost:" + port + path);
+  }
+
+  private static Duration parseDuration(String value) {
+    return Duration.parse("PT" + value.toUpperCase());
+  }
+
+  /**
+   * An endpoint with its share of the requests and how to build a request to it.
+   */
+  private static final class Endpoint {
+    private final String name;
+    private final double weight;
+    private final Function<ThreadLocalRandom, HttpRequest.Builder> request;
+
+    private Endpoint(String name, double weight,
+                     Function<ThreadLocalRandom, HttpRequest.Builder> request) {
+      this.name = name;
+      this.weight = weight;
+      this.request = request;
+    }
+  }
+
+  /**
+   * The latencies and status codes of each endpoint at one concurrency level.
+   */
+  private final class Level {
+    private final int concurrency;
+    private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+    private long elapsedNanos;
+
+    private Level(int concurrency, List<Endpoint> endpoints) {
+      this.concurrency = concurrency;
+      for (Endpoint endpoint : endpoints) {
+        this.latencies.put(endpoint.name, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+        this.errors.put(endpoint.name, new LongAdder());
+      }
+    }
+
+    private void call(Endpoint endpoint, ThreadLocalRandom random) throws InterruptedException {
+      HttpRequest request = endpoint.request.apply(random).timeout(Duration.ofSeconds(30))
+          .build();
+      long start = System.nanoTime();
+      try {
+        HttpResponse<Void> response =
+            httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 400) {
+          this.errors.get(endpoint.name).increment();
+        }
+      } catch (IOException e) {
+        this.errors.get(endpoint.name).increment();
+      }
+      long micros = (System.nanoTime() - start) / 1000;
+      this.latencies.get(endpoint.name).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+    }
+
+    private long total() {
+      return this.latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    private void report(PrintStream out) {
+      double seconds = this.elapsedNanos / 1e9;
+      out.printf("%nConcurrency %d: %.0f requests/sec%n", this.concurrency, total() / seconds);
+      out.printf("%-36s %9s %9s %9s %9s %9s %7s%n",
+          "Endpoint", "req/sec", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+      this.latencies.forEach((name, histogram) -> out.printf(
+          "%-36s %9.1f %9.2f %9.2f %9.2f %9.2f %7d%n",
+          name,
+          histogram.getTotalCount() / seconds,
+          histogram.getValueAtPercentile(50) / 1000.0,
+          histogram.getValueAtPercentile(90) / 1000.0,
+          histogram.getValueAtPercentile(99) / 1000.0,
+          histogram.getMaxValue() / 1000.0,
+          this.errors.get(name).sum()));
+    }
+
+    private void writeHistograms() throws IOException {
+      Path dir = REPORT_DIR.resolve(String.valueOf(this.concurrency));
+      Files.createDirectories(dir);
+      for (Map.Entry<String, Histogram> entry : this.latencies.entrySet()) {
+        String file = entry.getKey().replaceAll("[^A-Za-z0-9-]+", "_") + ".hgrm";
+        try (PrintStream out = new PrintStream(
+            Files.newOutputStream(dir.resolve(file)), false, StandardCharsets.UTF_8)) {
+          entry.getValue().outputPercentileDistribution(out, 1000.0);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import dev.coms4156.project.kebabcase.controller.ExportController;
+import dev.coms4156.project.kebabcase.service.BulkExporter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+class ExportControllerUnitTests {
+
+  @Mock
+  private BulkExporter bulkExporter;
+
+  @InjectMocks
+  private ExportController exportController;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    MockitoAnnotations.openMocks(this);
+
+    doAnswer(invocation -> {
+      OutputStream output = invocation.getArgument(1);
+      output.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+      return null;
+    }).when(bulkExporter).export(anyInt(), any());
+  }
+
+  @Test
+  void testExportIsPlainWithoutGzip() throws IOException {
+    // Act
+    ResponseEntity<StreamingResponseBody> response = exportController.export(5, null);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    response.getBody().writeTo(output);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertEquals("{\"id\":1}\n", output.toString(StandardCharsets.UTF_8));
+    verify(bulkExporter, times(1)).export(eq(5), any());
+  }
+
+  @Test
+  void testExportIsGzippedWhenAccepted() throws IOException {
+    // Act
+    ResponseEntity<StreamingResponseBody> response =
+        exportController.export(0, "deflate, gzip;q=0.8");
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    response.getBody().writeTo(output);
+
+    // Assert
+    assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    try (GZIPInputStream gzip =
+             new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+      assertEquals("{\"id\":1}\n", new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  void testExportIsPlainWhenGzipIsRefused() {
+    // Act
+    ResponseEntity<StreamingResponseBody> response = exportController.export(0, "gzip;q=0");
+
+    // Assert
+    assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+  }
+
+  @Test
+  void testNegativeAfterIsRejected() {
+    // Act
+    ResponseEntity<StreamingResponseBody> response = exportController.export(-1, null);
+
+    // Assert
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    verifyNoInteractions(bulkExporter);
+  }
+}
@@ -0,0 +1,171 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import dev.coms4156.project.kebabcase.repository.BuildingFeatureBuildingMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.BuildingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitFeatureHousingUnitMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.FeatureBitmapIndex;
+import dev.coms4156.project.kebabcase.util.FeatureExpression;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class FeatureBitmapIndexUnitTests {
+
+  @Mock
+  private BuildingRepositoryInterface buildingRepository;
+
+  @Mock
+  private BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository;
+
+  @Mock
+  private HousingUnitRepositoryInterface housingUnitRepository;
+
+  @Mock
+  private HousingUnitFeatureHousingUnitMappingRepositoryInterface unitFeatureMappingRepository;
+
+  private FeatureBitmapIndex featureBitmapIndex;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+
+    // Units 1-6; feature 1 = elevator, 2 = ramp, 3 = stairs only
+    when(housingUnitRepository.findAllIds()).thenReturn(List.of(1, 2, 3, 4, 5, 6));
+    when(unitFeatureMappingRepository.findAllFeatureIdAndHousingUnitId()).thenReturn(List.of(
+        new Object[] {1, 1}, new Object[] {1, 2}, new Object[] {1, 3}, new Object[] {1, 4},
+        new Object[] {2, 2}, new Object[] {2, 3}, new Object[] {2, 5},
+        new Object[] {3, 3}, new Object[] {3, 6}
+    ));
+    when(buildingRepository.findAllIds()).thenReturn(List.of(10, 11));
+    when(buildingFeatureMappingRepository.findAllFeatureIdAndBuildingId())
+        .thenReturn(List.<Object[]>of(new Object[] {1, 10}));
+
+    featureBitmapIndex = newIndex(Duration.ofMinutes(5));
+  }
+
+  private FeatureBitmapIndex newIndex(Duration maxAge) {
+    return new FeatureBitmapIndex(buildingRepository, buildingFeatureMappingRepository,
+        housingUnitRepository, unitFeatureMappingRepository, maxAge);
+  }
+
+  private RoaringBitmap searchUnits(String expression) {
+    return featureBitmapIndex.searchHousingUnits(FeatureExpression.parse(expression));
+  }
+
+  @Test
+  void testBooleanOperators() {
+    assertEquals(RoaringBitmap.bitmapOf(2), searchUnits("1 AND 2 AND NOT 3"));
+    assertEquals(RoaringBitmap.bitmapOf(1, 2, 3, 4, 5), searchUnits("1 OR 2"));
+    assertEquals(RoaringBitmap.bitmapOf(5, 6), searchUnits("NOT 1"));
+    assertEquals(RoaringBitmap.bitmapOf(3, 5, 6), searchUnits("(2 AND NOT 1) or 3"));
+    assertEquals(RoaringBitmap.bitmapOf(2, 3), searchUnits("1 & 2"));
+    assertEquals(RoaringBitmap.bitmapOf(6), searchUnits("!1 && !2"));
+    assertEquals(RoaringBitmap.bitmapOf(1, 2, 3, 4), searchUnits("1 AND NOT NOT 1"));
+    assertEquals(new RoaringBitmap(), searchUnits("99"));
+    assertEquals(RoaringBitmap.bitmapOf(10), featureBitmapIndex.searchBuildings(
+        FeatureExpression.parse("1")));
+  }
+
+  @Test
+  void testIndexIsLoadedOnce() {
+    searchUnits("1");
+    searchUnits("2 AND 3");
+    searchUnits("NOT 1");
+
+    verify(housingUnitRepository, times(1)).findAllIds();
+    verify(unitFeatureMappingRepository, times(1)).findAllFeatureIdAndHousingUnitId();
+    verify(buildingRepository, never()).findAllIds();
+  }
+
+  @Test
+  void testSearchResultIsACopy() {
+    RoaringBitmap result = searchUnits("1");
+    result.add(100);
+
+    assertEquals(RoaringBitmap.bitmapOf(1, 2, 3, 4), searchUnits("1"));
+  }
+
+  @Test
+  void testWritesUpdateIndexIncrementally() {
+    searchUnits("1");
+
+    featureBitmapIndex.addHousingUnit(7);
+    featureBitmapIndex.addHousingUnitFeature(7, 2);
+    featureBitmapIndex.removeHousingUnitFeature(2, 2);
+
+    assertEquals(RoaringBitmap.bitmapOf(3, 5, 7), searchUnits("2"));
+    assertEquals(RoaringBitmap.bitmapOf(1, 2, 4, 5, 7), searchUnits("NOT (1 AND 2) AND NOT 3"));
+    verify(unitFeatureMappingRepository, times(1)).findAllFeatureIdAndHousingUnitId();
+  }
+
+  @Test
+  void testWritesBeforeLoadAreReadFromDatabase() {
+    featureBitmapIndex.addBuilding(12);
+    featureBitmapIndex.addBuildingFeature(12, 1);
+
+    // The index was not loaded yet, so only the rows returned by the database count
+    assertEquals(RoaringBitmap.bitmapOf(10), featureBitmapIndex.searchBuildings(
+        FeatureExpression.parse("1")));
+  }
+
+  @Test
+  void testIndexIsRebuiltAfterMaxAge() {
+    featureBitmapIndex = newIndex(Duration.ZERO);
+    assertEquals(RoaringBitmap.bitmapOf(10), featureBitmapIndex.searchBuildings(
+        FeatureExpression.parse("1")));
+
+    // Written by another instance
+    when(buildingRepository.findAllIds()).thenReturn(List.of(10, 11, 12));
+    when(buildingFeatureMappingRepository.findAllFeatureIdAndBuildingId())
+        .thenReturn(List.of(new Object[] {1, 10}, new Object[] {1, 12}));
+
+    assertEquals(RoaringBitmap.bitmapOf(10, 12), featureBitmapIndex.searchBuildings(
+        FeatureExpression.parse("1")));
+  }
+
+  @Test
+  void testWritesDuringRebuildAreKept() {
+    featureBitmapIndex = newIndex(Duration.ZERO);
+    searchUnits("2");
+
+    // The rebuild reads the mappings before this instance's write is committed
+    when(unitFeatureMappingRepository.findAllFeatureIdAndHousingUnitId()).thenAnswer(
+        invocation -> {
+          featureBitmapIndex.addHousingUnitFeature(7, 2);
+          return List.of(new Object[] {2, 2}, new Object[] {2, 3}, new Object[] {2, 5});
+        });
+
+    assertEquals(RoaringBitmap.bitmapOf(2, 3, 5, 7), searchUnits("2"));
+  }
+
+  @Test
+  void testIdsAfter() {
+    RoaringBitmap ids = RoaringBitmap.bitmapOf(2, 4, 6, 8);
+
+    assertEquals(List.of(2, 4), FeatureBitmapIndex.idsAfter(ids, 0, 2));
+    assertEquals(List.of(6, 8), FeatureBitmapIndex.idsAfter(ids, 4, 5));
+    assertEquals(List.of(), FeatureBitmapIndex.idsAfter(ids, 8, 5));
+  }
+
+  @Test
+  void testInvalidExpressions() {
+    for (String expression : new String[] {
+        "", "AND 1", "1 AND", "(1 OR 2", "1 2", "1 XOR 2", "1 AND stairs", "1 ; 2",
+        "99999999999"
+    }) {
+      ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+          () -> FeatureExpression.parse(expression), expression);
+      assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+  }
+}
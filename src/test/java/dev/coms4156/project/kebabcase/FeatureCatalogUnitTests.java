@@ -0,0 +1,159 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import dev.coms4156.project.kebabcase.entity.BuildingFeatureEntity;
+import dev.coms4156.project.kebabcase.entity.HousingUnitFeatureEntity;
+import dev.coms4156.project.kebabcase.repository.BuildingFeatureRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitFeatureRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.FeatureCatalog;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class FeatureCatalogUnitTests {
+
+  @Mock
+  private BuildingFeatureRepositoryInterface buildingFeatureRepository;
+
+  @Mock
+  private HousingUnitFeatureRepositoryInterface housingUnitFeatureRepository;
+
+  private BuildingFeatureEntity elevator;
+  private BuildingFeatureEntity gym;
+  private HousingUnitFeatureEntity balcony;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+
+    elevator = new BuildingFeatureEntity();
+    elevator.setId(1);
+    elevator.setName("Elevator");
+
+    gym = new BuildingFeatureEntity();
+    gym.setId(2);
+    gym.setName("Gym");
+
+    balcony = new HousingUnitFeatureEntity();
+    balcony.setId(1);
+    balcony.setName("Balcony");
+
+    when(buildingFeatureRepository.findAll()).thenReturn(List.of(gym, elevator));
+    when(housingUnitFeatureRepository.findAll()).thenReturn(List.of(balcony));
+  }
+
+  @Test
+  void testLookupsAreServedFromOneSnapshot() {
+    FeatureCatalog catalog = new FeatureCatalog(
+        buildingFeatureRepository, housingUnitFeatureRepository,
+        Duration.ofMinutes(5), Duration.ofMinutes(5)
+    );
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals("Elevator", catalog.findBuildingFeature(1).get().getName());
+      assertEquals("Balcony", catalog.findHousingUnitFeature(1).get().getName());
+      assertEquals(List.of(elevator, gym), catalog.getBuildingFeatures());
+      assertEquals(List.of(balcony), catalog.getHousingUnitFeatures());
+    }
+
+    verify(buildingFeatureRepository, times(1)).findAll();
+    verify(housingUnitFeatureRepository, times(1)).findAll();
+  }
+
+  @Test
+  void testUnknownIdWithinMissRefreshIntervalDoesNotQuery() {
+    FeatureCatalog catalog = new FeatureCatalog(
+        buildingFeatureRepository, housingUnitFeatureRepository,
+        Duration.ofMinutes(5), Duration.ofMinutes(5)
+    );
+
+    assertTrue(catalog.findBuildingFeature(-1).isEmpty());
+    assertTrue(catalog.findHousingUnitFeature(-1).isEmpty());
+    assertTrue(catalog.findBuildingFeature(null).isEmpty());
+
+    verify(buildingFeatureRepository, times(1)).findAll();
+  }
+
+  @Test
+  void testUnknownIdRefreshesSnapshot() {
+    FeatureCatalog catalog = new FeatureCatalog(
+        buildingFeatureRepository, housingUnitFeatureRepository,
+        Duration.ofMinutes(5), Duration.ZERO
+    );
+    assertTrue(catalog.findBuildingFeature(3).isEmpty());
+
+    BuildingFeatureEntity ramps = new BuildingFeatureEntity();
+    ramps.setId(3);
+    ramps.setName("Ramps");
+    when(buildingFeatureRepository.findAll()).thenReturn(List.of(gym, elevator, ramps));
+
+    assertEquals("Ramps", catalog.findBuildingFeature(3).get().getName());
+    assertEquals(3, catalog.getBuildingFeatures().size());
+  }
+
+  @Test
+  void testExpiredSnapshotIsReloaded() {
+    FeatureCatalog catalog = new FeatureCatalog(
+        buildingFeatureRepository, housingUnitFeatureRepository,
+        Duration.ZERO, Duration.ofMinutes(5)
+    );
+
+    catalog.getBuildingFeatures();
+    catalog.getBuildingFeatures();
+
+    verify(buildingFeatureRepository, times(2)).findAll();
+  }
+
+  @Test
+  void testSnapshotListsAreUnmodifiable() {
+    FeatureCatalog catalog = new FeatureCatalog(
+        buildingFeatureRepository, housingUnitFeatureRepository,
+        Duration.ofMinutes(5), Duration.ofMinutes(5)
+    );
+
+    assertThrows(UnsupportedOperationException.class,
+        () -> catalog.getBuildingFeatures().add(new BuildingFeatureEntity()));
+  }
+
+  @Test
+  void testVersionOnlyChangesWithContents() {
+    FeatureCatalog catalog = new FeatureCatalog(
+        buildingFeatureRepository, housingUnitFeatureRepository,
+        Duration.ZERO, Duration.ofMinutes(5)
+    );
+    String version = catalog.getBuildingFeaturesVersion();
+    String unitVersion = catalog.getHousingUnitFeaturesVersion();
+
+    // Reloading the same rows keeps the version
+    assertEquals(version, catalog.getBuildingFeaturesVersion());
+
+    BuildingFeatureEntity renamed = new BuildingFeatureEntity();
+    renamed.setId(2);
+    renamed.setName("Fitness Center");
+    when(buildingFeatureRepository.findAll()).thenReturn(List.of(renamed, elevator));
+
+    assertNotEquals(version, catalog.getBuildingFeaturesVersion());
+    assertEquals(unitVersion, catalog.getHousingUnitFeaturesVersion());
+  }
+
+  @Test
+  void testLastModifiedIsLatestFeature() {
+    OffsetDateTime older = OffsetDateTime.parse("2024-10-01T12:00:00Z");
+    OffsetDateTime newer = OffsetDateTime.parse("2024-10-02T12:00:00Z");
+    elevator.setModifiedDatetime(newer);
+    gym.setModifiedDatetime(older);
+    FeatureCatalog catalog = new FeatureCatalog(
+        buildingFeatureRepository, housingUnitFeatureRepository,
+        Duration.ofMinutes(5), Duration.ofMinutes(5)
+    );
+
+    assertEquals(newer, catalog.getBuildingFeaturesLastModified());
+    assertNull(catalog.getHousingUnitFeaturesLastModified());
+  }
+}
@@ -0,0 +1,194 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import dev.coms4156.project.kebabcase.entity.BuildingFeatureEntity;
+import dev.coms4156.project.kebabcase.entity.HousingUnitEntity;
+import dev.coms4156.project.kebabcase.entity.HousingUnitFeatureEntity;
+import dev.coms4156.project.kebabcase.repository.BuildingFeatureBuildingMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitFeatureHousingUnitMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.BuildingDetailCache;
+import dev.coms4156.project.kebabcase.service.FeatureBitmapIndex;
+import dev.coms4156.project.kebabcase.service.FeatureCatalog;
+import dev.coms4156.project.kebabcase.service.FeatureMappingEngine;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class FeatureMappingEngineUnitTests {
+
+  @Mock
+  private FeatureCatalog featureCatalog;
+
+  @Mock
+  private FeatureBitmapIndex featureBitmapIndex;
+
+  @Mock
+  private BuildingDetailCache buildingDetailCache;
+
+  @Mock
+  private BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository;
+
+  @Mock
+  private HousingUnitFeatureHousingUnitMappingRepositoryInterface unitFeatureMappingRepository;
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private EntityManagerFactory entityManagerFactory;
+
+  @Mock
+  private Cache secondLevelCache;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private FeatureMappingEngine engine;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+
+    // Features 1-100 exist
+    when(featureCatalog.findBuildingFeature(any())).thenAnswer(invocation -> {
+      Integer id = invocation.getArgument(0);
+      return id != null && id >= 1 && id <= 100
+          ? Optional.of(new BuildingFeatureEntity()) : Optional.empty();
+    });
+    when(featureCatalog.findHousingUnitFeature(any())).thenAnswer(invocation -> {
+      Integer id = invocation.getArgument(0);
+      return id != null && id >= 1 && id <= 100
+          ? Optional.of(new HousingUnitFeatureEntity()) : Optional.empty();
+    });
+
+    when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+
+    engine = new FeatureMappingEngine(featureCatalog, featureBitmapIndex, buildingDetailCache,
+        buildingFeatureMappingRepository, unitFeatureMappingRepository, jdbcTemplate,
+        entityManagerFactory, transactionManager);
+  }
+
+  private static List<Integer> range(int from, int to) {
+    return IntStream.rangeClosed(from, to).boxed().collect(Collectors.toList());
+  }
+
+  @Test
+  void testLargeUpdateUsesOneStatementPerStep() {
+    // Arrange: the building has features 1-10 and 60
+    when(buildingFeatureMappingRepository.findBuildingFeatureIdsByBuildingId(7))
+        .thenReturn(List.of(60, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+
+    // Act: add 1-50, remove 60 and 61
+    engine.updateBuildingFeatures(7, range(1, 50), List.of(61, 60));
+
+    // Assert
+    verify(buildingFeatureMappingRepository, times(1)).findBuildingFeatureIdsByBuildingId(7);
+    verify(buildingFeatureMappingRepository, times(1))
+        .insertMappings(eq(7), eq(range(11, 50)), any(OffsetDateTime.class));
+    verify(buildingFeatureMappingRepository, times(1)).deleteMappings(7, List.of(60));
+    verifyNoMoreInteractions(buildingFeatureMappingRepository);
+    verify(transactionManager, times(1)).commit(any());
+
+    verify(featureBitmapIndex, times(40)).addBuildingFeature(eq(7), anyInt());
+    verify(featureBitmapIndex, times(1)).removeBuildingFeature(7, 60);
+    verify(buildingDetailCache, atLeastOnce()).invalidate(7);
+    verify(jdbcTemplate, times(1)).update(
+        eq("UPDATE buildings SET modified_datetime = ? WHERE id = ?"), any(Timestamp.class),
+        eq(7));
+    verify(secondLevelCache, times(1)).evict(BuildingEntity.class, 7);
+  }
+
+  @Test
+  void testInvalidFeaturesAreReturnedInOrder() {
+    // Act
+    List<Integer> invalid = List.copyOf(
+        engine.updateHousingUnitFeatures(3, List.of(-5, 200, -5), List.of(0)));
+
+    // Assert
+    assertEquals(List.of(-5, 200, 0), invalid);
+    verifyNoInteractions(unitFeatureMappingRepository, transactionManager, featureBitmapIndex);
+  }
+
+  @Test
+  void testUnchangedFeaturesAreNotWritten() {
+    // Arrange: the housing unit already has feature 1 and does not have feature 2
+    when(unitFeatureMappingRepository.findHousingUnitFeatureIdsByHousingUnitId(3))
+        .thenReturn(List.of(1));
+
+    // Act
+    engine.updateHousingUnitFeatures(3, List.of(1), List.of(2));
+
+    // Assert
+    verify(unitFeatureMappingRepository, times(1)).findHousingUnitFeatureIdsByHousingUnitId(3);
+    verify(unitFeatureMappingRepository, never()).insertMappings(anyInt(), any(), any());
+    verify(unitFeatureMappingRepository, never()).deleteMappings(anyInt(), any());
+    verifyNoInteractions(featureBitmapIndex, jdbcTemplate, secondLevelCache);
+  }
+
+  @Test
+  void testNullListsDoNothing() {
+    // Act
+    assertTrue(engine.updateBuildingFeatures(7, null, null).isEmpty());
+
+    // Assert
+    verifyNoInteractions(buildingFeatureMappingRepository, transactionManager,
+        buildingDetailCache);
+  }
+
+  @Test
+  void testAddingFeaturesToManyBuildingsUsesOneBatch() {
+    // Act
+    Map<Integer, Set<Integer>> invalid = engine.addBuildingFeatures(
+        Map.of(1, List.of(1, 2, 200), 2, List.of(3)));
+
+    // Assert
+    assertEquals(Map.of(1, Set.of(200)), invalid);
+    verify(jdbcTemplate, times(1)).batchUpdate(anyString(), argThat(
+        (List<int[]> pairs) -> pairs.size() == 3), eq(500),
+        any(ParameterizedPreparedStatementSetter.class));
+    verifyNoInteractions(buildingFeatureMappingRepository);
+    verify(featureBitmapIndex, times(3)).addBuildingFeature(anyInt(), anyInt());
+    verify(buildingDetailCache, atLeastOnce()).invalidate(1);
+    verify(buildingDetailCache, atLeastOnce()).invalidate(2);
+    verify(jdbcTemplate, times(1)).batchUpdate(
+        eq("UPDATE buildings SET modified_datetime = ? WHERE id = ?"),
+        argThat((List<Integer> owners) -> Set.copyOf(owners).equals(Set.of(1, 2))), eq(500),
+        any(ParameterizedPreparedStatementSetter.class));
+    verify(secondLevelCache, times(1)).evict(BuildingEntity.class, 1);
+    verify(secondLevelCache, times(1)).evict(BuildingEntity.class, 2);
+  }
+
+  @Test
+  void testChangedHousingUnitIsEvictedFromSecondLevelCache() {
+    // Arrange
+    when(unitFeatureMappingRepository.findHousingUnitFeatureIdsByHousingUnitId(3))
+        .thenReturn(List.of(1));
+
+    // Act
+    engine.updateHousingUnitFeatures(3, null, List.of(1));
+
+    // Assert
+    verify(unitFeatureMappingRepository, times(1)).deleteMappings(3, List.of(1));
+    verify(secondLevelCache, times(1)).evict(HousingUnitEntity.class, 3);
+    verifyNoMoreInteractions(secondLevelCache);
+  }
+}
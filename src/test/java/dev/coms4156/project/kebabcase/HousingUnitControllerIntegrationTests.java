@@ -0,0 +1,228 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import dev.coms4156.project.kebabcase.entity.HousingUnitEntity;
+import dev.coms4156.project.kebabcase.entity.HousingUnitFeatureEntity;
+import dev.coms4156.project.kebabcase.entity.HousingUnitFeatureHousingUnitMappingEntity;
+import dev.coms4156.project.kebabcase.entity.HousingUnitUserMappingEntity;
+import dev.coms4156.project.kebabcase.entity.UserEntity;
+import dev.coms4156.project.kebabcase.repository.BuildingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitFeatureHousingUnitMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitFeatureRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitUserMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.UserRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.FeatureCatalog;
+import java.time.OffsetDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+/**
+ * Guards the housing unit listings against N+1 queries: each listing must send no more SQL
+ * statements for many housing units, each in its own building and mapped to two features,
+ * than for one.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringJUnitConfig
+@Import(QueryCounter.Config.class)
+class HousingUnitControllerIntegrationTests {
+
+  private static final int MANY = 20;
+
+  @Container
+  @ServiceConnection
+  private static final MySQLContainer<?> mysqlContainer = new MySQLContainer<>("mysql:8.0")
+      .withDatabaseName("testdb")
+      .withUsername("testuser")
+      .withPassword("testpass");
+
+  @Autowired
+  private HousingUnitFeatureHousingUnitMappingRepositoryInterface unitFeatureMappingRepository;
+
+  @Autowired
+  private HousingUnitFeatureRepositoryInterface housingUnitFeatureRepository;
+
+  @Autowired
+  private HousingUnitUserMappingRepositoryInterface housingUnitUserMappingRepository;
+
+  @Autowired
+  private HousingUnitRepositoryInterface housingUnitRepository;
+
+  @Autowired
+  private BuildingRepositoryInterface buildingRepository;
+
+  @Autowired
+  private UserRepositoryInterface userRepository;
+
+  @Autowired
+  private FeatureCatalog featureCatalog;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  private HousingUnitFeatureEntity listedFeature;
+
+  private HousingUnitFeatureEntity otherFeature;
+
+  @BeforeEach
+  void setUp() {
+    unitFeatureMappingRepository.deleteAll();
+    housingUnitUserMappingRepository.deleteAll();
+    housingUnitRepository.deleteAll();
+    buildingRepository.deleteAll();
+
+    listedFeature = newFeature("Balcony");
+    otherFeature = newFeature("Dishwasher");
+    featureCatalog.refresh();
+  }
+
+  @Test
+  void testGetAllHousingUnits_QueryCountDoesNotGrowWithHousingUnits() throws Exception {
+    // Arrange
+    newHousingUnits(null, 1);
+    String url = "http://localhost:" + port + "/housing-units";
+
+    // Act
+    int queriesForOne = QueryCounter.countQueries(
+        () -> restTemplate.getForEntity(url, String.class));
+    newHousingUnits(null, MANY);
+    ResponseEntity<String> response = QueryCounter.assertMaxQueries(queriesForOne,
+        () -> restTemplate.getForEntity(url, String.class));
+
+    // Assert
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(objectMapper.readTree(response.getBody())).hasSize(MANY + 1);
+  }
+
+  @Test
+  void testStreamAllHousingUnits_QueryCountDoesNotGrowWithHousingUnits() throws Exception {
+    // Arrange: the response is written on the application task executor
+    newHousingUnits(null, 1);
+    String url = "http://localhost:" + port + "/housing-units?stream=true";
+
+    // Act
+    int queriesForOne = QueryCounter.countQueries(
+        () -> restTemplate.getForEntity(url, String.class));
+    newHousingUnits(null, MANY);
+    ResponseEntity<String> response = QueryCounter.assertMaxQueries(queriesForOne,
+        () -> restTemplate.getForEntity(url, String.class));
+
+    // Assert
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(objectMapper.readTree(response.getBody())).hasSize(MANY + 1);
+  }
+
+  @Test
+  void testGetUserHousingUnits_QueryCountDoesNotGrowWithHousingUnits() throws Exception {
+    // Arrange
+    UserEntity user = new UserEntity();
+    user.setFirstName("John");
+    user.setLastName("Doe");
+    user.setEmailAddress("john.doe." + System.nanoTime() + "@example.com");
+    user = userRepository.save(user);
+    newHousingUnits(user, 1);
+    String url = "http://localhost:" + port + "/user/" + user.getId() + "/housing-units";
+
+    // Act
+    int queriesForOne = QueryCounter.countQueries(
+        () -> restTemplate.getForEntity(url, String.class));
+    newHousingUnits(user, MANY);
+    ResponseEntity<String> response = QueryCounter.assertMaxQueries(queriesForOne,
+        () -> restTemplate.getForEntity(url, String.class));
+
+    // Assert
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(objectMapper.readTree(response.getBody())).hasSize(MANY + 1);
+  }
+
+  @Test
+  void testGetHousingUnitsByFeature_QueryCountDoesNotGrowWithHousingUnits() throws Exception {
+    // Arrange
+    newHousingUnits(null, 1);
+    String url = "http://localhost:" + port + "/housing-unit-feature/" + listedFeature.getId()
+        + "/housing-units";
+
+    // Act
+    int queriesForOne = QueryCounter.countQueries(
+        () -> restTemplate.getForEntity(url, String.class));
+    newHousingUnits(null, MANY);
+    ResponseEntity<String> response = QueryCounter.assertMaxQueries(queriesForOne,
+        () -> restTemplate.getForEntity(url, String.class));
+
+    // Assert
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    JsonNode housingUnits = objectMapper.readTree(response.getBody());
+    assertThat(housingUnits).hasSize(MANY + 1);
+  }
+
+  private HousingUnitFeatureEntity newFeature(String name) {
+    HousingUnitFeatureEntity feature = new HousingUnitFeatureEntity();
+    feature.setName(name + " " + System.nanoTime());
+    feature.setCreatedDatetime(OffsetDateTime.now());
+    feature.setModifiedDatetime(OffsetDateTime.now());
+    return housingUnitFeatureRepository.save(feature);
+  }
+
+  /**
+   * Creates housing units, each in a new building and mapped to both features, and links them
+   * to the user if one is given.
+   */
+  private void newHousingUnits(UserEntity user, int count) {
+    for (int i = 0; i < count; i++) {
+      BuildingEntity building = new BuildingEntity();
+      building.setAddress(i + " Unit St " + System.nanoTime());
+      building.setCity("Testville");
+      building.setState("TS");
+      building.setZipCode("12345");
+      building.setModifiedDatetime(OffsetDateTime.now());
+      building = buildingRepository.save(building);
+
+      HousingUnitEntity housingUnit = new HousingUnitEntity();
+      housingUnit.setBuilding(building);
+      housingUnit.setUnitNumber(String.valueOf(i));
+      housingUnit.setModifiedDatetime(OffsetDateTime.now());
+      housingUnit = housingUnitRepository.save(housingUnit);
+
+      for (HousingUnitFeatureEntity feature : new HousingUnitFeatureEntity[] {
+          listedFeature, otherFeature}) {
+        HousingUnitFeatureHousingUnitMappingEntity mapping =
+            new HousingUnitFeatureHousingUnitMappingEntity();
+        mapping.setHousingUnit(housingUnit);
+        mapping.setHousingUnitFeature(feature);
+        mapping.setCreatedDatetime(OffsetDateTime.now());
+        mapping.setModifiedDatetime(OffsetDateTime.now());
+        unitFeatureMappingRepository.save(mapping);
+      }
+
+      if (user != null) {
+        HousingUnitUserMappingEntity mapping = new HousingUnitUserMappingEntity();
+        mapping.setUser(user);
+        mapping.setHousingUnit(housingUnit);
+        mapping.setCreatedDatetime(OffsetDateTime.now());
+        mapping.setModifiedDatetime(OffsetDateTime.now());
+        housingUnitUserMappingRepository.save(mapping);
+      }
+    }
+  }
+}
@@ -2,14 +2,19 @@ package dev.coms4156.project.kebabcase;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+import dev.coms4156.project.kebabcase.config.PaginationProperties;
 import dev.coms4156.project.kebabcase.controller.HousingUnitController;
 import dev.coms4156.project.kebabcase.entity.BuildingEntity;
 import dev.coms4156.project.kebabcase.entity.BuildingFeatureBuildingMappingEntity;
@@ -22,24 +27,42 @@ import dev.coms4156.project.kebabcase.entity.UserEntity;
 import dev.coms4156.project.kebabcase.repository.BuildingFeatureBuildingMappingRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.BuildingRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.HousingUnitFeatureHousingUnitMappingRepositoryInterface;
-import dev.coms4156.project.kebabcase.repository.HousingUnitFeatureRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.HousingUnitRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.HousingUnitUserMappingRepositoryInterface;
 import dev.coms4156.project.kebabcase.repository.UserRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.BuildingFragmentCache;
+import dev.coms4156.project.kebabcase.service.FeatureBitmapIndex;
+import dev.coms4156.project.kebabcase.service.FeatureCatalog;
+import dev.coms4156.project.kebabcase.service.FeatureMappingEngine;
+import dev.coms4156.project.kebabcase.util.ConditionalRequests;
+import dev.coms4156.project.kebabcase.util.KeysetCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.server.ResponseStatusException;
 
 class HousingUnitControllerUnitTests {
@@ -54,7 +77,13 @@ class HousingUnitControllerUnitTests {
   private BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository;
 
   @Mock
-  private HousingUnitFeatureRepositoryInterface unitFeatureRepository;
+  private FeatureCatalog featureCatalog;
+
+  @Mock
+  private FeatureBitmapIndex featureBitmapIndex;
+
+  @Mock
+  private FeatureMappingEngine featureMappingEngine;
 
   @Mock
   private HousingUnitFeatureHousingUnitMappingRepositoryInterface unitFeatureMappingRepository;
@@ -65,15 +94,39 @@ class HousingUnitControllerUnitTests {
   @Mock
   private UserRepositoryInterface userRepository;
 
+  @Spy
+  private PaginationProperties paginationProperties = new PaginationProperties();
+
+  @Mock
+  private EntityManager entityManager;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
   @Spy
   private ObjectMapper objectMapper = new ObjectMapper();
 
-  @InjectMocks
   private HousingUnitController housingUnitController;
 
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);  // Initialize mocks
+    BuildingFragmentCache buildingFragmentCache = new BuildingFragmentCache(
+        buildingFeatureMappingRepository, featureCatalog, new ObjectMapper(),
+        new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(10));
+    housingUnitController = new HousingUnitController(housingUnitRepository, buildingRepository,
+        buildingFragmentCache, featureCatalog, featureBitmapIndex, featureMappingEngine,
+        unitFeatureMappingRepository, unitUserMappingRepository, userRepository,
+        paginationProperties, entityManager, transactionManager, objectMapper);
+  }
+
+  private static JsonNode serialized(ObjectNode json) {
+    try {
+      ObjectMapper mapper = new ObjectMapper();
+      return mapper.readTree(mapper.writeValueAsString(json));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
   }
 
   @Test
@@ -155,16 +208,189 @@ class HousingUnitControllerUnitTests {
 
     List<HousingUnitEntity> houses = List.of(house1, house2);
 
-    when(housingUnitRepository.findAll()).thenReturn(houses);
-    ResponseEntity<List<ObjectNode>> response = housingUnitController.getAllHousingUnits();
+    when(housingUnitRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(101))).thenReturn(houses);
+    ResponseEntity<List<ObjectNode>> response = housingUnitController.getAllHousingUnits(null, null, "id");
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertNotNull(response.getBody());
     assertEquals(2, response.getBody().size());
-    verify(housingUnitRepository, times(1)).findAll();
+    verify(housingUnitRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0, Limit.of(101));
+  }
+
+  @Test
+  void testGetAllHousingUnitsRepositoryCallsIndependentOfListSize() {
+    // Lazy loads are not visible to mocks; HousingUnitControllerIntegrationTests counts the
+    // statements sent to MySQL
+    for (int unitCount : new int[] {1, 10, 300}) {
+      reset(housingUnitRepository, buildingFeatureMappingRepository, unitFeatureMappingRepository);
+
+      List<HousingUnitEntity> units = new ArrayList<>();
+      List<BuildingFeatureBuildingMappingEntity> buildingFeatureMappings = new ArrayList<>();
+      List<HousingUnitFeatureHousingUnitMappingEntity> unitFeatureMappings = new ArrayList<>();
+
+      BuildingFeatureEntity elevator = new BuildingFeatureEntity();
+      elevator.setId(1);
+      elevator.setName("Elevator");
+      HousingUnitFeatureEntity balcony = new HousingUnitFeatureEntity();
+      balcony.setId(1);
+      balcony.setName("Balcony");
+
+      for (int i = 0; i < unitCount; i++) {
+        BuildingEntity building = new BuildingEntity();
+        building.setId(1000 + i % 7);
+        building.setAddress(i % 7 + " Main St");
+        building.setCity("New York");
+        building.setState("NY");
+        building.setZipCode("10027");
+
+        HousingUnitEntity unit = new HousingUnitEntity();
+        unit.setId(i + 1);
+        unit.setUnitNumber("Unit " + i);
+        unit.setCreatedDatetime(OffsetDateTime.now());
+        unit.setModifiedDatetime(OffsetDateTime.now());
+        unit.setBuilding(building);
+        units.add(unit);
+
+        BuildingFeatureBuildingMappingEntity buildingFeatureMapping =
+            new BuildingFeatureBuildingMappingEntity();
+        buildingFeatureMapping.setBuilding(building);
+        buildingFeatureMapping.setBuildingFeature(elevator);
+        buildingFeatureMappings.add(buildingFeatureMapping);
+
+        HousingUnitFeatureHousingUnitMappingEntity unitFeatureMapping =
+            new HousingUnitFeatureHousingUnitMappingEntity();
+        unitFeatureMapping.setHousingUnit(unit);
+        unitFeatureMapping.setHousingUnitFeature(balcony);
+        unitFeatureMappings.add(unitFeatureMapping);
+      }
+
+      when(housingUnitRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(301))).thenReturn(units);
+      when(buildingFeatureMappingRepository.findByBuildingIn(anyCollection()))
+          .thenReturn(buildingFeatureMappings);
+      when(unitFeatureMappingRepository.findByHousingUnitIn(anyCollection()))
+          .thenReturn(unitFeatureMappings);
+      when(featureCatalog.findBuildingFeature(1)).thenReturn(Optional.of(elevator));
+      when(featureCatalog.findHousingUnitFeature(1)).thenReturn(Optional.of(balcony));
+
+      ResponseEntity<List<ObjectNode>> response =
+          housingUnitController.getAllHousingUnits(null, 300, "id");
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals(unitCount, response.getBody().size());
+      assertEquals("Balcony",
+          response.getBody().get(unitCount - 1).get("housing_unit_features").get(0).asText());
+      verify(housingUnitRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0, Limit.of(301));
+      verify(buildingFeatureMappingRepository, times(1)).findByBuildingIn(anyCollection());
+      verify(unitFeatureMappingRepository, times(1)).findByHousingUnitIn(anyCollection());
+      verify(buildingFeatureMappingRepository, never()).findByBuilding(any());
+      verify(unitFeatureMappingRepository, never()).findByHousingUnit(any());
+    }
   }
 
 
+  @Test
+  void testGetAllHousingUnitsReusesBuildingFragments() throws Exception {
+    // Arrange: a tower of 300 units, listed twice
+    BuildingEntity building = new BuildingEntity()
+        .setId(10)
+        .setAddress("1 Tower Plaza")
+        .setCity("New York")
+        .setState("NY")
+        .setZipCode("10001")
+        .setModifiedDatetime(OffsetDateTime.parse("2024-10-01T12:00:00Z"));
+    List<HousingUnitEntity> units = new ArrayList<>();
+    for (int i = 1; i <= 300; i++) {
+      units.add(new HousingUnitEntity()
+          .setId(i)
+          .setUnitNumber("U" + i)
+          .setCreatedDatetime(OffsetDateTime.now())
+          .setModifiedDatetime(OffsetDateTime.now())
+          .setBuilding(building));
+    }
+    BuildingFeatureEntity elevator = new BuildingFeatureEntity().setId(1).setName("Elevator");
+    BuildingFeatureBuildingMappingEntity mapping = new BuildingFeatureBuildingMappingEntity();
+    mapping.setBuilding(building);
+    mapping.setBuildingFeature(elevator);
+    when(housingUnitRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(301))).thenReturn(units);
+    when(buildingFeatureMappingRepository.findByBuildingIn(anyCollection()))
+        .thenReturn(List.of(mapping));
+    when(featureCatalog.findBuildingFeature(1)).thenReturn(Optional.of(elevator));
+    when(featureCatalog.getBuildingFeaturesVersion()).thenReturn("0123456789abcdef");
+
+    // Act
+    ResponseEntity<List<ObjectNode>> first =
+        housingUnitController.getAllHousingUnits(null, 300, "id");
+    ResponseEntity<List<ObjectNode>> second =
+        housingUnitController.getAllHousingUnits(null, 300, "id");
+
+    // Assert: the building is rendered once and spliced into every unit
+    verify(buildingFeatureMappingRepository, times(1)).findByBuildingIn(anyCollection());
+    JsonNode last = serialized(second.getBody().get(299));
+    assertEquals("1 Tower Plaza", last.get("building").get("address").asText());
+    assertEquals("Elevator", last.get("building").get("features").get(0).asText());
+    assertSame(((POJONode) first.getBody().get(0).get("building")).getPojo(),
+        ((POJONode) second.getBody().get(299).get("building")).getPojo());
+
+    // A new building version is rendered again
+    building.setModifiedDatetime(building.getModifiedDatetime().plusSeconds(1));
+    housingUnitController.getAllHousingUnits(null, 300, "id");
+    verify(buildingFeatureMappingRepository, times(2)).findByBuildingIn(anyCollection());
+  }
+
+  @Test
+  void testStreamAllHousingUnits() throws Exception {
+    // Arrange
+    BuildingEntity building = new BuildingEntity();
+    building.setId(10);
+    building.setAddress("22 Ledges Rd");
+    building.setCity("Cambridge");
+    building.setState("MA");
+    building.setZipCode("02138");
+
+    List<HousingUnitEntity> units = new ArrayList<>();
+    for (int id = 1; id <= 3; id++) {
+      HousingUnitEntity unit = new HousingUnitEntity();
+      unit.setId(id);
+      unit.setUnitNumber("Unit " + id);
+      unit.setCreatedDatetime(OffsetDateTime.now());
+      unit.setModifiedDatetime(OffsetDateTime.now());
+      unit.setBuilding(building);
+      units.add(unit);
+    }
+
+    when(housingUnitRepository.streamAllByOrderByIdAsc()).thenReturn(units.stream());
+
+    // Act
+    ResponseEntity<StreamingResponseBody> response = housingUnitController.streamAllHousingUnits();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    response.getBody().writeTo(outputStream);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    ArrayNode body = (ArrayNode) new ObjectMapper().readTree(outputStream.toByteArray());
+    assertEquals(3, body.size());
+    assertEquals("Unit 3", body.get(2).get("unit_number").asText());
+    assertEquals("Cambridge", body.get(0).get("building").get("city").asText());
+    verify(housingUnitRepository, never()).findAll();
+    verify(unitFeatureMappingRepository, times(1)).findByHousingUnitIn(anyCollection());
+    verify(entityManager, times(1)).clear();
+  }
+
+  @Test
+  void testStreamAllHousingUnitsEmpty() throws Exception {
+    // Arrange
+    when(housingUnitRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.empty());
+
+    // Act
+    ResponseEntity<StreamingResponseBody> response = housingUnitController.streamAllHousingUnits();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    response.getBody().writeTo(outputStream);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("[]", outputStream.toString());
+  }
+
   @Test
   void testGetHousingUnitSuccess() {
     // Arrange
@@ -190,50 +416,31 @@ class HousingUnitControllerUnitTests {
     BuildingFeatureBuildingMappingEntity buildingFeatureMapping = new BuildingFeatureBuildingMappingEntity();
     buildingFeatureMapping.setBuilding(building);
     buildingFeatureMapping.setBuildingFeature(buildingFeature);
-    when(buildingFeatureMappingRepository.findByBuilding(building)).thenReturn(List.of(buildingFeatureMapping));
+    when(buildingFeatureMappingRepository.findByBuildingIn(anyCollection())).thenReturn(List.of(buildingFeatureMapping));
 
     HousingUnitFeatureEntity housingUnitFeature = new HousingUnitFeatureEntity();
     housingUnitFeature.setName("Balcony");
     HousingUnitFeatureHousingUnitMappingEntity housingUnitFeatureMapping = new HousingUnitFeatureHousingUnitMappingEntity();
     housingUnitFeatureMapping.setHousingUnit(housingUnit);
     housingUnitFeatureMapping.setHousingUnitFeature(housingUnitFeature);
-    when(unitFeatureMappingRepository.findByHousingUnit(housingUnit)).thenReturn(List.of(housingUnitFeatureMapping));
-
-    ObjectNode json = mock(ObjectNode.class);
-    ObjectNode buildingJson = mock(ObjectNode.class);
-    ArrayNode buildingFeaturesJson = mock(ArrayNode.class);
-    ArrayNode housingUnitFeaturesJson = mock(ArrayNode.class);
-
-    when(objectMapper.createObjectNode()).thenReturn(json, buildingJson);
+    when(unitFeatureMappingRepository.findByHousingUnitIn(anyCollection())).thenReturn(List.of(housingUnitFeatureMapping));
 
-    // Mock the json structure for housing unit
-    when(json.put(eq("id"), eq(1))).thenReturn(json);
-    when(json.put(eq("unit_number"), eq("101"))).thenReturn(json);
-    when(json.put(eq("created_datetime"), anyString())).thenReturn(json);
-    when(json.put(eq("modified_datetime"), anyString())).thenReturn(json);
-
-    // Mock the json structure for building details
-    when(json.putObject("building")).thenReturn(buildingJson);
-    when(buildingJson.put(eq("id"), eq(10))).thenReturn(buildingJson);
-    when(buildingJson.put(eq("address"), eq("123 Main St"))).thenReturn(buildingJson);
-    when(buildingJson.put(eq("city"), eq("Test City"))).thenReturn(buildingJson);
-    when(buildingJson.put(eq("state"), eq("TS"))).thenReturn(buildingJson);
-    when(buildingJson.put(eq("zip_code"), eq("12345"))).thenReturn(buildingJson);
-
-    // Mock arrays for features
-    when(buildingJson.putArray("features")).thenReturn(buildingFeaturesJson);
-    when(json.putArray("housing_unit_features")).thenReturn(housingUnitFeaturesJson);
-    when(buildingFeaturesJson.add("Gym")).thenReturn(buildingFeaturesJson);
-    when(housingUnitFeaturesJson.add("Balcony")).thenReturn(housingUnitFeaturesJson);
+    when(featureCatalog.findBuildingFeature(any())).thenReturn(Optional.of(buildingFeature));
+    when(featureCatalog.findHousingUnitFeature(any())).thenReturn(Optional.of(housingUnitFeature));
 
     // Act
-    ResponseEntity<?> response = housingUnitController.getHousingUnit(1);
+    ResponseEntity<?> response = housingUnitController.getHousingUnit(1, getRequest("/housing-unit/1"));
 
     // Assert
     assertEquals(HttpStatus.OK, response.getStatusCode());
+    JsonNode json = serialized((ObjectNode) response.getBody());
+    assertEquals("101", json.get("unit_number").asText());
+    assertEquals("123 Main St", json.get("building").get("address").asText());
+    assertEquals("Gym", json.get("building").get("features").get(0).asText());
+    assertEquals("Balcony", json.get("housing_unit_features").get(0).asText());
     verify(housingUnitRepository, times(1)).findById(1);
-    verify(buildingFeatureMappingRepository, times(1)).findByBuilding(building);
-    verify(unitFeatureMappingRepository, times(1)).findByHousingUnit(housingUnit);
+    verify(buildingFeatureMappingRepository, times(1)).findByBuildingIn(anyCollection());
+    verify(unitFeatureMappingRepository, times(1)).findByHousingUnitIn(anyCollection());
   }
 
   @Test
@@ -242,7 +449,7 @@ class HousingUnitControllerUnitTests {
     when(housingUnitRepository.findById(999)).thenReturn(Optional.empty());
 
     // Act
-    ResponseEntity<?> response = housingUnitController.getHousingUnit(999);
+    ResponseEntity<?> response = housingUnitController.getHousingUnit(999, getRequest("/housing-unit/999"));
 
     // Assert
     assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -250,6 +457,61 @@ class HousingUnitControllerUnitTests {
     verify(housingUnitRepository, times(1)).findById(999);
   }
 
+  @Test
+  void testGetHousingUnitNotModified() {
+    // Arrange
+    OffsetDateTime unitModified = OffsetDateTime.parse("2024-10-02T08:30:00Z");
+    OffsetDateTime buildingModified = OffsetDateTime.parse("2024-10-01T12:00:00Z");
+    BuildingEntity building = new BuildingEntity().setId(10).setModifiedDatetime(buildingModified);
+    HousingUnitEntity housingUnit = new HousingUnitEntity()
+        .setId(1)
+        .setUnitNumber("101")
+        .setModifiedDatetime(unitModified)
+        .setBuilding(building);
+    when(housingUnitRepository.findById(1)).thenReturn(Optional.of(housingUnit));
+    when(featureCatalog.getBuildingFeaturesVersion()).thenReturn("0123456789abcdef");
+    when(featureCatalog.getHousingUnitFeaturesVersion()).thenReturn("fedcba9876543210");
+    String etag = ConditionalRequests.weakEtag(1, unitModified, 10, buildingModified,
+        "0123456789abcdef", "fedcba9876543210");
+    MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/housing-unit/1");
+    servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+    // Act
+    ResponseEntity<?> response = housingUnitController.getHousingUnit(
+        1, new ServletWebRequest(servletRequest, new MockHttpServletResponse()));
+
+    // Assert
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertNull(response.getBody());
+    assertEquals(etag, response.getHeaders().getETag());
+    assertEquals(unitModified.toInstant().toEpochMilli(), response.getHeaders().getLastModified());
+    verifyNoInteractions(buildingFeatureMappingRepository, unitFeatureMappingRepository);
+    verify(objectMapper, never()).createObjectNode();
+  }
+
+  @Test
+  void testGetHousingUnitNotModifiedSince() {
+    // Arrange
+    OffsetDateTime modified = OffsetDateTime.parse("2024-10-01T12:00:00Z");
+    BuildingEntity building = new BuildingEntity().setId(10).setModifiedDatetime(modified);
+    HousingUnitEntity housingUnit = new HousingUnitEntity()
+        .setId(1)
+        .setModifiedDatetime(modified)
+        .setBuilding(building);
+    when(housingUnitRepository.findById(1)).thenReturn(Optional.of(housingUnit));
+    MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/housing-unit/1");
+    servletRequest.addHeader(HttpHeaders.IF_MODIFIED_SINCE,
+        modified.toInstant().toEpochMilli());
+
+    // Act
+    ResponseEntity<?> response = housingUnitController.getHousingUnit(
+        1, new ServletWebRequest(servletRequest, new MockHttpServletResponse()));
+
+    // Assert
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    verifyNoInteractions(buildingFeatureMappingRepository, unitFeatureMappingRepository);
+  }
+
   @Test
   void testGetHousingUnitWithNoFeatures() {
     // Arrange
@@ -269,41 +531,21 @@ class HousingUnitControllerUnitTests {
 
     // Mock repository and empty features
     when(housingUnitRepository.findById(1)).thenReturn(Optional.of(housingUnit));
-    when(buildingFeatureMappingRepository.findByBuilding(building)).thenReturn(List.of());
-    when(unitFeatureMappingRepository.findByHousingUnit(housingUnit)).thenReturn(List.of());
-
-    ObjectNode json = mock(ObjectNode.class);
-    ObjectNode buildingJson = mock(ObjectNode.class);
-    ArrayNode buildingFeaturesJson = mock(ArrayNode.class);
-    ArrayNode housingUnitFeaturesJson = mock(ArrayNode.class);
-
-    // Mock the ObjectMapper to return these nodes
-    when(objectMapper.createObjectNode()).thenReturn(json, buildingJson);
-    
-    // Mock the put methods on ObjectNode with matchers
-    when(json.put(eq("id"), eq(1))).thenReturn(json);
-    when(json.put(eq("unit_number"), eq("101"))).thenReturn(json);
-    when(json.put(eq("created_datetime"), anyString())).thenReturn(json);
-    when(json.put(eq("modified_datetime"), anyString())).thenReturn(json);
-    
-    when(json.putObject(eq("building"))).thenReturn(buildingJson);
-    when(buildingJson.put(eq("id"), eq(10))).thenReturn(buildingJson);
-    when(buildingJson.put(eq("address"), eq("123 Main St"))).thenReturn(buildingJson);
-    when(buildingJson.put(eq("city"), eq("Test City"))).thenReturn(buildingJson);
-    when(buildingJson.put(eq("state"), eq("TS"))).thenReturn(buildingJson);
-    when(buildingJson.put(eq("zip_code"), eq("12345"))).thenReturn(buildingJson);
-    
-    when(buildingJson.putArray(eq("features"))).thenReturn(buildingFeaturesJson);
-    when(json.putArray(eq("housing_unit_features"))).thenReturn(housingUnitFeaturesJson);
-
-    // Act
-    ResponseEntity<?> response = housingUnitController.getHousingUnit(1);
+    when(buildingFeatureMappingRepository.findByBuildingIn(anyCollection())).thenReturn(List.of());
+    when(unitFeatureMappingRepository.findByHousingUnitIn(anyCollection())).thenReturn(List.of());
+
+    // Act
+    ResponseEntity<?> response = housingUnitController.getHousingUnit(1, getRequest("/housing-unit/1"));
 
     // Assert
     assertEquals(HttpStatus.OK, response.getStatusCode());
+    JsonNode json = serialized((ObjectNode) response.getBody());
+    assertEquals("Test City", json.get("building").get("city").asText());
+    assertTrue(json.get("building").get("features").isEmpty());
+    assertTrue(json.get("housing_unit_features").isEmpty());
     verify(housingUnitRepository, times(1)).findById(1);
-    verify(buildingFeatureMappingRepository, times(1)).findByBuilding(building);
-    verify(unitFeatureMappingRepository, times(1)).findByHousingUnit(housingUnit);
+    verify(buildingFeatureMappingRepository, times(1)).findByBuildingIn(anyCollection());
+    verify(unitFeatureMappingRepository, times(1)).findByHousingUnitIn(anyCollection());
   }
 
   @Test
@@ -391,10 +633,9 @@ class HousingUnitControllerUnitTests {
     // Mock saving the new housing unit
     when(housingUnitRepository.save(any(HousingUnitEntity.class))).thenReturn(unit);
 
-    // Mock feature lookup: feature IDs 1 and 2 exist, but -1 does not
-    when(unitFeatureRepository.findById(1)).thenReturn(Optional.of(new HousingUnitFeatureEntity()));
-    when(unitFeatureRepository.findById(2)).thenReturn(Optional.of(new HousingUnitFeatureEntity()));
-    when(unitFeatureRepository.findById(-1)).thenReturn(Optional.empty());  // Feature -1 is missing
+    // Mock feature mapping: feature IDs 1 and 2 exist, but -1 does not
+    when(featureMappingEngine.updateHousingUnitFeatures(unit.getId(), features, null))
+        .thenReturn(Set.of(-1));  // Feature -1 is missing
 
     // Act
     ResponseEntity<?> result = housingUnitController.createBuilding(1, "Unit 101", features);
@@ -403,7 +644,7 @@ class HousingUnitControllerUnitTests {
     assertEquals(HttpStatus.PARTIAL_CONTENT, result.getStatusCode());
     assertTrue(result.getBody().toString().contains("Building created, but the following feature IDs were not found: [-1]"));
     verify(housingUnitRepository, times(1)).save(any(HousingUnitEntity.class));
-    verify(unitFeatureRepository, times(3)).findById(anyInt());  // Ensures each feature ID is checked
+    verify(featureMappingEngine, times(1)).updateHousingUnitFeatures(unit.getId(), features, null);
   }
 
   @Test
@@ -462,8 +703,8 @@ class HousingUnitControllerUnitTests {
 
     List<Integer> addFeatures = List.of(1, -1);  // Assume feature ID -1 is invalid
 
-    when(unitFeatureRepository.findById(1)).thenReturn(Optional.of(new HousingUnitFeatureEntity()));
-    when(unitFeatureRepository.findById(-1)).thenReturn(Optional.empty()); // Feature -1 not found
+    when(featureMappingEngine.updateHousingUnitFeatures(1, addFeatures, null))
+        .thenReturn(Set.of(-1)); // Feature -1 not found
 
     // Act
     ResponseEntity<?> result = housingUnitController.updateBuilding(1, "New Unit 102", addFeatures, null);
@@ -483,8 +724,8 @@ class HousingUnitControllerUnitTests {
 
     List<Integer> addFeatures = List.of(-1, -2); // Assume all IDs are invalid
 
-    when(unitFeatureRepository.findById(-1)).thenReturn(Optional.empty());
-    when(unitFeatureRepository.findById(-2)).thenReturn(Optional.empty());
+    when(featureMappingEngine.updateHousingUnitFeatures(1, addFeatures, null))
+        .thenReturn(Set.of(-1, -2));
 
     // Act
     ResponseEntity<?> result = housingUnitController.updateBuilding(1, null, addFeatures, null);
@@ -503,13 +744,7 @@ class HousingUnitControllerUnitTests {
     when(housingUnitRepository.findById(1)).thenReturn(Optional.of(unit));
 
     List<Integer> addFeatures = List.of(1, 2);
-    HousingUnitFeatureEntity feature1 = new HousingUnitFeatureEntity();
-    HousingUnitFeatureEntity feature2 = new HousingUnitFeatureEntity();
-
-    when(unitFeatureRepository.findById(1)).thenReturn(Optional.of(feature1));
-    when(unitFeatureRepository.findById(2)).thenReturn(Optional.of(feature2));
-    when(unitFeatureMappingRepository.findByHousingUnitAndHousingUnitFeature(unit, feature1)).thenReturn(Optional.empty());
-    when(unitFeatureMappingRepository.findByHousingUnitAndHousingUnitFeature(unit, feature2)).thenReturn(Optional.empty());
+    when(featureMappingEngine.updateHousingUnitFeatures(1, addFeatures, null)).thenReturn(Set.of());
 
     // Act
     ResponseEntity<?> result = housingUnitController.updateBuilding(1, "New Unit 102", addFeatures, null);
@@ -517,6 +752,7 @@ class HousingUnitControllerUnitTests {
     // Assert
     assertEquals(HttpStatus.OK, result.getStatusCode());
     assertEquals("Housing unit info has been successfully updated!", result.getBody());
+    verify(featureMappingEngine, times(1)).updateHousingUnitFeatures(1, addFeatures, null);
   }
 
   @Test
@@ -587,9 +823,11 @@ class HousingUnitControllerUnitTests {
     mapping2.setHousingUnit(housingUnit2);
 
     HousingUnitFeatureEntity feature1 = new HousingUnitFeatureEntity();
+    feature1.setId(1);
     feature1.setName("Ground Floor");
 
     HousingUnitFeatureEntity feature2 = new HousingUnitFeatureEntity();
+    feature2.setId(2);
     feature2.setName("Wheelchair Accessible");
 
     HousingUnitFeatureHousingUnitMappingEntity featureMapping1 = new HousingUnitFeatureHousingUnitMappingEntity();
@@ -601,12 +839,15 @@ class HousingUnitControllerUnitTests {
     featureMapping2.setHousingUnitFeature(feature2);
 
     BuildingFeatureEntity buildingFeature1 = new BuildingFeatureEntity();
+    buildingFeature1.setId(1);
     buildingFeature1.setName("Near Hospital");
 
     BuildingFeatureEntity buildingFeature2 = new BuildingFeatureEntity();
+    buildingFeature2.setId(2);
     buildingFeature2.setName("Ramps");
 
     BuildingFeatureEntity buildingFeature3 = new BuildingFeatureEntity();
+    buildingFeature3.setId(3);
     buildingFeature3.setName("Elevator");
 
     BuildingFeatureBuildingMappingEntity buildingFeatureMapping1 = new BuildingFeatureBuildingMappingEntity();
@@ -623,10 +864,15 @@ class HousingUnitControllerUnitTests {
 
     // Setup repository responses
     when(unitUserMappingRepository.findByUserId(userId)).thenReturn(List.of(mapping1, mapping2));
-    when(unitFeatureMappingRepository.findByHousingUnit(housingUnit1)).thenReturn(List.of(featureMapping1));
-    when(unitFeatureMappingRepository.findByHousingUnit(housingUnit2)).thenReturn(List.of(featureMapping2));
-    when(buildingFeatureMappingRepository.findByBuilding(building1)).thenReturn(List.of(buildingFeatureMapping1));
-    when(buildingFeatureMappingRepository.findByBuilding(building2)).thenReturn(List.of(buildingFeatureMapping2, buildingFeatureMapping3));
+    when(unitFeatureMappingRepository.findByHousingUnitIn(anyCollection()))
+        .thenReturn(List.of(featureMapping1, featureMapping2));
+    when(buildingFeatureMappingRepository.findByBuildingIn(anyCollection()))
+        .thenReturn(List.of(buildingFeatureMapping1, buildingFeatureMapping2, buildingFeatureMapping3));
+    when(featureCatalog.findHousingUnitFeature(1)).thenReturn(Optional.of(feature1));
+    when(featureCatalog.findHousingUnitFeature(2)).thenReturn(Optional.of(feature2));
+    when(featureCatalog.findBuildingFeature(1)).thenReturn(Optional.of(buildingFeature1));
+    when(featureCatalog.findBuildingFeature(2)).thenReturn(Optional.of(buildingFeature2));
+    when(featureCatalog.findBuildingFeature(3)).thenReturn(Optional.of(buildingFeature3));
 
     // Act
     ResponseEntity<?> response = housingUnitController.getUserHousingUnits(userId);
@@ -638,11 +884,11 @@ class HousingUnitControllerUnitTests {
     assertEquals(2, responseBody.size());
 
     // Create a map of response JSON objects by their "id"
-    Map<Integer, ObjectNode> housingUnitsById = responseBody.stream()
-        .collect(Collectors.toMap(unit -> unit.get("id").asInt(), unit -> unit));
+    Map<Integer, JsonNode> housingUnitsById = responseBody.stream()
+        .collect(Collectors.toMap(unit -> unit.get("id").asInt(), unit -> serialized(unit)));
 
     // Assert details of unit with id 3
-    ObjectNode unit1Json = housingUnitsById.get(3);
+    JsonNode unit1Json = housingUnitsById.get(3);
     assertNotNull(unit1Json);
     assertEquals("2A", unit1Json.get("unit_number").asText());
     assertEquals("2024-02-23T10:00:00Z", unit1Json.get("created_datetime").asText());
@@ -655,7 +901,7 @@ class HousingUnitControllerUnitTests {
     assertEquals("Ground Floor", unit1Json.get("housing_unit_features").get(0).asText());
 
     // Assert details of unit with id 6
-    ObjectNode unit2Json = housingUnitsById.get(6);
+    JsonNode unit2Json = housingUnitsById.get(6);
     assertNotNull(unit2Json);
     assertEquals("4A", unit2Json.get("unit_number").asText());
     assertEquals("2024-07-08T10:00:00Z", unit2Json.get("created_datetime").asText());
@@ -906,4 +1152,72 @@ class HousingUnitControllerUnitTests {
 
   }
 
+  @Test
+  void testSearchHousingUnitsByFeatureExpression() {
+    // Arrange
+    when(featureCatalog.findHousingUnitFeature(anyInt()))
+        .thenReturn(Optional.of(new HousingUnitFeatureEntity()));
+    when(featureBitmapIndex.searchHousingUnits(any())).thenReturn(RoaringBitmap.bitmapOf(3, 8));
+
+    BuildingEntity building = new BuildingEntity();
+    building.setId(1);
+    List<HousingUnitEntity> units = new ArrayList<>();
+    for (int id : new int[] {3, 8}) {
+      HousingUnitEntity unit = new HousingUnitEntity();
+      unit.setId(id);
+      unit.setUnitNumber("Unit " + id);
+      unit.setCreatedDatetime(OffsetDateTime.now());
+      unit.setModifiedDatetime(OffsetDateTime.now());
+      unit.setBuilding(building);
+      units.add(unit);
+    }
+    when(housingUnitRepository.findByIdInOrderByIdAsc(List.of(3, 8))).thenReturn(units);
+
+    // Act
+    ResponseEntity<?> response =
+        housingUnitController.searchHousingUnits("(1 OR 2) AND NOT 4", null, null);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    List<ObjectNode> body = (List<ObjectNode>) response.getBody();
+    assertEquals(2, body.size());
+    assertEquals(3, body.get(0).get("id").asInt());
+    assertEquals(8, body.get(1).get("id").asInt());
+    assertNull(response.getHeaders().getFirst(KeysetCursor.NEXT_CURSOR_HEADER));
+    verify(unitFeatureMappingRepository, never()).findByHousingUnitFeatureId(anyInt());
+  }
+
+  @Test
+  void testSearchHousingUnitsContinuesAfterCursor() {
+    // Arrange
+    when(featureCatalog.findHousingUnitFeature(1))
+        .thenReturn(Optional.of(new HousingUnitFeatureEntity()));
+    when(featureBitmapIndex.searchHousingUnits(any())).thenReturn(RoaringBitmap.bitmapOf(3, 8));
+    String cursor = KeysetCursor.after(KeysetCursor.SORT_ID, 3, null).encode();
+
+    // Act
+    ResponseEntity<?> response = housingUnitController.searchHousingUnits("1", cursor, null);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    verify(housingUnitRepository, times(1)).findByIdInOrderByIdAsc(List.of(8));
+  }
+
+  @Test
+  void testSearchHousingUnitsUnknownFeature() {
+    // Arrange
+    when(featureCatalog.findHousingUnitFeature(7)).thenReturn(Optional.empty());
+
+    // Act
+    ResponseEntity<?> response = housingUnitController.searchHousingUnits("NOT 7", null, null);
+
+    // Assert
+    assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    verify(featureBitmapIndex, never()).searchHousingUnits(any());
+  }
+
+  private static ServletWebRequest getRequest(String path) {
+    return new ServletWebRequest(new MockHttpServletRequest("GET", path),
+        new MockHttpServletResponse());
+  }
 }
@@ -5,7 +5,8 @@ import static org.mockito.Mockito.*;
 
 import dev.coms4156.project.kebabcase.controller.HousingUnitFeatureController;
 import dev.coms4156.project.kebabcase.entity.HousingUnitFeatureEntity;
-import dev.coms4156.project.kebabcase.repository.HousingUnitFeatureRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.FeatureCatalog;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,13 +14,17 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 class HousingUnitFeatureControllerUnitTests {
 
   @Mock
-  private HousingUnitFeatureRepositoryInterface housingUnitFeatureRepository;
+  private FeatureCatalog featureCatalog;
 
   @InjectMocks
   private HousingUnitFeatureController housingUnitFeatureController;
@@ -44,27 +49,63 @@ class HousingUnitFeatureControllerUnitTests {
     features.add(feature);
     features.add(feature2);
 
-    when(housingUnitFeatureRepository.findAll()).thenReturn(features);
+    when(featureCatalog.getHousingUnitFeatures()).thenReturn(features);
 
     ResponseEntity<List<HousingUnitFeatureEntity>> response =
-        housingUnitFeatureController.getHousingUnitFeatures();
+        housingUnitFeatureController.getHousingUnitFeatures(request());
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertNotNull(response.getBody());
     assertEquals(2, response.getBody().size());
-    verify(housingUnitFeatureRepository, times(1)).findAll();
+    verify(featureCatalog, times(1)).getHousingUnitFeatures();
   }
 
   @Test
   void testGetBuildingFeaturesFailure() {
 
-    when(housingUnitFeatureRepository.findAll()).thenReturn(List.of());
+    when(featureCatalog.getHousingUnitFeatures()).thenReturn(List.of());
 
     ResponseEntity<List<HousingUnitFeatureEntity>> response =
-            housingUnitFeatureController.getHousingUnitFeatures();
+            housingUnitFeatureController.getHousingUnitFeatures(request());
 
     assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
     assertNull(response.getBody());
-    verify(housingUnitFeatureRepository, times(1)).findAll();
+    verify(featureCatalog, times(1)).getHousingUnitFeatures();
   }
 
+  @Test
+  void testGetHousingUnitFeaturesNotModified() {
+    when(featureCatalog.getHousingUnitFeaturesVersion()).thenReturn("0123456789abcdef");
+    MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/housing-unit-features");
+    servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"0123456789abcdef\"");
+
+    ResponseEntity<List<HousingUnitFeatureEntity>> response = housingUnitFeatureController.getHousingUnitFeatures(
+        new ServletWebRequest(servletRequest, new MockHttpServletResponse()));
+
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertNull(response.getBody());
+    assertEquals("W/\"0123456789abcdef\"", response.getHeaders().getETag());
+    verify(featureCatalog, never()).getHousingUnitFeatures();
+  }
+
+  @Test
+  void testGetHousingUnitFeaturesReturnsValidators() {
+    HousingUnitFeatureEntity feature = new HousingUnitFeatureEntity();
+    feature.setId(1);
+    feature.setName("Balcony");
+    OffsetDateTime modified = OffsetDateTime.parse("2024-10-01T12:00:00Z");
+    when(featureCatalog.getHousingUnitFeatures()).thenReturn(List.of(feature));
+    when(featureCatalog.getHousingUnitFeaturesVersion()).thenReturn("0123456789abcdef");
+    when(featureCatalog.getHousingUnitFeaturesLastModified()).thenReturn(modified);
+
+    ResponseEntity<List<HousingUnitFeatureEntity>> response = housingUnitFeatureController.getHousingUnitFeatures(request());
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("W/\"0123456789abcdef\"", response.getHeaders().getETag());
+    assertEquals(modified.toInstant().toEpochMilli(), response.getHeaders().getLastModified());
+  }
+
+  private static ServletWebRequest request() {
+    return new ServletWebRequest(new MockHttpServletRequest("GET", "/housing-unit-features"),
+        new MockHttpServletResponse());
+  }
 }
@@ -0,0 +1,66 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import dev.coms4156.project.kebabcase.controller.ImportController;
+import dev.coms4156.project.kebabcase.service.BulkImporter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+class ImportControllerUnitTests {
+
+  @Mock
+  private BulkImporter bulkImporter;
+
+  @InjectMocks
+  private ImportController importController;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  @Test
+  void testImportNdjsonStreamsTheReport() throws IOException {
+    // Arrange
+    InputStream body = new ByteArrayInputStream(new byte[0]);
+    ByteArrayOutputStream report = new ByteArrayOutputStream();
+
+    // Act
+    ResponseEntity<StreamingResponseBody> response = importController.importNdjson(body);
+    response.getBody().writeTo(report);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+    verify(bulkImporter, times(1)).importNdjson(body, report);
+  }
+
+  @Test
+  void testImportCsvStreamsTheReport() throws IOException {
+    // Arrange
+    InputStream body = new ByteArrayInputStream(new byte[0]);
+    ByteArrayOutputStream report = new ByteArrayOutputStream();
+
+    // Act
+    ResponseEntity<StreamingResponseBody> response = importController.importCsv(body);
+    response.getBody().writeTo(report);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+    verify(bulkImporter, times(1)).importCsv(body, report);
+  }
+}
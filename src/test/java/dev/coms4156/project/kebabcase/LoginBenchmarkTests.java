@@ -0,0 +1,101 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.coms4156.project.kebabcase.entity.ClientEntity;
+import dev.coms4156.project.kebabcase.repository.ClientRepositoryInterface;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Measures logins per second under concurrent load. Run with {@code mvn test -Pbenchmark}.
+ *
+ * <p>Many clients log in at once, more than there are password hashing threads and queue
+ * slots, so some logins are expected to be turned away with HTTP 503. The benchmark reports
+ * the rate of successful logins and how many were turned away.
+ * </p>
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+class LoginBenchmarkTests {
+
+  private static final int CLIENTS = 64;
+  private static final int LOGINS_PER_CLIENT = 50;
+
+  @Container
+  @ServiceConnection
+  private static final MySQLContainer<?> mysqlContainer = new MySQLContainer<>("mysql:8.0")
+      .withDatabaseName("testdb")
+      .withUsername("testuser")
+      .withPassword("testpass");
+
+  @Autowired
+  private ClientRepositoryInterface clientRepository;
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  @Test
+  void benchmarkConcurrentLogins() throws Exception {
+    // Arrange
+    ClientEntity client = new ClientEntity();
+    client.setName("BenchClient");
+    client.setCreatedDatetime(OffsetDateTime.now());
+    client.setModifiedDatetime(OffsetDateTime.now());
+    clientRepository.save(client);
+
+    ResponseEntity<String> created = restTemplate.postForEntity(
+        "/users?firstName=Bench&lastName=Mark&emailAddress=bench@mark.com&password=secret",
+        null, String.class);
+    assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+    String login = "/authenticate?email=bench@mark.com&password=secret&clientName=BenchClient";
+    AtomicInteger succeeded = new AtomicInteger();
+    AtomicInteger rejected = new AtomicInteger();
+
+    // Act
+    ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+    long start = System.nanoTime();
+    List<Future<?>> runs = new ArrayList<>();
+    for (int i = 0; i < CLIENTS; i++) {
+      runs.add(clients.submit(() -> {
+        for (int j = 0; j < LOGINS_PER_CLIENT; j++) {
+          HttpStatus status = HttpStatus.valueOf(
+              restTemplate.postForEntity(login, null, String.class).getStatusCode().value());
+          if (status == HttpStatus.OK) {
+            succeeded.incrementAndGet();
+          } else if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+            rejected.incrementAndGet();
+          }
+        }
+      }));
+    }
+    for (Future<?> run : runs) {
+      run.get();
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    clients.shutdown();
+
+    // Assert
+    System.out.printf("Logins: %.0f/sec, %d succeeded, %d turned away with 503%n",
+        succeeded.get() / seconds, succeeded.get(), rejected.get());
+    assertThat(succeeded.get() + rejected.get()).isEqualTo(CLIENTS * LOGINS_PER_CLIENT);
+  }
+}
@@ -0,0 +1,127 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import dev.coms4156.project.kebabcase.entity.BuildingFeatureBuildingMappingEntity;
+import dev.coms4156.project.kebabcase.entity.BuildingFeatureEntity;
+import dev.coms4156.project.kebabcase.entity.BuildingUserMappingEntity;
+import dev.coms4156.project.kebabcase.entity.UserEntity;
+import dev.coms4156.project.kebabcase.repository.BuildingFeatureBuildingMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.BuildingFeatureRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.BuildingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.BuildingUserMappingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.UserRepositoryInterface;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Compares mapping inserts with IDENTITY IDs against pooled table IDs. Run with
+ * {@code mvn test -Pbenchmark}.
+ *
+ * <p>Building feature mappings still use IDENTITY, so Hibernate inserts them one row at a time.
+ * Building user mappings have the same shape but take pooled IDs, so their inserts are batched
+ * and rewritten into multi-row statements by the driver.
+ * </p>
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Testcontainers
+class MappingInsertBenchmarkTests {
+
+  private static final int ROWS = 5000;
+
+  @Container
+  @ServiceConnection
+  private static final MySQLContainer<?> mysqlContainer = new MySQLContainer<>("mysql:8.0")
+      .withDatabaseName("testdb")
+      .withUsername("testuser")
+      .withPassword("testpass");
+
+  @Autowired
+  private BuildingRepositoryInterface buildingRepository;
+
+  @Autowired
+  private BuildingFeatureRepositoryInterface buildingFeatureRepository;
+
+  @Autowired
+  private BuildingFeatureBuildingMappingRepositoryInterface buildingFeatureMappingRepository;
+
+  @Autowired
+  private UserRepositoryInterface userRepository;
+
+  @Autowired
+  private BuildingUserMappingRepositoryInterface buildingUserMappingRepository;
+
+  @Test
+  void benchmarkMappingInserts() {
+    // Arrange
+    BuildingFeatureEntity elevator = new BuildingFeatureEntity();
+    elevator.setName("Elevator");
+    BuildingFeatureEntity feature = buildingFeatureRepository.save(elevator);
+
+    UserEntity benchUser = new UserEntity();
+    benchUser.setFirstName("Bench");
+    benchUser.setLastName("Mark");
+    benchUser.setEmailAddress("bench@mark.com");
+    UserEntity user = userRepository.save(benchUser);
+
+    List<BuildingEntity> buildings = new ArrayList<>();
+    for (int i = 0; i < ROWS; i++) {
+      BuildingEntity building = new BuildingEntity();
+      building.setAddress(i + " Benchmark St");
+      building.setCity("New York");
+      building.setState("NY");
+      building.setZipCode("10027");
+      buildings.add(building);
+    }
+    buildingRepository.saveAll(buildings);
+
+    // Act
+    double identityRowsPerSecond = rowsPerSecond(() -> {
+      List<BuildingFeatureBuildingMappingEntity> mappings = new ArrayList<>();
+      for (BuildingEntity building : buildings) {
+        mappings.add(new BuildingFeatureBuildingMappingEntity()
+            .setBuilding(building)
+            .setBuildingFeature(feature)
+            .setCreatedDatetime(OffsetDateTime.now())
+            .setModifiedDatetime(OffsetDateTime.now()));
+      }
+      return buildingFeatureMappingRepository.saveAll(mappings).size();
+    });
+
+    double pooledRowsPerSecond = rowsPerSecond(() -> {
+      List<BuildingUserMappingEntity> mappings = new ArrayList<>();
+      for (BuildingEntity building : buildings) {
+        mappings.add(new BuildingUserMappingEntity()
+            .setBuilding(building)
+            .setUser(user)
+            .setCreatedDatetime(OffsetDateTime.now())
+            .setModifiedDatetime(OffsetDateTime.now()));
+      }
+      return buildingUserMappingRepository.saveAll(mappings).size();
+    });
+
+    // Assert
+    System.out.printf("IDENTITY mapping inserts: %.0f rows/sec%n", identityRowsPerSecond);
+    System.out.printf("Pooled mapping inserts:   %.0f rows/sec%n", pooledRowsPerSecond);
+    assertThat(buildingFeatureMappingRepository.count()).isEqualTo(ROWS);
+    assertThat(buildingUserMappingRepository.count()).isEqualTo(ROWS);
+  }
+
+  private static double rowsPerSecond(Supplier<Integer> insert) {
+    long start = System.nanoTime();
+    int rows = insert.get();
+    return rows / ((System.nanoTime() - start) / 1e9);
+  }
+}
@@ -0,0 +1,91 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.coms4156.project.kebabcase.config.MetricsConfig;
+import dev.coms4156.project.kebabcase.controller.IndexController;
+import dev.coms4156.project.kebabcase.repository.TokenRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.UserRepositoryInterface;
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+class MetricsConfigUnitTests {
+
+  private static final String METRIC_NAME = "spring.data.repository.invocations";
+
+  private final MetricsConfig metricsConfig = new MetricsConfig();
+
+  @Test
+  void testRequestIsTaggedWithHandlerMethod() throws Exception {
+    // Arrange
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, new HandlerMethod(
+        new IndexController(), IndexController.class.getMethod("index")));
+    ServerRequestObservationContext context =
+        new ServerRequestObservationContext(request, new MockHttpServletResponse());
+    ServerRequestObservationConvention convention =
+        metricsConfig.handlerRequestObservationConvention();
+
+    // Act
+    KeyValue handler = convention.getLowCardinalityKeyValues(context).stream()
+        .filter(keyValue -> keyValue.getKey().equals(MetricsConfig.HANDLER_TAG))
+        .findFirst()
+        .orElseThrow();
+
+    // Assert
+    assertEquals("IndexController.index", handler.getValue());
+    assertEquals("http.server.requests", convention.getName());
+  }
+
+  @Test
+  void testRequestWithoutHandlerIsTaggedNone() {
+    // Arrange
+    ServerRequestObservationContext context = new ServerRequestObservationContext(
+        new MockHttpServletRequest("GET", "/missing"), new MockHttpServletResponse());
+
+    // Act
+    String handler = metricsConfig.handlerRequestObservationConvention()
+        .getLowCardinalityKeyValues(context).stream()
+        .filter(keyValue -> keyValue.getKey().equals(MetricsConfig.HANDLER_TAG))
+        .findFirst()
+        .orElseThrow()
+        .getValue();
+
+    // Assert
+    assertEquals("none", handler);
+  }
+
+  @Test
+  void testRepositoryTimersAreRegisteredBeforeFirstCall() {
+    // Arrange
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // Act
+    MetricsConfig.registerRepositoryTimers(registry, METRIC_NAME,
+        List.of(UserRepositoryInterface.class, TokenRepositoryInterface.class));
+
+    // Assert
+    Timer findByEmailAddress = registry.find(METRIC_NAME)
+        .tag("repository", "UserRepositoryInterface")
+        .tag("method", "findByEmailAddress")
+        .tag("state", "SUCCESS")
+        .tag("exception", "None")
+        .timer();
+    assertNotNull(findByEmailAddress);
+    assertEquals(0, findByEmailAddress.count());
+    assertNotNull(registry.find(METRIC_NAME)
+        .tags("repository", "TokenRepositoryInterface", "method", "deleteExpired")
+        .timer());
+    // Inherited CRUD methods are registered on their first call
+    assertNull(registry.find(METRIC_NAME).tag("method", "findById").timer());
+  }
+}
@@ -0,0 +1,54 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.coms4156.project.kebabcase.service.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PasswordHasherUnitTests {
+
+  private PasswordHasher passwordHasher;
+
+  @BeforeEach
+  void setUp() {
+    // One thread and room for one waiting password
+    passwordHasher = new PasswordHasher(1, 1, new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() {
+    passwordHasher.shutdown();
+  }
+
+  @Test
+  void testHashIsSha256Hex() {
+    // Act
+    String hash = passwordHasher.hash("password123").join();
+
+    // Assert
+    assertEquals("ef92b778bafe771e89245b89ecbc08a44a4e166c06659911881f383d4473e94f", hash);
+  }
+
+  @Test
+  void testSaturatedPoolRejectsPasswords() {
+    // Arrange: passwords that take a while to hash
+    String longPassword = "x".repeat(4_000_000);
+    List<CompletableFuture<String>> accepted = new ArrayList<>();
+
+    // Act & Assert
+    assertThrows(RejectedExecutionException.class, () -> {
+      for (int i = 0; i < 100; i++) {
+        accepted.add(passwordHasher.hash(longPassword));
+      }
+    });
+    assertTrue(accepted.size() >= 2);
+    accepted.forEach(CompletableFuture::join);
+  }
+}
@@ -0,0 +1,177 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Counts the SQL statements that Hibernate sends while the application handles HTTP requests,
+ * so integration tests can guard endpoints against N+1 queries.
+ *
+ * <p>Add {@code @Import(QueryCounter.Config.class)} to a {@code @SpringBootTest} and wrap the
+ * request in {@link #assertMaxQueries(int, Supplier)}. Only statements sent by a thread while it
+ * handles a request are counted, so the setup done by the test itself and the scheduled
+ * background tasks of the application are not. Work a request hands to the application task
+ * executor, such as a {@code StreamingResponseBody} or a {@code CompletableFuture} stage, and
+ * the async dispatch that completes the request are counted too. Stages started from another
+ * pool, such as the password hashing threads, are not. Statements sent through
+ * {@code JdbcTemplate} bypass Hibernate and are not counted either.
+ * </p>
+ */
+final class QueryCounter {
+
+  private static final AtomicInteger COUNT = new AtomicInteger();
+  private static final ThreadLocal<Boolean> HANDLING_REQUEST =
+      ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+  private QueryCounter() {
+  }
+
+  /**
+   * Resets the number of counted statements to zero.
+   */
+  static void reset() {
+    COUNT.set(0);
+  }
+
+  /**
+   * Returns the number of statements counted since the last reset.
+   *
+   * @return the number of statements
+   */
+  static int count() {
+    return COUNT.get();
+  }
+
+  /**
+   * Runs the given requests and returns the number of statements they sent.
+   *
+   * @param requests the requests to run
+   * @return the number of statements sent while handling the requests
+   */
+  static int countQueries(Runnable requests) {
+    reset();
+    requests.run();
+    return count();
+  }
+
+  /**
+   * Runs the given requests and checks that they sent at most the given number of statements.
+   * Fails if no statement was counted, since the requests then ran their queries on threads the
+   * counter does not see, and the limit would not be checked.
+   *
+   * @param max the maximum number of statements
+   * @param requests the requests to run
+   * @param <T> the type of the result of the requests
+   * @return the result of the requests
+   */
+  static <T> T assertMaxQueries(int max, Supplier<T> requests) {
+    reset();
+    T result = requests.get();
+    assertThat(count())
+        .as("number of SQL statements sent while handling the requests")
+        .isPositive()
+        .isLessThanOrEqualTo(max);
+    return result;
+  }
+
+  /**
+   * Registers the statement inspector with Hibernate, the filter that marks the threads
+   * handling requests, and the decorator that carries the mark to the application task
+   * executor.
+   */
+  @TestConfiguration
+  static class Config {
+
+    @Bean
+    HibernatePropertiesCustomizer queryCounterStatementInspector() {
+      return properties -> properties.put(
+          "hibernate.session_factory.statement_inspector", new Inspector());
+    }
+
+    @Bean
+    FilterRegistrationBean<RequestFilter> queryCounterRequestFilter() {
+      FilterRegistrationBean<RequestFilter> registration =
+          new FilterRegistrationBean<>(new RequestFilter());
+      registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+      return registration;
+    }
+
+    @Bean
+    TaskDecorator queryCounterTaskDecorator() {
+      return new RequestTaskDecorator();
+    }
+  }
+
+  /**
+   * Counts each statement prepared by a thread handling a request, and leaves it unchanged.
+   */
+  static final class Inspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+      if (HANDLING_REQUEST.get()) {
+        COUNT.incrementAndGet();
+      }
+      return sql;
+    }
+  }
+
+  /**
+   * Marks the current thread as handling a request until the response is complete, including
+   * the async dispatch that writes the result of an asynchronous handler.
+   */
+  static final class RequestFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+      return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain)
+        throws ServletException, IOException {
+      HANDLING_REQUEST.set(Boolean.TRUE);
+      try {
+        filterChain.doFilter(request, response);
+      } finally {
+        HANDLING_REQUEST.remove();
+      }
+    }
+  }
+
+  /**
+   * Runs each task with the mark of the thread that submitted it.
+   */
+  static final class RequestTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable task) {
+      boolean handlingRequest = HANDLING_REQUEST.get();
+      return () -> {
+        boolean previous = HANDLING_REQUEST.get();
+        HANDLING_REQUEST.set(handlingRequest);
+        try {
+          task.run();
+        } finally {
+          HANDLING_REQUEST.set(previous);
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Checks that the lookups made by the repositories use the indexes created by the migrations.
+ *
+ * <p>The schema is created by Flyway and filled with enough varied rows that MySQL prefers an
+ * index over reading the whole table whenever a usable index exists. Each query is the SQL that
+ * Hibernate generates for a repository method, and its {@code EXPLAIN} must not contain a full
+ * table scan. Methods that read every row by design, such as {@code findAll} and
+ * {@code findAllIds}, are not checked.
+ * </p>
+ */
+@SpringBootTest
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryIndexIntegrationTests {
+
+  // The default cte_max_recursion_depth of MySQL
+  private static final int ROWS = 1000;
+
+  @Container
+  @ServiceConnection
+  private static final MySQLContainer<?> mysqlContainer = new MySQLContainer<>("mysql:8.0")
+      .withDatabaseName("testdb")
+      .withUsername("testuser")
+      .withPassword("testpass");
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeAll
+  void populate() {
+    insert("users (id, first_name, last_name, email_address, password, created_datetime, "
+        + "modified_datetime) SELECT n, 'First', 'Last', CONCAT('user', n, '@example.com'), "
+        + "'hash', NOW(), NOW()");
+    insert("clients (id, name, created_datetime, modified_datetime) "
+        + "SELECT n, CONCAT('client', n), NOW(), NOW()");
+    insert("tokens (id, token, client_id, user_id, expiration_datetime, revoked_datetime, "
+        + "created_datetime, modified_datetime) SELECT n, CONCAT('token', n), n, n, "
+        + "NOW() + INTERVAL (n - 10) DAY, IF(n % 100 = 0, NOW(), NULL), NOW(), NOW()");
+    insert("buildings (id, address, city, state, zip_code, created_datetime, modified_datetime) "
+        + "SELECT n, CONCAT(n, ' Main Street'), CONCAT('City', n % 200), CONCAT('S', n % 50), "
+        + "LPAD(n % 500, 5, '0'), NOW(), '2024-01-01' + INTERVAL n MINUTE");
+    insert("housing_units (id, building_id, unit_number, created_datetime, modified_datetime) "
+        + "SELECT n, n, CONCAT('U', n % 20), NOW(), '2024-01-01' + INTERVAL n MINUTE");
+    insert("building_features (id, name, created_datetime, modified_datetime) "
+        + "SELECT n, CONCAT('Feature', n), NOW(), NOW()");
+    insert("housing_unit_features (id, name, created_datetime, modified_datetime) "
+        + "SELECT n, CONCAT('Feature', n), NOW(), NOW()");
+    insert("building_feature_building_mappings (building_id, building_feature_id, "
+        + "created_datetime, modified_datetime) SELECT n, n % 100 + 1, NOW(), NOW()");
+    insert("housing_unit_feature_housing_unit_mappings (housing_unit_id, "
+        + "housing_unit_feature_id, created_datetime, modified_datetime) "
+        + "SELECT n, n % 100 + 1, NOW(), NOW()");
+    insert("building_user_mappings (id, building_id, user_id, created_datetime, "
+        + "modified_datetime) SELECT n, n, n, NOW(), NOW()");
+    insert("housing_unit_user_mappings (id, housing_unit_id, user_id, created_datetime, "
+        + "modified_datetime) SELECT n, n, n, NOW(), NOW()");
+    jdbcTemplate.execute("ANALYZE TABLE users, clients, tokens, buildings, housing_units, "
+        + "building_feature_building_mappings, housing_unit_feature_housing_unit_mappings, "
+        + "building_user_mappings, housing_unit_user_mappings");
+  }
+
+  private void insert(String tableAndSelect) {
+    jdbcTemplate.update("INSERT INTO " + tableAndSelect.replaceFirst(" SELECT ",
+        " WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < "
+            + ROWS + ") SELECT ") + " FROM seq");
+  }
+
+  static Stream<Arguments> repositoryQueries() {
+    return Stream.of(
+        Arguments.of("TokenRepositoryInterface.findByToken",
+            "SELECT * FROM tokens t WHERE t.token = 'token42'"),
+        Arguments.of("TokenRepositoryInterface.findWithUserByToken",
+            "SELECT * FROM tokens t JOIN users u ON u.id = t.user_id "
+                + "WHERE t.token = 'token42' AND t.revoked_datetime IS NULL"),
+        Arguments.of("TokenRepositoryInterface.findRevokedTokens",
+            "SELECT t.token FROM tokens t "
+                + "WHERE t.revoked_datetime IS NOT NULL AND t.expiration_datetime > NOW()"),
+        Arguments.of("TokenRepositoryInterface.revoke",
+            "UPDATE tokens t SET t.revoked_datetime = NOW(), t.modified_datetime = NOW() "
+                + "WHERE t.token = 'token42' AND t.revoked_datetime IS NULL"),
+        Arguments.of("TokenRepositoryInterface.deleteExpired",
+            "DELETE FROM tokens WHERE expiration_datetime < NOW() "
+                + "ORDER BY expiration_datetime, id LIMIT 500"),
+        Arguments.of("UserRepositoryInterface.findByEmailAddress",
+            "SELECT * FROM users u WHERE u.email_address = 'user42@example.com'"),
+        Arguments.of("ClientRepositoryInterface.findByName",
+            "SELECT * FROM clients c WHERE c.name = 'client42'"),
+        Arguments.of("BuildingRepositoryInterface.findByAddress",
+            "SELECT * FROM buildings b WHERE b.address = '42 Main Street'"),
+        Arguments.of("BuildingRepositoryInterface.findByCity",
+            "SELECT * FROM buildings b WHERE b.city = 'City42'"),
+        Arguments.of("BuildingRepositoryInterface.findByState",
+            "SELECT * FROM buildings b WHERE b.state = 'S42'"),
+        Arguments.of("BuildingRepositoryInterface.findByZipCode",
+            "SELECT * FROM buildings b WHERE b.zip_code = '00042'"),
+        Arguments.of("BuildingRepositoryInterface.findByZipCodeInAndAddressIn",
+            "SELECT * FROM buildings b WHERE b.zip_code IN ('00042', '00043') "
+                + "AND b.address IN ('42 Main Street', '43 Main Street')"),
+        Arguments.of("BuildingRepositoryInterface.findByIdGreaterThanOrderByIdAsc",
+            "SELECT * FROM buildings b WHERE b.id > 900 ORDER BY b.id LIMIT 100"),
+        Arguments.of("BuildingRepositoryInterface.findByIdInOrderByIdAsc",
+            "SELECT * FROM buildings b WHERE b.id IN (1, 2, 3) ORDER BY b.id"),
+        Arguments.of("BuildingRepositoryInterface"
+                + ".findByModifiedDatetimeNotNullOrderByModifiedDatetimeAscIdAsc",
+            "SELECT * FROM buildings b WHERE b.modified_datetime IS NOT NULL "
+                + "ORDER BY b.modified_datetime, b.id LIMIT 100"),
+        Arguments.of("BuildingRepositoryInterface.findPageAfterModifiedDatetime",
+            "SELECT * FROM buildings b WHERE b.modified_datetime > '2024-01-01 15:00:00' "
+                + "OR (b.modified_datetime = '2024-01-01 15:00:00' AND b.id > 900) "
+                + "ORDER BY b.modified_datetime, b.id LIMIT 100"),
+        Arguments.of("BuildingRepositoryInterface.findBy state and city",
+            "SELECT * FROM buildings b WHERE b.state = 'S42' AND b.city = 'City42' "
+                + "AND b.id > 0 ORDER BY b.id LIMIT 101"),
+        Arguments.of("BuildingRepositoryInterface.findBy city by modified datetime",
+            "SELECT * FROM buildings b WHERE b.city = 'City42' "
+                + "AND b.modified_datetime IS NOT NULL "
+                + "ORDER BY b.modified_datetime, b.id LIMIT 101"),
+        Arguments.of("BuildingRepositoryInterface.findBy state and features",
+            "SELECT * FROM buildings b WHERE b.state = 'S42' "
+                + "AND EXISTS (SELECT m.building_id FROM building_feature_building_mappings m "
+                + "WHERE m.building_id = b.id AND m.building_feature_id = 43) "
+                + "AND EXISTS (SELECT m.building_id FROM building_feature_building_mappings m "
+                + "WHERE m.building_id = b.id AND m.building_feature_id = 44) "
+                + "AND b.id > 0 ORDER BY b.id LIMIT 101"),
+        Arguments.of("HousingUnitRepositoryInterface.findByBuilding",
+            "SELECT * FROM housing_units u WHERE u.building_id = 42"),
+        Arguments.of("HousingUnitRepositoryInterface.findByBuildingAndUnitNumber",
+            "SELECT * FROM housing_units u WHERE u.building_id = 42 AND u.unit_number = 'U2'"),
+        Arguments.of("HousingUnitRepositoryInterface.findByBuildingIdInAndUnitNumberIn",
+            "SELECT * FROM housing_units u WHERE u.building_id IN (42, 43) "
+                + "AND u.unit_number IN ('U2', 'U3')"),
+        Arguments.of("HousingUnitRepositoryInterface.findByIdGreaterThanOrderByIdAsc",
+            "SELECT * FROM housing_units u WHERE u.id > 900 ORDER BY u.id LIMIT 100"),
+        Arguments.of("HousingUnitRepositoryInterface.findPageAfterModifiedDatetime",
+            "SELECT * FROM housing_units u WHERE u.modified_datetime > '2024-01-01 15:00:00' "
+                + "OR (u.modified_datetime = '2024-01-01 15:00:00' AND u.id > 900) "
+                + "ORDER BY u.modified_datetime, u.id LIMIT 100"),
+        Arguments.of("BuildingFeatureBuildingMappingRepositoryInterface.findByBuildingFeatureId",
+            "SELECT * FROM building_feature_building_mappings m "
+                + "WHERE m.building_feature_id = 42"),
+        Arguments.of("BuildingFeatureBuildingMappingRepositoryInterface.findByBuilding",
+            "SELECT * FROM building_feature_building_mappings m WHERE m.building_id = 42"),
+        Arguments.of("BuildingFeatureBuildingMappingRepositoryInterface.findByBuildingIn",
+            "SELECT * FROM building_feature_building_mappings m WHERE m.building_id IN (42, 43)"),
+        Arguments.of("BuildingFeatureBuildingMappingRepositoryInterface"
+                + ".findBuildingFeatureIdsByBuildingId",
+            "SELECT m.building_feature_id FROM building_feature_building_mappings m "
+                + "WHERE m.building_id = 42"),
+        Arguments.of("HousingUnitFeatureHousingUnitMappingRepositoryInterface"
+                + ".findByHousingUnitFeatureId",
+            "SELECT * FROM housing_unit_feature_housing_unit_mappings m "
+                + "WHERE m.housing_unit_feature_id = 42"),
+        Arguments.of("HousingUnitFeatureHousingUnitMappingRepositoryInterface.findByHousingUnit",
+            "SELECT * FROM housing_unit_feature_housing_unit_mappings m "
+                + "WHERE m.housing_unit_id = 42"),
+        Arguments.of("HousingUnitFeatureHousingUnitMappingRepositoryInterface"
+                + ".findByHousingUnitIn",
+            "SELECT * FROM housing_unit_feature_housing_unit_mappings m "
+                + "WHERE m.housing_unit_id IN (42, 43)"),
+        Arguments.of("BuildingUserMappingRepositoryInterface.findByUserId",
+            "SELECT * FROM building_user_mappings m WHERE m.user_id = 42"),
+        Arguments.of("BuildingUserMappingRepositoryInterface.findByUserIdAndBuildingId",
+            "SELECT * FROM building_user_mappings m WHERE m.user_id = 42 AND m.building_id = 42"),
+        Arguments.of("HousingUnitUserMappingRepositoryInterface.findByUserId",
+            "SELECT * FROM housing_unit_user_mappings m WHERE m.user_id = 42")
+    );
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("repositoryQueries")
+  void queryDoesNotScanWholeTable(String method, String sql) {
+    // Act
+    List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql);
+
+    // Assert
+    assertThat(plan).isNotEmpty();
+    assertThat(plan)
+        .as("EXPLAIN of %s: %s", method, plan)
+        .allSatisfy(row -> assertThat(row.get("type")).isNotEqualTo("ALL"));
+  }
+}
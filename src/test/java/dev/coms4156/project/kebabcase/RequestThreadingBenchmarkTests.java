@@ -0,0 +1,285 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.coms4156.project.kebabcase.entity.BuildingEntity;
+import dev.coms4156.project.kebabcase.entity.HousingUnitEntity;
+import dev.coms4156.project.kebabcase.repository.BuildingRepositoryInterface;
+import dev.coms4156.project.kebabcase.repository.HousingUnitRepositoryInterface;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Compares request handling on the Tomcat platform thread pool with the
+ * {@code virtual-threads} profile. Run with
+ * {@code mvn test -Pbenchmark -Dtest=RequestThreadingBenchmarkTests} on Java 21 or later; on
+ * older runtimes only the platform thread pool is measured.
+ *
+ * <p>Each model runs in its own application context against the same MySQL container. For each
+ * concurrency level, that many requests to database-bound read endpoints are kept in flight for
+ * the configured duration. The client sends them asynchronously, so it adds only a few threads
+ * of its own.
+ * </p>
+ *
+ * <p>For each level the throughput, the latency percentiles and the errors are printed, along
+ * with the live platform threads and the heap in use while the requests run, relative to the
+ * idle application. The extra heap divided by the concurrency is the heap held per in-flight
+ * request. Each platform thread also reserves a native stack outside of the heap, which is not
+ * included.
+ * </p>
+ *
+ * <p>The load is configured with system properties:
+ * </p>
+ * <ul>
+ *   <li>{@code threading.concurrency}: the comma-separated concurrency levels, default
+ *       {@value #DEFAULT_CONCURRENCY}</li>
+ *   <li>{@code threading.duration}: how long each level runs, default
+ *       {@value #DEFAULT_DURATION}</li>
+ *   <li>{@code threading.warmup}: how long the untimed warmup runs, default
+ *       {@value #DEFAULT_WARMUP}</li>
+ * </ul>
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+class RequestThreadingBenchmarkTests {
+
+  private static final String DEFAULT_CONCURRENCY = "50,200,800";
+  private static final String DEFAULT_DURATION = "15s";
+  private static final String DEFAULT_WARMUP = "5s";
+
+  private static final int BUILDINGS = 200;
+  private static final int UNITS_PER_BUILDING = 10;
+
+  // Latencies are recorded in microseconds, up to one minute
+  private static final long MAX_LATENCY_MICROS = Duration.ofMinutes(1).toNanos() / 1000;
+  private static final long SAMPLE_INTERVAL_MILLIS = 100;
+
+  @Container
+  @ServiceConnection
+  private static final MySQLContainer<?> mysqlContainer = new MySQLContainer<>("mysql:8.0")
+      .withDatabaseName("testdb")
+      .withUsername("testuser")
+      .withPassword("testpass");
+
+  @Nested
+  class PlatformThreads extends ThreadingModel {
+  }
+
+  @Nested
+  @ActiveProfiles("virtual-threads")
+  @EnabledForJreRange(min = JRE.JAVA_21)
+  class VirtualThreads extends ThreadingModel {
+  }
+
+  /**
+   * Runs the concurrency levels against the application context of one threading model.
+   */
+  abstract static class ThreadingModel {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BuildingRepositoryInterface buildingRepository;
+
+    @Autowired
+    private HousingUnitRepositoryInterface housingUnitRepository;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private List<Integer> buildingIds;
+    private List<Integer> unitIds;
+
+    @Test
+    void benchmarkConcurrentRequests() throws Exception {
+      // Arrange
+      int[] concurrencyLevels = Arrays.stream(
+          System.getProperty("threading.concurrency", DEFAULT_CONCURRENCY).split(","))
+          .map(String::trim)
+          .mapToInt(Integer::parseInt)
+          .toArray();
+      Duration duration = parseDuration(
+          System.getProperty("threading.duration", DEFAULT_DURATION));
+      Duration warmup = parseDuration(System.getProperty("threading.warmup", DEFAULT_WARMUP));
+      seed();
+
+      // Act
+      run(concurrencyLevels[concurrencyLevels.length - 1], warmup);
+      List<Level> levels = new ArrayList<>();
+      for (int concurrency : concurrencyLevels) {
+        levels.add(run(concurrency, duration));
+      }
+
+      // Assert
+      System.out.printf("%n%s%n", getClass().getSimpleName());
+      System.out.printf("%11s %9s %9s %9s %7s %8s %11s %13s%n", "concurrency", "req/sec",
+          "p50 ms", "p99 ms", "errors", "threads", "heap MB", "heap KB/req");
+      for (Level level : levels) {
+        level.report();
+        assertThat(level.latencies.getTotalCount()).isPositive();
+      }
+    }
+
+    private void seed() {
+      // Both models share the database, so only the first one seeds it
+      if (buildingRepository.count() == 0) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<BuildingEntity> buildings = new ArrayList<>();
+        for (int i = 0; i < BUILDINGS; i++) {
+          buildings.add(new BuildingEntity()
+              .setAddress(i + " Thread Street")
+              .setCity("City" + i % 20)
+              .setState("NY")
+              .setZipCode(String.format("%05d", i % 100))
+              .setCreatedDatetime(now)
+              .setModifiedDatetime(now));
+        }
+        buildings = buildingRepository.saveAll(buildings);
+        List<HousingUnitEntity> units = new ArrayList<>();
+        for (BuildingEntity building : buildings) {
+          for (int i = 0; i < UNITS_PER_BUILDING; i++) {
+            units.add(new HousingUnitEntity()
+                .setBuilding(building)
+                .setUnitNumber("U" + i)
+                .setCreatedDatetime(now)
+                .setModifiedDatetime(now));
+          }
+        }
+        housingUnitRepository.saveAll(units);
+      }
+      this.buildingIds = buildingRepository.findAll().stream()
+          .map(BuildingEntity::getId).toList();
+      this.unitIds = housingUnitRepository.findAll().stream()
+          .map(HousingUnitEntity::getId).toList();
+    }
+
+    private Level run(int concurrency, Duration duration) throws InterruptedException {
+      Level level = new Level(concurrency);
+      System.gc();
+      long idleHeap = this.memory.getHeapMemoryUsage().getUsed();
+      int idleThreads = this.threads.getThreadCount();
+      ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+      sampler.scheduleAtFixedRate(() -> level.sample(
+          this.memory.getHeapMemoryUsage().getUsed() - idleHeap,
+          this.threads.getThreadCount() - idleThreads),
+          SAMPLE_INTERVAL_MILLIS, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+      Semaphore inFlight = new Semaphore(concurrency);
+      long start = System.nanoTime();
+      long deadline = start + duration.toNanos();
+      while (System.nanoTime() < deadline) {
+        inFlight.acquire();
+        long sent = System.nanoTime();
+        this.httpClient.sendAsync(request(), HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, error) -> {
+              level.record(sent, error == null && response.statusCode() < 400);
+              inFlight.release();
+            });
+      }
+      inFlight.acquire(concurrency);
+      level.elapsedNanos = System.nanoTime() - start;
+      sampler.shutdownNow();
+      return level;
+    }
+
+    private HttpRequest request() {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      String path = random.nextBoolean()
+          ? "/building/" + pick(random, this.buildingIds) + "/housing-units"
+          : "/housing-unit/" + pick(random, this.unitIds);
+      return HttpRequest.newBuilder(URI.create("http://localhost:" + this.port + path))
+          .timeout(Duration.ofSeconds(30))
+          .GET()
+          .build();
+    }
+
+    private static <T> T pick(ThreadLocalRandom random, List<T> values) {
+      return values.get(random.nextInt(values.size()));
+    }
+
+    private static Duration parseDuration(String value) {
+      return Duration.parse("PT" + value.toUpperCase());
+    }
+  }
+
+  /**
+   * The latencies, errors and resource samples of one concurrency level.
+   */
+  private static final class Level {
+    private final int concurrency;
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder heapDelta = new LongAdder();
+    private final LongAdder threadDelta = new LongAdder();
+    private long elapsedNanos;
+
+    private Level(int concurrency) {
+      this.concurrency = concurrency;
+    }
+
+    private void record(long sentNanos, boolean success) {
+      long micros = (System.nanoTime() - sentNanos) / 1000;
+      this.latencies.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+      if (!success) {
+        this.errors.increment();
+      }
+    }
+
+    private void sample(long heap, int threads) {
+      this.samples.increment();
+      this.heapDelta.add(heap);
+      this.threadDelta.add(threads);
+    }
+
+    private void report() {
+      long sampleCount = Math.max(1, this.samples.sum());
+      double heapBytes = (double) this.heapDelta.sum() / sampleCount;
+      System.out.printf("%11d %9.0f %9.2f %9.2f %7d %8.0f %11.1f %13.1f%n",
+          this.concurrency,
+          this.latencies.getTotalCount() / (this.elapsedNanos / 1e9),
+          this.latencies.getValueAtPercentile(50) / 1000.0,
+          this.latencies.getValueAtPercentile(99) / 1000.0,
+          this.errors.sum(),
+          (double) this.threadDelta.sum() / sampleCount,
+          heapBytes / (1024 * 1024),
+          heapBytes / 1024 / this.concurrency);
+    }
+  }
+}
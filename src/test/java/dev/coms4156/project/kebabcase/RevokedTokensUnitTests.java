@@ -0,0 +1,85 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import dev.coms4156.project.kebabcase.repository.TokenRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.RevokedTokens;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class RevokedTokensUnitTests {
+
+  @Mock
+  private TokenRepositoryInterface tokenRepository;
+
+  private RevokedTokens revokedTokens;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    revokedTokens = new RevokedTokens(tokenRepository);
+  }
+
+  @Test
+  void testSetIsLoadedOnceAndRefreshed() {
+    // Arrange
+    when(tokenRepository.findRevokedTokens(any()))
+        .thenReturn(List.of("A"))
+        .thenReturn(List.of("A", "B"));
+
+    // Act & Assert
+    assertTrue(revokedTokens.isRevoked("A"));
+    assertFalse(revokedTokens.isRevoked("B"));
+    verify(tokenRepository, times(1)).findRevokedTokens(any());
+
+    revokedTokens.refresh();
+    assertTrue(revokedTokens.isRevoked("B"));
+  }
+
+  @Test
+  void testAddedTokenIsRevokedRightAway() {
+    // Arrange
+    when(tokenRepository.findRevokedTokens(any())).thenReturn(List.of());
+
+    // Act
+    revokedTokens.add("C");
+
+    // Assert
+    assertTrue(revokedTokens.isRevoked("C"));
+  }
+
+  @Test
+  void testTokenAddedDuringRefreshIsKept() throws Exception {
+    // Arrange: the refresh reads the set before the revocation is committed
+    CountDownLatch queryStarted = new CountDownLatch(1);
+    CountDownLatch revoked = new CountDownLatch(1);
+    when(tokenRepository.findRevokedTokens(any()))
+        .thenReturn(List.of())
+        .thenAnswer(invocation -> {
+          queryStarted.countDown();
+          revoked.await(5, TimeUnit.SECONDS);
+          return List.of();
+        });
+    revokedTokens.isRevoked("D");
+
+    // Act
+    Thread refresh = new Thread(revokedTokens::refresh);
+    refresh.start();
+    assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+    Thread add = new Thread(() -> revokedTokens.add("D"));
+    add.start();
+    revoked.countDown();
+    refresh.join();
+    add.join();
+
+    // Assert
+    assertTrue(revokedTokens.isRevoked("D"));
+  }
+}
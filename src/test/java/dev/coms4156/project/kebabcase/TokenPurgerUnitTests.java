@@ -0,0 +1,60 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import dev.coms4156.project.kebabcase.repository.TokenRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.TokenPurger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class TokenPurgerUnitTests {
+
+  @Mock
+  private TokenRepositoryInterface tokenRepository;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private TokenPurger tokenPurger;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    meterRegistry = new SimpleMeterRegistry();
+    tokenPurger = new TokenPurger(tokenRepository, meterRegistry, 100, Duration.ZERO);
+  }
+
+  @Test
+  void testPurgeDeletesBatchesUntilOneIsNotFull() {
+    // Arrange
+    OffsetDateTime now = OffsetDateTime.now();
+    when(tokenRepository.deleteExpired(now, 100)).thenReturn(100, 100, 42);
+
+    // Act
+    int deleted = tokenPurger.purgeExpiredBefore(now);
+
+    // Assert
+    assertEquals(242, deleted);
+    verify(tokenRepository, times(3)).deleteExpired(now, 100);
+    assertEquals(242, meterRegistry.get("kebabcase.tokens.purged").counter().count());
+  }
+
+  @Test
+  void testScheduledPurgeIsTimed() {
+    // Arrange
+    when(tokenRepository.deleteExpired(any(), eq(100))).thenReturn(0);
+
+    // Act
+    tokenPurger.purge();
+
+    // Assert
+    verify(tokenRepository, times(1)).deleteExpired(any(), eq(100));
+    assertEquals(1, meterRegistry.get("kebabcase.tokens.purge").timer().count());
+  }
+}
@@ -0,0 +1,110 @@
+package dev.coms4156.project.kebabcase;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.coms4156.project.kebabcase.service.TokenSigner;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TokenSignerUnitTests {
+
+  private static final String KEY = Base64.getEncoder().encodeToString(new byte[32]);
+
+  private TokenSigner tokenSigner;
+
+  @BeforeEach
+  void setUp() {
+    tokenSigner = new TokenSigner(KEY);
+  }
+
+  @Test
+  void testSignedTokenVerifies() {
+    // Arrange
+    OffsetDateTime expiration = OffsetDateTime.now().plusDays(1);
+
+    // Act
+    String token = tokenSigner.sign(new TokenSigner.Claims(7, 3, expiration, "ABC123"));
+    Optional<TokenSigner.Claims> claims = tokenSigner.verify(token);
+
+    // Assert
+    assertTrue(TokenSigner.isSigned(token));
+    assertEquals(7, claims.get().getUserId());
+    assertEquals(3, claims.get().getClientId());
+    assertEquals("ABC123", claims.get().getTokenId());
+    assertEquals(expiration.toEpochSecond(), claims.get().getExpirationDatetime().toEpochSecond());
+  }
+
+  @Test
+  void testTamperedTokenIsRejected() {
+    // Arrange
+    String token = tokenSigner.sign(
+        new TokenSigner.Claims(7, 3, OffsetDateTime.now().plusDays(1), "ABC123"));
+    String otherToken = tokenSigner.sign(
+        new TokenSigner.Claims(8, 3, OffsetDateTime.now().plusDays(1), "ABC123"));
+    String[] parts = token.split("\\.");
+    String[] otherParts = otherToken.split("\\.");
+
+    // Act & Assert: another user's payload with this token's signature
+    assertTrue(tokenSigner.verify(parts[0] + "." + otherParts[1] + "." + parts[2]).isEmpty());
+    assertTrue(tokenSigner.verify(token + "x").isEmpty());
+    assertTrue(tokenSigner.verify("v1.not-base64!").isEmpty());
+  }
+
+  @Test
+  void testTokenSignedWithAnotherKeyIsRejected() {
+    // Arrange
+    byte[] otherKey = new byte[32];
+    otherKey[0] = 1;
+    TokenSigner otherSigner = new TokenSigner(Base64.getEncoder().encodeToString(otherKey));
+    String token = otherSigner.sign(
+        new TokenSigner.Claims(7, 3, OffsetDateTime.now().plusDays(1), "ABC123"));
+
+    // Act & Assert
+    assertTrue(tokenSigner.verify(token).isEmpty());
+  }
+
+  @Test
+  void testExpiredTokenIsRejected() {
+    // Arrange
+    String token = tokenSigner.sign(
+        new TokenSigner.Claims(7, 3, OffsetDateTime.now().minusSeconds(5), "ABC123"));
+
+    // Act & Assert
+    assertTrue(tokenSigner.verify(token).isEmpty());
+  }
+
+  @Test
+  void testStoredTokenIdIsNotAnOpaqueToken() {
+    // Act
+    String storedId = TokenSigner.storedTokenId("ABC123");
+
+    // Assert: the ID in the payload cannot be looked up, and the stored value is not opaque
+    assertNotEquals("ABC123", storedId);
+    assertFalse(storedId.contains("ABC123"));
+    assertTrue(TokenSigner.isSigned(storedId));
+    assertTrue(tokenSigner.verify(storedId).isEmpty());
+    assertEquals(storedId, TokenSigner.storedTokenId("ABC123"));
+  }
+
+  @Test
+  void testSignerWithoutKeyIsDisabled() {
+    // Arrange
+    TokenSigner disabled = new TokenSigner("");
+
+    // Act & Assert
+    assertFalse(disabled.isEnabled());
+    assertThrows(IllegalStateException.class, () -> disabled.sign(
+        new TokenSigner.Claims(7, 3, OffsetDateTime.now().plusDays(1), "ABC123")));
+    assertFalse(TokenSigner.isSigned("ABCDEFGHIJKLMNOPQRST"));
+  }
+
+  @Test
+  void testShortKeyIsRejected() {
+    // Act & Assert
+    String shortKey = Base64.getEncoder().encodeToString(new byte[16]);
+    assertThrows(IllegalArgumentException.class, () -> new TokenSigner(shortKey));
+  }
+}
@@ -7,6 +7,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -14,24 +15,34 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import dev.coms4156.project.kebabcase.entity.ClientEntity;
-import dev.coms4156.project.kebabcase.repository.ClientRepositoryInterface;
 import dev.coms4156.project.kebabcase.entity.TokenEntity;
 import dev.coms4156.project.kebabcase.repository.TokenRepositoryInterface;
 import dev.coms4156.project.kebabcase.controller.UserController;
 import dev.coms4156.project.kebabcase.entity.UserEntity;
 import dev.coms4156.project.kebabcase.repository.UserRepositoryInterface;
+import dev.coms4156.project.kebabcase.service.AuthCache;
+import dev.coms4156.project.kebabcase.service.PasswordHasher;
+import dev.coms4156.project.kebabcase.service.RevokedTokens;
+import dev.coms4156.project.kebabcase.service.TokenSigner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -48,14 +59,26 @@ class UserControllerUnitTests {
   private UserRepositoryInterface userRepository;
 
   @Mock
-  private ClientRepositoryInterface clientRepository;
+  private AuthCache authCache;
 
   @Mock
   private TokenRepositoryInterface tokenRepository;
 
+  @Mock
+  private TokenSigner tokenSigner;
+
+  @Mock
+  private RevokedTokens revokedTokens;
+
+  @Spy
+  private PasswordHasher passwordHasher = new PasswordHasher(1, 1, new SimpleMeterRegistry());
+
   @Spy
   private ObjectMapper objectMapper = new ObjectMapper();
 
+  @Spy
+  private SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("task-");
+
   @InjectMocks
   private UserController userController;
 
@@ -86,7 +109,7 @@ class UserControllerUnitTests {
   @Test
   void testCreateUserWithBlankFieldsReturnsBadRequest() {
     // Act
-    ResponseEntity<?> response = userController.createUser("", "", "", "");
+    ResponseEntity<?> response = userController.createUser("", "", "", "").join();
 
     // Assert
     assertEquals(400, response.getStatusCodeValue()); // Expect HTTP 400
@@ -116,7 +139,7 @@ class UserControllerUnitTests {
     token.setToken(tokenValue);
     token.setClient(client);
 
-    when(clientRepository.findByName(clientName)).thenReturn(Optional.of(client));
+    when(authCache.findClientByName(clientName)).thenReturn(Optional.of(client));
 
     when(userRepository.findByEmailAddress(email)).thenReturn(Optional.of(user));
 
@@ -127,22 +150,22 @@ class UserControllerUnitTests {
         email,
         password,
         clientName
-    );
+    ).join();
 
     // Assert
     assertEquals(HttpStatus.OK, response.getStatusCode());
     verify(userRepository, times(1)).findByEmailAddress(email);
-    verify(clientRepository, times(1)).findByName(clientName);
+    verify(authCache, times(1)).findClientByName(clientName);
   }
 
   @Test
   void testAuthenticateClientResultIsEmpty() {
     // Arrange: Simulate no client exists with the provided client name
-    when(clientRepository.findByName("UnknownClient")).thenReturn(Optional.empty());
+    when(authCache.findClientByName("UnknownClient")).thenReturn(Optional.empty());
 
     // Act: Call the authenticate method
     ResponseEntity<String> response = userController.authenticate(
-        "john.doe@example.com", "password123", "UnknownClient");
+        "john.doe@example.com", "password123", "UnknownClient").join();
 
     // Assert: Verify the response
     assertEquals(404, response.getStatusCodeValue()); // Expect HTTP 404 Not Found
@@ -160,12 +183,12 @@ class UserControllerUnitTests {
     client.setId(1);
     client.setName(clientName);
 
-    when(clientRepository.findByName(clientName)).thenReturn(Optional.of(client));
+    when(authCache.findClientByName(clientName)).thenReturn(Optional.of(client));
 
     when(userRepository.findByEmailAddress(email)).thenReturn(Optional.empty());
 
     // Act
-    ResponseEntity<String> response = userController.authenticate(email, password, clientName);
+    ResponseEntity<String> response = userController.authenticate(email, password, clientName).join();
 
     // Assert
     assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -186,7 +209,7 @@ class UserControllerUnitTests {
     client.setId(1);
     client.setName(clientName);
 
-    when(clientRepository.findByName(clientName)).thenReturn(Optional.of(client));
+    when(authCache.findClientByName(clientName)).thenReturn(Optional.of(client));
 
     UserEntity user = new UserEntity();
     user.setId(1);
@@ -196,7 +219,7 @@ class UserControllerUnitTests {
     when(userRepository.findByEmailAddress(email)).thenReturn(Optional.of(user));
 
     // Act
-    ResponseEntity<String> response = userController.authenticate(email, wrongPassword, clientName);
+    ResponseEntity<String> response = userController.authenticate(email, wrongPassword, clientName).join();
 
     // Assert
     assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
@@ -212,20 +235,20 @@ class UserControllerUnitTests {
     client.setId(1);
     client.setName(clientName);
 
-    when(clientRepository.findByName(clientName)).thenReturn(Optional.of(client));
+    when(authCache.findClientByName(clientName)).thenReturn(Optional.of(client));
 
     // Act
     ResponseEntity<String> responseWithBlankEmail = userController.authenticate(
         "",
         "password123",
         clientName
-    );
+    ).join();
 
     ResponseEntity<String> responseWithBlankPassword = userController.authenticate(
         "test@example.com",
         "",
         clientName
-    );
+    ).join();
 
     // Assert
     assertEquals(HttpStatus.BAD_REQUEST, responseWithBlankEmail.getStatusCode());
@@ -254,7 +277,7 @@ class UserControllerUnitTests {
     when(userRepository.save(any(UserEntity.class))).thenReturn(user);
 
     ResponseEntity<?> response = userController.createUser(firstName,
-            lastName, emailAddress, password);
+            lastName, emailAddress, password).join();
 
     assertEquals(HttpStatus.CREATED, response.getStatusCode());
     assertTrue(response.getBody().toString().contains(
@@ -262,6 +285,41 @@ class UserControllerUnitTests {
     verify(userRepository, times(1)).save(any(UserEntity.class));
   }
 
+  @Test
+  void testCreateUserSavesOffTheHashingThreads() {
+    // Arrange
+    AtomicReference<String> savingThread = new AtomicReference<>();
+    when(userRepository.findByEmailAddress("sue@example.com")).thenReturn(Optional.empty());
+    when(userRepository.save(any(UserEntity.class))).thenAnswer(invocation -> {
+      savingThread.set(Thread.currentThread().getName());
+      return invocation.<UserEntity>getArgument(0).setId(100);
+    });
+
+    // Act
+    ResponseEntity<?> response = userController.createUser(
+        "Sue", "Donym", "sue@example.com", "alias?notI").join();
+
+    // Assert
+    assertEquals(HttpStatus.CREATED, response.getStatusCode());
+    assertTrue(savingThread.get().startsWith("task-"), savingThread.get());
+  }
+
+  @Test
+  void testCreateUserReturnsInternalServerErrorWhenSaveFails() {
+    // Arrange
+    when(userRepository.findByEmailAddress("sue@example.com")).thenReturn(Optional.empty());
+    when(userRepository.save(any(UserEntity.class)))
+        .thenThrow(new DataIntegrityViolationException("duplicate email"));
+
+    // Act
+    ResponseEntity<?> response = userController.createUser(
+        "Sue", "Donym", "sue@example.com", "alias?notI").join();
+
+    // Assert
+    assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    assertNull(response.getBody());
+  }
+
   @Test
   void testCreateUserFailure() {
     String firstName = "Emily";
@@ -277,7 +335,7 @@ class UserControllerUnitTests {
             .thenReturn(Optional.of(user));
 
     ResponseEntity<?> response = userController.createUser(firstName,
-            lastName, emailAddress, password);
+            lastName, emailAddress, password).join();
 
 
 
@@ -301,14 +359,15 @@ class UserControllerUnitTests {
     token.setToken(tokenString);
     token.setUser(user);
 
-    // Mock token repository to return the token
-    when(tokenRepository.findByToken(tokenString)).thenReturn(Optional.of(token));
+    // Mock the auth cache to return the owner of the token
+    when(authCache.findUserByToken(tokenString))
+        .thenReturn(Optional.of(new AuthCache.TokenUser(token)));
 
     // Mock ObjectNode to simulate ObjectMapper's createObjectNode behavior
     ObjectNode mockNode = mock(ObjectNode.class);
 
     when(objectMapper.createObjectNode()).thenReturn(mockNode);
-    when(mockNode.put(eq("id"), eq(user.getId()))).thenReturn(mockNode);
+    when(mockNode.put(eq("id"), eq(user.getId().intValue()))).thenReturn(mockNode);
     when(mockNode.put(eq("firstName"), eq(user.getFirstName()))).thenReturn(mockNode);
     when(mockNode.put(eq("lastName"), eq(user.getLastName()))).thenReturn(mockNode);
     when(mockNode.put(eq("emailAddress"), eq(user.getEmailAddress()))).thenReturn(mockNode);
@@ -327,9 +386,9 @@ class UserControllerUnitTests {
     // Assert
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(mockNode, response.getBody());
-    verify(tokenRepository, times(1)).findByToken(tokenString);
+    verify(authCache, times(1)).findUserByToken(tokenString);
     verify(objectMapper, times(1)).createObjectNode();
-    verify(mockNode, times(1)).put("id", user.getId());
+    verify(mockNode, times(1)).put("id", user.getId().intValue());
     verify(mockNode, times(1)).put("firstName", user.getFirstName());
     verify(mockNode, times(1)).put("lastName", user.getLastName());
     verify(mockNode, times(1)).put("emailAddress", user.getEmailAddress());
@@ -340,7 +399,7 @@ class UserControllerUnitTests {
     // Arrange
     String tokenString = "invalid-token";
 
-    when(tokenRepository.findByToken(tokenString)).thenReturn(Optional.empty());
+    when(authCache.findUserByToken(tokenString)).thenReturn(Optional.empty());
 
     // Act & Assert
     mockMvc.perform(get("/me")
@@ -354,4 +413,109 @@ class UserControllerUnitTests {
     mockMvc.perform(get("/me"))
         .andExpect(status().isUnauthorized());
   }
+
+  @Test
+  void testAuthenticateReturnsServiceUnavailableWhenHashingIsSaturated() {
+    // Arrange
+    ClientEntity client = new ClientEntity();
+    client.setName("testClientName");
+    UserEntity user = new UserEntity();
+    user.setEmailAddress("test@example.com");
+    when(authCache.findClientByName("testClientName")).thenReturn(Optional.of(client));
+    when(userRepository.findByEmailAddress("test@example.com")).thenReturn(Optional.of(user));
+    doThrow(new RejectedExecutionException()).when(passwordHasher).hash(any());
+
+    // Act
+    ResponseEntity<String> response = userController.authenticate(
+        "test@example.com", "password123", "testClientName").join();
+
+    // Assert
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+    verify(tokenRepository, never()).save(any());
+  }
+
+  @Test
+  void testCreateUserReturnsServiceUnavailableWhenHashingIsSaturated() {
+    // Arrange
+    when(userRepository.findByEmailAddress("new@example.com")).thenReturn(Optional.empty());
+    doThrow(new RejectedExecutionException()).when(passwordHasher).hash(any());
+
+    // Act
+    ResponseEntity<?> response = userController.createUser(
+        "New", "User", "new@example.com", "password123").join();
+
+    // Assert
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    verify(userRepository, never()).save(any());
+  }
+
+  @Test
+  void testAuthenticateIssuesSignedTokenWhenEnabled() {
+    // Arrange
+    ClientEntity client = new ClientEntity();
+    client.setId(3);
+    client.setName("testClientName");
+    UserEntity user = new UserEntity();
+    user.setId(7);
+    user.setEmailAddress("test@example.com");
+    user.setPassword(hashPassword("password123"));
+    when(authCache.findClientByName("testClientName")).thenReturn(Optional.of(client));
+    when(userRepository.findByEmailAddress("test@example.com")).thenReturn(Optional.of(user));
+    when(tokenSigner.isEnabled()).thenReturn(true);
+    when(tokenSigner.sign(any())).thenReturn("v1.signed");
+
+    // Act
+    ResponseEntity<String> response = userController.authenticate(
+        "test@example.com", "password123", "testClientName").join();
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("v1.signed", response.getBody());
+    ArgumentCaptor<TokenEntity> saved = ArgumentCaptor.forClass(TokenEntity.class);
+    verify(tokenRepository).save(saved.capture());
+    ArgumentCaptor<TokenSigner.Claims> claims = ArgumentCaptor.forClass(TokenSigner.Claims.class);
+    verify(tokenSigner).sign(claims.capture());
+    assertEquals(7, claims.getValue().getUserId());
+    assertEquals(3, claims.getValue().getClientId());
+    assertEquals(TokenSigner.storedTokenId(claims.getValue().getTokenId()),
+        saved.getValue().getToken());
+  }
+
+  @Test
+  void testRevokeToken() throws Exception {
+    // Arrange
+    when(tokenRepository.revoke(eq("opaque-token"), any())).thenReturn(1);
+
+    // Act & Assert
+    mockMvc.perform(post("/revoke").header("token", "opaque-token"))
+        .andExpect(status().isOk());
+    verify(revokedTokens).add("opaque-token");
+    verify(authCache).invalidateToken("opaque-token");
+  }
+
+  @Test
+  void testRevokeUnknownToken() throws Exception {
+    // Arrange
+    when(tokenRepository.revoke(eq("unknown-token"), any())).thenReturn(0);
+
+    // Act & Assert
+    mockMvc.perform(post("/revoke").header("token", "unknown-token"))
+        .andExpect(status().isNotFound());
+    verifyNoInteractions(revokedTokens);
+  }
+
+  @Test
+  void testRevokeSignedTokenRevokesItsId() throws Exception {
+    // Arrange
+    when(tokenSigner.verify("v1.signed")).thenReturn(Optional.of(
+        new TokenSigner.Claims(7, 3, OffsetDateTime.now().plusDays(1), "TOKENID")));
+    String storedId = TokenSigner.storedTokenId("TOKENID");
+    when(tokenRepository.revoke(eq(storedId), any())).thenReturn(1);
+
+    // Act & Assert
+    mockMvc.perform(post("/revoke").header("token", "v1.signed"))
+        .andExpect(status().isOk());
+    verify(revokedTokens).add(storedId);
+  }
 }